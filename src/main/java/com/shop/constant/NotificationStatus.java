@@ -0,0 +1,5 @@
+package com.shop.constant;
+
+public enum NotificationStatus {
+    PENDING, SENT, FAILED
+}
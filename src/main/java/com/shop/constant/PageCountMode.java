@@ -0,0 +1,5 @@
+package com.shop.constant;
+
+public enum PageCountMode {
+    EXACT, CACHED, HAS_NEXT
+}
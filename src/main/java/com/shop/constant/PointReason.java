@@ -0,0 +1,5 @@
+package com.shop.constant;
+
+public enum PointReason {
+    ORDER, CANCEL, RETURN, OPENING
+}
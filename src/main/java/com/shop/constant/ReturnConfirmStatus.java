@@ -0,0 +1,5 @@
+package com.shop.constant;
+
+public enum ReturnConfirmStatus {
+    CONFIRMED, ALREADY_CONFIRMED, NOT_REQUESTED, NOT_FOUND
+}
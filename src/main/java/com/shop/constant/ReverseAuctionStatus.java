@@ -0,0 +1,5 @@
+package com.shop.constant;
+
+public enum ReverseAuctionStatus {
+    PROGRESS, END, SOLD
+}
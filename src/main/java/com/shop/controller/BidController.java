@@ -7,7 +7,8 @@ import com.shop.dto.ReverseAuctionDto;
 import com.shop.entity.Bid;
 import com.shop.entity.Member;
 import com.shop.repository.BidRepository;
-import com.shop.repository.MemberRepository;
+import com.shop.repository.MemberIdentityCache;
+import com.shop.service.BidIngestion;
 import com.shop.service.BidService;
 import com.shop.service.ReverseAuctionService;
 import lombok.RequiredArgsConstructor;
@@ -19,28 +20,32 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.ModelAndView;
 
 import javax.persistence.EntityNotFoundException;
 import java.security.Principal;
 import java.text.DecimalFormat;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequiredArgsConstructor
 public class BidController {
 
-    private final MemberRepository memberRepository;
+    private final MemberIdentityCache memberIdentityCache;
 
     private final ReverseAuctionService reverseAuctionService;
 
     private final BidService bidService;
 
+    private final BidIngestion bidIngestion;
+
     private final BidRepository bidRepository;
 
     @GetMapping(value = "/bid/{reverseAuctionId}")
     public String bidPayment(@PathVariable("reverseAuctionId") Long reverseAuctionId, Principal principal, Model model) {
-        Member member = memberRepository.findByEmail(principal.getName());
+        Member member = memberIdentityCache.getReference(principal.getName());
         ReverseAuctionDto reverseAuctionDto = reverseAuctionService.getReverseAuctionDtl(reverseAuctionId);
 
         model.addAttribute("member", member);
@@ -49,30 +54,30 @@ public class BidController {
         return "bid/bidPayment";
     }
 
+    // 무통장 입금 입찰은 접수 큐에 넣고 저장되면 응답 (요청 스레드는 기다리지 않음)
     @PostMapping(value = "/bid/{reverseAuctionId}")
-    public String bidPaymentProcess(@PathVariable("reverseAuctionId") Long reverseAuctionId, @RequestParam Map<String, String> paramMap, Principal principal, Model model) {
+    public CompletableFuture<ModelAndView> bidPaymentProcess(@PathVariable("reverseAuctionId") Long reverseAuctionId, @RequestParam Map<String, String> paramMap, Principal principal) {
         BidDepositType bidDepositType = BidDepositType.valueOf(paramMap.get("bidDepositType").toUpperCase());
 
-        Member member = memberRepository.findByEmail(principal.getName());
-
-        Bid bid;
-
         if(bidDepositType.equals(BidDepositType.KAKAO_PAY)) {
             Long payId = Long.parseLong(paramMap.get("tid").substring(1));
 
-            bid = bidService.saveBidWithPayment(member.getEmail(), reverseAuctionId, payId);
-        } else {
-            bid = bidService.saveBid(member.getEmail(), reverseAuctionId);
+            return CompletableFuture.completedFuture(this.bidComplete(bidService.saveBidWithPayment(principal.getName(), reverseAuctionId, payId)));
         }
 
-        model.addAttribute("bid", bid);
+        return bidIngestion.submit(principal.getName(), reverseAuctionId).thenApply(this::bidComplete);
+    }
+
+    private ModelAndView bidComplete(Bid bid) {
+        ModelAndView modelAndView = new ModelAndView("bid/bidComplete");
+        modelAndView.addObject("bid", bid);
 
-        return "bid/bidComplete";
+        return modelAndView;
     }
 
     @GetMapping(value = {"/bids","/bids/{page}"})
     public String bidList(BidSearchDto bidSearchDto, @PathVariable("page") Optional<Integer> page, Principal principal, Model model) {
-        Member member = memberRepository.findByEmail(principal.getName());
+        Member member = memberIdentityCache.getReference(principal.getName());
 
         Pageable pageable = PageRequest.of(page.isPresent() ? page.get() : 0, 5);
         Page<BidDto> bidDtoList = bidService.getUserBidPage(principal.getName(), bidSearchDto, pageable);
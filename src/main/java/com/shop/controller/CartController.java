@@ -4,6 +4,7 @@ import com.shop.dto.CartDetailDto;
 import com.shop.dto.CartItemDto;
 import com.shop.dto.CartOrderDto;
 import com.shop.repository.MemberRepository;
+import com.shop.repository.OrderRequestDeduplicator;
 import com.shop.service.CartService;
 import com.shop.service.EmailService;
 import com.shop.service.MemberService;
@@ -11,6 +12,7 @@ import com.shop.service.SmsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -19,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.List;
 
 @Controller
@@ -26,6 +29,7 @@ import java.util.List;
 public class CartController {
 
     private final CartService cartService;
+    private final OrderRequestDeduplicator orderRequestDeduplicator;
 
     @PostMapping(value = "/cart")
     public @ResponseBody ResponseEntity order(@RequestBody @Valid CartItemDto cartItemDto, BindingResult bindingResult, Principal principal) {
@@ -43,15 +47,15 @@ public class CartController {
 
         String email = principal.getName();
 
-        Long cartItemId;
+        Long itemId;
 
         try {
-            cartItemId = cartService.addCart(cartItemDto, email);
+            itemId = cartService.addCart(cartItemDto, email);
         } catch(Exception e) {
             return new ResponseEntity<String>(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
 
-        return new ResponseEntity<Long>(cartItemId, HttpStatus.OK);
+        return new ResponseEntity<Long>(itemId, HttpStatus.OK);
     }
 
     @GetMapping(value = "/cart")
@@ -63,45 +67,62 @@ public class CartController {
         return "cart/cartList";
     }
 
-    @PatchMapping(value = "/cartItem/{cartItemId}")
-    public @ResponseBody ResponseEntity updateCartItem(@PathVariable("cartItemId") Long cartItemId, int count, Principal principal) {
+    // 장바구니 상품은 상품 아이디로 구분 (로그인한 회원의 장바구니에 없는 상품이면 FORBIDDEN)
+    @PatchMapping(value = "/cartItem/{itemId}")
+    public @ResponseBody ResponseEntity updateCartItem(@PathVariable("itemId") Long itemId, int count, Principal principal) {
         if(count <= 0) {
             return new ResponseEntity<String>("최소 1개 이상 담아주세요", HttpStatus.BAD_REQUEST);
-        } else if(!cartService.validateCartItem(cartItemId, principal.getName())) {
+        } else if(!cartService.updateCartItemCount(principal.getName(), itemId, count)) {
             return new ResponseEntity<String>("수정 권한이 없습니다.", HttpStatus.FORBIDDEN);
         }
 
-        cartService.updateCartItemCount(cartItemId, count);
-
-        return new ResponseEntity<Long>(cartItemId, HttpStatus.OK);
+        return new ResponseEntity<Long>(itemId, HttpStatus.OK);
     }
 
-    @DeleteMapping(value = "/cartItem/{cartItemId}")
-    public @ResponseBody ResponseEntity deleteCartItem(@PathVariable("cartItemId") Long cartItemId, Principal principal) {
-        if(!cartService.validateCartItem(cartItemId, principal.getName())) {
+    @DeleteMapping(value = "/cartItem/{itemId}")
+    public @ResponseBody ResponseEntity deleteCartItem(@PathVariable("itemId") Long itemId, Principal principal) {
+        if(!cartService.deleteCartItem(principal.getName(), itemId)) {
             return new ResponseEntity<String>("수정 권한이 없습니다.", HttpStatus.FORBIDDEN);
         }
 
-        cartService.deleteCartItem(cartItemId);
-
-        return new ResponseEntity<Long>(cartItemId, HttpStatus.OK);
+        return new ResponseEntity<Long>(itemId, HttpStatus.OK);
     }
 
     @PostMapping(value = "/cart/orders")
-    public @ResponseBody ResponseEntity orderCartItem(@RequestBody CartOrderDto cartOrderDto, Principal principal) {
+    public @ResponseBody ResponseEntity orderCartItem(@RequestBody CartOrderDto cartOrderDto, Principal principal,
+                                                      @RequestHeader(value = "Idempotency-Key", required = false) String requestKey) {
         List<CartOrderDto> cartOrderDtoList = cartOrderDto.getCartOrderDtoList();
 
         if(cartOrderDtoList == null || cartOrderDtoList.size() == 0) {
             return new ResponseEntity<String>("주문할 상품을 선택해주세요", HttpStatus.FORBIDDEN);
         }
 
+        List<Long> itemIds = new ArrayList<>();
+
         for(CartOrderDto cartOrder : cartOrderDtoList) {
-            if(!cartService.validateCartItem(cartOrder.getCartItemId(), principal.getName())) {
-                return new ResponseEntity<String>("주문 권한이 없습니다.", HttpStatus.FORBIDDEN);
-            }
+            itemIds.add(cartOrder.getItemId());
+        }
+
+        if(requestKey != null && requestKey.length() > 64) {
+            return new ResponseEntity<String>("잘못된 주문 요청입니다.", HttpStatus.BAD_REQUEST);
         }
 
-        Long orderId = cartService.orderCartItem(cartOrderDtoList, principal.getName(), cartOrderDto.getUsedPoint());
+        String email = principal.getName();
+
+        Long orderId;
+
+        try {
+            // 같은 요청 키로 다시 들어온 주문은 장바구니 확인 없이 처음 주문 아이디를 돌려줌 (주문한 장바구니 상품은 이미 삭제됨)
+            orderId = orderRequestDeduplicator.submit(email, requestKey, () -> {
+                if(!cartService.validateCartItems(itemIds, email)) {
+                    throw new AccessDeniedException("주문 권한이 없습니다.");
+                }
+
+                return cartService.orderCartItem(cartOrderDtoList, email, cartOrderDto.getUsedPoint(), requestKey);
+            });
+        } catch (AccessDeniedException e) {
+            return new ResponseEntity<String>(e.getMessage(), HttpStatus.FORBIDDEN);
+        }
 
         return new ResponseEntity<Long>(orderId, HttpStatus.OK);
     }
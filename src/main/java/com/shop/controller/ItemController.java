@@ -10,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -136,15 +137,32 @@ public class ItemController {
     }
 
     @GetMapping(value = { "/items", "/items/{page}" })
-    public String itemList(ItemComplexSearchDto itemComplexSearchDto, Optional<Integer> page, Model model) {
-        Pageable pageable = PageRequest.of(page.isPresent() ? page.get() : 0, 10);
-        Page<MainItemDto> items = itemService.getComplexSearchPage(itemComplexSearchDto, pageable);
-
+    public String itemList(ItemComplexSearchDto itemComplexSearchDto, Optional<Integer> page,
+                           @RequestParam(value = "cursor", required = false) String cursor, Model model) {
         model.addAttribute("categoryList", categoryService.getCategoryList());
         model.addAttribute("tagList", tagService.getTagList());
         model.addAttribute("itemComplexSearchDto", itemComplexSearchDto);
+        model.addAttribute("tagFacetCounts", itemService.getTagFacetCounts(itemComplexSearchDto.getSearchCategory(), itemComplexSearchDto.getSearchQuery()));
+
+        // 커서가 있으면 offset 대신 keyset 으로 조회 (깊은 페이지에서도 일정한 비용)
+        if(cursor != null) {
+            ItemCursorPageDto cursorPage = itemService.getComplexSearchCursorPage(itemComplexSearchDto, cursor, 10);
+
+            model.addAttribute("items", new SliceImpl<>(cursorPage.getContent()));
+            model.addAttribute("prevCursor", cursorPage.getPrevCursor());
+            model.addAttribute("nextCursor", cursorPage.getNextCursor());
+            model.addAttribute("cursorMode", true);
+
+            return "item/itemList";
+        }
+
+        Pageable pageable = PageRequest.of(page.isPresent() ? page.get() : 0, 10);
+        Page<MainItemDto> items = itemService.getComplexSearchPage(itemComplexSearchDto, pageable);
+
         model.addAttribute("items", items);
         model.addAttribute("maxPage", 5);
+        model.addAttribute("nextCursor", itemService.getNextCursor(itemComplexSearchDto, items));
+        model.addAttribute("cursorMode", false);
 
         return "item/itemList";
     }
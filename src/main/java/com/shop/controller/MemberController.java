@@ -8,7 +8,9 @@ import com.shop.entity.AuthToken;
 import com.shop.entity.Member;
 import com.shop.entity.OAuth2Member;
 import com.shop.mapstruct.MemberUpdateFormMapper;
+import com.shop.repository.MemberIdentityCache;
 import com.shop.repository.MemberRepository;
+import com.shop.repository.MemberSummaryCache;
 import com.shop.repository.OAuth2MemberRepository;
 import com.shop.service.AuthTokenService;
 import com.shop.service.EmailService;
@@ -41,6 +43,8 @@ public class MemberController {
 
     private final MemberUpdateFormMapper memberUpdateFormMapper;
     private final MemberRepository memberRepository;
+    private final MemberSummaryCache memberSummaryCache;
+    private final MemberIdentityCache memberIdentityCache;
     private final MemberService memberService;
     private final OAuth2MemberRepository oAuth2MemberRepository;
     private final PasswordEncoder passwordEncoder;
@@ -144,6 +148,9 @@ public class MemberController {
             }
 
             memberRepository.save(member);
+
+            memberSummaryCache.evict(member.getEmail());
+            memberIdentityCache.evict(member.getEmail());
         } catch(IllegalStateException e) {
             log.error(e.getMessage(), e);
 
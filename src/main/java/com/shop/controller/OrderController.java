@@ -1,10 +1,13 @@
 package com.shop.controller;
 
 import com.shop.constant.GiftStatus;
+import com.shop.constant.ReturnConfirmStatus;
+import com.shop.constant.ReturnStatus;
 import com.shop.dto.OrderDto;
 import com.shop.dto.OrderHistDto;
 import com.shop.entity.Order;
 import com.shop.repository.MemberRepository;
+import com.shop.repository.OrderRequestDeduplicator;
 import com.shop.service.EmailService;
 import com.shop.service.OrderService;
 import com.shop.service.SmsService;
@@ -13,6 +16,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -24,7 +28,9 @@ import org.springframework.web.bind.annotation.*;
 import javax.validation.Valid;
 import java.security.Principal;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -35,9 +41,11 @@ import java.util.Optional;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderRequestDeduplicator orderRequestDeduplicator;
 
     @PostMapping(value = "/order")
-    public @ResponseBody ResponseEntity order(@RequestBody @Valid OrderDto orderDto, BindingResult bindingResult, Principal principal) {
+    public @ResponseBody ResponseEntity order(@RequestBody @Valid OrderDto orderDto, BindingResult bindingResult, Principal principal,
+                                              @RequestHeader(value = "Idempotency-Key", required = false) String requestKey) {
         if(bindingResult.hasErrors()) {
             List<FieldError> fieldErrors = bindingResult.getFieldErrors();
 
@@ -50,12 +58,17 @@ public class OrderController {
             return new ResponseEntity<String>(sb.toString(), HttpStatus.BAD_REQUEST);
         }
 
+        if(requestKey != null && requestKey.length() > 64) {
+            return new ResponseEntity<String>("잘못된 주문 요청입니다.", HttpStatus.BAD_REQUEST);
+        }
+
         String email = principal.getName();
 
         Long orderId;
 
         try {
-            orderId = orderService.order(orderDto, email);
+            // 같은 요청 키로 다시 들어온 주문은 처음 주문 아이디를 돌려줌
+            orderId = orderRequestDeduplicator.submit(email, requestKey, () -> orderService.order(orderDto, email, requestKey));
         } catch(Exception e) {
             log.error(e.getMessage(), e);
 
@@ -129,15 +142,23 @@ public class OrderController {
         return "order/orderReturn";
     }
 
-    @PostMapping("/order/return/confirm")
+    @PostMapping("/admin/order/return/confirm")
     public @ResponseBody ResponseEntity returnOrderconfirm(@RequestBody Map<String, Object> paramMap) {
-        List<String> orderIdList = (List<String>) paramMap.get("orderId");
+        List<Object> orderIdList = (List<Object>) paramMap.get("orderId");
+
+        if(orderIdList == null || orderIdList.isEmpty()) {
+            return new ResponseEntity<String>("항목을 선택 하신 후 확인 처리 하시기 바랍니다.", HttpStatus.BAD_REQUEST);
+        }
+
+        List<Long> orderIds = new ArrayList<>();
 
-        for (String orderId : orderIdList) {
-            orderService.confirmReturn(Long.valueOf(orderId));
+        for (Object orderId : new LinkedHashSet<>(orderIdList)) {
+            orderIds.add(Long.valueOf(String.valueOf(orderId)));
         }
 
-        return new ResponseEntity<String>("처리 완료되었습니다.", HttpStatus.OK);
+        Map<Long, ReturnConfirmStatus> results = orderService.confirmReturns(orderIds);
+
+        return new ResponseEntity<Map<Long, ReturnConfirmStatus>>(results, HttpStatus.OK);
     }
 
     @GetMapping(value = {"/returns", "/returns/{page}"})
@@ -152,4 +173,18 @@ public class OrderController {
         return "order/orderReturnHist";
     }
 
+    // 관리자 반품 관리 (전체 회원, 주문 아이디 기준 다음 목록 조회)
+    @GetMapping("/admin/returns")
+    public String returnsMng(@RequestParam(name = "returnStatus", required = false) ReturnStatus returnStatus,
+                             @RequestParam(name = "lastOrderId", required = false) Long lastOrderId, Model model) {
+        Slice<OrderHistDto> returns = orderService.getReturnMngList(returnStatus, lastOrderId, 10);
+        List<OrderHistDto> content = returns.getContent();
+
+        model.addAttribute("returns", returns);
+        model.addAttribute("returnStatus", returnStatus);
+        model.addAttribute("nextOrderId", content.isEmpty() ? null : content.get(content.size() - 1).getOrderId());
+
+        return "order/orderReturnMng";
+    }
+
 }
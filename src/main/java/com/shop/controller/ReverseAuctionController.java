@@ -4,17 +4,22 @@ import com.shop.dto.*;
 import com.shop.entity.ReverseAuction;
 import com.shop.repository.ReverseAuctionRepository;
 import com.shop.service.ItemService;
+import com.shop.service.ReverseAuctionFeed;
 import com.shop.service.ReverseAuctionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.persistence.EntityNotFoundException;
 import javax.validation.Valid;
@@ -31,6 +36,8 @@ public class ReverseAuctionController {
 
     private final ReverseAuctionRepository reverseAuctionRepository;
 
+    private final ReverseAuctionFeed reverseAuctionFeed;
+
     @GetMapping(value = {"/rauctions", "/rauctions/{page}"})
     public String reverseAuctionList(ReverseAuctionSearchDto reverseAuctionSearchDto, @PathVariable("page") Optional<Integer> page, Model model) {
         Pageable pageable = PageRequest.of(page.isPresent() ? page.get() : 0, 6);
@@ -45,6 +52,12 @@ public class ReverseAuctionController {
         return "reverseAuction/reverseAuctionList";
     }
 
+    // 목록 / 상세 화면의 현재 가격 실시간 갱신 (가격이 바뀔 때만 전달)
+    @GetMapping(value = "/rauctions/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public @ResponseBody SseEmitter reverseAuctionFeed(@RequestParam("ids") List<Long> ids) {
+        return reverseAuctionFeed.subscribe(ids);
+    }
+
     @GetMapping(value = "/rauction/{reverseAuctionId}")
     public String reverseAuctionDtl(@PathVariable("reverseAuctionId") Long reverseAuctionId, Model model) {
         ReverseAuctionDto reverseAuctionDto = reverseAuctionService.getReverseAuctionDtl(reverseAuctionId);
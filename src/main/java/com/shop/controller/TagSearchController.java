@@ -28,7 +28,8 @@ public class TagSearchController {
     private final TagService tagService;
 
     @GetMapping(value = "/detailSearch")
-    public String detailSearch(ItemSearchDto itemSearchDto, Optional<Integer> page, Model model, @RequestParam(value = "filter", required = false) String filter){
+    public String detailSearch(ItemSearchDto itemSearchDto, Optional<Integer> page, Model model, @RequestParam(value = "filter", required = false) String filter,
+                               @RequestParam(value = "filterMode", required = false, defaultValue = "or") String filterMode){
         String[] filters = new String[] {};
 
         if(filter != null && !filter.equals("")) {
@@ -36,9 +37,23 @@ public class TagSearchController {
         }
 
         Pageable pageable = PageRequest.of(page.isPresent() ? page.get() : 0, 6);
-        Page<MainItemDto> items = itemService.getDetailSearchPage(filters, itemSearchDto, pageable);
+        boolean tagMatchAll = "and".equals(filterMode);
+
+        Page<MainItemDto> items = itemService.getDetailSearchPage(filters, tagMatchAll, itemSearchDto, pageable);
+
+        // 태그 버튼에 표시할 태그별 상품 수 (태그명 기준)
+        Map<String, Integer> tagFacetCounts = new HashMap<>();
+        Map<Long, Integer> facetCounts = itemService.getTagFacetCounts(null, itemSearchDto.getSearchQuery());
+
+        if(facetCounts != null) {
+            for(Tag tag : tagService.getTagList()) {
+                tagFacetCounts.put(tag.getTagNm(), facetCounts.getOrDefault(tag.getId(), 0));
+            }
+        }
 
         model.addAttribute("filters", filters);
+        model.addAttribute("filterMode", tagMatchAll ? "and" : "or");
+        model.addAttribute("tagFacetCounts", tagFacetCounts);
         model.addAttribute("items", items);
         model.addAttribute("itemSearchDto", itemSearchDto);
         model.addAttribute("maxPage", 5);
@@ -9,7 +9,7 @@ import lombok.ToString;
 @ToString
 public class CartDetailDto {
 
-    private Long cartItemId;
+    private Long itemId;
 
     private String itemNm;
 
@@ -21,12 +21,11 @@ public class CartDetailDto {
 
     private String imgUrl;
 
-    public CartDetailDto(Long cartItemId, String itemNm, int price, int shippingFee, int count, String imgUrl) {
-        this.cartItemId = cartItemId;
+    public CartDetailDto(Long itemId, String itemNm, int price, int shippingFee, String imgUrl) {
+        this.itemId = itemId;
         this.itemNm = itemNm;
         this.price = price;
         this.shippingFee = shippingFee;
-        this.count = count;
         this.imgUrl = imgUrl;
     }
 
@@ -11,7 +11,7 @@ import java.util.List;
 @ToString
 public class CartOrderDto {
 
-    private Long cartItemId;
+    private Long itemId;
 
     private List<CartOrderDto> cartOrderDtoList;
     
@@ -26,4 +26,11 @@ public class DiscountDto {
         this.currentDiscountRate = (int) Math.round((double) this.currentDiscountPrice / startPrice * 100);
     }
 
+    // 이미 계산된 현재 가격 (ReverseAuctionTimeline)
+    public DiscountDto(Integer startPrice, Integer currentPrice) {
+        this.currentPrice = currentPrice;
+        this.currentDiscountPrice = startPrice - currentPrice;
+        this.currentDiscountRate = (int) Math.round((double) this.currentDiscountPrice / startPrice * 100);
+    }
+
 }
\ No newline at end of file
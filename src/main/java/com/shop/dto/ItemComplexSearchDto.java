@@ -17,6 +17,8 @@ public class ItemComplexSearchDto {
 
     private List<Long> searchTagIds;
 
+    private boolean searchTagMatchAll = false; // true 이면 선택한 태그를 모두 포함하는 상품만 조회
+
     private String searchQuery = "";
 
     private ItemComplexSearchSortColumn sortColumn = ItemComplexSearchSortColumn.REG_TIME;
@@ -0,0 +1,26 @@
+package com.shop.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+public class ItemCursorPageDto {
+
+    private List<MainItemDto> content;
+
+    private String prevCursor;
+
+    private String nextCursor;
+
+    public ItemCursorPageDto(List<MainItemDto> content, String prevCursor, String nextCursor) {
+        this.content = content;
+        this.prevCursor = prevCursor;
+        this.nextCursor = nextCursor;
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.shop.dto;
+
+import com.shop.constant.ItemComplexSearchSortColumn;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.data.domain.Sort;
+import org.thymeleaf.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Getter
+@ToString
+public class ItemSearchCursor {
+
+    private final ItemComplexSearchSortColumn sortColumn;
+
+    private final Sort.Direction sortDirection;
+
+    private final Long id; // 기준 상품 아이디 (tie-breaker)
+
+    private final String value; // 기준 정렬 컬럼 값
+
+    private final boolean backward; // 이전 페이지 방향 여부
+
+    public ItemSearchCursor(ItemComplexSearchSortColumn sortColumn, Sort.Direction sortDirection, Long id, String value, boolean backward) {
+        this.sortColumn = sortColumn;
+        this.sortDirection = sortDirection;
+        this.id = id;
+        this.value = value;
+        this.backward = backward;
+    }
+
+    public static ItemSearchCursor of(ItemComplexSearchDto itemComplexSearchDto, MainItemDto mainItemDto, boolean backward) {
+        ItemComplexSearchSortColumn sortColumn = itemComplexSearchDto.getSortColumn();
+
+        String value = null;
+
+        if(sortColumn.equals(ItemComplexSearchSortColumn.REG_TIME)) {
+            value = mainItemDto.getRegTime().toString();
+        } else if(sortColumn.equals(ItemComplexSearchSortColumn.NAME)) {
+            value = mainItemDto.getItemNm();
+        } else if(sortColumn.equals(ItemComplexSearchSortColumn.PRICE)) {
+            value = String.valueOf(mainItemDto.getPrice());
+        }
+
+        return new ItemSearchCursor(sortColumn, itemComplexSearchDto.getSortDirection(), mainItemDto.getId(), value, backward);
+    }
+
+    public boolean matches(ItemComplexSearchDto itemComplexSearchDto) {
+        return sortColumn.equals(itemComplexSearchDto.getSortColumn()) && sortDirection.equals(itemComplexSearchDto.getSortDirection());
+    }
+
+    public String encode() {
+        String raw = sortColumn.name() + ":" + sortDirection.name() + ":" + id + ":" + (backward ? "B" : "F") + ":" + value;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 잘못된 커서는 첫 페이지로 처리하기 위해 null 반환
+    public static ItemSearchCursor decode(String cursor) {
+        if(StringUtils.isEmpty(cursor)) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] tokens = raw.split(":", 5);
+
+            return new ItemSearchCursor(
+                    ItemComplexSearchSortColumn.valueOf(tokens[0]),
+                    Sort.Direction.valueOf(tokens[1]),
+                    Long.valueOf(tokens[2]),
+                    tokens[4],
+                    "B".equals(tokens[3]));
+        } catch(RuntimeException e) {
+            return null;
+        }
+    }
+
+}
@@ -5,6 +5,8 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.time.LocalDateTime;
+
 @Getter
 @Setter
 @ToString
@@ -22,6 +24,8 @@ public class MainItemDto {
 
     private Integer shippingFee;
 
+    private LocalDateTime regTime;
+
     @QueryProjection
     public MainItemDto(Long id, String itemNm, String itemDetail, String imgUrl, Integer price, Integer shippingFee) {
         this.id = id;
@@ -32,4 +36,10 @@ public class MainItemDto {
         this.shippingFee = shippingFee;
     }
 
+    @QueryProjection
+    public MainItemDto(Long id, String itemNm, String itemDetail, String imgUrl, Integer price, Integer shippingFee, LocalDateTime regTime) {
+        this(id, itemNm, itemDetail, imgUrl, price, shippingFee);
+        this.regTime = regTime;
+    }
+
 }
@@ -3,11 +3,11 @@ package com.shop.dto;
 import com.shop.constant.GiftStatus;
 import com.shop.constant.OrderStatus;
 import com.shop.constant.ReturnStatus;
-import com.shop.entity.Order;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
@@ -41,28 +41,35 @@ public class OrderHistDto {
 
     private List<OrderItemDto> orderItemDtoList = new ArrayList<>();
 
-    public OrderHistDto(Order order) {
-        this.orderId = order.getId();
-        this.orderDate = order.getOrderDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
-        this.orderStatus = order.getOrderStatus();
-        this.usedPoint = order.getUsedPoint();
-        this.accPoint = order.getAccPoint();
-        this.totalPrice = order.getTotalPrice();
-        this.orderAddress = order.getAddress();
-        this.returnStatus = order.getReturnStatus();
-        this.giftStatus = order.getGiftStatus();
-
-        if(order.getReturnReqDate() != null ) {
-            this.returnReqDate = order.getReturnReqDate().format(DateTimeFormatter.ofPattern("yyyy-mm-dd HH:mm"));
+    private LocalDateTime orderDateTime; // 보관 주문 조회 여부 판단용
+
+    // OrderRepository 의 주문 내역 조회 결과 (총 주문 금액은 주문 상품을 더할 때 계산)
+    public OrderHistDto(Long orderId, LocalDateTime orderDate, OrderStatus orderStatus, int usedPoint, int accPoint, String orderAddress,
+                        LocalDateTime returnReqDate, LocalDateTime returnConfirmDate, ReturnStatus returnStatus, GiftStatus giftStatus) {
+        this.orderId = orderId;
+        this.orderDate = orderDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+        this.orderDateTime = orderDate;
+        this.orderStatus = orderStatus;
+        this.usedPoint = usedPoint;
+        this.accPoint = accPoint;
+        this.totalPrice = 0;
+        this.orderAddress = orderAddress;
+        this.returnStatus = returnStatus;
+        this.giftStatus = giftStatus;
+
+        if(returnReqDate != null ) {
+            this.returnReqDate = returnReqDate.format(DateTimeFormatter.ofPattern("yyyy-mm-dd HH:mm"));
         }
 
-        if(order.getReturnConfirmDate() != null ) {
-            this.returnConfirmDate = order.getReturnConfirmDate().format(DateTimeFormatter.ofPattern("yyyy-mm-dd HH:mm"));
+        if(returnConfirmDate != null ) {
+            this.returnConfirmDate = returnConfirmDate.format(DateTimeFormatter.ofPattern("yyyy-mm-dd HH:mm"));
         }
     }
 
     public void addOrderItemDto(OrderItemDto orderItemDto) {
         orderItemDtoList.add(orderItemDto);
+
+        this.totalPrice += orderItemDto.getOrderPrice() * orderItemDto.getCount() + orderItemDto.getOrderShippingFee();
     }
 
 }
@@ -1,11 +1,11 @@
 package com.shop.dto;
 
 import com.shop.constant.ReturnStatus;
-import com.shop.entity.OrderItem;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 @Getter
@@ -13,6 +13,8 @@ import java.time.format.DateTimeFormatter;
 @ToString
 public class OrderItemDto {
 
+    private Long orderId;
+
     private String itemNm;
 
     private int count;
@@ -39,25 +41,28 @@ public class OrderItemDto {
 
     private ReturnStatus returnStatus;
 
-    public OrderItemDto(OrderItem orderItem, String imgUrl) {
-        this.itemNm = orderItem.getItem().getItemNm();
-        this.count = orderItem.getCount();
-        this.orderPrice = orderItem.getOrderPrice();
-        this.orderShippingFee = orderItem.getItem().getShippingFee();
+    // OrderRepository 의 주문 상품 조회 결과
+    public OrderItemDto(Long orderId, Long orderItemId, String itemNm, int count, int orderPrice, int orderShippingFee, String imgUrl, String comment,
+                        String reviewYn, int returnCount, int returnPrice, LocalDateTime returnReqDate, LocalDateTime returnConfirmDate, ReturnStatus returnStatus) {
+        this.orderId = orderId;
+        this.orderItemId = orderItemId;
+        this.itemNm = itemNm;
+        this.count = count;
+        this.orderPrice = orderPrice;
+        this.orderShippingFee = orderShippingFee;
         this.imgUrl = imgUrl;
-        this.comment = orderItem.getComment();
-        this.orderItemId = orderItem.getId();
-        this.reviewYn = orderItem.getReviewYn();
-        this.returnCount = orderItem.getReturnCount();
-        this.returnPrice = orderItem.getReturnPrice();
-        this.returnStatus = orderItem.getReturnStatus();
-
-        if(orderItem.getReturnReqDate() != null) {
-            this.returnReqDate = orderItem.getReturnReqDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+        this.comment = comment;
+        this.reviewYn = reviewYn;
+        this.returnCount = returnCount;
+        this.returnPrice = returnPrice;
+        this.returnStatus = returnStatus;
+
+        if(returnReqDate != null) {
+            this.returnReqDate = returnReqDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
         }
-        
-        if(orderItem.getReturnConfirmDate() != null) {
-            this.returnConfirmDate = orderItem.getReturnConfirmDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+
+        if(returnConfirmDate != null) {
+            this.returnConfirmDate = returnConfirmDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
         }
     }
 
@@ -8,7 +8,7 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bid")
+@Table(name = "bid", uniqueConstraints = @UniqueConstraint(name = "uk_bid_winning_rauction", columnNames = "winning_rauction_id"))
 @Getter
 @Setter
 public class Bid extends BaseEntity {
@@ -41,4 +41,7 @@ public class Bid extends BaseEntity {
 
     private LocalDateTime approvedTime; // 확인(낙찰) 시간
 
+    @Column(name = "winning_rauction_id")
+    private Long winningReverseAuctionId; // 낙찰된 역경매 코드 (낙찰된 입찰만 채움, 역경매당 하나)
+
 }
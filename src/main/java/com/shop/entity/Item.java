@@ -2,15 +2,16 @@ package com.shop.entity;
 
 import com.shop.constant.ItemSellStatus;
 import com.shop.dto.ItemFormDto;
-import com.shop.exception.OutOfStockException;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 
 @Entity
 @Table(name = "item")
+@DynamicUpdate // 재고는 StockReservation 이 반영하므로 변경된 컬럼만 update
 @Getter
 @Setter
 @ToString
@@ -45,6 +46,9 @@ public class Item extends BaseEntity {
     @Column(nullable = false)
     private Integer shippingFee; // 배송비
 
+    @Column(name = "rep_img_url")
+    private String repImgUrl; // 대표 이미지 조회 경로 (목록 조회 시 item_img 조인 제거용)
+
     public static Item createItem(ItemFormDto itemFormDto, Category category) {
         Item item = new Item();
         item.setItemNm(itemFormDto.getItemNm());
@@ -58,28 +62,14 @@ public class Item extends BaseEntity {
         return item;
     }
 
+    // 재고 수량은 StockReservation 으로 변경
     public void updateItem(ItemFormDto itemFormDto, Category category) {
         this.itemNm = itemFormDto.getItemNm();
         this.category = category;
         this.price = itemFormDto.getPrice();
-        this.stockNumber = itemFormDto.getStockNumber();
         this.itemDetail = itemFormDto.getItemDetail();
         this.itemSellStatus = itemFormDto.getItemSellStatus();
         this.shippingFee = itemFormDto.getShippingFee();
     }
 
-    public void removeStock(int stockNumber) {
-        int restStock = this.stockNumber - stockNumber;
-
-        if(restStock < 0) {
-            throw new OutOfStockException("상품 재고가 부족 합니다. (현재 재고 수량: " + this.stockNumber + ")");
-        }
-
-        this.stockNumber = restStock;
-    }
-
-    public void addStock(int stockNumber) {
-        this.stockNumber += stockNumber;
-    }
-
 }
@@ -7,12 +7,15 @@ import com.shop.dto.MemberFormDto;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import javax.persistence.*;
 
+// 포인트는 PointService 에서 point = point + delta 로만 변경하므로, 회원 정보 수정 시 바뀐 컬럼만 update
 @Entity
 @Table(name="member")
+@DynamicUpdate
 @Getter
 @Setter
 @ToString
@@ -80,8 +83,4 @@ public class Member extends BaseEntity {
         return member;
     }
 
-    public void updatePoint(int accPoint, int usedPoint) {
-        this.point = this.point - accPoint + usedPoint;
-    }
-
 }
@@ -0,0 +1,78 @@
+package com.shop.entity;
+
+import com.shop.constant.NoticeType;
+import com.shop.constant.NotificationStatus;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 주문 트랜잭션에서 함께 저장하고, NotificationDispatcher 가 꺼내 발송하는 알림
+@Entity
+@Table(name = "notification_outbox", indexes = @Index(name = "idx_notification_outbox_status", columnList = "status, next_attempt_time"))
+@Getter
+@Setter
+@ToString
+public class NotificationOutbox extends BaseEntity {
+
+    @Id
+    @Column(name = "notification_outbox_id")
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NoticeType noticeType; // 발송 채널
+
+    @Column(nullable = false)
+    private String recipient; // 이메일 주소 또는 휴대폰 번호
+
+    private String subject;
+
+    @Lob
+    @Column(nullable = false)
+    private String content;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationStatus status;
+
+    @Column(name = "attempt_count", nullable = false)
+    private int attemptCount;
+
+    @Column(name = "next_attempt_time", nullable = false)
+    private LocalDateTime nextAttemptTime;
+
+    @Column(name = "sent_time")
+    private LocalDateTime sentTime;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    public static NotificationOutbox createNotification(NoticeType noticeType, String recipient, String subject, String content) {
+        NotificationOutbox notification = new NotificationOutbox();
+        notification.setNoticeType(noticeType);
+        notification.setRecipient(recipient);
+        notification.setSubject(subject);
+        notification.setContent(content);
+        notification.setStatus(NotificationStatus.PENDING);
+        notification.setNextAttemptTime(LocalDateTime.now());
+
+        return notification;
+    }
+
+    // 발송 실패 시 재시도 간격을 두 배씩 늘리고, 최대 횟수를 넘으면 실패 처리
+    public void failAttempt(String error, int maxAttempts, long retryDelaySeconds) {
+        this.attemptCount += 1;
+        this.lastError = error == null || error.length() <= 500 ? error : error.substring(0, 500);
+
+        if(this.attemptCount >= maxAttempts) {
+            this.status = NotificationStatus.FAILED;
+        } else {
+            this.nextAttemptTime = LocalDateTime.now().plusSeconds(retryDelaySeconds << (this.attemptCount - 1));
+        }
+    }
+
+}
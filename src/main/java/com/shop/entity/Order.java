@@ -4,6 +4,7 @@ import com.shop.constant.GiftStatus;
 import com.shop.constant.OrderStatus;
 import com.shop.constant.ReturnStatus;
 import com.shop.dto.OrderDto;
+import com.shop.repository.StockReservation;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,7 +14,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_member_status", columnList = "member_id, order_status, order_date"),
+        @Index(name = "idx_orders_status_return", columnList = "order_status, return_status, order_id")
+})
 @Getter
 @Setter
 public class Order extends BaseEntity {
@@ -98,13 +102,11 @@ public class Order extends BaseEntity {
         return totalPrice;
     }
 
-    public void cancelOrder() {
+    public void cancelOrder(StockReservation stockReservation) {
         this.orderStatus = OrderStatus.CANCEL;
 
-        this.getMember().updatePoint(accPoint, usedPoint);
-
         for(OrderItem orderItem : orderItems) {
-            orderItem.cancel();
+            orderItem.cancel(stockReservation);
         }
     }
 
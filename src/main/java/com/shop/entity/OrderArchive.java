@@ -0,0 +1,59 @@
+package com.shop.entity;
+
+import com.shop.constant.GiftStatus;
+import com.shop.constant.OrderStatus;
+import com.shop.constant.ReturnStatus;
+import lombok.Getter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 보관 주문 (orders 와 같은 컬럼, OrderArchiveRepository 에서 SQL 로만 읽고 씀)
+@Entity
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_member", columnList = "member_id, order_date"),
+        @Index(name = "idx_orders_archive_order_date", columnList = "order_date"),
+        @Index(name = "idx_orders_archive_member_status", columnList = "member_id, order_status, order_date"),
+        @Index(name = "idx_orders_archive_status", columnList = "order_status, order_id")
+})
+@Getter
+public class OrderArchive extends BaseEntity {
+
+    @Id
+    @Column(name = "order_id")
+    private Long id;
+
+    @Column(name = "member_id", nullable = false)
+    private Long memberId;
+
+    @Column(nullable = false)
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus orderStatus;
+
+    @Column(nullable = false)
+    private String address;
+
+    @Column(nullable = false)
+    private int usedPoint;
+
+    @Column(nullable = false)
+    private int accPoint;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private GiftStatus giftStatus;
+
+    @Column(name = "return_req_date")
+    private LocalDateTime returnReqDate;
+
+    @Column(name = "return_confirm_date")
+    private LocalDateTime returnConfirmDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "return_status")
+    private ReturnStatus returnStatus;
+
+}
@@ -2,6 +2,7 @@ package com.shop.entity;
 
 import com.shop.constant.ReturnStatus;
 import com.shop.dto.ReviewFormDto;
+import com.shop.repository.StockReservation;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -53,13 +54,13 @@ public class OrderItem extends BaseEntity {
     @Column(name = "return_status")
     private ReturnStatus returnStatus;
 
-    public static OrderItem createOrderItem(Item item, int count) {
+    public static OrderItem createOrderItem(Item item, int count, StockReservation stockReservation) {
         OrderItem orderItem = new OrderItem();
         orderItem.setItem(item);
         orderItem.setCount(count);
         orderItem.setOrderPrice(item.getPrice());
         orderItem.setReviewYn("N");
-        item.removeStock(count);
+        stockReservation.reserve(item, count);
 
         return orderItem;
     }
@@ -68,8 +69,8 @@ public class OrderItem extends BaseEntity {
         return orderPrice * count + item.getShippingFee();
     }
 
-    public void cancel() {
-        this.getItem().addStock(count);
+    public void cancel(StockReservation stockReservation) {
+        stockReservation.release(this.getItem(), count);
     }
 
     public void createReview(ReviewFormDto reviewFormDto){
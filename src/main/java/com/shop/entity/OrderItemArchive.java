@@ -0,0 +1,52 @@
+package com.shop.entity;
+
+import com.shop.constant.ReturnStatus;
+import lombok.Getter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 보관 주문 상품 (order_item 과 같은 컬럼, OrderArchiveRepository 에서 SQL 로만 읽고 씀)
+@Entity
+@Table(name = "order_item_archive", indexes = @Index(name = "idx_order_item_archive_order", columnList = "order_id"))
+@Getter
+public class OrderItemArchive extends BaseEntity {
+
+    @Id
+    @Column(name = "order_item_id")
+    private Long id;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private int orderPrice;
+
+    @Column(nullable = false)
+    private int count;
+
+    @Column(nullable = false)
+    private String reviewYn;
+
+    private String comment;
+
+    @Column(name = "return_count")
+    private int returnCount;
+
+    @Column(name = "return_price")
+    private int returnPrice;
+
+    @Column(name = "return_req_date")
+    private LocalDateTime returnReqDate;
+
+    @Column(name = "return_confirm_date")
+    private LocalDateTime returnConfirmDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "return_status")
+    private ReturnStatus returnStatus;
+
+}
@@ -0,0 +1,39 @@
+package com.shop.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.*;
+
+// 주문 요청 키 (같은 키로 다시 들어온 주문은 처음 만든 주문 아이디를 돌려줌)
+@Entity
+@Table(name = "order_request", uniqueConstraints = @UniqueConstraint(name = "uk_order_request_key", columnNames = {"email", "request_key"}))
+@Getter
+@Setter
+@ToString
+public class OrderRequest extends BaseTimeEntity {
+
+    @Id
+    @Column(name = "order_request_id")
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(name = "request_key", nullable = false, length = 64)
+    private String requestKey;
+
+    @Column(name = "order_id")
+    private Long orderId; // 보관 테이블로 옮긴 주문도 남도록 FK 없이 아이디만 저장
+
+    public static OrderRequest createOrderRequest(String email, String requestKey) {
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setEmail(email);
+        orderRequest.setRequestKey(requestKey);
+
+        return orderRequest;
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.shop.entity;
+
+import com.shop.constant.PointReason;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.*;
+
+// 포인트 변경 내역 (추가만 하고 수정하지 않음, 회원 포인트는 변경분을 member.point 에 바로 더해 유지)
+@Entity
+@Table(name = "point_ledger", indexes = {
+        @Index(name = "idx_point_ledger_member", columnList = "member_id"),
+        @Index(name = "idx_point_ledger_order", columnList = "order_id")
+})
+@Getter
+@Setter
+@ToString(exclude = "member")
+public class PointLedger extends BaseTimeEntity {
+
+    @Id
+    @Column(name = "point_ledger_id")
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id", nullable = false)
+    private Member member;
+
+    @Column(name = "order_id")
+    private Long orderId; // 보관 테이블로 옮긴 주문도 남도록 FK 없이 아이디만 저장
+
+    @Column(nullable = false)
+    private int delta; // 포인트 변경분 (적립 +, 사용/회수 -)
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PointReason reason;
+
+    public static PointLedger createPointLedger(Member member, Long orderId, int delta, PointReason reason) {
+        PointLedger pointLedger = new PointLedger();
+        pointLedger.setMember(member);
+        pointLedger.setOrderId(orderId);
+        pointLedger.setDelta(delta);
+        pointLedger.setReason(reason);
+
+        return pointLedger;
+    }
+
+}
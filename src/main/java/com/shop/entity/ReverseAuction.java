@@ -1,5 +1,6 @@
 package com.shop.entity;
 
+import com.shop.constant.ReverseAuctionStatus;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -9,7 +10,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "reverse_auction")
+@Table(name = "reverse_auction", indexes = {
+        @Index(name = "idx_reverse_auction_status_end", columnList = "status, end_time")
+})
 @Getter
 @Setter
 public class ReverseAuction extends BaseEntity {
@@ -38,4 +41,32 @@ public class ReverseAuction extends BaseEntity {
     @Column(nullable = false)
     private LocalDateTime startTime; // 시작 시간
 
+    private LocalDateTime endTime; // 종료 시간 (할인율이 최대 할인율을 넘는 시각)
+
+    @Enumerated(EnumType.STRING)
+    private ReverseAuctionStatus status; // 진행 상태
+
+    // 경과 시간(시간 단위 절사) / 자동 할인 시간 * 경매 단위 / 상품 가격 * 100 이 최대 할인율 이하인 동안 진행
+    // → 경과 시간이 maxRate * price * timeUnit / (100 * priceUnit) 의 정수 부분 + 1 시간이 되면 종료
+    // 낙찰된 역경매는 종료 시간만 다시 계산하고 SOLD 상태 유지
+    public void schedule(LocalDateTime now) {
+        long progressHours = (long) maxRate * item.getPrice() * timeUnit / (100L * priceUnit) + 1;
+
+        this.endTime = startTime.plusHours(progressHours);
+
+        if(this.isSold()) {
+            return;
+        }
+
+        this.status = endTime.isAfter(now) ? ReverseAuctionStatus.PROGRESS : ReverseAuctionStatus.END;
+    }
+
+    public void sold() {
+        this.status = ReverseAuctionStatus.SOLD;
+    }
+
+    public boolean isSold() {
+        return this.status == ReverseAuctionStatus.SOLD;
+    }
+
 }
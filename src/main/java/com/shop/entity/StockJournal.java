@@ -0,0 +1,38 @@
+package com.shop.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.*;
+
+// 재고 변경 저널 (주문/주문 취소 트랜잭션에서 추가만 하고, 모아서 item.stock_number 에 반영한 뒤 삭제)
+@Entity
+@Table(name = "stock_journal", indexes = {
+        @Index(name = "idx_stock_journal_item", columnList = "item_id")
+})
+@Getter
+@Setter
+@ToString
+public class StockJournal {
+
+    @Id
+    @Column(name = "stock_journal_id")
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId; // item 행을 잠그지 않도록 FK 없이 아이디만 저장
+
+    @Column(nullable = false)
+    private int delta; // 재고 변경분 (주문 -, 주문 취소 +)
+
+    public static StockJournal createStockJournal(Long itemId, int delta) {
+        StockJournal stockJournal = new StockJournal();
+        stockJournal.setItemId(itemId);
+        stockJournal.setDelta(delta);
+
+        return stockJournal;
+    }
+
+}
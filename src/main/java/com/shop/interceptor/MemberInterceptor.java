@@ -1,7 +1,8 @@
 package com.shop.interceptor;
 
-import com.shop.entity.Member;
 import com.shop.repository.MemberRepository;
+import com.shop.repository.MemberSummaryCache;
+import com.shop.repository.MemberSummaryCache.MemberSummary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +24,9 @@ public class MemberInterceptor implements HandlerInterceptor {
     @Autowired
     private MemberRepository memberRepository;
 
+    @Autowired
+    private MemberSummaryCache memberSummaryCache;
+
     @Override
 	public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, @Nullable ModelAndView modelAndView) {
         try {
@@ -39,12 +43,12 @@ public class MemberInterceptor implements HandlerInterceptor {
                 }
 
                 if (email != null && !email.equals("anonymousUser")) {
-                    Member member = memberRepository.findByEmail(email);
+                    MemberSummary memberSummary = memberSummaryCache.get(email, memberRepository::findByEmail);
 
-                    if (member != null) {
+                    if (memberSummary != null) {
                         ModelMap modelMap = modelAndView.getModelMap();
-                        modelMap.addAttribute("memberName", member.getName());
-                        modelMap.addAttribute("memberPoint", member.getPoint());
+                        modelMap.addAttribute("memberName", memberSummary.getName());
+                        modelMap.addAttribute("memberPoint", memberSummary.getPoint());
                     }
                 }
             }
@@ -0,0 +1,179 @@
+package com.shop.repository;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+// 베스트 상품 순위 (최근 1일/7일/30일 판매 건수)
+// 주문 상품을 시간 단위 버킷에 누적하고, 기간별 합계를 버킷이 기간을 벗어날 때마다 차감해 유지
+@Component
+public class BestItemRanking {
+
+    public static final int DAY = 1;
+    public static final int WEEK = 7;
+    public static final int MONTH = 30;
+
+    private static final int TOP_SIZE = 20;
+
+    private final TreeMap<Long, Map<Long, Integer>> buckets = new TreeMap<>(); // 시간 → (상품 아이디 → 판매 건수)
+
+    private final Map<Integer, Window> windows = new LinkedHashMap<>();
+
+    public BestItemRanking() {
+        windows.put(DAY, new Window(DAY));
+        windows.put(WEEK, new Window(WEEK));
+        windows.put(MONTH, new Window(MONTH));
+    }
+
+    // rows : (item_id, reg_time)
+    public synchronized void rebuild(List<Object[]> rows) {
+        long currentHour = toHour(LocalDateTime.now());
+
+        buckets.clear();
+
+        for(Window window : windows.values()) {
+            window.reset(currentHour);
+        }
+
+        for(Object[] row : rows) {
+            this.add((Long) row[0], toHour((LocalDateTime) row[1]), 1, currentHour);
+        }
+    }
+
+    // 주문 시 1, 주문 취소 시 -1 (주문 시각 기준 버킷에서 차감)
+    public synchronized void record(Long itemId, LocalDateTime orderTime, int count) {
+        long currentHour = toHour(LocalDateTime.now());
+
+        this.advance(currentHour);
+        this.add(itemId, toHour(orderTime), count, currentHour);
+    }
+
+    // 판매 건수 내림차순 (같으면 상품 아이디 내림차순) 상위 상품 아이디
+    public synchronized List<Long> getTopItemIds(int days) {
+        Window window = windows.get(days);
+
+        if(window == null) {
+            throw new IllegalArgumentException("지원하지 않는 기간입니다. (" + days + "일)");
+        }
+
+        this.advance(toHour(LocalDateTime.now()));
+
+        if(window.dirty) {
+            window.topItemIds = Collections.unmodifiableList(selectTop(window.totals));
+            window.dirty = false;
+        }
+
+        return window.topItemIds;
+    }
+
+    public int getTopSize() {
+        return TOP_SIZE;
+    }
+
+    private void add(Long itemId, long hour, int count, long currentHour) {
+        Window month = windows.get(MONTH);
+
+        if(hour < month.fromHour || hour > currentHour) {
+            return;
+        }
+
+        Map<Long, Integer> bucket = buckets.computeIfAbsent(hour, key -> new HashMap<>());
+        bucket.merge(itemId, count, Integer::sum);
+
+        for(Window window : windows.values()) {
+            if(hour >= window.fromHour) {
+                window.add(itemId, count);
+            }
+        }
+    }
+
+    // 현재 시각 기준으로 기간을 벗어난 버킷을 기간별 합계에서 차감
+    private void advance(long currentHour) {
+        for(Window window : windows.values()) {
+            long fromHour = currentHour - window.hours + 1;
+
+            if(fromHour <= window.fromHour) {
+                continue;
+            }
+
+            for(Map<Long, Integer> bucket : buckets.subMap(window.fromHour, fromHour).values()) {
+                for(Map.Entry<Long, Integer> entry : bucket.entrySet()) {
+                    window.add(entry.getKey(), -entry.getValue());
+                }
+            }
+
+            window.fromHour = fromHour;
+        }
+
+        buckets.headMap(windows.get(MONTH).fromHour).clear();
+    }
+
+    private static List<Long> selectTop(Map<Long, Integer> totals) {
+        Comparator<Map.Entry<Long, Integer>> comparator = Map.Entry.<Long, Integer>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+
+        // 크기가 TOP_SIZE 인 최소 힙으로 상위 항목만 유지
+        PriorityQueue<Map.Entry<Long, Integer>> heap = new PriorityQueue<>(comparator);
+
+        for(Map.Entry<Long, Integer> entry : totals.entrySet()) {
+            heap.offer(entry);
+
+            if(heap.size() > TOP_SIZE) {
+                heap.poll();
+            }
+        }
+
+        List<Long> itemIds = new ArrayList<>(heap.size());
+
+        while(!heap.isEmpty()) {
+            itemIds.add(heap.poll().getKey());
+        }
+
+        Collections.reverse(itemIds);
+
+        return itemIds;
+    }
+
+    private static long toHour(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond() / 3600;
+    }
+
+    private static class Window {
+
+        private final long hours;
+
+        private final Map<Long, Integer> totals = new HashMap<>();
+
+        private long fromHour; // 기간에 포함되는 가장 오래된 버킷
+
+        private List<Long> topItemIds = Collections.emptyList();
+
+        private boolean dirty = true;
+
+        Window(int days) {
+            this.hours = days * 24L;
+        }
+
+        void reset(long currentHour) {
+            totals.clear();
+            fromHour = currentHour - hours + 1;
+            dirty = true;
+        }
+
+        void add(Long itemId, int count) {
+            int total = totals.getOrDefault(itemId, 0) + count;
+
+            if(total > 0) {
+                totals.put(itemId, total);
+            } else {
+                totals.remove(itemId);
+            }
+
+            dirty = true;
+        }
+
+    }
+
+}
@@ -1,9 +1,9 @@
 package com.shop.repository;
 
-import com.querydsl.core.QueryResults;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import com.shop.constant.BidDepositType;
 import com.shop.constant.BidSearchSortColumn;
@@ -12,19 +12,20 @@ import com.shop.dto.BidSearchDto;
 import com.shop.dto.QBidDto;
 import com.shop.entity.*;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
 import javax.persistence.EntityManager;
-import java.util.List;
 
 public class BidRepositoryCustomImpl implements BidRepositoryCustom {
 
     private JPAQueryFactory queryFactory;
 
-    public BidRepositoryCustomImpl(EntityManager em) {
+    private PageCountStrategy pageCountStrategy;
+
+    public BidRepositoryCustomImpl(EntityManager em, PageCountStrategy pageCountStrategy) {
         this.queryFactory = new JPAQueryFactory(em);
+        this.pageCountStrategy = pageCountStrategy;
     }
 
     private BooleanExpression searchByLike(String searchQuery) {
@@ -75,17 +76,16 @@ public class BidRepositoryCustomImpl implements BidRepositoryCustom {
     @Override
     public Page<BidDto> getAdminBidPage(BidSearchDto bidSearchDto, Pageable pageable) {
         QReverseAuction reverseAuction = QReverseAuction.reverseAuction;
-        QItemImg itemImg = QItemImg.itemImg;
         QMember member = QMember.member;
         QItem item = QItem.item;
         QBid bid = QBid.bid;
         QBid bid2 = new QBid("bid2");
 
-        QueryResults<BidDto> results = queryFactory
+        JPQLQuery<BidDto> query = queryFactory
                 .select(
                         new QBidDto(
                                 bid.id,
-                                itemImg.imgUrl,
+                                item.repImgUrl,
                                 item.itemNm,
                                 member.email,
                                 bid.depositType,
@@ -109,36 +109,28 @@ public class BidRepositoryCustomImpl implements BidRepositoryCustom {
                 .join(bid.member, member)
                 .join(bid.reverseAuction, reverseAuction)
                 .join(bid.reverseAuction.item, item)
-                .join(itemImg).on(itemImg.item.eq(bid.reverseAuction.item).and(itemImg.repImgYn.eq("Y")))
+                .where(item.repImgUrl.isNotNull())
                 .where(searchByLike(bidSearchDto.getSearchQuery()))
                 .where(searchByApprovedYn(bidSearchDto.getSearchApprovedYn(), bid2))
                 .where(searchDepositTypeEq(bidSearchDto.getSearchDepositType()))
-                .orderBy(this.orderBy(bidSearchDto))
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetchResults();
-
-        List<BidDto> content = results.getResults();
-
-        long total = results.getTotal();
+                .orderBy(this.orderBy(bidSearchDto));
 
-        return new PageImpl<>(content, pageable, total);
+        return pageCountStrategy.getPage(PageCountStrategy.BID, PageCountStrategy.key("admin", bidSearchDto), query, pageable);
     }
 
     @Override
     public Page<BidDto> getUserBidPage(Member curMember, BidSearchDto bidSearchDto, Pageable pageable) {
         QReverseAuction reverseAuction = QReverseAuction.reverseAuction;
-        QItemImg itemImg = QItemImg.itemImg;
         QMember member = QMember.member;
         QItem item = QItem.item;
         QBid bid = QBid.bid;
         QBid bid2 = new QBid("bid2");
 
-        QueryResults<BidDto> results = queryFactory
+        JPQLQuery<BidDto> query = queryFactory
                 .select(
                         new QBidDto(
                                 bid.id,
-                                itemImg.imgUrl,
+                                item.repImgUrl,
                                 item.itemNm,
                                 member.email,
                                 bid.depositType,
@@ -162,20 +154,13 @@ public class BidRepositoryCustomImpl implements BidRepositoryCustom {
                 .join(bid.member, member)
                 .join(bid.reverseAuction, reverseAuction)
                 .join(bid.reverseAuction.item, item)
-                .join(itemImg).on(itemImg.item.eq(bid.reverseAuction.item).and(itemImg.repImgYn.eq("Y")))
+                .where(item.repImgUrl.isNotNull())
                 .where(searchByLike(bidSearchDto.getSearchQuery()))
                 .where(searchByApprovedYn(bidSearchDto.getSearchApprovedYn(), bid2))
                 .where(bid.member.eq(curMember))
-                .orderBy(this.orderBy(bidSearchDto))
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetchResults();
-
-        List<BidDto> content = results.getResults();
-
-        long total = results.getTotal();
+                .orderBy(this.orderBy(bidSearchDto));
 
-        return new PageImpl<>(content, pageable, total);
+        return pageCountStrategy.getPage(PageCountStrategy.BID, PageCountStrategy.key(curMember.getId(), bidSearchDto), query, pageable);
     }
 
 }
\ No newline at end of file
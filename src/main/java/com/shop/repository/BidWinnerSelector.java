@@ -0,0 +1,62 @@
+package com.shop.repository;
+
+import com.shop.util.TransactionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 역경매 낙찰 입찰 선택
+// 역경매별로 낙찰 입찰을 메모리에서 먼저 차지 (putIfAbsent) 하므로 같은 역경매끼리만 경쟁하고 다른 역경매는 서로 기다리지 않음
+// 다른 서버 / 재시작 이전 낙찰은 bid.winning_rauction_id unique 키로 막음
+// 메모리에는 낙찰 처리 중인 역경매만 두고, 커밋되면 비움 (이후 낙찰 시도는 DB 에서 확인)
+@Component
+public class BidWinnerSelector {
+
+    private final BidRepository bidRepository;
+
+    // 역경매 아이디 → 낙찰 처리 중인 입찰 아이디
+    private final Map<Long, Long> winners = new ConcurrentHashMap<>();
+
+    public BidWinnerSelector(BidRepository bidRepository) {
+        this.bidRepository = bidRepository;
+    }
+
+    // 먼저 차지한 입찰만 approve 실행 (approve 는 낙찰 표시 후 flush 해서 unique 키를 바로 확인)
+    // 트랜잭션이 커밋되거나 롤백되면 비움 (롤백되면 다시 선택할 수 있음)
+    public void select(Long reverseAuctionId, Long bidId, Runnable approve) {
+        if(winners.putIfAbsent(reverseAuctionId, bidId) != null) {
+            throw new IllegalStateException("이미 낙찰된 경매입니다.");
+        }
+
+        try {
+            if(bidRepository.existsByWinningReverseAuctionId(reverseAuctionId)) {
+                throw new IllegalStateException("이미 낙찰된 경매입니다.");
+            }
+
+            approve.run();
+        } catch (DataIntegrityViolationException e) {
+            winners.remove(reverseAuctionId, bidId);
+
+            throw new IllegalStateException("이미 낙찰된 경매입니다.", e);
+        } catch (RuntimeException e) {
+            winners.remove(reverseAuctionId, bidId);
+
+            throw e;
+        }
+
+        TransactionUtils.afterCommit(() -> winners.remove(reverseAuctionId, bidId));
+        TransactionUtils.afterRollback(() -> winners.remove(reverseAuctionId, bidId));
+    }
+
+    public Long getWinner(Long reverseAuctionId) {
+        return winners.get(reverseAuctionId);
+    }
+
+    // 낙찰 처리 중인 역경매 수
+    public int size() {
+        return winners.size();
+    }
+
+}
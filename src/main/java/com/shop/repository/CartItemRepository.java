@@ -1,6 +1,5 @@
 package com.shop.repository;
 
-import com.shop.dto.CartDetailDto;
 import com.shop.entity.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -10,15 +9,8 @@ import java.util.List;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
 
-    CartItem findByCartIdAndItemId(Long cartId, Long itemId);
-
-    @Query("select new com.shop.dto.CartDetailDto(ci.id, i.itemNm, i.price, i.shippingFee, ci.count, im.imgUrl) " +
-            "from CartItem ci, ItemImg im " +
-            "join ci.item i " +
-            "where ci.cart.id = :cartId " +
-            "and im.item.id = ci.item.id " +
-            "and im.repImgYn = 'Y' " +
-            "order by ci.regTime desc")
-    List<CartDetailDto> findCartDetailDtoList(@Param("cartId") Long cartId);
+    // 장바구니 상품 (상품 아이디, 수량), 담은 순서
+    @Query("select ci.item.id, ci.count from CartItem ci where ci.cart.id = :cartId order by ci.regTime asc, ci.id asc")
+    List<Object[]> findCartLines(@Param("cartId") Long cartId);
 
 }
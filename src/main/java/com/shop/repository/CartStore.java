@@ -0,0 +1,436 @@
+package com.shop.repository;
+
+import com.shop.dto.CartDetailDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+
+// 회원별 장바구니 (회원 아이디 기준, 장바구니 상품은 상품 아이디 → 수량)
+// 담기/수량 변경/삭제는 메모리에서만 처리하고, 바뀐 상품만 모아 cart / cart_item 에 나중에 반영 (CartFlusher)
+// 최근에 사용한 순서로 최대 max-size 건 유지, 반영할 변경이 없는 장바구니만 제거
+@Component
+public class CartStore {
+
+    // 반영에 연속으로 실패한 장바구니는 한꺼번에 반영할 때 제외하고 따로 다시 반영 (변경분은 버리지 않음)
+    private static final int MAX_FLUSH_ATTEMPTS = 5;
+
+    private final int maxSize;
+
+    private final Map<Long, ActiveCart> carts = new LinkedHashMap<>(16, 0.75f, true);
+
+    public CartStore(@Value("${shop.cart.store-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    // 메모리에 없으면 loader 로 DB 장바구니를 읽어 올림
+    // action 은 장바구니를 잠근 상태에서 실행 (실행 중에 제거되지 않음)
+    public <R> R apply(Long memberId, Function<Long, ActiveCart> loader, Function<ActiveCart, R> action) {
+        while(true) {
+            ActiveCart cart = this.get(memberId, loader);
+
+            synchronized (cart) {
+                if(!cart.removed) {
+                    cart.lastAccessTime = System.currentTimeMillis();
+
+                    return action.apply(cart);
+                }
+            }
+        }
+    }
+
+    // 바뀐 장바구니의 변경분을 꺼냄 (다른 곳에서 반영 중인 장바구니, 반영에 계속 실패한 장바구니는 건너뜀)
+    // 반영 후 complete, 실패 시 restore 호출
+    public List<CartChanges> drain() {
+        return this.drain(false);
+    }
+
+    // 반영에 계속 실패한 장바구니의 변경분 (장바구니별로 따로 반영)
+    public List<CartChanges> drainStalled() {
+        return this.drain(true);
+    }
+
+    private List<CartChanges> drain(boolean stalled) {
+        List<CartChanges> changes = new ArrayList<>();
+
+        for(ActiveCart cart : this.snapshot()) {
+            synchronized (cart) {
+                if(!cart.flushing && cart.isStalled() == stalled) {
+                    CartChanges cartChanges = cart.drain();
+
+                    if(cartChanges != null) {
+                        changes.add(cartChanges);
+                    }
+                }
+            }
+        }
+
+        return changes;
+    }
+
+    // 회원 한 명의 변경분 (주문 시 바로 반영), 다른 곳에서 반영 중이면 끝날 때까지 기다림
+    public CartChanges drain(Long memberId) {
+        ActiveCart cart;
+
+        synchronized (carts) {
+            cart = carts.get(memberId);
+        }
+
+        if(cart == null) {
+            return null;
+        }
+
+        synchronized (cart) {
+            while(cart.flushing) {
+                try {
+                    cart.wait(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+
+                    throw new IllegalStateException("장바구니 반영 대기 중 중단되었습니다.", e);
+                }
+            }
+
+            return cart.drain();
+        }
+    }
+
+    public void complete(List<CartChanges> changes) {
+        for(CartChanges cartChanges : changes) {
+            ActiveCart cart = cartChanges.cart;
+
+            synchronized (cart) {
+                if(cart.cartId == null) {
+                    cart.cartId = cartChanges.cartId;
+                }
+
+                cart.persisted.addAll(cartChanges.inserts.keySet());
+                cart.persisted.removeAll(cartChanges.deletes);
+                cart.flushAttempts = 0;
+                cart.flushing = false;
+                cart.notifyAll();
+            }
+        }
+    }
+
+    // 반영하지 못한 상품을 다시 변경 상태로 (현재 수량으로 다시 반영)
+    // 반영할 변경이 남은 장바구니는 메모리에서 제거하지 않음
+    public void restore(List<CartChanges> changes) {
+        for(CartChanges cartChanges : changes) {
+            ActiveCart cart = cartChanges.cart;
+
+            synchronized (cart) {
+                cart.dirty.addAll(cartChanges.inserts.keySet());
+                cart.dirty.addAll(cartChanges.updates.keySet());
+                cart.dirty.addAll(cartChanges.deletes);
+                cart.flushAttempts++;
+                cart.flushing = false;
+                cart.notifyAll();
+            }
+        }
+    }
+
+    // 반영에 계속 실패하고 있는 장바구니 수
+    public int stalledSize() {
+        int stalled = 0;
+
+        for(ActiveCart cart : this.snapshot()) {
+            synchronized (cart) {
+                if(cart.isStalled() && !cart.isClean()) {
+                    stalled++;
+                }
+            }
+        }
+
+        return stalled;
+    }
+
+    // 메모리 장바구니를 모두 비움 (다음 요청부터 DB 에서 다시 읽어 옴)
+    public void clear() {
+        synchronized (carts) {
+            for(ActiveCart cart : carts.values()) {
+                synchronized (cart) {
+                    cart.removed = true;
+                }
+            }
+
+            carts.clear();
+        }
+    }
+
+    // idleMillis 동안 사용하지 않은 장바구니 제거 (반영할 변경이 남아 있으면 유지)
+    public int evictIdle(long idleMillis) {
+        long idleBefore = System.currentTimeMillis() - idleMillis;
+        int evicted = 0;
+
+        for(ActiveCart cart : this.snapshot()) {
+            if(cart.lastAccessTime < idleBefore && this.remove(cart)) {
+                evicted++;
+            }
+        }
+
+        return evicted;
+    }
+
+    public int size() {
+        synchronized (carts) {
+            return carts.size();
+        }
+    }
+
+    private ActiveCart get(Long memberId, Function<Long, ActiveCart> loader) {
+        synchronized (carts) {
+            ActiveCart cart = carts.get(memberId);
+
+            if(cart != null) {
+                return cart;
+            }
+        }
+
+        ActiveCart loaded = loader.apply(memberId);
+        loaded.memberId = memberId;
+
+        synchronized (carts) {
+            // 같은 회원을 동시에 읽어 온 경우 먼저 들어간 장바구니 사용
+            ActiveCart cart = carts.putIfAbsent(memberId, loaded);
+
+            if(cart != null) {
+                return cart;
+            }
+
+            this.evictEldest();
+
+            return loaded;
+        }
+    }
+
+    // 최대 건수를 넘으면 오래 사용하지 않은 장바구니부터 제거 (반영할 변경이 있는 장바구니는 반영될 때까지 유지)
+    private void evictEldest() {
+        Iterator<ActiveCart> iterator = carts.values().iterator();
+
+        while(carts.size() > maxSize && iterator.hasNext()) {
+            ActiveCart cart = iterator.next();
+
+            synchronized (cart) {
+                if(cart.isClean()) {
+                    cart.removed = true;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private boolean remove(ActiveCart cart) {
+        synchronized (carts) {
+            synchronized (cart) {
+                if(cart.removed || !cart.isClean()) {
+                    return false;
+                }
+
+                cart.removed = true;
+                carts.remove(cart.memberId, cart);
+
+                return true;
+            }
+        }
+    }
+
+    private List<ActiveCart> snapshot() {
+        synchronized (carts) {
+            return new ArrayList<>(carts.values());
+        }
+    }
+
+    public static class ActiveCart {
+
+        private Long memberId;
+
+        private Long cartId;
+
+        // 담은 순서
+        private final LinkedHashMap<Long, Integer> lines = new LinkedHashMap<>();
+
+        // cart_item 에 저장된 상품
+        private final Set<Long> persisted = new HashSet<>();
+
+        // 아직 반영하지 않은 상품
+        private final Set<Long> dirty = new HashSet<>();
+
+        private boolean flushing;
+
+        private boolean removed;
+
+        // 화면에 보여줄 장바구니 상품 목록과 목록을 만들 때의 상품 카드 version (담기/수량 변경/삭제 시 비움)
+        private List<CartDetailDto> details;
+
+        private long detailsVersion;
+
+        private int flushAttempts;
+
+        private volatile long lastAccessTime = System.currentTimeMillis();
+
+        // DB 에서 읽어 온 장바구니 (장바구니가 없으면 cartId 는 null)
+        public ActiveCart(Long cartId, Map<Long, Integer> savedLines) {
+            this.cartId = cartId;
+            this.lines.putAll(savedLines);
+            this.persisted.addAll(savedLines.keySet());
+        }
+
+        public int add(Long itemId, int count) {
+            int newCount = lines.merge(itemId, count, Integer::sum);
+            dirty.add(itemId);
+            details = null;
+
+            return newCount;
+        }
+
+        // 담겨 있지 않은 상품이면 false
+        public boolean update(Long itemId, int count) {
+            if(!lines.containsKey(itemId)) {
+                return false;
+            }
+
+            lines.put(itemId, count);
+            dirty.add(itemId);
+            details = null;
+
+            return true;
+        }
+
+        public boolean remove(Long itemId) {
+            if(lines.remove(itemId) == null) {
+                return false;
+            }
+
+            dirty.add(itemId);
+            details = null;
+
+            return true;
+        }
+
+        public boolean containsAll(Collection<Long> itemIds) {
+            return lines.keySet().containsAll(itemIds);
+        }
+
+        public Integer getCount(Long itemId) {
+            return lines.get(itemId);
+        }
+
+        // 상품 아이디 → 수량 (담은 순서)
+        public Map<Long, Integer> getLines() {
+            return new LinkedHashMap<>(lines);
+        }
+
+        // 상품 카드가 그 뒤로 바뀌지 않았으면 캐시된 목록, 아니면 null
+        public List<CartDetailDto> getDetails(long version) {
+            return details != null && detailsVersion == version ? details : null;
+        }
+
+        public void setDetails(List<CartDetailDto> details, long version) {
+            this.details = Collections.unmodifiableList(details);
+            this.detailsVersion = version;
+        }
+
+        private boolean isClean() {
+            return dirty.isEmpty() && !flushing;
+        }
+
+        private boolean isStalled() {
+            return flushAttempts >= MAX_FLUSH_ATTEMPTS;
+        }
+
+        // 저장된 적 없는 상품은 insert, 저장된 상품은 update / delete
+        private CartChanges drain() {
+            if(dirty.isEmpty()) {
+                return null;
+            }
+
+            CartChanges changes = new CartChanges(this);
+
+            for(Map.Entry<Long, Integer> line : lines.entrySet()) {
+                Long itemId = line.getKey();
+
+                if(!dirty.contains(itemId)) {
+                    continue;
+                }
+
+                if(persisted.contains(itemId)) {
+                    changes.updates.put(itemId, line.getValue());
+                } else {
+                    changes.inserts.put(itemId, line.getValue());
+                }
+            }
+
+            for(Long itemId : dirty) {
+                if(!lines.containsKey(itemId) && persisted.contains(itemId)) {
+                    changes.deletes.add(itemId);
+                }
+            }
+
+            dirty.clear();
+
+            if(changes.isEmpty()) {
+                return null;
+            }
+
+            flushing = true;
+
+            return changes;
+        }
+
+    }
+
+    public static class CartChanges {
+
+        private final ActiveCart cart;
+
+        private final Long memberId;
+
+        private Long cartId;
+
+        // 담은 순서대로 insert
+        private final Map<Long, Integer> inserts = new LinkedHashMap<>();
+
+        private final Map<Long, Integer> updates = new HashMap<>();
+
+        private final Set<Long> deletes = new HashSet<>();
+
+        private CartChanges(ActiveCart cart) {
+            this.cart = cart;
+            this.memberId = cart.memberId;
+            this.cartId = cart.cartId;
+        }
+
+        public Long getMemberId() {
+            return memberId;
+        }
+
+        public Long getCartId() {
+            return cartId;
+        }
+
+        // 새로 만든 cart 행 아이디 (반영이 커밋되면 장바구니에 기록)
+        public void setCartId(Long cartId) {
+            this.cartId = cartId;
+        }
+
+        public Map<Long, Integer> getInserts() {
+            return inserts;
+        }
+
+        public Map<Long, Integer> getUpdates() {
+            return updates;
+        }
+
+        public Set<Long> getDeletes() {
+            return deletes;
+        }
+
+        private boolean isEmpty() {
+            return inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty();
+        }
+
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.shop.repository;
+
+import com.shop.util.TransactionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+
+// 상품 카드 (상품명, 가격, 배송비, 대표 이미지) 캐시, 상품 아이디 기준으로 최근에 사용한 순서로 최대 max-size 건 유지
+// 상품이 수정되면 그 상품의 카드만 지우고 version 을 올림
+// 카드로 만든 목록을 캐시하는 곳(장바구니 등)은 version 이 바뀐 경우에만 카드로 목록을 다시 만듦
+@Component
+public class ItemCardCache {
+
+    private final Map<Long, ItemCard> cards;
+
+    private long version;
+
+    public ItemCardCache(@Value("${shop.item.card-cache-size:10000}") int maxSize) {
+        this.cards = new LinkedHashMap<Long, ItemCard>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemCard> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public long getVersion() {
+        synchronized (cards) {
+            return version;
+        }
+    }
+
+    // 캐시에 없는 카드만 loader 로 한 번에 조회 (없는 상품은 결과에서 빠짐)
+    public Map<Long, ItemCard> getAll(Collection<Long> itemIds, Function<Collection<Long>, List<ItemCard>> loader) {
+        Map<Long, ItemCard> result = new HashMap<>();
+        List<Long> missingItemIds = new ArrayList<>();
+        long loadVersion;
+
+        synchronized (cards) {
+            loadVersion = version;
+
+            for(Long itemId : itemIds) {
+                ItemCard card = cards.get(itemId);
+
+                if(card == null) {
+                    missingItemIds.add(itemId);
+                } else {
+                    result.put(itemId, card);
+                }
+            }
+        }
+
+        if(missingItemIds.isEmpty()) {
+            return result;
+        }
+
+        List<ItemCard> loadedCards = loader.apply(missingItemIds);
+
+        synchronized (cards) {
+            // 조회하는 사이에 수정된 상품이 있으면 수정 전 값일 수 있으므로 캐시에 넣지 않음
+            boolean fresh = loadVersion == version;
+
+            for(ItemCard card : loadedCards) {
+                result.put(card.getItemId(), card);
+
+                if(fresh) {
+                    cards.put(card.getItemId(), card);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    // 즉시 삭제하고, 트랜잭션이 커밋된 뒤에도 한번 더 삭제 (트랜잭션 중에 다시 채워진 수정 전 값 제거)
+    public void evict(Long itemId) {
+        Runnable evict = () -> {
+            synchronized (cards) {
+                cards.remove(itemId);
+                version++;
+            }
+        };
+
+        evict.run();
+
+        TransactionUtils.afterCommit(evict);
+    }
+
+    public static class ItemCard {
+
+        private final Long itemId;
+
+        private final String itemNm;
+
+        private final int price;
+
+        private final int shippingFee;
+
+        private final String imgUrl;
+
+        public ItemCard(Long itemId, String itemNm, int price, int shippingFee, String imgUrl) {
+            this.itemId = itemId;
+            this.itemNm = itemNm;
+            this.price = price;
+            this.shippingFee = shippingFee;
+            this.imgUrl = imgUrl;
+        }
+
+        public Long getItemId() {
+            return itemId;
+        }
+
+        public String getItemNm() {
+            return itemNm;
+        }
+
+        public int getPrice() {
+            return price;
+        }
+
+        public int getShippingFee() {
+            return shippingFee;
+        }
+
+        public String getImgUrl() {
+            return imgUrl;
+        }
+
+    }
+
+}
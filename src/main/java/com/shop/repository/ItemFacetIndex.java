@@ -0,0 +1,282 @@
+package com.shop.repository;
+
+import com.shop.constant.ItemSellStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 태그/카테고리/판매 상태별 상품 비트맵 색인
+// 상품 아이디를 0부터 시작하는 연속된 번호(ordinal)로 바꿔 비트 위치로 사용
+@Component
+public class ItemFacetIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    private final List<Long> itemIds = new ArrayList<>();
+
+    private final BitSet liveItems = new BitSet();
+
+    private final Map<Long, BitSet> tagBitmaps = new HashMap<>();
+
+    private final Map<Long, BitSet> categoryBitmaps = new HashMap<>();
+
+    private final Map<ItemSellStatus, BitSet> sellStatusBitmaps = new EnumMap<>(ItemSellStatus.class);
+
+    private final Map<Long, List<Long>> itemTagIds = new HashMap<>();
+
+    private volatile boolean ready = false;
+
+    // itemRows : (item_id, cate_code, item_sell_status), itemTagRows : (item_id, tag_id)
+    public void rebuild(List<Object[]> itemRows, List<Object[]> itemTagRows) {
+        Map<Long, List<Long>> tagIdsByItem = new HashMap<>();
+
+        for(Object[] row : itemTagRows) {
+            tagIdsByItem.computeIfAbsent((Long) row[0], key -> new ArrayList<>()).add((Long) row[1]);
+        }
+
+        List<Object[]> sortedRows = new ArrayList<>(itemRows);
+        sortedRows.sort(Comparator.comparing(row -> (Long) row[0]));
+
+        lock.writeLock().lock();
+
+        try {
+            ordinals.clear();
+            itemIds.clear();
+            liveItems.clear();
+            tagBitmaps.clear();
+            categoryBitmaps.clear();
+            sellStatusBitmaps.clear();
+            itemTagIds.clear();
+
+            for(Object[] row : sortedRows) {
+                Long itemId = (Long) row[0];
+
+                this.add(itemId, (Long) row[1], (ItemSellStatus) row[2], tagIdsByItem.getOrDefault(itemId, Collections.emptyList()));
+            }
+
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Long itemId, Long cateCode, ItemSellStatus itemSellStatus, Collection<Long> tagIds) {
+        lock.writeLock().lock();
+
+        try {
+            this.clear(itemId);
+            this.add(itemId, cateCode, itemSellStatus, tagIds);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+
+        try {
+            this.clear(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 조건에 맞는 상품 아이디 (내림차순), 색인이 준비되지 않은 경우 null
+    // tagIds 가 비어 있으면 태그 조건은 무시, matchAll 이면 모든 태그를 포함하는 상품만
+    public List<Long> filter(Long cateCode, List<Long> tagIds, boolean matchAll, ItemSellStatus itemSellStatus) {
+        if(!ready) {
+            return null;
+        }
+
+        lock.readLock().lock();
+
+        try {
+            BitSet result = this.baseBitmap(cateCode, itemSellStatus);
+
+            if(tagIds != null && !tagIds.isEmpty()) {
+                result.and(this.tagBitmap(tagIds, matchAll));
+            }
+
+            return this.toItemIds(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 현재 조건(카테고리, 검색 결과)에서 태그별 상품 수, 색인이 준비되지 않은 경우 null
+    // restrictItemIds 가 null 이면 상품 제한 없음
+    public Map<Long, Integer> countByTag(Long cateCode, Collection<Long> restrictItemIds) {
+        if(!ready) {
+            return null;
+        }
+
+        lock.readLock().lock();
+
+        try {
+            BitSet base = this.baseBitmap(cateCode, null);
+
+            if(restrictItemIds != null) {
+                base.and(this.toBitmap(restrictItemIds));
+            }
+
+            Map<Long, Integer> counts = new HashMap<>();
+
+            for(Map.Entry<Long, BitSet> entry : tagBitmaps.entrySet()) {
+                BitSet bitmap = (BitSet) entry.getValue().clone();
+                bitmap.and(base);
+
+                counts.put(entry.getKey(), bitmap.cardinality());
+            }
+
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> getTagIds(Long itemId) {
+        lock.readLock().lock();
+
+        try {
+            return new ArrayList<>(itemTagIds.getOrDefault(itemId, Collections.emptyList()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 색인된 상품인지 (색인이 준비되지 않았거나 커밋 직후 아직 색인되지 않은 상품은 false)
+    public boolean contains(Long itemId) {
+        lock.readLock().lock();
+
+        try {
+            Integer ordinal = ordinals.get(itemId);
+
+            return ordinal != null && liveItems.get(ordinal);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void add(Long itemId, Long cateCode, ItemSellStatus itemSellStatus, Collection<Long> tagIds) {
+        Integer ordinal = ordinals.get(itemId);
+
+        // 삭제 후 다시 색인되는 상품은 기존 번호를 재사용
+        if(ordinal == null) {
+            ordinal = itemIds.size();
+
+            ordinals.put(itemId, ordinal);
+            itemIds.add(itemId);
+        }
+
+        liveItems.set(ordinal);
+
+        if(cateCode != null) {
+            categoryBitmaps.computeIfAbsent(cateCode, key -> new BitSet()).set(ordinal);
+        }
+
+        if(itemSellStatus != null) {
+            sellStatusBitmaps.computeIfAbsent(itemSellStatus, key -> new BitSet()).set(ordinal);
+        }
+
+        for(Long tagId : tagIds) {
+            tagBitmaps.computeIfAbsent(tagId, key -> new BitSet()).set(ordinal);
+        }
+
+        itemTagIds.put(itemId, new ArrayList<>(tagIds));
+    }
+
+    private void clear(Long itemId) {
+        Integer ordinal = ordinals.get(itemId);
+
+        if(ordinal == null) {
+            return;
+        }
+
+        liveItems.clear(ordinal);
+
+        for(BitSet bitmap : categoryBitmaps.values()) {
+            bitmap.clear(ordinal);
+        }
+
+        for(BitSet bitmap : sellStatusBitmaps.values()) {
+            bitmap.clear(ordinal);
+        }
+
+        for(Long tagId : itemTagIds.getOrDefault(itemId, Collections.emptyList())) {
+            BitSet bitmap = tagBitmaps.get(tagId);
+
+            if(bitmap != null) {
+                bitmap.clear(ordinal);
+            }
+        }
+
+        itemTagIds.remove(itemId);
+    }
+
+    private BitSet baseBitmap(Long cateCode, ItemSellStatus itemSellStatus) {
+        BitSet result = (BitSet) liveItems.clone();
+
+        if(cateCode != null) {
+            result.and(categoryBitmaps.getOrDefault(cateCode, new BitSet()));
+        }
+
+        if(itemSellStatus != null) {
+            result.and(sellStatusBitmaps.getOrDefault(itemSellStatus, new BitSet()));
+        }
+
+        return result;
+    }
+
+    private BitSet tagBitmap(List<Long> tagIds, boolean matchAll) {
+        BitSet result = null;
+
+        for(Long tagId : tagIds) {
+            BitSet bitmap = tagBitmaps.getOrDefault(tagId, new BitSet());
+
+            if(result == null) {
+                result = (BitSet) bitmap.clone();
+            } else if(matchAll) {
+                result.and(bitmap);
+            } else {
+                result.or(bitmap);
+            }
+        }
+
+        return result;
+    }
+
+    private BitSet toBitmap(Collection<Long> restrictItemIds) {
+        BitSet bitmap = new BitSet();
+
+        for(Long itemId : restrictItemIds) {
+            Integer ordinal = ordinals.get(itemId);
+
+            if(ordinal != null) {
+                bitmap.set(ordinal);
+            }
+        }
+
+        return bitmap;
+    }
+
+    private List<Long> toItemIds(BitSet bitmap) {
+        List<Long> result = new ArrayList<>(bitmap.cardinality());
+
+        for(int ordinal = bitmap.nextSetBit(0); ordinal >= 0; ordinal = bitmap.nextSetBit(ordinal + 1)) {
+            result.add(itemIds.get(ordinal));
+        }
+
+        result.sort(Comparator.reverseOrder());
+
+        return result;
+    }
+
+}
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long>, QuerydslPredicateExecutor<Item>, ItemRepositoryCustom {
@@ -28,6 +29,16 @@ public interface ItemRepository extends JpaRepository<Item, Long>, QuerydslPredi
     @Query(value = "select * from item i where i.item_detail like %:itemDetail% order by i.price desc", nativeQuery = true)
     List<Item> findByItemDetailByNative(@Param("itemDetail") String itemDetail);
 
-    Page<MainItemDto> getDetailSearchPage(String[] filters, ItemSearchDto itemSearchDto, Pageable pageable);
+    // 상품 카드 (상품 아이디, 상품명, 가격, 배송비, 대표 이미지)
+    @Query("select i.id, i.itemNm, i.price, i.shippingFee, i.repImgUrl from Item i where i.id in :itemIds")
+    List<Object[]> findItemCardRows(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("select i.id, i.itemNm, i.itemDetail from Item i where i.repImgUrl is not null")
+    List<Object[]> findSearchIndexRows();
+
+    @Query("select i.id, c.cateCode, i.itemSellStatus from Item i left join i.category c")
+    List<Object[]> findFacetIndexRows();
+
+    Page<MainItemDto> getDetailSearchPage(List<Long> tagIds, boolean tagMatchAll, ItemSearchDto itemSearchDto, Pageable pageable);
 
 }
@@ -16,14 +16,14 @@ public interface ItemRepositoryCustom {
 
     Page<GiftMainItemDto> getGiftItemPage(ItemSearchDto itemSearchDto, Pageable pageable, Long cateCode);
 
-    List<BestItemDto> getBestOfDayItem();
+    List<BestItemDto> getBestItemDtos(List<Long> itemIds);
 
-    List<BestItemDto> getBestOfWeekItem();
+    List<BestItemDto> getNewestBestItemDtos(int limit);
 
-    List<BestItemDto> getBestOfMonthItem();
-
-    Page<MainItemDto> getDetailSearchPage(String[] filters, ItemSearchDto itemSearchDto, Pageable pageable);
+    Page<MainItemDto> getDetailSearchPage(List<Long> tagIds, boolean tagMatchAll, ItemSearchDto itemSearchDto, Pageable pageable);
 
     Page<MainItemDto> getComplexSearchPage(ItemComplexSearchDto itemComplexSearchDto, Pageable pageable);
 
+    List<MainItemDto> getComplexSearchKeyset(ItemComplexSearchDto itemComplexSearchDto, ItemSearchCursor cursor, int limit);
+
 }
@@ -1,6 +1,5 @@
 package com.shop.repository;
 
-import com.querydsl.core.QueryResults;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.Expressions;
@@ -20,16 +19,29 @@ import org.thymeleaf.util.StringUtils;
 
 import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
 
+    // 색인으로 구한 상품 아이디를 item.id in (...) 조건으로 넘길 수 있는 최대 개수 (넘으면 DB 조건으로 처리)
+    private static final int MAX_IN_IDS = 1000;
+
     private JPAQueryFactory queryFactory;
 
-    public ItemRepositoryCustomImpl(EntityManager em) {
+    private ItemSearchIndex itemSearchIndex;
+
+    private ItemFacetIndex itemFacetIndex;
+
+    private PageCountStrategy pageCountStrategy;
+
+    public ItemRepositoryCustomImpl(EntityManager em, ItemSearchIndex itemSearchIndex, ItemFacetIndex itemFacetIndex, PageCountStrategy pageCountStrategy) {
         this.queryFactory = new JPAQueryFactory(em);
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemFacetIndex = itemFacetIndex;
+        this.pageCountStrategy = pageCountStrategy;
     }
 
     private BooleanExpression searchSellStatusEq(ItemSellStatus searchSellStatus) {
@@ -93,113 +105,266 @@ public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
         return orderSpecifier;
     }
 
+    // 커서 방향(이전/다음)까지 고려한 정렬 조건, tie-breaker 는 item.id
+    private OrderSpecifier[] keysetOrderBy(ItemComplexSearchDto itemComplexSearchDto, boolean backward) {
+        ItemComplexSearchSortColumn sortColumn = itemComplexSearchDto.getSortColumn();
+        boolean ascending = itemComplexSearchDto.getSortDirection().isAscending() != backward;
+
+        OrderSpecifier orderSpecifier = null;
+
+        if(sortColumn.equals(ItemComplexSearchSortColumn.REG_TIME)) {
+            orderSpecifier = ascending ? QItem.item.regTime.asc() : QItem.item.regTime.desc();
+        } else if(sortColumn.equals(ItemComplexSearchSortColumn.NAME)) {
+            orderSpecifier = ascending ? QItem.item.itemNm.asc() : QItem.item.itemNm.desc();
+        } else if(sortColumn.equals(ItemComplexSearchSortColumn.PRICE)) {
+            orderSpecifier = ascending ? QItem.item.price.asc() : QItem.item.price.desc();
+        }
+
+        return new OrderSpecifier[] { orderSpecifier, backward ? QItem.item.id.asc() : QItem.item.id.desc() };
+    }
+
+    private BooleanExpression keysetAfter(ItemComplexSearchDto itemComplexSearchDto, ItemSearchCursor cursor) {
+        if(cursor == null) {
+            return null;
+        }
+
+        QItem item = QItem.item;
+        ItemComplexSearchSortColumn sortColumn = itemComplexSearchDto.getSortColumn();
+        boolean greater = itemComplexSearchDto.getSortDirection().isAscending() != cursor.isBackward();
+
+        BooleanExpression tieBreak = cursor.isBackward() ? item.id.gt(cursor.getId()) : item.id.lt(cursor.getId());
+
+        if(sortColumn.equals(ItemComplexSearchSortColumn.REG_TIME)) {
+            LocalDateTime regTime = LocalDateTime.parse(cursor.getValue());
+
+            return (greater ? item.regTime.gt(regTime) : item.regTime.lt(regTime))
+                    .or(item.regTime.eq(regTime).and(tieBreak));
+        } else if(sortColumn.equals(ItemComplexSearchSortColumn.NAME)) {
+            String itemNm = cursor.getValue();
+
+            return (greater ? item.itemNm.gt(itemNm) : item.itemNm.lt(itemNm))
+                    .or(item.itemNm.eq(itemNm).and(tieBreak));
+        } else if(sortColumn.equals(ItemComplexSearchSortColumn.PRICE)) {
+            Integer price = Integer.valueOf(cursor.getValue());
+
+            return (greater ? item.price.gt(price) : item.price.lt(price))
+                    .or(item.price.eq(price).and(tieBreak));
+        }
+
+        return null;
+    }
+
     private BooleanExpression searchCategory(ItemComplexSearchDto itemComplexSearchDto) {
         Long cateCode = itemComplexSearchDto.getSearchCategory();
 
         return cateCode == null ? null : QItem.item.category.cateCode.eq(cateCode);
     }
 
+    // 태그 조건은 비트맵 색인으로 상품 아이디를 구해 처리 (ItemTag 조인 / group by 없음)
+    private BooleanExpression searchTag(Long cateCode, List<Long> tagIds, boolean tagMatchAll) {
+        if(tagIds == null || tagIds.isEmpty()) {
+            return null;
+        }
+
+        List<Long> itemIds = itemFacetIndex.filter(cateCode, tagIds, tagMatchAll, null);
+
+        if(itemIds != null && itemIds.isEmpty()) {
+            return QItem.item.id.isNull();
+        }
+
+        if(itemIds != null && itemIds.size() <= MAX_IN_IDS) {
+            return QItem.item.id.in(itemIds);
+        }
+
+        // 색인이 준비되기 전이거나 일치하는 상품이 너무 많으면 서브 쿼리로 처리
+        QItemTag itemTag = QItemTag.itemTag;
+
+        JPQLQuery<Long> subQuery = JPAExpressions
+                .select(itemTag.item.id)
+                .from(itemTag)
+                .where(itemTag.tag.id.in(tagIds));
+
+        if(tagMatchAll) {
+            subQuery.groupBy(itemTag.item.id)
+                    .having(itemTag.tag.id.countDistinct().eq((long) new HashSet<>(tagIds).size()));
+        }
+
+        return QItem.item.id.in(subQuery);
+    }
+
     private BooleanExpression searchTag(ItemComplexSearchDto itemComplexSearchDto) {
-        List<Long> tagIds = itemComplexSearchDto.getSearchTagIds();
+        return searchTag(itemComplexSearchDto.getSearchCategory(), itemComplexSearchDto.getSearchTagIds(), itemComplexSearchDto.isSearchTagMatchAll());
+    }
 
-        return tagIds == null || tagIds.isEmpty() ? null : QItemTag.itemTag.tag.id.in(tagIds);
+    // 색인으로 구한 상품 아이디 목록(내림차순)에서 현재 페이지의 아이디만 자름 (in 조건은 페이지 크기만큼만)
+    private List<Long> getPageItemIds(List<Long> itemIds, Pageable pageable) {
+        int fromIndex = (int) Math.min(pageable.getOffset(), itemIds.size());
+        int toIndex = Math.min(fromIndex + pageable.getPageSize(), itemIds.size());
+
+        return itemIds.subList(fromIndex, toIndex);
     }
 
-    private BooleanExpression itemNmLike(String searchQuery) {
-        return StringUtils.isEmpty(searchQuery) ? null : QItem.item.itemNm.like("%" + searchQuery + "%");
+    // 검색 색인에는 목록에 나오는 상품(대표 이미지가 있는 상품)만 있으므로 전체 수는 아이디 수와 같음
+    private Page<MainItemDto> getMainItemPageByIds(List<Long> itemIds, Pageable pageable) {
+        QItem item = QItem.item;
+
+        List<Long> pageItemIds = this.getPageItemIds(itemIds, pageable);
+
+        List<MainItemDto> content = pageItemIds.isEmpty() ? new ArrayList<>() : queryFactory
+                .select(
+                        new QMainItemDto(
+                                item.id,
+                                item.itemNm,
+                                item.itemDetail,
+                                item.repImgUrl,
+                                item.price,
+                                item.shippingFee
+                        )
+                )
+                .from(item)
+                .where(item.id.in(pageItemIds), item.repImgUrl.isNotNull())
+                .orderBy(item.id.desc())
+                .fetch();
+
+        return new PageImpl<>(content, pageable, itemIds.size());
+    }
+
+    private BooleanExpression searchQueryMatch(String searchQuery) {
+        if(StringUtils.isEmpty(searchQuery)) {
+            return null;
+        }
+
+        List<Long> itemIds = itemSearchIndex.search(searchQuery);
+
+        // 색인으로 처리할 수 없는 검색어(1글자 등)나 결과가 너무 많은 검색어는 기존 LIKE 검색
+        if(itemIds == null || itemIds.size() > MAX_IN_IDS) {
+            return QItem.item.itemNm.like("%" + searchQuery + "%")
+                    .or(QItem.item.itemDetail.like("%" + searchQuery + "%"));
+        }
+
+        return itemIds.isEmpty() ? QItem.item.id.isNull() : QItem.item.id.in(itemIds);
     }
 
     @Override
     public Page<Item> getAdminItemPage(ItemSearchDto itemSearchDto, Pageable pageable) {
-        QueryResults<Item> results = queryFactory
+        JPQLQuery<Item> query = queryFactory
                 .selectFrom(QItem.item)
                 .where(regDtsAfter(itemSearchDto.getSearchDateType()),
                         searchSellStatusEq(itemSearchDto.getSearchSellStatus()),
                         searchByLike(itemSearchDto.getSearchBy(), itemSearchDto.getSearchQuery()))
-                .orderBy(QItem.item.id.desc())
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetchResults();
-
-        List<Item> content = results.getResults();
+                .orderBy(QItem.item.id.desc());
 
-        long total = results.getTotal();
-
-        return new PageImpl<>(content, pageable, total);
+        return pageCountStrategy.getPage(PageCountStrategy.ITEM, PageCountStrategy.key("admin", itemSearchDto), query, pageable);
     }
 
     @Override
     public Page<MainItemDto> getMainItemPage(ItemSearchDto itemSearchDto, Pageable pageable) {
         QItem item = QItem.item;
-        QItemImg itemImg = QItemImg.itemImg;
 
-        QueryResults<MainItemDto> results = queryFactory
+        String searchQuery = itemSearchDto.getSearchQuery();
+        List<Long> itemIds = StringUtils.isEmpty(searchQuery) ? null : itemSearchIndex.search(searchQuery);
+
+        // 색인 검색 결과에서 현재 페이지의 아이디만 잘라 조회
+        if(itemIds != null) {
+            return this.getMainItemPageByIds(itemIds, pageable);
+        }
+
+        JPQLQuery<MainItemDto> query = queryFactory
                 .select(
                         new QMainItemDto(
                                 item.id,
                                 item.itemNm,
                                 item.itemDetail,
-                                itemImg.imgUrl,
+                                item.repImgUrl,
                                 item.price,
                                 item.shippingFee
                         )
                 )
-                .from(itemImg)
-                .join(itemImg.item, item)
-                .where(itemImg.repImgYn.eq("Y"))
-                .where(itemNmLike(itemSearchDto.getSearchQuery()))
-                .orderBy(item.id.desc())
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetchResults();
-
-        List<MainItemDto> content = results.getResults();
-
-        long total = results.getTotal();
+                .from(item)
+                // 대표 이미지가 없는 상품은 목록에 노출하지 않음 (item_img 대표 이미지 조인과 같은 결과)
+                .where(item.repImgUrl.isNotNull())
+                .where(searchQueryMatch(itemSearchDto.getSearchQuery()))
+                .orderBy(item.id.desc());
 
-        return new PageImpl<>(content, pageable, total);
+        return pageCountStrategy.getPage(PageCountStrategy.ITEM, PageCountStrategy.key("main", itemSearchDto), query, pageable);
     }
 
     @Override
     public Page<GiftMainItemDto> getGiftItemPage(ItemSearchDto itemSearchDto, Pageable pageable, Long cateCode) {
         QItem item = QItem.item;
-        QItemImg itemImg = QItemImg.itemImg;
         QCategory category = QCategory.category;
 
-        QueryResults<GiftMainItemDto> results = queryFactory
+        String searchQuery = itemSearchDto.getSearchQuery();
+        List<Long> itemIds = StringUtils.isEmpty(searchQuery) ? null : itemSearchIndex.search(searchQuery);
+        List<Long> categoryItemIds = itemIds == null ? null : itemFacetIndex.filter(cateCode, null, false, null);
+
+        // 검색 결과와 카테고리 모두 색인으로 처리할 수 있으면 교집합에서 현재 페이지의 아이디만 잘라 조회
+        if(categoryItemIds != null) {
+            itemIds.retainAll(new HashSet<>(categoryItemIds));
+
+            List<Long> pageItemIds = this.getPageItemIds(itemIds, pageable);
+
+            List<GiftMainItemDto> content = pageItemIds.isEmpty() ? new ArrayList<>() : queryFactory
+                    .select(
+                            new QGiftMainItemDto(
+                                    item.id,
+                                    category.cateCode,
+                                    item.itemNm,
+                                    item.itemDetail,
+                                    item.repImgUrl,
+                                    item.price)
+                    )
+                    .from(item)
+                    .join(item.category, category)
+                    .where(item.id.in(pageItemIds), item.repImgUrl.isNotNull())
+                    .orderBy(item.id.desc())
+                    .fetch();
+
+            return new PageImpl<>(content, pageable, itemIds.size());
+        }
+
+        JPQLQuery<GiftMainItemDto> query = queryFactory
                 .select(
                         new QGiftMainItemDto(
                                 item.id,
                                 category.cateCode,
                                 item.itemNm,
                                 item.itemDetail,
-                                itemImg.imgUrl,
+                                item.repImgUrl,
                                 item.price)
                 )
-                .from(itemImg)
-                .join(itemImg.item, item)
+                .from(item)
                 .join(item.category, category)
-                .where(itemImg.repImgYn.eq("Y"))
-                .where(itemNmLike(itemSearchDto.getSearchQuery()))
+                .where(item.repImgUrl.isNotNull())
+                .where(searchQueryMatch(itemSearchDto.getSearchQuery()))
                 .where(category.cateCode.eq(cateCode))
-                .orderBy(item.id.desc())
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetchResults();
-
-        List<GiftMainItemDto> content = results.getResults();
+                .orderBy(item.id.desc());
 
-        long total = results.getTotal();
-        return new PageImpl<>(content, pageable, total);
+        return pageCountStrategy.getPage(PageCountStrategy.ITEM, PageCountStrategy.key("gift", cateCode, itemSearchDto), query, pageable);
     }
 
-    public Page<MainItemDto> getDetailSearchPage(String[] filters, ItemSearchDto itemSearchDto, Pageable pageable) {
+    public Page<MainItemDto> getDetailSearchPage(List<Long> tagIds, boolean tagMatchAll, ItemSearchDto itemSearchDto, Pageable pageable) {
         QItem item = QItem.item;
-        QItemImg itemImg = QItemImg.itemImg;
-        QTag tag = QTag.tag;
-        com.shop.entity.QItemTag itemTag = com.shop.entity.QItemTag.itemTag;
 
-        List<String> filterList = Arrays.stream(filters).collect(Collectors.toList());
+        String searchQuery = itemSearchDto.getSearchQuery();
+
+        List<Long> tagItemIds = tagIds.isEmpty() ? null : itemFacetIndex.filter(null, tagIds, tagMatchAll, null);
+        List<Long> searchItemIds = StringUtils.isEmpty(searchQuery) ? null : itemSearchIndex.search(searchQuery);
+
+        boolean tagResolved = tagIds.isEmpty() || tagItemIds != null;
+        boolean searchResolved = StringUtils.isEmpty(searchQuery) || searchItemIds != null;
+
+        // 태그/검색어 조건을 모두 색인으로 처리할 수 있으면 현재 페이지 상품만 조회
+        // 태그 색인에는 대표 이미지가 없는 상품도 있으므로 검색 결과(목록에 나오는 상품만 있음)와 교집합일 때만 사용
+        if(tagResolved && searchResolved && searchItemIds != null) {
+            List<Long> itemIds = searchItemIds;
+
+            if(tagItemIds != null) {
+                itemIds.retainAll(new HashSet<>(tagItemIds));
+            }
+
+            return this.getMainItemPageByIds(itemIds, pageable);
+        }
 
         JPQLQuery<MainItemDto> query = queryFactory
                 .select(
@@ -207,119 +372,126 @@ public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
                                 item.id,
                                 item.itemNm,
                                 item.itemDetail,
-                                itemImg.imgUrl,
+                                item.repImgUrl,
                                 item.price,
                                 item.shippingFee
                         )
 
                 )
-                .from(itemImg)
-                .join(itemImg.item, item)
-                .leftJoin(itemTag).on(itemTag.item.eq(itemImg.item))
-                .leftJoin(itemTag.tag, tag)
-                .where(itemImg.repImgYn.eq("Y"))        //상품 이미지 경우 대표 상품 이미지만 불러옴
-                .where(itemNmLike(itemSearchDto.getSearchQuery()))
-                .groupBy(itemImg.item)
-                .orderBy(item.id.desc())
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize());
+                .from(item)
+                .where(item.repImgUrl.isNotNull())
+                .where(searchQueryMatch(searchQuery))
+                .where(searchTag(null, tagIds, tagMatchAll))
+                .orderBy(item.id.desc());
 
-        if(filterList.size() > 0) {
-            query.where(tag.tagNm.in(filterList));
-        }
-
-        QueryResults<MainItemDto> results = query.fetchResults();
-
-        List<MainItemDto> content = results.getResults();
-        long total = results.getTotal();
-        return new PageImpl<>(content, pageable, total);
+        return pageCountStrategy.getPage(PageCountStrategy.ITEM, PageCountStrategy.key("detail", tagIds, tagMatchAll, itemSearchDto), query, pageable);
     }
 
-    private List<BestItemDto> getBestItem(Integer d) {
+    @Override
+    public List<BestItemDto> getBestItemDtos(List<Long> itemIds) {
+        if(itemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
         QItem item = QItem.item;
-        QOrderItem orderItem = QOrderItem.orderItem;
-        QItemImg itemImg = QItemImg.itemImg;
 
-        QueryResults<BestItemDto> results = queryFactory
+        List<BestItemDto> content = queryFactory
                 .select(
                         new QBestItemDto(
                                 item.id,
                                 item.itemNm,
                                 item.itemDetail,
-                                itemImg.imgUrl,
+                                item.repImgUrl,
                                 item.price
                         )
                 )
-                .from(itemImg)
-                .join(itemImg.item, item)
-                .leftJoin(orderItem).on(
-                        orderItem.item.eq(itemImg.item)
-                                .and(orderItem.regTime.goe(LocalDateTime.now().minusDays(d)))
-                )
-                .where(itemImg.repImgYn.eq("Y"))
-                .groupBy(item.id)
-                .orderBy(orderItem.count().desc())
-                .orderBy(item.id.desc())
-                .fetchResults();
+                .from(item)
+                .where(item.repImgUrl.isNotNull())
+                .where(item.id.in(itemIds))
+                .fetch();
 
-        List<BestItemDto> content = results.getResults();
+        // 순위(itemIds) 순서대로 정렬
+        content.sort(Comparator.comparingInt(bestItemDto -> itemIds.indexOf(bestItemDto.getItemId())));
 
         return content;
     }
 
     @Override
-    public List<BestItemDto> getBestOfDayItem() {
-        return this.getBestItem(1);
-    }
-
-    @Override
-    public List<BestItemDto> getBestOfWeekItem() {
-        return this.getBestItem(7);
-    }
+    public List<BestItemDto> getNewestBestItemDtos(int limit) {
+        QItem item = QItem.item;
 
-    @Override
-    public List<BestItemDto> getBestOfMonthItem() {
-        return this.getBestItem(30);
+        return queryFactory
+                .select(
+                        new QBestItemDto(
+                                item.id,
+                                item.itemNm,
+                                item.itemDetail,
+                                item.repImgUrl,
+                                item.price
+                        )
+                )
+                .from(item)
+                .where(item.repImgUrl.isNotNull())
+                .orderBy(item.id.desc())
+                .limit(limit)
+                .fetch();
     }
 
     @Override
     public Page<MainItemDto> getComplexSearchPage(ItemComplexSearchDto itemComplexSearchDto, Pageable pageable) {
         QItem item = QItem.item;
-        QItemImg itemImg = QItemImg.itemImg;
-        QItemTag itemTag = QItemTag.itemTag;
-        QTag tag = QTag.tag;
 
-        QueryResults<MainItemDto> results = queryFactory
+        // 마지막 상품으로 다음 페이지 커서를 만들 수 있도록 등록일도 조회
+        JPQLQuery<MainItemDto> query = queryFactory
                 .select(
                         new QMainItemDto(
                                 item.id,
                                 item.itemNm,
                                 item.itemDetail,
-                                itemImg.imgUrl,
+                                item.repImgUrl,
                                 item.price,
-                                item.shippingFee
+                                item.shippingFee,
+                                item.regTime
                         )
                 )
-                .from(itemImg)
-                .join(itemImg.item, item)
-                .leftJoin(itemTag).on(itemTag.item.eq(itemImg.item))
-                .leftJoin(itemTag.tag, tag)
-                .where(itemImg.repImgYn.eq("Y"))
-                .where(itemNmLike(itemComplexSearchDto.getSearchQuery()))
+                .from(item)
+                .where(item.repImgUrl.isNotNull())
+                .where(searchQueryMatch(itemComplexSearchDto.getSearchQuery()))
                 .where(searchCategory(itemComplexSearchDto))
                 .where(searchTag(itemComplexSearchDto))
-                .groupBy(itemImg.item)
                 .orderBy(searchOrderBy(itemComplexSearchDto))
-                .orderBy(item.id.desc())
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetchResults();
+                .orderBy(item.id.desc());
+
+        return pageCountStrategy.getPage(PageCountStrategy.ITEM, PageCountStrategy.key("complex", itemComplexSearchDto), query, pageable);
+    }
 
-        List<MainItemDto> content = results.getResults();
+    @Override
+    public List<MainItemDto> getComplexSearchKeyset(ItemComplexSearchDto itemComplexSearchDto, ItemSearchCursor cursor, int limit) {
+        QItem item = QItem.item;
 
-        long total = results.getTotal();
+        boolean backward = cursor != null && cursor.isBackward();
 
-        return new PageImpl<>(content, pageable, total);
+        return queryFactory
+                .select(
+                        new QMainItemDto(
+                                item.id,
+                                item.itemNm,
+                                item.itemDetail,
+                                item.repImgUrl,
+                                item.price,
+                                item.shippingFee,
+                                item.regTime
+                        )
+                )
+                .from(item)
+                .where(item.repImgUrl.isNotNull())
+                .where(searchQueryMatch(itemComplexSearchDto.getSearchQuery()))
+                .where(searchCategory(itemComplexSearchDto))
+                .where(searchTag(itemComplexSearchDto))
+                .where(keysetAfter(itemComplexSearchDto, cursor))
+                .orderBy(keysetOrderBy(itemComplexSearchDto, backward))
+                .limit(limit)
+                .fetch();
     }
-    
+
 }
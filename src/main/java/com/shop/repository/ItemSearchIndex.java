@@ -0,0 +1,150 @@
+package com.shop.repository;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 상품명/상품 상세 설명 검색용 역색인 (2-gram)
+@Component
+public class ItemSearchIndex {
+
+    private static final int GRAM_SIZE = 2;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    private final Map<Long, IndexedItem> documents = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    public synchronized void rebuild(List<Object[]> rows) {
+        postings.clear();
+        documents.clear();
+
+        for(Object[] row : rows) {
+            this.add((Long) row[0], (String) row[1], (String) row[2]);
+        }
+
+        ready = true;
+    }
+
+    public synchronized void index(Long itemId, String itemNm, String itemDetail) {
+        this.remove(itemId);
+        this.add(itemId, itemNm, itemDetail);
+    }
+
+    public synchronized void remove(Long itemId) {
+        IndexedItem indexedItem = documents.remove(itemId);
+
+        if(indexedItem == null) {
+            return;
+        }
+
+        for(String gram : indexedItem.grams()) {
+            Set<Long> itemIds = postings.get(gram);
+
+            if(itemIds != null) {
+                itemIds.remove(itemId);
+
+                if(itemIds.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    // 검색어를 포함하는 상품 아이디 (내림차순), 색인으로 처리할 수 없는 경우 null
+    public List<Long> search(String searchQuery) {
+        if(!ready || searchQuery == null) {
+            return null;
+        }
+
+        String query = normalize(searchQuery);
+
+        if(query.length() < GRAM_SIZE) {
+            return null;
+        }
+
+        Set<Long> candidates = null;
+
+        for(String gram : grams(query)) {
+            Set<Long> itemIds = postings.get(gram);
+
+            if(itemIds == null) {
+                return new ArrayList<>();
+            }
+
+            if(candidates == null || itemIds.size() < candidates.size()) {
+                candidates = itemIds;
+            }
+        }
+
+        List<Long> result = new ArrayList<>();
+
+        // 가장 짧은 posting 목록만 순회하고, 실제 포함 여부로 false positive 제거
+        for(Long itemId : candidates) {
+            IndexedItem indexedItem = documents.get(itemId);
+
+            if(indexedItem != null && indexedItem.contains(query)) {
+                result.add(itemId);
+            }
+        }
+
+        result.sort(Comparator.reverseOrder());
+
+        return result;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void add(Long itemId, String itemNm, String itemDetail) {
+        IndexedItem indexedItem = new IndexedItem(normalize(itemNm), normalize(itemDetail));
+
+        documents.put(itemId, indexedItem);
+
+        for(String gram : indexedItem.grams()) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(itemId);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+
+        for(int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+
+        return grams;
+    }
+
+    private static class IndexedItem {
+
+        private final String itemNm;
+
+        private final String itemDetail;
+
+        IndexedItem(String itemNm, String itemDetail) {
+            this.itemNm = itemNm;
+            this.itemDetail = itemDetail;
+        }
+
+        boolean contains(String query) {
+            return itemNm.contains(query) || itemDetail.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(itemNm);
+            grams.addAll(ItemSearchIndex.grams(itemDetail));
+
+            return grams;
+        }
+
+    }
+
+}
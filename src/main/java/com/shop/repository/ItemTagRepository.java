@@ -2,12 +2,20 @@ package com.shop.repository;
 
 import com.shop.entity.ItemTag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemTagRepository extends JpaRepository<ItemTag,Long> {
 
     List<ItemTag> findByItemId(@Param(value = "itemId") Long itemId);
 
+    @Query("select it.item.id, it.tag.id from ItemTag it where it.item.id in :itemIds")
+    List<Object[]> findTagIdRowsByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("select it.item.id, it.tag.id from ItemTag it")
+    List<Object[]> findFacetIndexRows();
+
 }
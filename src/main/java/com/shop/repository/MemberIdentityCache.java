@@ -0,0 +1,118 @@
+package com.shop.repository;
+
+import com.shop.constant.Role;
+import com.shop.entity.Member;
+import com.shop.util.TransactionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 이메일 → 회원 아이디 캐시 (최근에 사용한 순서로 최대 max-size 건 유지)
+// 서비스에서는 회원 행을 이메일로 다시 조회하지 않고 getReference 로 얻은 프록시를 사용
+@Component
+public class MemberIdentityCache {
+
+    private final MemberRepository memberRepository;
+
+    private final Map<String, MemberIdentity> identities;
+
+    public MemberIdentityCache(MemberRepository memberRepository, @Value("${shop.member.identity-cache-size:10000}") int maxSize) {
+        this.memberRepository = memberRepository;
+        this.identities = new LinkedHashMap<String, MemberIdentity>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MemberIdentity> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    // 가입되지 않은 이메일이면 null (없는 회원은 캐시하지 않음)
+    public MemberIdentity get(String email) {
+        if(email == null) {
+            return null;
+        }
+
+        synchronized (identities) {
+            MemberIdentity identity = identities.get(email);
+
+            if(identity != null) {
+                return identity;
+            }
+        }
+
+        Member member = memberRepository.findByEmail(email);
+
+        if(member == null) {
+            return null;
+        }
+
+        MemberIdentity identity = new MemberIdentity(member.getId(), member.getEmail(), member.getRole());
+
+        synchronized (identities) {
+            identities.put(email, identity);
+        }
+
+        // 같은 트랜잭션에서 가입한 회원이 롤백되는 경우
+        TransactionUtils.afterRollback(() -> this.remove(email));
+
+        return identity;
+    }
+
+    public Long getMemberId(String email) {
+        MemberIdentity identity = this.get(email);
+
+        return identity == null ? null : identity.getId();
+    }
+
+    // 회원 프록시 (필드에 접근할 때 아이디로 조회), 가입되지 않은 이메일이면 null
+    public Member getReference(String email) {
+        Long memberId = this.getMemberId(email);
+
+        return memberId == null ? null : memberRepository.getById(memberId);
+    }
+
+    // 즉시 삭제하고, 트랜잭션이 커밋/롤백된 뒤에도 한번 더 삭제
+    public void evict(String email) {
+        this.remove(email);
+
+        TransactionUtils.afterCommit(() -> this.remove(email));
+        TransactionUtils.afterRollback(() -> this.remove(email));
+    }
+
+    private void remove(String email) {
+        synchronized (identities) {
+            identities.remove(email);
+        }
+    }
+
+    public static class MemberIdentity {
+
+        private final Long id;
+
+        private final String email;
+
+        private final Role role;
+
+        public MemberIdentity(Long id, String email, Role role) {
+            this.id = id;
+            this.email = email;
+            this.role = role;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public Role getRole() {
+            return role;
+        }
+
+    }
+
+}
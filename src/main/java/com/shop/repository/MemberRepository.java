@@ -1,12 +1,17 @@
 package com.shop.repository;
 
 import com.shop.entity.Member;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface MemberRepository extends JpaRepository<Member, Long>, QuerydslPredicateExecutor<Member>, MemberRepositoryCustom {
 
     Member findByEmail(String email);
@@ -16,4 +21,18 @@ public interface MemberRepository extends JpaRepository<Member, Long>, QuerydslP
     @Query("update Member m set m.password = ?2 where m.id = ?1")
     void updatePassword(Long memberId, String password);
 
+    // 포인트 변경분을 바로 더함 (minPoint 보다 적으면 변경하지 않고 0 반환)
+    // 영속성 컨텍스트의 회원은 갱신되지 않으므로 같은 트랜잭션에서 포인트를 읽으려면 refreshPoint 호출
+    @Modifying(flushAutomatically = true)
+    @Query("update Member m set m.point = m.point + :delta where m.id = :memberId and m.point >= :minPoint")
+    int addPoint(@Param("memberId") Long memberId, @Param("delta") int delta, @Param("minPoint") int minPoint);
+
+    @Query("select m.email from Member m where m.id in :memberIds")
+    List<String> findEmailsByIdIn(@Param("memberIds") Collection<Long> memberIds);
+
+    // (회원 아이디, member.point - 포인트 내역 합계), 회원 아이디 순
+    @Query("select m.id, m.point - coalesce((select sum(pl.delta) from PointLedger pl where pl.member = m), 0) " +
+            "from Member m where m.id > :lastId order by m.id")
+    List<Object[]> findPointLedgerGaps(@Param("lastId") Long lastId, Pageable pageable);
+
 }
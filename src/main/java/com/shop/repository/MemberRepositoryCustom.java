@@ -9,4 +9,6 @@ public interface MemberRepositoryCustom {
 
     Page<Member> getAdminMemberPage(MemberSearchDto memberSearchDto, Pageable pageable);
 
+    void refreshPoint(Member member);
+
 }
@@ -1,25 +1,30 @@
 package com.shop.repository;
 
-import com.querydsl.core.QueryResults;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import com.shop.dto.MemberSearchDto;
 import com.shop.entity.Member;
 import com.shop.entity.QMember;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.thymeleaf.util.StringUtils;
 
 import javax.persistence.EntityManager;
-import java.util.List;
 
 public class MemberRepositoryCustomImpl implements MemberRepositoryCustom {
 
+    private EntityManager em;
+
     private JPAQueryFactory queryFactory;
 
-    public MemberRepositoryCustomImpl(EntityManager em) {
+    private PageCountStrategy pageCountStrategy;
+
+    public MemberRepositoryCustomImpl(EntityManager em, PageCountStrategy pageCountStrategy) {
+        this.em = em;
         this.queryFactory = new JPAQueryFactory(em);
+        this.pageCountStrategy = pageCountStrategy;
     }
 
     private BooleanExpression searchByLike(String searchBy, String searchQuery) {
@@ -34,19 +39,20 @@ public class MemberRepositoryCustomImpl implements MemberRepositoryCustom {
 
     @Override
     public Page<Member> getAdminMemberPage(MemberSearchDto memberSearchDto, Pageable pageable) {
-        QueryResults<Member> results = queryFactory
+        JPQLQuery<Member> query = queryFactory
                 .selectFrom(QMember.member)
                 .where(searchByLike(memberSearchDto.getSearchBy(),memberSearchDto.getSearchQuery()))
-                .orderBy(QMember.member.id.desc())
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetchResults();
-
-        List<Member> content = results.getResults();
+                .orderBy(QMember.member.id.desc());
 
-        long total = results.getTotal();
+        return pageCountStrategy.getPage(PageCountStrategy.MEMBER, PageCountStrategy.key(memberSearchDto), query, pageable);
+    }
 
-        return new PageImpl<>(content, pageable, total);
+    // 포인트를 update 쿼리로 바꾼 뒤 이미 읽어 둔 회원을 다시 읽음 (읽지 않은 프록시는 처음 사용할 때 바뀐 값을 읽으므로 그대로 둠)
+    @Override
+    public void refreshPoint(Member member) {
+        if(Hibernate.isInitialized(member) && em.contains(member)) {
+            em.refresh(member);
+        }
     }
 
 }
@@ -0,0 +1,99 @@
+package com.shop.repository;
+
+import com.shop.entity.Member;
+import com.shop.util.TransactionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// 헤더에 표시할 회원 이름/포인트 캐시 (이메일 기준, 최근에 사용한 순서로 최대 max-size 건 유지)
+// 포인트나 회원 정보가 바뀌는 곳에서 evict 를 호출
+@Component
+public class MemberSummaryCache {
+
+    private final Map<String, MemberSummary> summaries;
+
+    // evict 할 때마다 증가 (조회 중에 evict 된 경우 조회한 값을 저장하지 않도록)
+    private long generation = 0;
+
+    public MemberSummaryCache(@Value("${shop.member.summary-cache-size:10000}") int maxSize) {
+        this.summaries = new LinkedHashMap<String, MemberSummary>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MemberSummary> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    // 캐시에 없으면 loader 로 회원을 조회해 저장 (회원이 없으면 null)
+    // loader 는 락 밖에서 실행하고, 그 사이 evict 가 있었으면 이전 값일 수 있으므로 저장하지 않음
+    public MemberSummary get(String email, Function<String, Member> loader) {
+        long loadGeneration;
+
+        synchronized (summaries) {
+            MemberSummary summary = summaries.get(email);
+
+            if(summary != null) {
+                return summary;
+            }
+
+            loadGeneration = generation;
+        }
+
+        Member member = loader.apply(email);
+
+        if(member == null) {
+            return null;
+        }
+
+        MemberSummary summary = new MemberSummary(member.getName(), member.getPoint());
+
+        synchronized (summaries) {
+            if(generation == loadGeneration) {
+                summaries.putIfAbsent(email, summary);
+            }
+        }
+
+        return summary;
+    }
+
+    // 즉시 삭제하고, 트랜잭션이 커밋/롤백된 뒤에도 한번 더 삭제 (트랜잭션 중에 다시 채워진 값 제거)
+    public void evict(String email) {
+        Runnable evict = () -> {
+            synchronized (summaries) {
+                summaries.remove(email);
+                generation++;
+            }
+        };
+
+        evict.run();
+
+        TransactionUtils.afterCommit(evict);
+        TransactionUtils.afterRollback(evict);
+    }
+
+    public static class MemberSummary {
+
+        private final String name;
+
+        private final int point;
+
+        public MemberSummary(String name, int point) {
+            this.name = name;
+            this.point = point;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getPoint() {
+            return point;
+        }
+
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.shop.repository;
+
+import com.shop.constant.NotificationStatus;
+import com.shop.entity.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    @Query("select n from NotificationOutbox n " +
+            "where n.status = :status and n.nextAttemptTime <= :now " +
+            "order by n.id asc")
+    List<NotificationOutbox> findDispatchTargets(@Param("status") NotificationStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("update NotificationOutbox n set n.status = :status, n.sentTime = :sentTime where n.id in :ids")
+    int updateSent(@Param("ids") List<Long> ids, @Param("status") NotificationStatus status, @Param("sentTime") LocalDateTime sentTime);
+
+}
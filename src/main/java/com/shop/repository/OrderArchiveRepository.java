@@ -0,0 +1,211 @@
+package com.shop.repository;
+
+import com.shop.constant.GiftStatus;
+import com.shop.constant.OrderStatus;
+import com.shop.constant.ReturnStatus;
+import com.shop.dto.OrderHistDto;
+import com.shop.dto.OrderItemDto;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// 보관 주문 (orders_archive / order_item_archive)
+// 주문 내역 조회가 보관 주문까지 내려가는 경우에만 주문 테이블과 union all 로 함께 조회
+@Repository
+public class OrderArchiveRepository {
+
+    private static final String ORDER_COLUMNS = "order_id, reg_time, update_time, created_by, modified_by, member_id, order_date, order_status, " +
+            "address, used_point, acc_point, gift_status, return_req_date, return_confirm_date, return_status";
+
+    private static final String ORDER_ITEM_COLUMNS = "order_item_id, reg_time, update_time, created_by, modified_by, item_id, order_id, order_price, " +
+            "count, review_yn, comment, return_count, return_price, return_req_date, return_confirm_date, return_status";
+
+    private static final String ORDER_HIST_COLUMNS = "o.order_id, o.order_date, o.order_status, o.used_point, o.acc_point, o.address, " +
+            "o.return_req_date, o.return_confirm_date, o.return_status, o.gift_status";
+
+    private static final String ORDER_ITEM_DTO_COLUMNS = "oi.order_id, oi.order_item_id, i.item_nm, oi.count, oi.order_price, i.shipping_fee, " +
+            "i.rep_img_url, oi.comment, oi.review_yn, oi.return_count, oi.return_price, oi.return_req_date, oi.return_confirm_date, oi.return_status";
+
+    private static final String MEMBER_CONDITION = " join member m on m.member_id = o.member_id where m.email = :email";
+
+    private static final String MEMBER_STATUS_CONDITION = MEMBER_CONDITION + " and o.gift_status = :giftStatus";
+
+    private static final String RETURN_CONDITION = " where o.member_id = :memberId and o.order_status = 'RETURN'";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // 보관 주문 중 가장 최근 주문 일시 (보관 주문이 없으면 null)
+    private volatile LocalDateTime archivedUntil;
+
+    private volatile boolean archivedUntilLoaded;
+
+    public OrderArchiveRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public LocalDateTime getArchivedUntil() {
+        if(!archivedUntilLoaded) {
+            this.refreshArchivedUntil();
+        }
+
+        return archivedUntil;
+    }
+
+    public void refreshArchivedUntil() {
+        Timestamp orderDate = jdbcTemplate.queryForObject("select max(order_date) from orders_archive", new MapSqlParameterSource(), Timestamp.class);
+
+        archivedUntil = orderDate == null ? null : orderDate.toLocalDateTime();
+        archivedUntilLoaded = true;
+    }
+
+    public List<OrderHistDto> findOrders(String email, long offset, int limit) {
+        return this.findOrderHistDtos(MEMBER_CONDITION, new MapSqlParameterSource("email", email), offset, limit);
+    }
+
+    public List<OrderHistDto> findOrdersStatus(String email, GiftStatus giftStatus, long offset, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("email", email).addValue("giftStatus", giftStatus.name());
+
+        return this.findOrderHistDtos(MEMBER_STATUS_CONDITION, params, offset, limit);
+    }
+
+    public List<OrderHistDto> findOrdersForReturnList(Long memberId, long offset, int limit) {
+        return this.findOrderHistDtos(RETURN_CONDITION, new MapSqlParameterSource("memberId", memberId), offset, limit);
+    }
+
+    // 관리자 반품 목록 중 보관 주문 (보관 주문은 반품 확인이 끝난 주문뿐이므로 보관 테이블만 조회)
+    public List<OrderHistDto> findReturns(Long lastOrderId, int limit) {
+        String sql = "select " + ORDER_HIST_COLUMNS + " from orders_archive o " +
+                "where o.order_status = 'RETURN' and o.order_id < :lastOrderId " +
+                "order by o.order_id desc limit :limit";
+
+        MapSqlParameterSource params = new MapSqlParameterSource("lastOrderId", lastOrderId).addValue("limit", limit);
+
+        return jdbcTemplate.query(sql, params, ORDER_HIST_DTO_MAPPER);
+    }
+
+    // 보관 주문 건수 (주문 테이블 건수는 OrderRepository 에서 조회)
+    public long countOrder(String email) {
+        return this.countArchivedOrders(MEMBER_CONDITION, new MapSqlParameterSource("email", email));
+    }
+
+    public long countOrderStatus(String email, GiftStatus giftStatus) {
+        return this.countArchivedOrders(MEMBER_STATUS_CONDITION, new MapSqlParameterSource("email", email).addValue("giftStatus", giftStatus.name()));
+    }
+
+    public long countOrderForReturnList(Long memberId) {
+        return this.countArchivedOrders(RETURN_CONDITION, new MapSqlParameterSource("memberId", memberId));
+    }
+
+    // 주문 / 보관 주문 어느 쪽에 있든 주문 상품을 함께 조회
+    public List<OrderItemDto> findOrderItemDtos(Collection<Long> orderIds) {
+        if(orderIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String sql = "select * from (" +
+                "select " + ORDER_ITEM_DTO_COLUMNS + " from order_item oi join item i on i.item_id = oi.item_id where oi.order_id in (:orderIds) " +
+                "union all " +
+                "select " + ORDER_ITEM_DTO_COLUMNS + " from order_item_archive oi join item i on i.item_id = oi.item_id where oi.order_id in (:orderIds)" +
+                ") t order by t.order_item_id";
+
+        return jdbcTemplate.query(sql, new MapSqlParameterSource("orderIds", orderIds), ORDER_ITEM_DTO_MAPPER);
+    }
+
+    // 보관 대상 주문 (cutoff 이전 주문 중 처리 중인 반품이 없고 리뷰가 달리지 않은 주문, 오래된 순)
+    public List<Long> findArchiveTargets(LocalDateTime cutoff, int limit) {
+        String sql = "select o.order_id from orders o " +
+                "where o.order_date < :cutoff " +
+                "and (o.order_status <> 'RETURN' or o.return_status = 'Y') " +
+                "and not exists (select 1 from order_item oi where oi.order_id = o.order_id and oi.review_yn = 'Y') " +
+                "order by o.order_date asc limit :limit";
+
+        MapSqlParameterSource params = new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)).addValue("limit", limit);
+
+        return jdbcTemplate.queryForList(sql, params, Long.class);
+    }
+
+    // 주문 / 주문 상품을 보관 테이블로 옮김
+    public int moveOrders(Collection<Long> orderIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("orderIds", orderIds);
+
+        jdbcTemplate.update("insert into orders_archive (" + ORDER_COLUMNS + ") " +
+                "select " + ORDER_COLUMNS + " from orders where order_id in (:orderIds)", params);
+        jdbcTemplate.update("insert into order_item_archive (" + ORDER_ITEM_COLUMNS + ") " +
+                "select " + ORDER_ITEM_COLUMNS + " from order_item where order_id in (:orderIds)", params);
+        jdbcTemplate.update("delete from order_item where order_id in (:orderIds)", params);
+
+        return jdbcTemplate.update("delete from orders where order_id in (:orderIds)", params);
+    }
+
+    private List<OrderHistDto> findOrderHistDtos(String condition, MapSqlParameterSource params, long offset, int limit) {
+        String sql = "select * from (" +
+                "select " + ORDER_HIST_COLUMNS + " from orders o" + condition +
+                " union all " +
+                "select " + ORDER_HIST_COLUMNS + " from orders_archive o" + condition +
+                ") t order by t.order_date desc, t.order_id desc limit :limit offset :offset";
+
+        params.addValue("limit", limit).addValue("offset", offset);
+
+        return jdbcTemplate.query(sql, params, ORDER_HIST_DTO_MAPPER);
+    }
+
+    private long countArchivedOrders(String condition, MapSqlParameterSource params) {
+        if(this.getArchivedUntil() == null) {
+            return 0;
+        }
+
+        Long count = jdbcTemplate.queryForObject("select count(*) from orders_archive o" + condition, params, Long.class);
+
+        return count == null ? 0 : count;
+    }
+
+    private static final RowMapper<OrderHistDto> ORDER_HIST_DTO_MAPPER = (rs, rowNum) -> new OrderHistDto(
+            rs.getLong("order_id"),
+            getDateTime(rs, "order_date"),
+            OrderStatus.valueOf(rs.getString("order_status")),
+            rs.getInt("used_point"),
+            rs.getInt("acc_point"),
+            rs.getString("address"),
+            getDateTime(rs, "return_req_date"),
+            getDateTime(rs, "return_confirm_date"),
+            getReturnStatus(rs),
+            GiftStatus.valueOf(rs.getString("gift_status")));
+
+    private static final RowMapper<OrderItemDto> ORDER_ITEM_DTO_MAPPER = (rs, rowNum) -> new OrderItemDto(
+            rs.getLong("order_id"),
+            rs.getLong("order_item_id"),
+            rs.getString("item_nm"),
+            rs.getInt("count"),
+            rs.getInt("order_price"),
+            rs.getInt("shipping_fee"),
+            rs.getString("rep_img_url"),
+            rs.getString("comment"),
+            rs.getString("review_yn"),
+            rs.getInt("return_count"),
+            rs.getInt("return_price"),
+            getDateTime(rs, "return_req_date"),
+            getDateTime(rs, "return_confirm_date"),
+            getReturnStatus(rs));
+
+    private static LocalDateTime getDateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private static ReturnStatus getReturnStatus(ResultSet rs) throws SQLException {
+        String returnStatus = rs.getString("return_status");
+
+        return returnStatus == null ? null : ReturnStatus.valueOf(returnStatus);
+    }
+
+}
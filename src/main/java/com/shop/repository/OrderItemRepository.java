@@ -1,12 +1,21 @@
 package com.shop.repository;
 
+import com.shop.constant.OrderStatus;
 import com.shop.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
     List<OrderItem> findByItemIdAndReviewYn(Long itemId, String reviewYn);
 
+    @Query("select oi.item.id, oi.regTime from OrderItem oi " +
+            "where oi.regTime >= :since " +
+            "and oi.order.orderStatus <> :excludeStatus")
+    List<Object[]> findBestItemRows(@Param("since") LocalDateTime since, @Param("excludeStatus") OrderStatus excludeStatus);
+
 }
@@ -1,29 +1,78 @@
 package com.shop.repository;
 
 import com.shop.constant.GiftStatus;
+import com.shop.constant.OrderStatus;
+import com.shop.constant.ReturnStatus;
+import com.shop.dto.OrderHistDto;
+import com.shop.dto.OrderItemDto;
 import com.shop.entity.Order;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    @Query("select o from Order o where o.member.email = :email order by o.orderDate desc")
-    List<Order> findOrders(@Param("email") String email, Pageable pageable);
+    String ORDER_HIST_DTO = "select new com.shop.dto.OrderHistDto(o.id, o.orderDate, o.orderStatus, o.usedPoint, o.accPoint, o.address, " +
+            "o.returnReqDate, o.returnConfirmDate, o.returnStatus, o.giftStatus) ";
 
-    @Query("select o from Order o where o.member.email = :email and o.giftStatus = :giftStatus order by o.orderDate desc")
-    List<Order> findOrdersStatus(@Param("email") String email, Pageable pageable, @Param("giftStatus") GiftStatus giftStatus);
+    @Query(ORDER_HIST_DTO + "from Order o where o.member.email = :email order by o.orderDate desc, o.id desc")
+    List<OrderHistDto> findOrders(@Param("email") String email, Pageable pageable);
 
-    @Query("select o from Order o where 1=1 AND o.orderStatus = 'RETURN' order by o.orderDate desc")
-    List<Order> findOrdersForReturnList(@Param("email") String email, Pageable pageable);
+    @Query(ORDER_HIST_DTO + "from Order o where o.member.email = :email and o.giftStatus = :giftStatus order by o.orderDate desc, o.id desc")
+    List<OrderHistDto> findOrdersStatus(@Param("email") String email, Pageable pageable, @Param("giftStatus") GiftStatus giftStatus);
+
+    // 회원의 반품 주문 (idx_orders_member_status)
+    @Query(ORDER_HIST_DTO + "from Order o where o.member.id = :memberId and o.orderStatus = :orderStatus order by o.orderDate desc, o.id desc")
+    List<OrderHistDto> findOrdersForReturnList(@Param("memberId") Long memberId, @Param("orderStatus") OrderStatus orderStatus, Pageable pageable);
+
+    // 관리자 반품 목록 (lastOrderId 보다 작은 주문 아이디부터 내림차순, idx_orders_status_return)
+    @Query(ORDER_HIST_DTO + "from Order o where o.orderStatus = :orderStatus and o.id < :lastOrderId order by o.id desc")
+    List<OrderHistDto> findReturns(@Param("orderStatus") OrderStatus orderStatus, @Param("lastOrderId") Long lastOrderId, Pageable pageable);
+
+    @Query(ORDER_HIST_DTO + "from Order o where o.orderStatus = :orderStatus and o.returnStatus = :returnStatus and o.id < :lastOrderId order by o.id desc")
+    List<OrderHistDto> findReturnsByReturnStatus(@Param("orderStatus") OrderStatus orderStatus, @Param("returnStatus") ReturnStatus returnStatus,
+                                                 @Param("lastOrderId") Long lastOrderId, Pageable pageable);
+
+    // 주문 목록 한 페이지의 주문 상품 (상품명/대표 이미지 포함)
+    @Query("select new com.shop.dto.OrderItemDto(oi.order.id, oi.id, i.itemNm, oi.count, oi.orderPrice, i.shippingFee, i.repImgUrl, oi.comment, " +
+            "oi.reviewYn, oi.returnCount, oi.returnPrice, oi.returnReqDate, oi.returnConfirmDate, oi.returnStatus) " +
+            "from OrderItem oi join oi.item i " +
+            "where oi.order.id in :orderIds " +
+            "order by oi.id asc")
+    List<OrderItemDto> findOrderItemDtos(@Param("orderIds") List<Long> orderIds);
 
     @Query("select count(o) from Order o where o.member.email = :email")
     Long countOrder(@Param("email") String email);
 
-    @Query("select count(o) from Order o where 1=1 AND o.orderStatus = 'RETURN'")
-    Long countOrderForReturnList(@Param("email") String email);
+    @Query("select count(o) from Order o where o.member.email = :email and o.giftStatus = :giftStatus")
+    Long countOrderStatus(@Param("email") String email, @Param("giftStatus") GiftStatus giftStatus);
+
+    @Query("select count(o) from Order o where o.member.id = :memberId and o.orderStatus = :orderStatus")
+    Long countOrderForReturnList(@Param("memberId") Long memberId, @Param("orderStatus") OrderStatus orderStatus);
+
+
+    // 반품 확인 대상 (주문 아이디, 주문 상태, 반품 상태, 회원 아이디, 사용 포인트, 적립 포인트)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o.id, o.orderStatus, o.returnStatus, o.member.id, o.usedPoint, o.accPoint from Order o where o.id in :orderIds")
+    List<Object[]> findReturnConfirmRows(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update OrderItem oi set oi.returnConfirmDate = :now, oi.returnPrice = oi.orderPrice, oi.returnCount = oi.count, " +
+            "oi.returnStatus = :returnStatus, oi.updateTime = :now where oi.order.id in :orderIds")
+    int confirmReturnItems(@Param("orderIds") Collection<Long> orderIds, @Param("returnStatus") ReturnStatus returnStatus, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Order o set o.returnConfirmDate = :now, o.orderStatus = :orderStatus, o.returnStatus = :returnStatus, o.updateTime = :now " +
+            "where o.id in :orderIds")
+    int confirmReturnOrders(@Param("orderIds") Collection<Long> orderIds, @Param("orderStatus") OrderStatus orderStatus,
+                            @Param("returnStatus") ReturnStatus returnStatus, @Param("now") LocalDateTime now);
 
 }
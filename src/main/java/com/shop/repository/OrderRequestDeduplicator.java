@@ -0,0 +1,131 @@
+package com.shop.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// 주문 요청 키 중복 제거
+// 같은 회원이 같은 키로 보낸 주문은 한 번만 실행하고, 실행 중에 들어온 요청은 그 결과를 기다렸다가 같은 주문 아이디를 돌려줌
+// 완료된 키는 ttl 동안 메모리에 두고, 그 뒤(또는 다른 서버)에는 order_request 테이블의 unique 키로 확인
+@Component
+public class OrderRequestDeduplicator {
+
+    private final OrderRequestRepository orderRequestRepository;
+
+    private final long ttlMillis;
+
+    private final long waitMillis;
+
+    private final Map<String, OrderRequestFuture> requests = new ConcurrentHashMap<>();
+
+    public OrderRequestDeduplicator(OrderRequestRepository orderRequestRepository,
+                                    @Value("${shop.order.request-key-ttl-millis:600000}") long ttlMillis,
+                                    @Value("${shop.order.request-wait-millis:10000}") long waitMillis) {
+        this.orderRequestRepository = orderRequestRepository;
+        this.ttlMillis = ttlMillis;
+        this.waitMillis = waitMillis;
+    }
+
+    // 요청 키가 없으면 바로 실행
+    public Long submit(String email, String requestKey, Supplier<Long> order) {
+        if(requestKey == null || requestKey.isEmpty()) {
+            return order.get();
+        }
+
+        String key = email + ":" + requestKey;
+        OrderRequestFuture request = new OrderRequestFuture();
+        OrderRequestFuture prior = requests.putIfAbsent(key, request);
+
+        if(prior != null) {
+            return prior.await(waitMillis);
+        }
+
+        try {
+            Long orderId = orderRequestRepository.findOrderId(email, requestKey);
+
+            if(orderId == null) {
+                try {
+                    orderId = order.get();
+                } catch (DataIntegrityViolationException e) {
+                    // 다른 서버에서 같은 키로 먼저 주문한 경우
+                    orderId = orderRequestRepository.findOrderId(email, requestKey);
+
+                    if(orderId == null) {
+                        throw e;
+                    }
+                }
+            }
+
+            request.complete(orderId);
+
+            return orderId;
+        } catch (Throwable e) {
+            // 실패한 요청은 같은 키로 다시 시도할 수 있도록 제거 (Error 도 기다리는 요청에 전달)
+            requests.remove(key, request);
+            request.fail(e);
+
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shop.order.request-key-purge-millis:60000}")
+    public void purge() {
+        long expiredBefore = System.currentTimeMillis() - ttlMillis;
+
+        requests.values().removeIf(request -> request.isExpired(expiredBefore));
+    }
+
+    private static class OrderRequestFuture {
+
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+        private volatile long completedTime = Long.MAX_VALUE;
+
+        private void complete(Long orderId) {
+            completedTime = System.currentTimeMillis();
+            future.complete(orderId);
+        }
+
+        private void fail(Throwable e) {
+            future.completeExceptionally(e);
+        }
+
+        // 먼저 들어온 요청이 waitMillis 안에 끝나지 않으면 실패 (먼저 들어온 요청은 계속 진행)
+        private Long await(long waitMillis) {
+            try {
+                return future.get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                if(e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+
+                if(e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+
+                throw new IllegalStateException("주문 요청 처리 중 에러가 발생하였습니다.", e.getCause());
+            } catch (TimeoutException e) {
+                throw new IllegalStateException("같은 주문 요청을 처리 중입니다. 잠시 후 주문 내역을 확인해 주세요.");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new IllegalStateException("주문 요청 처리 중 에러가 발생하였습니다.");
+            }
+        }
+
+        private boolean isExpired(long expiredBefore) {
+            return completedTime < expiredBefore;
+        }
+
+    }
+
+}
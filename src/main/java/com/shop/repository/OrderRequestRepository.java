@@ -0,0 +1,13 @@
+package com.shop.repository;
+
+import com.shop.entity.OrderRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrderRequestRepository extends JpaRepository<OrderRequest, Long> {
+
+    @Query("select r.orderId from OrderRequest r where r.email = :email and r.requestKey = :requestKey")
+    Long findOrderId(@Param("email") String email, @Param("requestKey") String requestKey);
+
+}
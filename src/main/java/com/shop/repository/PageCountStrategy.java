@@ -0,0 +1,218 @@
+package com.shop.repository;
+
+import com.querydsl.jpa.JPQLQuery;
+import com.shop.constant.PageCountMode;
+import com.shop.util.TransactionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+// 페이지 조회 시 전체 건수(count 쿼리) 계산 방식
+@Component
+public class PageCountStrategy {
+
+    public static final String ITEM = "item";
+    public static final String REVERSE_AUCTION = "reverseAuction";
+    public static final String BID = "bid";
+    public static final String USED_ITEM = "usedItem";
+    public static final String MEMBER = "member";
+
+    private final PageCountMode mode;
+
+    private final long ttlSeconds;
+
+    private final int maxCachedCounts;
+
+    // 접근 순서 LinkedHashMap, 가득 차면 가장 오래 사용하지 않은 건수부터 제거
+    private final Map<String, CachedCount> counts;
+
+    @Autowired
+    public PageCountStrategy(@Value("${shop.page.count-mode:CACHED}") PageCountMode mode,
+                             @Value("${shop.page.count-ttl-seconds:60}") long ttlSeconds,
+                             @Value("${shop.page.count-max-size:10000}") int maxCachedCounts) {
+        this.mode = mode;
+        this.ttlSeconds = ttlSeconds;
+        this.maxCachedCounts = maxCachedCounts;
+        this.counts = new LinkedHashMap<String, CachedCount>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+                return size() > PageCountStrategy.this.maxCachedCounts;
+            }
+        };
+    }
+
+    // 검색 조건으로 만든 캐시 키
+    // 값이 없는 조건(null, 빈 문자열, 빈 목록)은 빼고, 목록은 정렬하고, 건수와 상관없는 정렬 조건(sort*)은 제외
+    public static String key(Object... parts) {
+        StringBuilder sb = new StringBuilder();
+
+        for(Object part : parts) {
+            if(sb.length() > 0) {
+                sb.append(':');
+            }
+
+            sb.append(normalize(part));
+        }
+
+        return sb.toString();
+    }
+
+    // query 에는 offset/limit 을 지정하지 않고 넘김
+    public <T> Page<T> getPage(String region, String searchKey, JPQLQuery<T> query, Pageable pageable) {
+        if(mode == PageCountMode.HAS_NEXT) {
+            return this.getSlicePage(query, pageable);
+        }
+
+        List<T> content = query
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        // 첫 페이지가 덜 찼거나 마지막 페이지인 경우에는 count 쿼리 생략
+        if(mode == PageCountMode.EXACT) {
+            return PageableExecutionUtils.getPage(content, pageable, query::fetchCount);
+        }
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> this.getCachedCount(region + ":" + searchKey, query));
+    }
+
+    // 해당 영역의 캐시된 건수 삭제 (쓰기 트랜잭션이 커밋/롤백된 뒤에도 한번 더 삭제)
+    public void invalidate(String... regions) {
+        Runnable evict = () -> {
+            synchronized (counts) {
+                for(String region : regions) {
+                    counts.keySet().removeIf(key -> key.startsWith(region + ":"));
+                }
+            }
+        };
+
+        evict.run();
+
+        TransactionUtils.afterCommit(evict);
+        TransactionUtils.afterRollback(evict);
+    }
+
+    public int size() {
+        synchronized (counts) {
+            return counts.size();
+        }
+    }
+
+    // limit + 1 건을 조회해 다음 페이지 존재 여부만 판단 (전체 건수는 근사값)
+    private <T> Page<T> getSlicePage(JPQLQuery<T> query, Pageable pageable) {
+        List<T> content = query
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1)
+                .fetch();
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+
+        if(hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+
+        long total = pageable.getOffset() + content.size() + (hasNext ? 1 : 0);
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    // count 쿼리는 락 밖에서 실행
+    private long getCachedCount(String key, JPQLQuery<?> query) {
+        long now = System.currentTimeMillis();
+
+        synchronized (counts) {
+            CachedCount cachedCount = counts.get(key);
+
+            if(cachedCount != null && cachedCount.expireAt > now) {
+                return cachedCount.count;
+            }
+        }
+
+        long count = query.fetchCount();
+
+        synchronized (counts) {
+            counts.put(key, new CachedCount(count, now + ttlSeconds * 1000));
+        }
+
+        return count;
+    }
+
+    private static String normalize(Object value) {
+        if(value == null) {
+            return "";
+        }
+
+        if(value instanceof CharSequence || value instanceof Number || value instanceof Boolean || value instanceof Enum) {
+            return value.toString();
+        }
+
+        if(value instanceof Collection) {
+            List<String> values = new ArrayList<>();
+
+            for(Object element : (Collection<?>) value) {
+                values.add(normalize(element));
+            }
+
+            Collections.sort(values);
+
+            return String.join(",", new LinkedHashSet<>(values));
+        }
+
+        if(value.getClass().isArray()) {
+            return normalize(Arrays.asList((Object[]) value));
+        }
+
+        // 검색 DTO 는 필드 이름 순으로 값이 있는 필드만
+        SortedMap<String, String> fields = new TreeMap<>();
+
+        for(Class<?> type = value.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for(Field field : type.getDeclaredFields()) {
+                if(Modifier.isStatic(field.getModifiers()) || field.isSynthetic() || field.getName().startsWith("sort")) {
+                    continue;
+                }
+
+                try {
+                    field.setAccessible(true);
+
+                    String normalized = normalize(field.get(value));
+
+                    if(!normalized.isEmpty()) {
+                        fields.put(field.getName(), normalized);
+                    }
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("페이지 건수 캐시 키 생성 중 에러가 발생하였습니다.", e);
+                }
+            }
+        }
+
+        StringBuilder sb = new StringBuilder(value.getClass().getSimpleName()).append('{');
+
+        for(Map.Entry<String, String> entry : fields.entrySet()) {
+            sb.append(entry.getKey()).append('=').append(entry.getValue()).append(';');
+        }
+
+        return sb.append('}').toString();
+    }
+
+    private static class CachedCount {
+
+        private final long count;
+
+        private final long expireAt;
+
+        CachedCount(long count, long expireAt) {
+            this.count = count;
+            this.expireAt = expireAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.shop.repository;
+
+import com.shop.entity.PointLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface PointLedgerRepository extends JpaRepository<PointLedger, Long> {
+
+    @Query("select coalesce(sum(pl.delta), 0) from PointLedger pl where pl.member.id = :memberId")
+    long sumDeltaByMemberId(@Param("memberId") Long memberId);
+
+    List<PointLedger> findByOrderIdOrderByIdAsc(Long orderId);
+
+}
@@ -1,8 +1,34 @@
 package com.shop.repository;
 
+import com.shop.constant.ReverseAuctionStatus;
 import com.shop.entity.ReverseAuction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface ReverseAuctionRepository extends JpaRepository<ReverseAuction, Long>, ReverseAuctionRepositoryCustom {
 
+    @Query("select r from ReverseAuction r join fetch r.item where r.item.id = :itemId")
+    List<ReverseAuction> findByItemId(@Param("itemId") Long itemId);
+
+    @Query("select r from ReverseAuction r join fetch r.item where r.id in :ids")
+    List<ReverseAuction> findWithItemByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select r from ReverseAuction r join fetch r.item where r.status = :status")
+    List<ReverseAuction> findByStatus(@Param("status") ReverseAuctionStatus status);
+
+    // end_time 컬럼 추가 이전에 등록된 역경매
+    @Query("select r from ReverseAuction r join fetch r.item where r.endTime is null")
+    List<ReverseAuction> findUnscheduled();
+
+    // 종료 시간이 지난 진행 중 역경매를 한 번에 종료 처리 (status, end_time 색인)
+    @Modifying
+    @Query("update ReverseAuction r set r.status = :endStatus where r.status = :progressStatus and r.endTime <= :now")
+    int updateEndedStatus(@Param("progressStatus") ReverseAuctionStatus progressStatus, @Param("endStatus") ReverseAuctionStatus endStatus, @Param("now") LocalDateTime now);
+
 }
@@ -4,15 +4,15 @@ import com.querydsl.core.QueryResults;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.CaseBuilder;
-import com.querydsl.core.types.dsl.Coalesce;
 import com.querydsl.core.types.dsl.Expressions;
-import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.core.types.dsl.StringExpression;
+import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import com.shop.constant.ReverseAuctionSearchSortColumn;
+import com.shop.constant.ReverseAuctionStatus;
 import com.shop.dto.*;
 import com.shop.entity.*;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
@@ -24,8 +24,11 @@ public class ReverseAuctionRepositoryCustomImpl implements ReverseAuctionReposit
 
     private JPAQueryFactory queryFactory;
 
-    public ReverseAuctionRepositoryCustomImpl(EntityManager em) {
+    private PageCountStrategy pageCountStrategy;
+
+    public ReverseAuctionRepositoryCustomImpl(EntityManager em, PageCountStrategy pageCountStrategy) {
         this.queryFactory = new JPAQueryFactory(em);
+        this.pageCountStrategy = pageCountStrategy;
     }
 
     private BooleanExpression searchByLike(String searchQuery) {
@@ -33,18 +36,19 @@ public class ReverseAuctionRepositoryCustomImpl implements ReverseAuctionReposit
     }
 
     private BooleanExpression searchByApprovedYn(String searchApprovedYn) {
+        return approvedYn().like("%" + searchApprovedYn + "%");
+    }
+
+    // 낙찰 여부 (낙찰 Y / 진행 중 N / 종료 F, 종료 시간이 지나면 낙찰된 역경매도 F), 입찰 조회 없이 status 로 판단
+    private StringExpression approvedYn() {
+        QReverseAuction reverseAuction = QReverseAuction.reverseAuction;
+
         return new CaseBuilder()
-                .when(outOfDate().not())
-                .then("F")
-                .otherwise(
-                    new Coalesce<String>(String.class).add(
-                        JPAExpressions.select(QBid.bid.approvedYn)
-                                .from(QBid.bid)
-                                .where(QBid.bid.reverseAuction.eq(QReverseAuction.reverseAuction))
-                                .where(QBid.bid.approvedYn.eq("Y"))
-                    ).add("N")
-                )
-                .like("%" + searchApprovedYn + "%");
+                .when(reverseAuction.status.eq(ReverseAuctionStatus.SOLD).and(reverseAuction.endTime.gt(LocalDateTime.now())))
+                .then("Y")
+                .when(inProgress())
+                .then("N")
+                .otherwise("F");
     }
 
     private OrderSpecifier orderBy(ReverseAuctionSearchDto reverseAuctionSearchDto) {
@@ -76,29 +80,25 @@ public class ReverseAuctionRepositoryCustomImpl implements ReverseAuctionReposit
         return orderSpecifier;
     }
 
-    private BooleanExpression outOfDate() {
-        return Expressions.stringTemplate("TIMESTAMPDIFF(HOUR, {0}, {1})", QReverseAuction.reverseAuction.startTime, LocalDateTime.now())
-                .castToNum(Integer.class)
-                .divide(QReverseAuction.reverseAuction.timeUnit)
-                .multiply(QReverseAuction.reverseAuction.priceUnit)
-                .divide(QReverseAuction.reverseAuction.item.price)
-                .multiply(100)
-                .loe(QReverseAuction.reverseAuction.maxRate);
+    // 진행 중인 역경매 (status, end_time 색인 컬럼만 비교, 낙찰된 역경매는 SOLD 이므로 제외)
+    // 종료 시간이 지났지만 아직 종료 처리되지 않은 역경매는 end_time 으로 제외
+    private BooleanExpression inProgress() {
+        return QReverseAuction.reverseAuction.status.eq(ReverseAuctionStatus.PROGRESS)
+                .and(QReverseAuction.reverseAuction.endTime.gt(LocalDateTime.now()));
     }
 
     @Override
     public Page<ReverseAuctionHistoryDto> getAdminReverseAuctionPage(ReverseAuctionSearchDto reverseAuctionSearchDto, Pageable pageable) {
         QReverseAuction reverseAuction = QReverseAuction.reverseAuction;
-        QItemImg itemImg = QItemImg.itemImg;
         QItem item = QItem.item;
         QBid bid = QBid.bid;
         QMember member = QMember.member;
 
-        QueryResults<ReverseAuctionHistoryDto> results = queryFactory
+        JPQLQuery<ReverseAuctionHistoryDto> query = queryFactory
                 .select(
                         new QReverseAuctionHistoryDto(
                                 reverseAuction.id,
-                                itemImg.imgUrl,
+                                item.repImgUrl,
                                 item.itemNm,
                                 item.shippingFee,
                                 item.price,
@@ -106,17 +106,7 @@ public class ReverseAuctionRepositoryCustomImpl implements ReverseAuctionReposit
                                 reverseAuction.priceUnit,
                                 reverseAuction.timeUnit,
                                 reverseAuction.maxRate,
-                                new CaseBuilder()
-                                        .when(outOfDate().not())
-                                        .then("F")
-                                        .otherwise(
-                                            new Coalesce<String>(String.class).add(
-                                                JPAExpressions.select(bid.approvedYn)
-                                                        .from(bid)
-                                                        .where(bid.reverseAuction.eq(reverseAuction))
-                                                        .where(bid.approvedYn.eq("Y"))
-                                            ).add("N")
-                                        ),
+                                approvedYn(),
                                 bid.approvedTime,
                                 member.email,
                                 bid.depositAmount
@@ -126,33 +116,25 @@ public class ReverseAuctionRepositoryCustomImpl implements ReverseAuctionReposit
                 .leftJoin(reverseAuction.bids, bid).on(bid.approvedYn.eq("Y"))
                 .leftJoin(bid.member, member)
                 .join(reverseAuction.item, item)
-                .join(itemImg).on(itemImg.item.eq(reverseAuction.item).and(itemImg.repImgYn.eq("Y")))
+                .where(item.repImgUrl.isNotNull())
                 .where(searchByLike(reverseAuctionSearchDto.getSearchQuery()))
                 .where(searchByApprovedYn(reverseAuctionSearchDto.getSearchApprovedYn()))
-                .orderBy(this.orderBy(reverseAuctionSearchDto))
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetchResults();
-
-        List<ReverseAuctionHistoryDto> content = results.getResults();
+                .orderBy(this.orderBy(reverseAuctionSearchDto));
 
-        long total = results.getTotal();
-
-        return new PageImpl<>(content, pageable, total);
+        return pageCountStrategy.getPage(PageCountStrategy.REVERSE_AUCTION, PageCountStrategy.key("admin", reverseAuctionSearchDto), query, pageable);
     }
 
     @Override
     public Page<ReverseAuctionDto> getUserReverseAuctionPage(ReverseAuctionSearchDto reverseAuctionSearchDto, Pageable pageable) {
         QReverseAuction reverseAuction = QReverseAuction.reverseAuction;
-        QItemImg itemImg = QItemImg.itemImg;
         QItem item = QItem.item;
         QBid bid = QBid.bid;
 
-        QueryResults<ReverseAuctionDto> results = queryFactory
+        JPQLQuery<ReverseAuctionDto> query = queryFactory
                 .select(
                         new QReverseAuctionDto(
                                 reverseAuction.id,
-                                itemImg.imgUrl,
+                                item.repImgUrl,
                                 item.itemNm,
                                 item.shippingFee,
                                 item.price,
@@ -165,32 +147,17 @@ public class ReverseAuctionRepositoryCustomImpl implements ReverseAuctionReposit
                 )
                 .from(reverseAuction)
                 .join(reverseAuction.item, item)
-                .join(itemImg).on(itemImg.item.eq(reverseAuction.item).and(itemImg.repImgYn.eq("Y")))
+                .where(item.repImgUrl.isNotNull())
                 .where(searchByLike(reverseAuctionSearchDto.getSearchQuery()))
-                .where(outOfDate())
-                .where(
-                    JPAExpressions.select(bid.approvedYn)
-                            .from(bid)
-                            .where(bid.reverseAuction.eq(reverseAuction))
-                            .where(bid.approvedYn.eq("Y"))
-                            .isNull()
-                )
-                .orderBy(this.orderBy(reverseAuctionSearchDto))
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetchResults();
-
-        List<ReverseAuctionDto> content = results.getResults();
-
-        long total = results.getTotal();
+                .where(inProgress())
+                .orderBy(this.orderBy(reverseAuctionSearchDto));
 
-        return new PageImpl<>(content, pageable, total);
+        return pageCountStrategy.getPage(PageCountStrategy.REVERSE_AUCTION, PageCountStrategy.key("user", reverseAuctionSearchDto), query, pageable);
     }
 
     @Override
     public List<ReverseAuctionHistoryDto> getPreviousReverseAuctionPage() {
         QReverseAuction reverseAuction = QReverseAuction.reverseAuction;
-        QItemImg itemImg = QItemImg.itemImg;
         QItem item = QItem.item;
         QBid bid = QBid.bid;
         QMember member = QMember.member;
@@ -199,7 +166,7 @@ public class ReverseAuctionRepositoryCustomImpl implements ReverseAuctionReposit
                 .select(
                         new QReverseAuctionHistoryDto(
                                 reverseAuction.id,
-                                itemImg.imgUrl,
+                                item.repImgUrl,
                                 item.itemNm,
                                 item.shippingFee,
                                 item.price,
@@ -220,8 +187,8 @@ public class ReverseAuctionRepositoryCustomImpl implements ReverseAuctionReposit
                 .join(reverseAuction.bids, bid).on(bid.approvedYn.eq("Y"))
                 .join(bid.member, member)
                 .join(reverseAuction.item, item)
-                .join(itemImg).on(itemImg.item.eq(reverseAuction.item).and(itemImg.repImgYn.eq("Y")))
-                .where(outOfDate().not().or(bid.approvedYn.isNotNull()))
+                .where(item.repImgUrl.isNotNull())
+                .where(inProgress().not().or(bid.approvedYn.isNotNull()))
                 .orderBy(bid.approvedTime.desc())
                 .limit(6)
                 .fetchResults();
@@ -232,14 +199,13 @@ public class ReverseAuctionRepositoryCustomImpl implements ReverseAuctionReposit
     @Override
     public ReverseAuctionDto getUserReverseAuctionDetailPage(Long id) {
         QReverseAuction reverseAuction = QReverseAuction.reverseAuction;
-        QItemImg itemImg = QItemImg.itemImg;
         QItem item = QItem.item;
 
         ReverseAuctionDto result = queryFactory
                 .select(
                         new QReverseAuctionDto(
                                 reverseAuction.id,
-                                itemImg.imgUrl,
+                                item.repImgUrl,
                                 item.itemNm,
                                 item.shippingFee,
                                 item.price,
@@ -252,7 +218,7 @@ public class ReverseAuctionRepositoryCustomImpl implements ReverseAuctionReposit
                 )
                 .from(reverseAuction)
                 .join(reverseAuction.item, item)
-                .join(itemImg).on(itemImg.item.eq(reverseAuction.item).and(itemImg.repImgYn.eq("Y")))
+                .where(item.repImgUrl.isNotNull())
                 .where(reverseAuction.id.eq(id))
                 .fetchOne();
 
@@ -0,0 +1,238 @@
+package com.shop.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// 진행 중인 역경매마다 다음 가격 변경 시각 (또는 종료 시각) 하나를 타이밍 휠에 등록
+// 시각이 되면 현재 가격을 갱신하고 다음 시각으로 다시 등록, 종료 시각이면 휠에서 제거
+// 현재 가격은 여기서 읽고, 가격 변경 / 종료 / 낙찰 이벤트는 구독자에게 전달 (ReverseAuctionClock 이 주기적으로 advance)
+@Component
+public class ReverseAuctionTimeline {
+
+    private final TimingWheel<Long> wheel;
+
+    private final Map<Long, Schedule> schedules = new HashMap<>();
+
+    private final List<Consumer<Event>> listeners = new CopyOnWriteArrayList<>();
+
+    public ReverseAuctionTimeline(@Value("${shop.reverse-auction.tick-millis:1000}") long tickMillis) {
+        this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+    }
+
+    // DB 의 진행 중인 역경매로 다시 채움
+    public synchronized void rebuild(List<Schedule> progressSchedules, LocalDateTime now) {
+        for(Long reverseAuctionId : new ArrayList<>(schedules.keySet())) {
+            this.remove(reverseAuctionId);
+        }
+
+        for(Schedule schedule : progressSchedules) {
+            this.register(schedule, now);
+        }
+    }
+
+    // 등록 / 수정된 역경매, 이미 종료된 역경매면 제거
+    public synchronized void register(Schedule schedule, LocalDateTime now) {
+        if(!schedule.endTime.isAfter(now)) {
+            this.remove(schedule.reverseAuctionId);
+
+            return;
+        }
+
+        schedule.refresh(now);
+        schedules.put(schedule.reverseAuctionId, schedule);
+
+        wheel.schedule(schedule.reverseAuctionId, toMillis(schedule.nextTime()));
+    }
+
+    public synchronized void remove(Long reverseAuctionId) {
+        schedules.remove(reverseAuctionId);
+        wheel.cancel(reverseAuctionId);
+    }
+
+    // now 까지 지난 가격 변경 / 종료 이벤트 (이벤트 전달은 publish 로 따로 함)
+    public synchronized List<Event> advance(LocalDateTime now) {
+        List<Event> events = new ArrayList<>();
+
+        for(Long reverseAuctionId : wheel.advance(toMillis(now))) {
+            Schedule schedule = schedules.get(reverseAuctionId);
+
+            if(schedule == null) {
+                continue;
+            }
+
+            if(!schedule.endTime.isAfter(now)) {
+                schedules.remove(reverseAuctionId);
+                events.add(new Event(EventType.END, reverseAuctionId, schedule.currentPrice, schedule.startPrice, schedule.endTime));
+
+                continue;
+            }
+
+            int previousPrice = schedule.currentPrice;
+
+            schedule.refresh(now);
+            wheel.schedule(reverseAuctionId, toMillis(schedule.nextTime()));
+
+            // 틱 단위로 절사되어 변경 시각보다 조금 일찍 꺼낸 경우는 다시 등록만 함
+            if(schedule.currentPrice == previousPrice) {
+                continue;
+            }
+
+            events.add(new Event(EventType.STEP, reverseAuctionId, schedule.currentPrice, schedule.startPrice, schedule.stepTime));
+        }
+
+        return events;
+    }
+
+    // 낙찰된 역경매는 더 이상 가격이 바뀌지 않으므로 휠에서 빼고 구독자에게 알림
+    public void sold(Long reverseAuctionId) {
+        Event event;
+
+        synchronized (this) {
+            Schedule schedule = schedules.remove(reverseAuctionId);
+            wheel.cancel(reverseAuctionId);
+
+            event = schedule == null
+                    ? new Event(EventType.SOLD, reverseAuctionId, 0, 0, LocalDateTime.now())
+                    : new Event(EventType.SOLD, reverseAuctionId, schedule.currentPrice, schedule.startPrice, LocalDateTime.now());
+        }
+
+        this.publish(Collections.singletonList(event));
+    }
+
+    // 현재 가격 상태 (새 구독자에게 처음 보내는 값), 진행 중이 아니거나 등록되지 않은 역경매는 null
+    public synchronized Event getCurrent(Long reverseAuctionId) {
+        Schedule schedule = schedules.get(reverseAuctionId);
+
+        return schedule == null ? null : new Event(EventType.STEP, reverseAuctionId, schedule.currentPrice, schedule.startPrice, schedule.stepTime);
+    }
+
+    // 진행 중이 아니거나 등록되지 않은 역경매는 null
+    public synchronized Integer getCurrentPrice(Long reverseAuctionId) {
+        Schedule schedule = schedules.get(reverseAuctionId);
+
+        return schedule == null ? null : schedule.currentPrice;
+    }
+
+    public synchronized int size() {
+        return schedules.size();
+    }
+
+    public void addListener(Consumer<Event> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<Event> listener) {
+        listeners.remove(listener);
+    }
+
+    // 잠금 밖에서 구독자에게 전달 (구독자 처리가 느려도 등록 / 조회를 막지 않음)
+    public void publish(List<Event> events) {
+        for(Event event : events) {
+            for(Consumer<Event> listener : listeners) {
+                listener.accept(event);
+            }
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public static class Schedule {
+
+        private final Long reverseAuctionId;
+
+        private final LocalDateTime startTime;
+
+        private final int startPrice;
+
+        private final int timeUnit;
+
+        private final int priceUnit;
+
+        private final LocalDateTime endTime;
+
+        private int currentPrice;
+
+        // 현재 가격이 시작된 시각
+        private LocalDateTime stepTime;
+
+        public Schedule(Long reverseAuctionId, LocalDateTime startTime, int startPrice, int timeUnit, int priceUnit, LocalDateTime endTime) {
+            this.reverseAuctionId = reverseAuctionId;
+            this.startTime = startTime;
+            this.startPrice = startPrice;
+            this.timeUnit = timeUnit;
+            this.priceUnit = priceUnit;
+            this.endTime = endTime;
+        }
+
+        // DiscountDto 와 같은 계산 (경과 시간을 시간 단위로 절사해 자동 할인 시간마다 경매 단위만큼 할인)
+        private void refresh(LocalDateTime now) {
+            long steps = Math.max(ChronoUnit.HOURS.between(startTime, now), 0) / timeUnit;
+
+            this.currentPrice = (int) (startPrice - steps * priceUnit);
+            this.stepTime = startTime.plusHours(steps * timeUnit);
+        }
+
+        private LocalDateTime nextTime() {
+            LocalDateTime nextStepTime = stepTime.plusHours(timeUnit);
+
+            return nextStepTime.isBefore(endTime) ? nextStepTime : endTime;
+        }
+
+    }
+
+    public enum EventType {
+        STEP, END, SOLD
+    }
+
+    public static class Event {
+
+        private final EventType type;
+
+        private final Long reverseAuctionId;
+
+        private final int currentPrice;
+
+        private final int startPrice;
+
+        private final LocalDateTime time;
+
+        public Event(EventType type, Long reverseAuctionId, int currentPrice, int startPrice, LocalDateTime time) {
+            this.type = type;
+            this.reverseAuctionId = reverseAuctionId;
+            this.currentPrice = currentPrice;
+            this.startPrice = startPrice;
+            this.time = time;
+        }
+
+        public EventType getType() {
+            return type;
+        }
+
+        public Long getReverseAuctionId() {
+            return reverseAuctionId;
+        }
+
+        public int getCurrentPrice() {
+            return currentPrice;
+        }
+
+        public int getStartPrice() {
+            return startPrice;
+        }
+
+        public LocalDateTime getTime() {
+            return time;
+        }
+
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.shop.repository;
+
+import com.shop.entity.StockJournal;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface StockJournalRepository extends JpaRepository<StockJournal, Long> {
+
+    List<StockJournal> findTop1000ByOrderByIdAsc();
+
+}
@@ -0,0 +1,101 @@
+package com.shop.repository;
+
+import com.shop.entity.Item;
+import com.shop.entity.StockJournal;
+import com.shop.exception.OutOfStockException;
+import com.shop.util.TransactionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 상품 재고 예약
+// 상품 아이디로 나눈 샤드마다 상품별 남은 재고를 AtomicInteger 로 두고 CAS 로 차감/복구 (item 행 잠금 없음)
+// 재고 변경분은 같은 트랜잭션에서 stock_journal 에 추가하고, 모아서 item.stock_number 에 배치로 반영
+@Component
+public class StockReservation {
+
+    private static final int SHARD_COUNT = 16;
+
+    private final Shard[] shards = new Shard[SHARD_COUNT];
+
+    private final StockJournalRepository stockJournalRepository;
+
+    public StockReservation(StockJournalRepository stockJournalRepository) {
+        this.stockJournalRepository = stockJournalRepository;
+
+        for(int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    // 재고 차감 (트랜잭션이 롤백되면 저널과 함께 복구)
+    public void reserve(Item item, int count) {
+        AtomicInteger available = this.getAvailable(item);
+
+        while(true) {
+            int current = available.get();
+
+            if(current < count) {
+                throw new OutOfStockException("상품 재고가 부족 합니다. (현재 재고 수량: " + current + ")");
+            }
+
+            if(available.compareAndSet(current, current - count)) {
+                break;
+            }
+        }
+
+        TransactionUtils.afterRollback(() -> available.addAndGet(count));
+
+        stockJournalRepository.save(StockJournal.createStockJournal(item.getId(), -count));
+    }
+
+    // 재고 복구 (주문 취소가 커밋된 뒤 남은 재고에 반영)
+    public void release(Item item, int count) {
+        AtomicInteger available = this.getAvailable(item);
+
+        stockJournalRepository.save(StockJournal.createStockJournal(item.getId(), count));
+
+        TransactionUtils.afterCommit(() -> available.addAndGet(count));
+    }
+
+    // 관리자가 재고 수량을 직접 수정한 경우
+    // 남은 재고를 getAndSet 으로 바꾸고 바꾸기 전 값과의 차이를 저널로 추가 (동시에 들어온 예약도 남은 재고와 저널 양쪽에 그대로 남음)
+    public void reset(Item item, int stockNumber) {
+        AtomicInteger available = this.getAvailable(item);
+
+        int delta = stockNumber - available.getAndSet(stockNumber);
+
+        if(delta == 0) {
+            return;
+        }
+
+        TransactionUtils.afterRollback(() -> available.addAndGet(-delta));
+
+        stockJournalRepository.save(StockJournal.createStockJournal(item.getId(), delta));
+    }
+
+    // 남은 재고 (예약된 적 없는 상품은 null)
+    public Integer getStockNumber(Long itemId) {
+        AtomicInteger available = this.shard(itemId).available.get(itemId);
+
+        return available == null ? null : available.get();
+    }
+
+    // 처음 예약하는 상품은 DB 재고 수량으로 초기화 (시작 시 남은 저널을 먼저 반영하므로 DB 값이 최신)
+    private AtomicInteger getAvailable(Item item) {
+        return this.shard(item.getId()).available.computeIfAbsent(item.getId(), key -> new AtomicInteger(item.getStockNumber()));
+    }
+
+    private Shard shard(Long itemId) {
+        return shards[(int) Math.floorMod(itemId, (long) SHARD_COUNT)];
+    }
+
+    private static class Shard {
+
+        private final Map<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+
+    }
+
+}
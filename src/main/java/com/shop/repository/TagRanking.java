@@ -0,0 +1,78 @@
+package com.shop.repository;
+
+import com.shop.entity.Tag;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// 판매 건수 내림차순 태그 목록
+// 시작 시 DB 값으로 한 번 만들고 이후 판매 건수는 메모리에서 더함, 정렬은 판매 건수가 바뀐 뒤 처음 조회할 때만
+@Component
+public class TagRanking {
+
+    private final Map<Long, Tag> tags = new LinkedHashMap<>();
+
+    private List<Tag> sortedTags = Collections.emptyList();
+
+    private boolean ready = false;
+
+    private boolean dirty = false;
+
+    // 영속 상태가 아닌 복사본으로 보관
+    public synchronized void rebuild(List<Tag> rows) {
+        tags.clear();
+
+        for(Tag row : rows) {
+            Tag tag = new Tag();
+            tag.setId(row.getId());
+            tag.setTagNm(row.getTagNm());
+            tag.setTagContent(row.getTagContent());
+            tag.setTotalSell(row.getTotalSell());
+
+            tags.put(tag.getId(), tag);
+        }
+
+        ready = true;
+        dirty = true;
+    }
+
+    public synchronized boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void record(Collection<Long> tagIds) {
+        for(Long tagId : tagIds) {
+            Tag tag = tags.get(tagId);
+
+            if(tag != null) {
+                tag.addTotalSell();
+                dirty = true;
+            }
+        }
+    }
+
+    // 판매 건수 내림차순 (같으면 태그 아이디 오름차순)
+    public synchronized List<Tag> getTags() {
+        if(dirty) {
+            List<Tag> sorted = new ArrayList<>();
+
+            for(Tag tag : tags.values()) {
+                Tag copy = new Tag();
+                copy.setId(tag.getId());
+                copy.setTagNm(tag.getTagNm());
+                copy.setTagContent(tag.getTagContent());
+                copy.setTotalSell(tag.getTotalSell());
+
+                sorted.add(copy);
+            }
+
+            sorted.sort(Comparator.comparingInt(Tag::getTotalSell).reversed().thenComparing(Tag::getId));
+
+            sortedTags = Collections.unmodifiableList(sorted);
+            dirty = false;
+        }
+
+        return sortedTags;
+    }
+
+}
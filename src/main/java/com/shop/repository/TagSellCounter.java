@@ -0,0 +1,70 @@
+package com.shop.repository;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// 태그별 판매 건수 누적 카운터
+// 주문 시 tag 행을 잠그지 않도록 메모리에 누적하고, 모아둔 증가분을 주기적으로 DB 에 반영
+@Component
+public class TagSellCounter {
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // DB 반영 중인 증가분 (반영이 끝나기 전까지 조회 값에 포함)
+    private final Map<Long, Long> flushing = new ConcurrentHashMap<>();
+
+    public void increment(Collection<Long> tagIds) {
+        for(Long tagId : tagIds) {
+            pending.computeIfAbsent(tagId, key -> new LongAdder()).increment();
+        }
+    }
+
+    // 아직 DB 에 반영되지 않은 증가분
+    public long getDelta(Long tagId) {
+        LongAdder adder = pending.get(tagId);
+
+        long delta = adder == null ? 0 : adder.sum();
+
+        return delta + flushing.getOrDefault(tagId, 0L);
+    }
+
+    // 누적된 증가분을 꺼내 반영 중 상태로 옮김 (반영 후 complete, 실패 시 restore 호출)
+    public synchronized Map<Long, Long> drain() {
+        Map<Long, Long> deltas = new HashMap<>();
+
+        for(Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+
+            if(delta != 0) {
+                deltas.put(entry.getKey(), delta);
+            }
+        }
+
+        for(Map.Entry<Long, Long> entry : deltas.entrySet()) {
+            flushing.merge(entry.getKey(), entry.getValue(), Long::sum);
+        }
+
+        return deltas;
+    }
+
+    public synchronized void complete(Map<Long, Long> deltas) {
+        for(Map.Entry<Long, Long> entry : deltas.entrySet()) {
+            flushing.computeIfPresent(entry.getKey(), (key, value) -> value - entry.getValue() == 0 ? null : value - entry.getValue());
+        }
+    }
+
+    // DB 반영에 실패한 증가분을 다시 누적
+    public synchronized void restore(Map<Long, Long> deltas) {
+        this.complete(deltas);
+
+        for(Map.Entry<Long, Long> entry : deltas.entrySet()) {
+            pending.computeIfAbsent(entry.getKey(), key -> new LongAdder()).add(entry.getValue());
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.shop.repository;
+
+import java.util.*;
+
+// 계층형 타이밍 휠 (키 하나당 만료 시각 하나)
+// 단계마다 SLOTS 칸, 아래 단계 한 바퀴가 위 단계 한 칸 (기본 1초 단위면 4단계로 약 194일)
+// 등록 / 취소는 O(1), 시간이 지나면 위 단계 칸의 항목을 아래 단계로 내림
+// 스레드 안전하지 않음 (사용하는 쪽에서 동기화)
+public class TimingWheel<K> {
+
+    private static final int SLOT_BITS = 6;
+
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+
+    private final List<List<Set<Entry<K>>>> wheels = new ArrayList<>();
+
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+
+        for(int level = 0; level < LEVELS; level++) {
+            List<Set<Entry<K>>> slots = new ArrayList<>(SLOTS);
+
+            for(int slot = 0; slot < SLOTS; slot++) {
+                slots.add(new LinkedHashSet<>());
+            }
+
+            wheels.add(slots);
+        }
+    }
+
+    // 이미 등록된 키면 만료 시각을 바꿈, 지난 시각은 다음 틱에 만료
+    public void schedule(K key, long deadlineMillis) {
+        this.cancel(key);
+
+        Entry<K> entry = new Entry<>(key, Math.max(deadlineMillis / tickMillis, currentTick + 1));
+        entries.put(key, entry);
+
+        this.place(entry);
+    }
+
+    public boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+
+        if(entry == null) {
+            return false;
+        }
+
+        wheels.get(entry.level).get(entry.slot).remove(entry);
+
+        return true;
+    }
+
+    // nowMillis 까지 틱을 진행하고 만료된 키를 만료 순서대로 돌려줌 (돌려준 키는 등록 해제)
+    public List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+
+        while(currentTick < targetTick) {
+            currentTick++;
+
+            this.cascade();
+
+            Set<Entry<K>> slot = wheels.get(0).get((int) (currentTick & SLOT_MASK));
+
+            if(slot.isEmpty()) {
+                continue;
+            }
+
+            List<Entry<K>> due = new ArrayList<>(slot);
+            slot.clear();
+
+            for(Entry<K> entry : due) {
+                // 최상위 단계 범위를 넘어 등록된 항목은 다시 배치
+                if(entry.deadlineTick > currentTick) {
+                    this.place(entry);
+                } else {
+                    entries.remove(entry.key);
+                    expired.add(entry.key);
+                }
+            }
+        }
+
+        return expired;
+    }
+
+    public boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // 아래 단계가 한 바퀴 돌 때마다 위 단계의 현재 칸을 다시 배치 (위 단계부터 내려야 현재 칸을 놓치지 않음)
+    private void cascade() {
+        int topLevel = 0;
+
+        while(topLevel + 1 < LEVELS && (currentTick & ((1L << (SLOT_BITS * (topLevel + 1))) - 1)) == 0) {
+            topLevel++;
+        }
+
+        for(int level = topLevel; level > 0; level--) {
+            Set<Entry<K>> slot = wheels.get(level).get((int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+
+            if(slot.isEmpty()) {
+                continue;
+            }
+
+            List<Entry<K>> moved = new ArrayList<>(slot);
+            slot.clear();
+
+            for(Entry<K> entry : moved) {
+                this.place(entry);
+            }
+        }
+    }
+
+    private void place(Entry<K> entry) {
+        long tick = Math.max(entry.deadlineTick, currentTick);
+        long delta = tick - currentTick;
+        int level = 0;
+
+        while(level + 1 < LEVELS && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+
+        // 최상위 단계 범위를 넘으면 최상위 단계의 가장 먼 칸에 두고 내려올 때 다시 배치
+        if(delta >= (1L << (SLOT_BITS * LEVELS))) {
+            tick = currentTick + (1L << (SLOT_BITS * LEVELS)) - 1;
+        }
+
+        entry.level = level;
+        entry.slot = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+
+        wheels.get(level).get(entry.slot).add(entry);
+    }
+
+    private static class Entry<K> {
+
+        private final K key;
+
+        private final long deadlineTick;
+
+        private int level;
+
+        private int slot;
+
+        private Entry(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+
+    }
+
+}
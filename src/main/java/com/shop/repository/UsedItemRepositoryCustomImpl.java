@@ -1,7 +1,7 @@
 package com.shop.repository;
 
-import com.querydsl.core.QueryResults;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import com.shop.constant.UsedItemSellStatus;
 import com.shop.dto.QUsedItemDto;
@@ -10,20 +10,21 @@ import com.shop.dto.UsedItemSearchDto;
 import com.shop.entity.QUsedItem;
 import com.shop.entity.QUsedItemImg;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.thymeleaf.util.StringUtils;
 
 import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
-import java.util.List;
 
 public class UsedItemRepositoryCustomImpl implements UsedItemRepositoryCustom {
 
     private JPAQueryFactory queryFactory;
 
-    public UsedItemRepositoryCustomImpl(EntityManager em) {
+    private PageCountStrategy pageCountStrategy;
+
+    public UsedItemRepositoryCustomImpl(EntityManager em, PageCountStrategy pageCountStrategy) {
         this.queryFactory = new JPAQueryFactory(em);
+        this.pageCountStrategy = pageCountStrategy;
     }
 
     private BooleanExpression usedItemNameLike(String searchQuery){
@@ -35,7 +36,7 @@ public class UsedItemRepositoryCustomImpl implements UsedItemRepositoryCustom {
         QUsedItem usedItem = QUsedItem.usedItem;
         QUsedItemImg usedItemImg = QUsedItemImg.usedItemImg;
 
-        QueryResults<UsedItemDto> results = queryFactory
+        JPQLQuery<UsedItemDto> query = queryFactory
                 .select(
                         new QUsedItemDto(
                                 usedItem.id,
@@ -53,23 +54,16 @@ public class UsedItemRepositoryCustomImpl implements UsedItemRepositoryCustom {
                 .where(usedItemNameLike(usedItemSearchDto.getSearchQuery()))
                 .where(usedItem.endTime.goe(LocalDateTime.now()))
                 .where(usedItem.usedItemSellStatus.ne(UsedItemSellStatus.SOLD_OUT))
-                .orderBy(usedItem.id.desc())
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetchResults();
-
-        List<UsedItemDto> content = results.getResults();
-
-        long total = results.getTotal();
+                .orderBy(usedItem.id.desc());
 
-        return new PageImpl<>(content, pageable, total);
+        return pageCountStrategy.getPage(PageCountStrategy.USED_ITEM, PageCountStrategy.key("all", usedItemSearchDto), query, pageable);
     }
 
     public Page<UsedItemDto> getUserUsedItemPage(String email, UsedItemSearchDto usedItemSearchDto, Pageable pageable) {
         QUsedItem usedItem = QUsedItem.usedItem;
         QUsedItemImg usedItemImg = QUsedItemImg.usedItemImg;
 
-        QueryResults<UsedItemDto> results = queryFactory
+        JPQLQuery<UsedItemDto> query = queryFactory
                 .select(
                         new QUsedItemDto(
                                 usedItem.id,
@@ -86,16 +80,9 @@ public class UsedItemRepositoryCustomImpl implements UsedItemRepositoryCustom {
                 .where(usedItemImg.repimgYn.eq("Y"))
                 .where(usedItem.owner.email.eq(email))
                 .where(usedItemNameLike(usedItemSearchDto.getSearchQuery()))
-                .orderBy(usedItem.id.desc())
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetchResults();
-
-        List<UsedItemDto> content = results.getResults();
-
-        long total = results.getTotal();
+                .orderBy(usedItem.id.desc());
 
-        return new PageImpl<>(content, pageable, total);
+        return pageCountStrategy.getPage(PageCountStrategy.USED_ITEM, PageCountStrategy.key(email, usedItemSearchDto), query, pageable);
     }
 
 }
@@ -4,7 +4,7 @@ import com.shop.dto.AddressDto;
 import com.shop.entity.Address;
 import com.shop.entity.Member;
 import com.shop.repository.AddressRepository;
-import com.shop.repository.MemberRepository;
+import com.shop.repository.MemberIdentityCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -14,10 +14,10 @@ import org.springframework.stereotype.Service;
 public class AddressService {
 
     private final AddressRepository addressRepository;
-    private final MemberRepository memberRepository;
+    private final MemberIdentityCache memberIdentityCache;
 
     public Long saveAddress(AddressDto addressDto, String email) {
-        Member member = memberRepository.findByEmail(email);
+        Member member = memberIdentityCache.getReference(email);
         Address address = Address.createAddress(member, addressDto);
 
         addressRepository.save(address);
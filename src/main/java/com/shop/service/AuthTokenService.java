@@ -3,7 +3,7 @@ package com.shop.service;
 import com.shop.entity.AuthToken;
 import com.shop.entity.Member;
 import com.shop.repository.AuthTokenRepository;
-import com.shop.repository.MemberRepository;
+import com.shop.repository.MemberIdentityCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,7 +16,7 @@ import java.time.LocalDateTime;
 public class AuthTokenService {
 
     private final AuthTokenRepository authTokenRepository;
-    private final MemberRepository memberRepository;
+    private final MemberIdentityCache memberIdentityCache;
     private final EncryptionService encryptionService;
 
     public String getTokenCode(String email) {
@@ -24,7 +24,7 @@ public class AuthTokenService {
     }
 
     public AuthToken getTokenByEmail(String email) {
-        Member member = memberRepository.findByEmail(email);
+        Member member = memberIdentityCache.getReference(email);
 
         return authTokenRepository.findFirstByMemberOrderByRegTimeDesc(member);
     }
@@ -34,7 +34,7 @@ public class AuthTokenService {
     }
 
     public AuthToken createToken(String email) {
-        Member member = memberRepository.findByEmail(email);
+        Member member = memberIdentityCache.getReference(email);
 
         if(member == null) {
             throw new IllegalStateException("등록된 이메일이 아닙니다.");
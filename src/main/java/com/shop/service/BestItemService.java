@@ -1,12 +1,21 @@
 package com.shop.service;
 
+import com.shop.constant.OrderStatus;
 import com.shop.dto.BestItemDto;
+import com.shop.entity.OrderItem;
+import com.shop.repository.BestItemRanking;
 import com.shop.repository.ItemRepository;
+import com.shop.repository.OrderItemRepository;
+import com.shop.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Transactional
@@ -14,17 +23,118 @@ import java.util.List;
 public class BestItemService {
 
     private final ItemRepository itemRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final BestItemRanking bestItemRanking;
 
+    // 기간별 상위 상품 DTO (순위가 바뀌거나 상품 정보가 바뀌면 다시 조회)
+    private final Map<Integer, CachedBestItems> cachedBestItems = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildBestItemRanking() {
+        LocalDateTime since = LocalDateTime.now().minusDays(BestItemRanking.MONTH);
+
+        bestItemRanking.rebuild(orderItemRepository.findBestItemRows(since, OrderStatus.CANCEL));
+    }
+
+    // 주문/주문 취소가 커밋된 뒤 순위에 반영
+    public void recordOrder(List<OrderItem> orderItems) {
+        List<Long> itemIds = new ArrayList<>();
+
+        for(OrderItem orderItem : orderItems) {
+            itemIds.add(orderItem.getItem().getId());
+        }
+
+        TransactionUtils.afterCommit(() -> {
+            LocalDateTime now = LocalDateTime.now();
+
+            for(Long itemId : itemIds) {
+                bestItemRanking.record(itemId, now, 1);
+            }
+        });
+    }
+
+    public void recordCancel(List<OrderItem> orderItems) {
+        List<Long> itemIds = new ArrayList<>();
+        List<LocalDateTime> orderTimes = new ArrayList<>();
+
+        for(OrderItem orderItem : orderItems) {
+            itemIds.add(orderItem.getItem().getId());
+            orderTimes.add(orderItem.getRegTime());
+        }
+
+        TransactionUtils.afterCommit(() -> {
+            for(int i = 0; i < itemIds.size(); i++) {
+                bestItemRanking.record(itemIds.get(i), orderTimes.get(i), -1);
+            }
+        });
+    }
+
+    public void clearItemCache() {
+        cachedBestItems.clear();
+    }
+
+    @Transactional(readOnly = true)
     public List<BestItemDto> getBestOfDayItem() {
-        return itemRepository.getBestOfDayItem();
+        return this.getBestItem(BestItemRanking.DAY);
     }
 
+    @Transactional(readOnly = true)
     public List<BestItemDto> getBestOfWeekItem() {
-        return itemRepository.getBestOfWeekItem();
+        return this.getBestItem(BestItemRanking.WEEK);
     }
 
+    @Transactional(readOnly = true)
     public List<BestItemDto> getBestOfMonthItem() {
-        return itemRepository.getBestOfMonthItem();
+        return this.getBestItem(BestItemRanking.MONTH);
+    }
+
+    private List<BestItemDto> getBestItem(int days) {
+        List<Long> itemIds = bestItemRanking.getTopItemIds(days);
+
+        CachedBestItems cached = cachedBestItems.get(days);
+
+        if(cached != null && cached.itemIds.equals(itemIds)) {
+            return cached.bestItems;
+        }
+
+        List<BestItemDto> bestItems = itemRepository.getBestItemDtos(itemIds);
+
+        // 판매된 상품이 부족하면 최신 상품으로 채움
+        int topSize = bestItemRanking.getTopSize();
+
+        if(bestItems.size() < topSize) {
+            Set<Long> rankedItemIds = new HashSet<>(itemIds);
+
+            for(BestItemDto bestItemDto : itemRepository.getNewestBestItemDtos(topSize + itemIds.size())) {
+                if(bestItems.size() >= topSize) {
+                    break;
+                }
+
+                if(!rankedItemIds.contains(bestItemDto.getItemId())) {
+                    bestItems.add(bestItemDto);
+                }
+            }
+        }
+
+        bestItems = Collections.unmodifiableList(bestItems);
+
+        cachedBestItems.put(days, new CachedBestItems(itemIds, bestItems));
+
+        return bestItems;
+    }
+
+    private static class CachedBestItems {
+
+        private final List<Long> itemIds;
+
+        private final List<BestItemDto> bestItems;
+
+        CachedBestItems(List<Long> itemIds, List<BestItemDto> bestItems) {
+            this.itemIds = itemIds;
+            this.bestItems = bestItems;
+        }
+
     }
 
 }
@@ -0,0 +1,185 @@
+package com.shop.service;
+
+import com.shop.entity.Bid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// 무통장 입금 입찰 접수
+// 역경매 아이디로 나눈 partitions 개의 큐마다 스레드 하나가 쌓인 입찰을 batch-size 건씩 한 트랜잭션에서 저장 (같은 역경매 입찰은 한 스레드에서 순서대로)
+// 큐가 가득 차면 offer-timeout 동안 기다렸다가 거절 (요청 스레드는 결과 future 를 받음)
+@Slf4j
+@Service
+public class BidIngestion {
+
+    private final Function<List<BidRequest>, List<Bid>> writer;
+
+    private final List<Partition> partitions = new ArrayList<>();
+
+    private final int batchSize;
+
+    private final long offerTimeoutMillis;
+
+    private volatile boolean running = true;
+
+    @Autowired
+    public BidIngestion(BidService bidService,
+                        @Value("${shop.bid.ingest-partitions:4}") int partitionCount,
+                        @Value("${shop.bid.ingest-queue-size:1000}") int queueSize,
+                        @Value("${shop.bid.ingest-batch-size:100}") int batchSize,
+                        @Value("${shop.bid.ingest-offer-timeout-millis:100}") long offerTimeoutMillis) {
+        this(bidService::saveBids, partitionCount, queueSize, batchSize, offerTimeoutMillis);
+    }
+
+    BidIngestion(Function<List<BidRequest>, List<Bid>> writer, int partitionCount, int queueSize, int batchSize, long offerTimeoutMillis) {
+        this.writer = writer;
+        this.batchSize = batchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+
+        for(int i = 0; i < partitionCount; i++) {
+            partitions.add(new Partition(i, queueSize));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        for(Partition partition : partitions) {
+            partition.thread.start();
+        }
+    }
+
+    // 남은 입찰을 모두 저장한 뒤 종료
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+
+        for(Partition partition : partitions) {
+            partition.thread.join(10000);
+        }
+    }
+
+    public CompletableFuture<Bid> submit(String email, Long reverseAuctionId) {
+        BidRequest request = new BidRequest(email, reverseAuctionId);
+        Partition partition = partitions.get(Math.floorMod(reverseAuctionId.hashCode(), partitions.size()));
+
+        boolean accepted = false;
+
+        if(running) {
+            try {
+                accepted = partition.queue.offer(request, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if(!accepted) {
+            request.future.completeExceptionally(new IllegalStateException("입찰 요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요."));
+        }
+
+        return request.future;
+    }
+
+    // 묶음 저장에 실패하면 한 건씩 다시 저장 (실패한 입찰만 예외로 완료)
+    private void write(List<BidRequest> batch) {
+        try {
+            List<Bid> bids = writer.apply(batch);
+
+            for(int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(bids.get(i));
+            }
+
+            return;
+        } catch (RuntimeException e) {
+            if(batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+
+                return;
+            }
+
+            log.warn("입찰 묶음 저장 실패, 한 건씩 다시 저장 : " + e.getMessage());
+        }
+
+        for(BidRequest request : batch) {
+            try {
+                request.future.complete(writer.apply(Collections.singletonList(request)).get(0));
+            } catch (RuntimeException e) {
+                request.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private class Partition implements Runnable {
+
+        private final BlockingQueue<BidRequest> queue;
+
+        private final Thread thread;
+
+        private Partition(int index, int queueSize) {
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+            this.thread = new Thread(this, "bid-ingest-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while(running || !queue.isEmpty()) {
+                try {
+                    BidRequest first = queue.poll(500, TimeUnit.MILLISECONDS);
+
+                    if(first == null) {
+                        continue;
+                    }
+
+                    List<BidRequest> batch = new ArrayList<>(batchSize);
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+
+                    write(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("입찰 접수 처리 실패 : " + e.getMessage(), e);
+                }
+            }
+        }
+
+    }
+
+    public static class BidRequest {
+
+        private final String email;
+
+        private final Long reverseAuctionId;
+
+        private final CompletableFuture<Bid> future = new CompletableFuture<>();
+
+        public BidRequest(String email, Long reverseAuctionId) {
+            this.email = email;
+            this.reverseAuctionId = reverseAuctionId;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public Long getReverseAuctionId() {
+            return reverseAuctionId;
+        }
+
+    }
+
+}
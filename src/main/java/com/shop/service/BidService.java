@@ -8,8 +8,14 @@ import com.shop.entity.Bid;
 import com.shop.entity.Member;
 import com.shop.entity.ReverseAuction;
 import com.shop.repository.BidRepository;
+import com.shop.repository.BidWinnerSelector;
+import com.shop.repository.MemberIdentityCache;
 import com.shop.repository.MemberRepository;
+import com.shop.repository.MemberSummaryCache;
+import com.shop.repository.PageCountStrategy;
 import com.shop.repository.ReverseAuctionRepository;
+import com.shop.repository.ReverseAuctionTimeline;
+import com.shop.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +26,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
+import java.util.*;
 
 @Service
 @Transactional
@@ -30,16 +37,32 @@ public class BidService {
 
     private final BidRepository bidRepository;
     private final MemberRepository memberRepository;
+    private final MemberIdentityCache memberIdentityCache;
+    private final MemberSummaryCache memberSummaryCache;
     private final ReverseAuctionRepository reverseAuctionRepository;
+    private final ReverseAuctionTimeline reverseAuctionTimeline;
+    private final BidWinnerSelector bidWinnerSelector;
     private final KakaoPaymentService kakaoPaymentService;
     private final EncryptionService encryptionService;
+    private final PageCountStrategy pageCountStrategy;
 
     public String getUniqueDepositName(Member member) {
+        return this.getUniqueDepositName(member.getName(), member.getEmail());
+    }
+
+    // 회원 이름은 캐시에서 (회원 조회 없음), 가입되지 않은 이메일이면 null
+    public String getUniqueDepositName(String email) {
+        MemberSummaryCache.MemberSummary memberSummary = memberSummaryCache.get(email, memberRepository::findByEmail);
+
+        return memberSummary == null ? null : this.getUniqueDepositName(memberSummary.getName(), email);
+    }
+
+    private String getUniqueDepositName(String name, String email) {
         try {
-            String uniqueKey = member.getName() + member.getEmail();
+            String uniqueKey = name + email;
             String uniqueSequence = encryptionService.encrypt(uniqueKey, "SHA-256").substring(0, 5);
 
-            return member.getName() + uniqueSequence;
+            return name + uniqueSequence;
         } catch(Exception e) {
             logger.error(e.getMessage(), e);
 
@@ -48,48 +71,113 @@ public class BidService {
     }
 
     public Bid saveBid(String email, Long reverseAuctionId) {
-        Member member = memberRepository.findByEmail(email);
+        Member member = memberIdentityCache.getReference(email);
 
         ReverseAuction reverseAuction = reverseAuctionRepository.findById(reverseAuctionId).orElseThrow(EntityNotFoundException::new);
 
-        DiscountDto discountDto = new DiscountDto(reverseAuction.getStartTime(), reverseAuction.getItem().getPrice(), reverseAuction.getTimeUnit(), reverseAuction.getPriceUnit());
+        Bid bid = this.createBid(member, this.getUniqueDepositName(member), reverseAuction);
+
+        pageCountStrategy.invalidate(PageCountStrategy.BID, PageCountStrategy.REVERSE_AUCTION);
+
+        return bidRepository.save(bid);
+    }
+
+    // 입찰 접수(BidIngestion) 한 묶음을 한 트랜잭션에서 저장하고 요청 순서대로 돌려줌
+    // 역경매(상품 포함)는 묶음당 한 번만 조회하고, 입금자명은 회원 이름 캐시로 회원당 한 번만 계산
+    public List<Bid> saveBids(List<BidIngestion.BidRequest> requests) {
+        Set<Long> reverseAuctionIds = new HashSet<>();
+
+        for(BidIngestion.BidRequest request : requests) {
+            reverseAuctionIds.add(request.getReverseAuctionId());
+        }
+
+        Map<Long, ReverseAuction> reverseAuctions = new HashMap<>();
+
+        for(ReverseAuction reverseAuction : reverseAuctionRepository.findWithItemByIdIn(reverseAuctionIds)) {
+            reverseAuctions.put(reverseAuction.getId(), reverseAuction);
+        }
+
+        Map<String, String> depositNames = new HashMap<>();
+        List<Bid> bids = new ArrayList<>();
+
+        for(BidIngestion.BidRequest request : requests) {
+            ReverseAuction reverseAuction = reverseAuctions.get(request.getReverseAuctionId());
+            Member member = memberIdentityCache.getReference(request.getEmail());
+
+            if(reverseAuction == null || member == null) {
+                throw new EntityNotFoundException();
+            }
+
+            String depositName = depositNames.computeIfAbsent(request.getEmail(), this::getUniqueDepositName);
+
+            bids.add(this.createBid(member, depositName, reverseAuction));
+        }
+
+        bidRepository.saveAll(bids);
+
+        pageCountStrategy.invalidate(PageCountStrategy.BID, PageCountStrategy.REVERSE_AUCTION);
+
+        return bids;
+    }
+
+    // 현재 가격은 타이밍 휠이 갱신한 값, 휠에 없으면 직접 계산
+    private Bid createBid(Member member, String depositName, ReverseAuction reverseAuction) {
+        Integer currentPrice = reverseAuctionTimeline.getCurrentPrice(reverseAuction.getId());
+
+        if(currentPrice == null) {
+            currentPrice = new DiscountDto(reverseAuction.getStartTime(), reverseAuction.getItem().getPrice(), reverseAuction.getTimeUnit(), reverseAuction.getPriceUnit()).getCurrentPrice();
+        }
 
         Bid bid = new Bid();
-        bid.setDepositAmount(discountDto.getCurrentPrice() + reverseAuction.getItem().getShippingFee());
-        bid.setDepositName(this.getUniqueDepositName(member));
+        bid.setDepositAmount(currentPrice + reverseAuction.getItem().getShippingFee());
+        bid.setDepositName(depositName);
         bid.setMember(member);
         bid.setReverseAuction(reverseAuction);
         bid.setDepositType(BidDepositType.TRANSFER);
 
-        return bidRepository.save(bid);
+        return bid;
     }
 
     public Bid saveBidWithPayment(String email, Long reverseAuctionId, Long payId) {
         Bid bid = this.saveBid(email, reverseAuctionId);
         bid.setDepositType(BidDepositType.KAKAO_PAY);
-        bid.setApprovedYn("Y");
-        bid.setApprovedTime(LocalDateTime.now());
+
+        this.win(bid, reverseAuctionId);
 
         kakaoPaymentService.savePaymentHistory(bid.getId(), payId, bid.getDepositAmount());
 
+        TransactionUtils.afterCommit(() -> reverseAuctionTimeline.sold(reverseAuctionId));
+
         return bid;
     }
 
     public Long approveBid(Long id) {
         Bid bid = bidRepository.findById(id).orElseThrow(EntityNotFoundException::new);
 
-        Bid approvedBid = bidRepository.findByReverseAuctionAndApprovedYn(bid.getReverseAuction(), "Y");
+        Long reverseAuctionId = bid.getReverseAuction().getId();
 
-        if(approvedBid != null) {
-            throw new IllegalStateException("이미 낙찰된 경매입니다.");
-        }
+        this.win(bid, reverseAuctionId);
+
+        TransactionUtils.afterCommit(() -> reverseAuctionTimeline.sold(reverseAuctionId));
 
-        bid.setApprovedYn("Y");
-        bid.setApprovedTime(LocalDateTime.now());
+        pageCountStrategy.invalidate(PageCountStrategy.BID, PageCountStrategy.REVERSE_AUCTION);
 
         return bid.getId();
     }
 
+    // 역경매당 하나의 입찰만 낙찰 (동시에 확인 / 결제해도 먼저 차지한 입찰만 낙찰, 나머지는 IllegalStateException)
+    // 역경매도 같은 트랜잭션에서 SOLD 로 바꿔 재시작 / 재등록 시 타이밍 휠에 다시 올리지 않음
+    private void win(Bid bid, Long reverseAuctionId) {
+        bidWinnerSelector.select(reverseAuctionId, bid.getId(), () -> {
+            bid.setApprovedYn("Y");
+            bid.setApprovedTime(LocalDateTime.now());
+            bid.setWinningReverseAuctionId(reverseAuctionId);
+            bid.getReverseAuction().sold();
+
+            bidRepository.saveAndFlush(bid);
+        });
+    }
+
     @Transactional(readOnly = true)
     public Page<BidDto> getAdminBidPage(BidSearchDto bidSearchDto, Pageable pageable) {
         return bidRepository.getAdminBidPage(bidSearchDto, pageable);
@@ -97,7 +185,7 @@ public class BidService {
 
     @Transactional(readOnly = true)
     public Page<BidDto> getUserBidPage(String email, BidSearchDto bidSearchDto, Pageable pageable) {
-        Member member = memberRepository.findByEmail(email);
+        Member member = memberIdentityCache.getReference(email);
 
         return bidRepository.getUserBidPage(member, bidSearchDto, pageable);
     }
@@ -0,0 +1,82 @@
+package com.shop.service;
+
+import com.shop.repository.CartStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.List;
+
+// 메모리 장바구니(CartStore) 변경분을 flush-millis 마다 한 번에 반영하고, idle-millis 동안 사용하지 않은 장바구니는 메모리에서 제거
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CartFlusher {
+
+    private final CartService cartService;
+    private final CartStore cartStore;
+
+    @Value("${shop.cart.idle-millis:1800000}")
+    private long idleMillis;
+
+    @Scheduled(fixedDelayString = "${shop.cart.flush-millis:1000}")
+    public void flush() {
+        List<CartStore.CartChanges> changes = cartStore.drain();
+
+        if(changes.isEmpty()) {
+            return;
+        }
+
+        try {
+            cartService.writeCartChanges(changes);
+        } catch (RuntimeException e) {
+            log.error("장바구니 반영 실패 : " + e.getMessage(), e);
+
+            // 한 장바구니 때문에 나머지까지 반영되지 않도록 장바구니별로 다시 반영
+            this.writeEach(cartStore.drain());
+        }
+    }
+
+    // 연속으로 반영에 실패한 장바구니는 버리지 않고 stalled-retry-millis 마다 장바구니별로 다시 반영
+    @Scheduled(fixedDelayString = "${shop.cart.stalled-retry-millis:60000}")
+    public void retryStalled() {
+        this.writeEach(cartStore.drainStalled());
+
+        int stalled = cartStore.stalledSize();
+
+        if(stalled > 0) {
+            log.error("반영에 계속 실패하고 있는 장바구니가 있습니다. (장바구니 수 : " + stalled + ")");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shop.cart.evict-millis:60000}")
+    public void evictIdle() {
+        cartStore.evictIdle(idleMillis);
+    }
+
+    // 종료 시 남은 변경분 반영
+    @PreDestroy
+    public void shutdown() {
+        try {
+            this.flush();
+            this.retryStalled();
+        } catch (RuntimeException e) {
+            log.error("장바구니 반영 실패", e);
+        }
+    }
+
+    private void writeEach(List<CartStore.CartChanges> changes) {
+        for(CartStore.CartChanges cartChanges : changes) {
+            try {
+                cartService.writeCartChanges(Collections.singletonList(cartChanges));
+            } catch (RuntimeException e) {
+                log.error("장바구니 반영 실패 (회원 아이디 : " + cartChanges.getMemberId() + ") : " + e.getMessage());
+            }
+        }
+    }
+
+}
@@ -6,120 +6,246 @@ import com.shop.dto.CartOrderDto;
 import com.shop.dto.OrderDto;
 import com.shop.entity.Cart;
 import com.shop.entity.CartItem;
-import com.shop.entity.Item;
-import com.shop.entity.Member;
-import com.shop.repository.CartItemRepository;
-import com.shop.repository.CartRepository;
-import com.shop.repository.ItemRepository;
-import com.shop.repository.MemberRepository;
+import com.shop.repository.*;
+import com.shop.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.thymeleaf.util.StringUtils;
 
 import javax.persistence.EntityNotFoundException;
-import java.util.ArrayList;
-import java.util.List;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
 
+// 장바구니는 메모리(CartStore)에서 처리하고, DB 반영은 CartFlusher 가 모아서 처리 (주문 시에는 바로 반영)
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class CartService {
 
     private final ItemRepository itemRepository;
+    private final ItemFacetIndex itemFacetIndex;
+    private final ItemCardCache itemCardCache;
     private final MemberRepository memberRepository;
+    private final MemberIdentityCache memberIdentityCache;
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
+    private final CartStore cartStore;
     private final OrderService orderService;
+    private final JdbcTemplate jdbcTemplate;
 
+    // 장바구니에 담은 상품 아이디를 돌려줌
     public Long addCart(CartItemDto cartItemDto, String email) {
-        Item item = itemRepository.findById(cartItemDto.getItemId()).orElseThrow(EntityNotFoundException::new);
-        Member member = memberRepository.findByEmail(email);
-        Cart cart = cartRepository.findByMemberId(member.getId());
+        Long itemId = cartItemDto.getItemId();
+        Long memberId = this.getMemberId(email);
 
-        if(cart == null) {
-            cart = Cart.createCart(member);
-
-            cartRepository.save(cart);
+        // 색인에 없는 상품만 DB 에서 확인 (등록 직후 아직 색인되지 않은 상품)
+        if(!itemFacetIndex.contains(itemId) && !itemRepository.existsById(itemId)) {
+            throw new EntityNotFoundException();
         }
 
-        CartItem savedCartItem = cartItemRepository.findByCartIdAndItemId(cart.getId(), item.getId());
+        cartStore.apply(memberId, this::loadCart, cart -> cart.add(itemId, cartItemDto.getCount()));
 
-        if(savedCartItem != null) {
-            savedCartItem.addCount(cartItemDto.getCount());
-
-            return savedCartItem.getId();
-        } else {
-            CartItem cartItem = CartItem.createCartItem(cart, item, cartItemDto.getCount());
+        return itemId;
+    }
 
-            cartItemRepository.save(cartItem);
+    // 최근에 담은 상품부터, 장바구니가 바뀌지 않았고 상품 카드 version 이 같으면 캐시된 목록
+    @Transactional(readOnly = true)
+    public List<CartDetailDto> getCartList(String email) {
+        Long memberId = memberIdentityCache.getMemberId(email);
 
-            return cartItem.getId();
+        if(memberId == null) {
+            return new ArrayList<>();
         }
+
+        long version = itemCardCache.getVersion();
+
+        return cartStore.apply(memberId, this::loadCart, cart -> {
+            List<CartDetailDto> cartDetailDtoList = cart.getDetails(version);
+
+            if(cartDetailDtoList == null) {
+                cartDetailDtoList = this.createCartDetails(cart.getLines());
+                cart.setDetails(cartDetailDtoList, version);
+            }
+
+            return cartDetailDtoList;
+        });
     }
 
-    @Transactional(readOnly = true)
-    public List<CartDetailDto> getCartList(String email) {
+    // 상품 정보는 상품 카드 캐시에서 가져옴 (없는 카드만 한 번에 조회)
+    private List<CartDetailDto> createCartDetails(Map<Long, Integer> lines) {
         List<CartDetailDto> cartDetailDtoList = new ArrayList<>();
 
-        Member member = memberRepository.findByEmail(email);
-        Cart cart = cartRepository.findByMemberId(member.getId());
-
-        if(cart == null) {
+        if(lines.isEmpty()) {
             return cartDetailDtoList;
         }
 
-        cartDetailDtoList = cartItemRepository.findCartDetailDtoList(cart.getId());
+        Map<Long, ItemCardCache.ItemCard> cards = itemCardCache.getAll(lines.keySet(), this::loadItemCards);
+
+        for(Map.Entry<Long, Integer> line : lines.entrySet()) {
+            ItemCardCache.ItemCard card = cards.get(line.getKey());
+
+            if(card != null) {
+                CartDetailDto cartDetailDto = new CartDetailDto(card.getItemId(), card.getItemNm(), card.getPrice(), card.getShippingFee(), card.getImgUrl());
+                cartDetailDto.setCount(line.getValue());
+                cartDetailDtoList.add(0, cartDetailDto);
+            }
+        }
 
         return cartDetailDtoList;
     }
 
-    @Transactional(readOnly = true)
-    public boolean validateCartItem(Long cartItemId, String email) {
-        CartItem cartItem = cartItemRepository.findById(cartItemId).orElseThrow(EntityNotFoundException::new);
-        Member curMember = memberRepository.findByEmail(email);
-        Member savedMember = cartItem.getCart().getMember();
+    private List<ItemCardCache.ItemCard> loadItemCards(Collection<Long> itemIds) {
+        List<ItemCardCache.ItemCard> cards = new ArrayList<>();
 
-        if(!StringUtils.equals(curMember.getEmail(), savedMember.getEmail())) {
-            return false;
+        for(Object[] row : itemRepository.findItemCardRows(itemIds)) {
+            cards.add(new ItemCardCache.ItemCard((Long) row[0], (String) row[1], (Integer) row[2], (Integer) row[3], (String) row[4]));
         }
 
-        return true;
+        return cards;
     }
 
-    public void updateCartItemCount(Long cartItemId, int count) {
-        CartItem cartItem = cartItemRepository.findById(cartItemId).orElseThrow(EntityNotFoundException::new);
+    // 장바구니에 없는 상품이면 false
+    public boolean updateCartItemCount(String email, Long itemId, int count) {
+        Long memberId = memberIdentityCache.getMemberId(email);
 
-        cartItem.updateCount(count);
+        return memberId != null && cartStore.apply(memberId, this::loadCart, cart -> cart.update(itemId, count));
     }
 
-    public void deleteCartItem(Long cartItemId) {
-        CartItem cartItem = cartItemRepository.findById(cartItemId).orElseThrow(EntityNotFoundException::new);
+    public boolean deleteCartItem(String email, Long itemId) {
+        Long memberId = memberIdentityCache.getMemberId(email);
+
+        return memberId != null && cartStore.apply(memberId, this::loadCart, cart -> cart.remove(itemId));
+    }
+
+    @Transactional(readOnly = true)
+    public boolean validateCartItems(List<Long> itemIds, String email) {
+        Long memberId = memberIdentityCache.getMemberId(email);
 
-        cartItemRepository.delete(cartItem);
+        return memberId != null && cartStore.apply(memberId, this::loadCart, cart -> cart.containsAll(itemIds));
     }
 
-    public Long orderCartItem(List<CartOrderDto> cartOrderDtoList, String email, Integer usedPoint) {
+    // 주문 수량은 메모리 장바구니 기준, 주문한 상품을 빼고 장바구니 변경분을 주문과 같은 트랜잭션에서 반영
+    public Long orderCartItem(List<CartOrderDto> cartOrderDtoList, String email, Integer usedPoint, String requestKey) {
+        Long memberId = this.getMemberId(email);
+        Map<Long, Integer> lines = cartStore.apply(memberId, this::loadCart, CartStore.ActiveCart::getLines);
+
+        List<Long> itemIds = new ArrayList<>();
         List<OrderDto> orderDtoList = new ArrayList<>();
 
         for(CartOrderDto cartOrderDto : cartOrderDtoList) {
-            CartItem cartItem = cartItemRepository.findById(cartOrderDto.getCartItemId()).orElseThrow(EntityNotFoundException::new);
+            Integer count = lines.get(cartOrderDto.getItemId());
+
+            if(count == null) {
+                throw new EntityNotFoundException();
+            }
 
             OrderDto orderDto = new OrderDto();
-            orderDto.setItemId(cartItem.getItem().getId());
-            orderDto.setCount(cartItem.getCount());
+            orderDto.setItemId(cartOrderDto.getItemId());
+            orderDto.setCount(count);
             orderDtoList.add(orderDto);
+            itemIds.add(cartOrderDto.getItemId());
         }
 
-        Long orderId = orderService.orders(orderDtoList, email, usedPoint);
+        Long orderId = orderService.orders(orderDtoList, email, usedPoint, requestKey);
 
-        for(CartOrderDto cartOrderDto : cartOrderDtoList) {
-            CartItem cartItem = cartItemRepository.findById(cartOrderDto.getCartItemId()).orElseThrow(EntityNotFoundException::new);
+        cartStore.apply(memberId, this::loadCart, cart -> {
+            itemIds.forEach(cart::remove);
+
+            return null;
+        });
+
+        // 주문이 롤백되면 장바구니에 다시 담음 (그 사이에 다시 담은 상품은 그대로 둠)
+        TransactionUtils.afterRollback(() -> cartStore.apply(memberId, this::loadCart, cart -> {
+            for(OrderDto orderDto : orderDtoList) {
+                if(cart.getCount(orderDto.getItemId()) == null) {
+                    cart.add(orderDto.getItemId(), orderDto.getCount());
+                }
+            }
+
+            return null;
+        }));
+
+        CartStore.CartChanges changes = cartStore.drain(memberId);
 
-            cartItemRepository.delete(cartItem);
+        if(changes != null) {
+            this.writeCartChanges(Collections.singletonList(changes));
         }
 
         return orderId;
     }
 
+    // 장바구니 변경분을 cart / cart_item 에 반영 (커밋되면 complete, 롤백되면 restore)
+    // 새 상품은 insert, 수량 변경 / 삭제는 (cart_id, item_id) 기준 배치 update / delete
+    public void writeCartChanges(List<CartStore.CartChanges> changes) {
+        TransactionUtils.afterCommit(() -> cartStore.complete(changes));
+        TransactionUtils.afterRollback(() -> cartStore.restore(changes));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<CartItem> insertItems = new ArrayList<>();
+        List<Object[]> updateArgs = new ArrayList<>();
+        List<Object[]> deleteArgs = new ArrayList<>();
+
+        for(CartStore.CartChanges cartChanges : changes) {
+            if(cartChanges.getCartId() == null) {
+                Cart cart = cartRepository.save(Cart.createCart(memberRepository.getById(cartChanges.getMemberId())));
+
+                cartChanges.setCartId(cart.getId());
+            }
+
+            Long cartId = cartChanges.getCartId();
+            Cart cart = cartRepository.getById(cartId);
+
+            for(Map.Entry<Long, Integer> entry : cartChanges.getInserts().entrySet()) {
+                insertItems.add(CartItem.createCartItem(cart, itemRepository.getById(entry.getKey()), entry.getValue()));
+            }
+
+            for(Map.Entry<Long, Integer> entry : cartChanges.getUpdates().entrySet()) {
+                updateArgs.add(new Object[] { entry.getValue(), now, cartId, entry.getKey() });
+            }
+
+            for(Long itemId : cartChanges.getDeletes()) {
+                deleteArgs.add(new Object[] { cartId, itemId });
+            }
+        }
+
+        cartItemRepository.saveAll(insertItems);
+
+        if(!updateArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate("update cart_item set count = ?, update_time = ? where cart_id = ? and item_id = ?", updateArgs);
+        }
+
+        if(!deleteArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate("delete from cart_item where cart_id = ? and item_id = ?", deleteArgs);
+        }
+    }
+
+    // 메모리에 없는 장바구니는 DB 에서 읽어 옴 (장바구니가 없는 회원은 빈 장바구니)
+    private CartStore.ActiveCart loadCart(Long memberId) {
+        Cart cart = cartRepository.findByMemberId(memberId);
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+
+        if(cart == null) {
+            return new CartStore.ActiveCart(null, lines);
+        }
+
+        for(Object[] row : cartItemRepository.findCartLines(cart.getId())) {
+            lines.merge((Long) row[0], (Integer) row[1], Integer::sum);
+        }
+
+        return new CartStore.ActiveCart(cart.getId(), lines);
+    }
+
+    private Long getMemberId(String email) {
+        Long memberId = memberIdentityCache.getMemberId(email);
+
+        if(memberId == null) {
+            throw new EntityNotFoundException();
+        }
+
+        return memberId;
+    }
+
 }
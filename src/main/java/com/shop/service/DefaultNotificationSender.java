@@ -0,0 +1,38 @@
+package com.shop.service;
+
+import com.shop.constant.NoticeType;
+import com.shop.entity.NotificationOutbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import javax.mail.internet.MimeMessage;
+
+// 메일(JavaMailSender) / 문자(coolsms) 동기 발송
+@Service
+@RequiredArgsConstructor
+public class DefaultNotificationSender implements NotificationSender {
+
+    private final JavaMailSender javaMailSender;
+    private final SmsService smsService;
+
+    @Override
+    public void send(NotificationOutbox notification) throws Exception {
+        if(notification.getNoticeType() == NoticeType.SMS) {
+            smsService.sendSmsNow(notification.getRecipient(), notification.getContent());
+
+            return;
+        }
+
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+
+        MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, false, "UTF-8");
+        mimeMessageHelper.setTo(notification.getRecipient());
+        mimeMessageHelper.setSubject(notification.getSubject());
+        mimeMessageHelper.setText(notification.getContent(), false);
+
+        javaMailSender.send(mimeMessage);
+    }
+
+}
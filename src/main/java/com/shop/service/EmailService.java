@@ -1,14 +1,9 @@
 package com.shop.service;
 
 import com.shop.dto.MemberFormDto;
-import com.shop.dto.OrderDto;
-import com.shop.entity.EmailNotice;
-import com.shop.entity.Item;
 import com.shop.entity.Order;
 import com.shop.entity.OrderItem;
 import com.shop.repository.AuthTokenRepository;
-import com.shop.repository.EmailNoticeRepository;
-import com.shop.repository.ItemRepository;
 import com.shop.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -18,9 +13,7 @@ import org.springframework.stereotype.Service;
 
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
-import javax.persistence.EntityNotFoundException;
 import javax.servlet.http.HttpSession;
-import java.util.List;
 
 @Async
 @Service
@@ -30,9 +23,7 @@ public class EmailService {
     private final JavaMailSender javaMailSender;
 
     private final AuthTokenService authTokenService;
-    private final ItemRepository itemRepository;
     private final OrderRepository orderRepository;
-    private final EmailNoticeRepository emailNoticeRepository;
 
     public void sendEmail(String to, String subject, String text) {
         this.sendEmail(to, subject, text, false);
@@ -63,48 +54,6 @@ public class EmailService {
         this.sendEmail(email, subject, text);
     }
 
-    public void sendOrderEmail(String email, OrderDto orderDto) {
-        Item item = itemRepository.findById(orderDto.getItemId()).orElseThrow(EntityNotFoundException::new);
-
-        String subject = "주문 상품 내역입니다.";
-
-        StringBuffer sb = new StringBuffer();
-        sb.append("[Bueg] 주문 상품 내역입니다.\n");
-        sb.append("주문 상품 : ");
-        sb.append(item.getItemNm());
-        sb.append("\n주문 수량 : ");
-        sb.append(orderDto.getCount());
-        sb.append("\n주문 금액 : ");
-        sb.append(item.getPrice() * orderDto.getCount());
-        sb.append("원 입니다.\n");
-
-        this.sendEmail(email, subject, sb.toString());
-        this.addEmailCount();
-    }
-
-    public void sendCartOrderEmail(String email, List<OrderDto> orderDtoList, Integer totalPrice) {
-        String subject = "주문 상품 내역입니다.";
-
-        StringBuffer sb = new StringBuffer("[Bueg] 주문 상품 내역입니다.\n\n");
-
-        for(OrderDto orderDto : orderDtoList) {
-            Item item = itemRepository.findById(orderDto.getItemId()).orElseThrow(EntityNotFoundException::new);
-
-            sb.append(item.getItemNm());
-            sb.append("(");
-            sb.append(item.getPrice());
-            sb.append(" 원) x ");
-            sb.append(orderDto.getCount() + "개\n");
-        }
-
-        sb.append("\n주문 금액 : ");
-        sb.append(totalPrice);
-        sb.append("원\n");
-
-        this.sendEmail(email, subject, sb.toString());
-        this.addEmailCount();
-    }
-
     public void sendPasswordEmail(String email) {
         String subject = "[Bueg] 비밀번호를 변경해주세요";
 
@@ -118,10 +67,4 @@ public class EmailService {
         this.sendEmail(email, subject, sb.toString(), true);
     }
 
-    public void addEmailCount() {
-        EmailNotice emailNotice = new EmailNotice();
-
-        emailNoticeRepository.save(emailNotice);
-    }
-
-}
\ No newline at end of file
+}
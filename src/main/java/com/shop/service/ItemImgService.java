@@ -35,6 +35,8 @@ public class ItemImgService {
 
         itemImg.updateItemImg(oriImgName, imgName, imgUrl);
 
+        this.syncRepImgUrl(itemImg);
+
         itemImgRepository.save(itemImg);
     }
 
@@ -51,6 +53,15 @@ public class ItemImgService {
             String imgUrl = "/images/item/" + imgName;
 
             savedItemImg.updateItemImg(oriImgName, imgName, imgUrl);
+
+            this.syncRepImgUrl(savedItemImg);
+        }
+    }
+
+    // 대표 이미지가 바뀌면 상품의 대표 이미지 경로도 함께 변경
+    private void syncRepImgUrl(ItemImg itemImg) {
+        if("Y".equals(itemImg.getRepImgYn()) && itemImg.getItem() != null) {
+            itemImg.getItem().setRepImgUrl(itemImg.getImgUrl());
         }
     }
 
@@ -1,19 +1,30 @@
 package com.shop.service;
 
+import com.shop.constant.ItemSellStatus;
 import com.shop.dto.*;
 import com.shop.entity.*;
 import com.shop.repository.*;
+import com.shop.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.Hibernate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import org.thymeleaf.util.StringUtils;
 
 import javax.persistence.EntityNotFoundException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -26,6 +37,81 @@ public class ItemService {
     private final ItemTagRepository itemTagRepository;
     private final CategoryRepository categoryRepository;
     private final TagRepository tagRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemFacetIndex itemFacetIndex;
+    private final BestItemService bestItemService;
+    private final PageCountStrategy pageCountStrategy;
+    private final StockReservation stockReservation;
+    private final StockJournalRepository stockJournalRepository;
+    private final ItemCardCache itemCardCache;
+    private final ReverseAuctionService reverseAuctionService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildItemIndex() {
+        itemSearchIndex.rebuild(itemRepository.findSearchIndexRows());
+        itemFacetIndex.rebuild(itemRepository.findFacetIndexRows(), itemTagRepository.findFacetIndexRows());
+    }
+
+    // 커밋된 재고 저널을 모아 한 번의 배치 update 로 반영하고 반영한 저널 수를 반환
+    // 트랜잭션 프록시를 거치도록 StockJournalFlusher 에서 호출
+    public int flushStockJournal() {
+        List<StockJournal> journals = stockJournalRepository.findTop1000ByOrderByIdAsc();
+
+        if(journals.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, List<Long>> journalIds = new LinkedHashMap<>();
+        Map<Long, Integer> deltas = new HashMap<>();
+
+        for(StockJournal journal : journals) {
+            journalIds.computeIfAbsent(journal.getItemId(), key -> new ArrayList<>()).add(journal.getId());
+            deltas.merge(journal.getItemId(), journal.getDelta(), Integer::sum);
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>();
+
+        for(Map.Entry<Long, List<Long>> entry : journalIds.entrySet()) {
+            List<Long> ids = entry.getValue();
+
+            String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+
+            int deleted = jdbcTemplate.update("delete from stock_journal where stock_journal_id in (" + placeholders + ")", ids.toArray());
+
+            // 다른 반영 작업이 먼저 지운 저널은 다시 반영하지 않음
+            if(deleted == ids.size()) {
+                batchArgs.add(new Object[] { deltas.get(entry.getKey()), entry.getKey() });
+            }
+        }
+
+        jdbcTemplate.batchUpdate("update item set stock_number = stock_number + ? where item_id = ?", batchArgs);
+
+        return journals.size();
+    }
+
+    private void indexItem(Item item, List<Long> tagIds) {
+        Long itemId = item.getId();
+        String itemNm = item.getItemNm();
+        String itemDetail = item.getItemDetail();
+        String repImgUrl = item.getRepImgUrl();
+        Long cateCode = item.getCategory() == null ? null : item.getCategory().getCateCode();
+        ItemSellStatus itemSellStatus = item.getItemSellStatus();
+        List<Long> itemTagIds = new ArrayList<>(tagIds);
+
+        TransactionUtils.afterCommit(() -> {
+            // 대표 이미지가 없는 상품은 목록에 나오지 않으므로 검색 색인에서도 제외
+            if(repImgUrl == null) {
+                itemSearchIndex.remove(itemId);
+            } else {
+                itemSearchIndex.index(itemId, itemNm, itemDetail);
+            }
+
+            itemFacetIndex.index(itemId, cateCode, itemSellStatus, itemTagIds);
+            bestItemService.clearItemCache();
+        });
+    }
 
     public Long saveItem(ItemFormDto itemFormDto, List<MultipartFile> itemImgFileList) throws Exception {
         Category category = categoryRepository.findByCateCode(itemFormDto.getCateCode());
@@ -57,6 +143,10 @@ public class ItemService {
 
         itemRepository.save(item);
 
+        this.indexItem(item, itemFormDto.getTagIds());
+
+        pageCountStrategy.invalidate(PageCountStrategy.ITEM, PageCountStrategy.REVERSE_AUCTION, PageCountStrategy.BID);
+
         return item.getId();
     }
 
@@ -84,6 +174,14 @@ public class ItemService {
 
         ItemFormDto itemFormDto = ItemFormDto.of(item);
         itemFormDto.setCateCode(item.getCategory().getCateCode());
+
+        // 아직 DB 에 반영되지 않은 재고 예약 포함
+        Integer stockNumber = stockReservation.getStockNumber(itemId);
+
+        if(stockNumber != null) {
+            itemFormDto.setStockNumber(stockNumber);
+        }
+
         itemFormDto.setItemImgDtoList(itemImgDtoList);
         itemFormDto.setTagIds(tagIdList);
 
@@ -95,7 +193,16 @@ public class ItemService {
 
         Category category = categoryRepository.findByCateCode(itemFormDto.getCateCode());
 
+        // 재고 수량은 item.stock_number 를 직접 바꾸지 않고 남은 재고와의 차이를 재고 저널로 반영
         item.updateItem(itemFormDto, category);
+        stockReservation.reset(item, itemFormDto.getStockNumber());
+
+        Long itemId = item.getId();
+
+        // 장바구니 목록은 다음 조회 때 바뀐 상품 카드로 다시 만듦
+        itemCardCache.evict(itemId);
+
+        reverseAuctionService.rescheduleItem(itemId);
 
         List<Long> itemImgIds = itemFormDto.getItemImgIds();
 
@@ -117,6 +224,10 @@ public class ItemService {
             itemTagRepository.save(itemTag);
         }
 
+        this.indexItem(item, itemFormDto.getTagIds());
+
+        pageCountStrategy.invalidate(PageCountStrategy.ITEM, PageCountStrategy.REVERSE_AUCTION, PageCountStrategy.BID);
+
         return item.getId();
     }
 
@@ -137,8 +248,40 @@ public class ItemService {
     }
 
     @Transactional(readOnly = true)
-    public Page<MainItemDto> getDetailSearchPage(String[] filters, ItemSearchDto itemSearchDto, Pageable pageable) {
-        return itemRepository.getDetailSearchPage(filters, itemSearchDto, pageable);
+    public Page<MainItemDto> getDetailSearchPage(String[] filters, boolean tagMatchAll, ItemSearchDto itemSearchDto, Pageable pageable) {
+        List<Long> tagIds = new ArrayList<>();
+
+        // 필터 태그를 한 번에 조회
+        Map<String, Long> tagIdsByNm = new HashMap<>();
+
+        if(filters.length > 0) {
+            for(Tag tag : tagRepository.findByTagNmIn(Arrays.asList(filters))) {
+                tagIdsByNm.put(tag.getTagNm(), tag.getId());
+            }
+        }
+
+        for(String filter : filters) {
+            // 존재하지 않는 태그는 어떤 상품과도 일치하지 않도록 처리
+            tagIds.add(tagIdsByNm.getOrDefault(filter, -1L));
+        }
+
+        return itemRepository.getDetailSearchPage(tagIds, tagMatchAll, itemSearchDto, pageable);
+    }
+
+    // 태그별 상품 수, 색인으로 계산할 수 없는 경우 null
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getTagFacetCounts(Long cateCode, String searchQuery) {
+        List<Long> itemIds = null;
+
+        if(!StringUtils.isEmpty(searchQuery)) {
+            itemIds = itemSearchIndex.search(searchQuery);
+
+            if(itemIds == null) {
+                return null;
+            }
+        }
+
+        return itemFacetIndex.countByTag(cateCode, itemIds);
     }
 
     @Transactional(readOnly = true)
@@ -146,4 +289,56 @@ public class ItemService {
         return itemRepository.getComplexSearchPage(itemComplexSearchDto, pageable);
     }
 
+    // offset 페이지의 마지막 상품 다음부터 keyset 으로 이어서 조회하는 커서, 마지막 페이지면 null
+    public String getNextCursor(ItemComplexSearchDto itemComplexSearchDto, Page<MainItemDto> items) {
+        if(items.isLast() || items.getContent().isEmpty()) {
+            return null;
+        }
+
+        List<MainItemDto> content = items.getContent();
+
+        return ItemSearchCursor.of(itemComplexSearchDto, content.get(content.size() - 1), false).encode();
+    }
+
+    @Transactional(readOnly = true)
+    public ItemCursorPageDto getComplexSearchCursorPage(ItemComplexSearchDto itemComplexSearchDto, String cursor, int size) {
+        ItemSearchCursor searchCursor = ItemSearchCursor.decode(cursor);
+
+        // 정렬 조건이 바뀐 경우 이전 커서는 무시하고 첫 페이지부터 조회
+        if(searchCursor != null && !searchCursor.matches(itemComplexSearchDto)) {
+            searchCursor = null;
+        }
+
+        List<MainItemDto> rows = new ArrayList<>(itemRepository.getComplexSearchKeyset(itemComplexSearchDto, searchCursor, size + 1));
+
+        boolean hasMore = rows.size() > size;
+
+        if(hasMore) {
+            rows = new ArrayList<>(rows.subList(0, size));
+        }
+
+        boolean backward = searchCursor != null && searchCursor.isBackward();
+
+        if(backward) {
+            Collections.reverse(rows);
+        }
+
+        if(rows.isEmpty()) {
+            return new ItemCursorPageDto(rows, null, null);
+        }
+
+        String prevCursor = null;
+        String nextCursor = null;
+
+        if(backward) {
+            prevCursor = hasMore ? ItemSearchCursor.of(itemComplexSearchDto, rows.get(0), true).encode() : null;
+            nextCursor = ItemSearchCursor.of(itemComplexSearchDto, rows.get(rows.size() - 1), false).encode();
+        } else {
+            prevCursor = searchCursor != null ? ItemSearchCursor.of(itemComplexSearchDto, rows.get(0), true).encode() : null;
+            nextCursor = hasMore ? ItemSearchCursor.of(itemComplexSearchDto, rows.get(rows.size() - 1), false).encode() : null;
+        }
+
+        return new ItemCursorPageDto(rows, prevCursor, nextCursor);
+    }
+
 }
@@ -5,6 +5,7 @@ import com.shop.entity.Member;
 import com.shop.entity.OAuth2Member;
 import com.shop.repository.MemberRepository;
 import com.shop.repository.OAuth2MemberRepository;
+import com.shop.repository.PageCountStrategy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -23,11 +24,19 @@ public class MemberService implements UserDetailsService {
 
     private final MemberRepository memberRepository;
     private final OAuth2MemberRepository oAuth2MemberRepository;
+    private final PageCountStrategy pageCountStrategy;
+    private final PointService pointService;
 
     public Member saveMember(Member member) {
         validateDuplicateMember(member);
 
-        return memberRepository.save(member);
+        pageCountStrategy.invalidate(PageCountStrategy.MEMBER);
+
+        Member savedMember = memberRepository.save(member);
+
+        pointService.recordOpeningBalance(savedMember);
+
+        return savedMember;
     }
 
     private void validateDuplicateMember(Member member) {
@@ -60,9 +69,7 @@ public class MemberService implements UserDetailsService {
     }
 
     public int getPointByEmail(String email) {
-        Member member = memberRepository.findByEmail(email);
-
-        return member.getPoint();
+        return pointService.getPoint(email);
     }
 
     public void updatePassword(Long memberId, String password) {
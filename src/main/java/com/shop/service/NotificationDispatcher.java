@@ -0,0 +1,94 @@
+package com.shop.service;
+
+import com.shop.entity.NotificationOutbox;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.*;
+
+// 알림 outbox 를 주기적으로 꺼내 발송 (요청 스레드/주문 트랜잭션은 발송을 기다리지 않음)
+// 한 번에 batch-size 건씩 꺼내 concurrency 개의 스레드로 동시에 발송하고, 결과는 한 트랜잭션에서 반영
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationDispatcher {
+
+    private final NotificationService notificationService;
+    private final NotificationSender notificationSender;
+
+    @Value("${shop.notification.batch-size:100}")
+    private int batchSize;
+
+    @Value("${shop.notification.concurrency:4}")
+    private int concurrency;
+
+    @Value("${shop.notification.send-timeout-seconds:30}")
+    private long sendTimeoutSeconds;
+
+    private ExecutorService executorService;
+
+    @PostConstruct
+    public void init() {
+        executorService = Executors.newFixedThreadPool(concurrency);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${shop.notification.dispatch-delay-millis:1000}")
+    public void dispatch() {
+        List<NotificationOutbox> notifications = notificationService.getDispatchTargets(batchSize);
+
+        if(notifications.isEmpty()) {
+            return;
+        }
+
+        Map<NotificationOutbox, Future<?>> futures = new LinkedHashMap<>();
+
+        for(NotificationOutbox notification : notifications) {
+            futures.put(notification, executorService.submit(() -> {
+                notificationSender.send(notification);
+
+                return null;
+            }));
+        }
+
+        List<NotificationOutbox> sent = new ArrayList<>();
+        Map<Long, String> failures = new HashMap<>();
+
+        for(Map.Entry<NotificationOutbox, Future<?>> entry : futures.entrySet()) {
+            NotificationOutbox notification = entry.getKey();
+
+            try {
+                entry.getValue().get(sendTimeoutSeconds, TimeUnit.SECONDS);
+
+                sent.add(notification);
+            } catch (ExecutionException e) {
+                failures.put(notification.getId(), String.valueOf(e.getCause().getMessage()));
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+
+                failures.put(notification.getId(), "발송 시간 초과");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                failures.put(notification.getId(), "발송 중단");
+            }
+        }
+
+        if(!failures.isEmpty()) {
+            log.warn("알림 발송 실패 {}건", failures.size());
+        }
+
+        notificationService.completeDispatch(sent, failures);
+    }
+
+}
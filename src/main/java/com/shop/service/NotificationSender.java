@@ -0,0 +1,10 @@
+package com.shop.service;
+
+import com.shop.entity.NotificationOutbox;
+
+// 알림 실제 발송 (실패 시 예외를 던지면 NotificationDispatcher 가 재시도)
+public interface NotificationSender {
+
+    void send(NotificationOutbox notification) throws Exception;
+
+}
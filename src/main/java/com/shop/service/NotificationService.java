@@ -0,0 +1,137 @@
+package com.shop.service;
+
+import com.shop.constant.NoticeType;
+import com.shop.constant.NotificationStatus;
+import com.shop.entity.*;
+import com.shop.repository.EmailNoticeRepository;
+import com.shop.repository.NotificationOutboxRepository;
+import com.shop.repository.SmsNoticeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class NotificationService {
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final EmailNoticeRepository emailNoticeRepository;
+    private final SmsNoticeRepository smsNoticeRepository;
+
+    @Value("${shop.notification.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${shop.notification.retry-delay-seconds:30}")
+    private long retryDelaySeconds;
+
+    // 단건 주문 알림 (주문 트랜잭션에서 저장, 발송은 NotificationDispatcher 가 처리)
+    public void enqueueOrder(Member member, OrderItem orderItem) {
+        Item item = orderItem.getItem();
+        int orderPrice = item.getPrice() * orderItem.getCount();
+
+        if(member.getNoticeType() == NoticeType.EMAIL) {
+            StringBuffer sb = new StringBuffer();
+            sb.append("[Bueg] 주문 상품 내역입니다.\n");
+            sb.append("주문 상품 : ");
+            sb.append(item.getItemNm());
+            sb.append("\n주문 수량 : ");
+            sb.append(orderItem.getCount());
+            sb.append("\n주문 금액 : ");
+            sb.append(orderPrice);
+            sb.append("원 입니다.\n");
+
+            this.enqueue(NoticeType.EMAIL, member.getEmail(), "주문 상품 내역입니다.", sb.toString());
+        } else if(member.getNoticeType() == NoticeType.SMS) {
+            StringBuffer sb = new StringBuffer("[Bueg] 주문 상품 내역\n");
+            sb.append("주문 상품 : ");
+            sb.append(item.getItemNm());
+            sb.append("\n주문 수량 : ");
+            sb.append(orderItem.getCount());
+            sb.append("\n주문 금액 : ");
+            sb.append(orderPrice);
+            sb.append("원");
+
+            this.enqueue(NoticeType.SMS, member.getPhone(), null, sb.toString());
+        }
+    }
+
+    // 장바구니 주문 알림
+    public void enqueueCartOrder(Member member, Order order) {
+        StringBuffer sb;
+
+        if(member.getNoticeType() == NoticeType.EMAIL) {
+            sb = new StringBuffer("[Bueg] 주문 상품 내역입니다.\n\n");
+        } else if(member.getNoticeType() == NoticeType.SMS) {
+            sb = new StringBuffer("[Bueg]주문상품 내역\n");
+        } else {
+            return;
+        }
+
+        for(OrderItem orderItem : order.getOrderItems()) {
+            sb.append(orderItem.getItem().getItemNm());
+            sb.append("(");
+            sb.append(orderItem.getItem().getPrice());
+            sb.append(" 원) x ");
+            sb.append(orderItem.getCount());
+            sb.append("개\n");
+        }
+
+        sb.append("\n주문 금액 : ");
+        sb.append(order.getTotalPrice());
+        sb.append("원\n");
+
+        if(member.getNoticeType() == NoticeType.EMAIL) {
+            this.enqueue(NoticeType.EMAIL, member.getEmail(), "주문 상품 내역입니다.", sb.toString());
+        } else {
+            this.enqueue(NoticeType.SMS, member.getPhone(), null, sb.toString());
+        }
+    }
+
+    public void enqueue(NoticeType noticeType, String recipient, String subject, String content) {
+        notificationOutboxRepository.save(NotificationOutbox.createNotification(noticeType, recipient, subject, content));
+    }
+
+    @Transactional(readOnly = true)
+    public List<NotificationOutbox> getDispatchTargets(int size) {
+        return notificationOutboxRepository.findDispatchTargets(NotificationStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, size));
+    }
+
+    // 발송 결과 반영 (성공은 한 번의 update, 발송 건수 통계 저장), failures : 아이디 → 오류 메시지
+    public void completeDispatch(List<NotificationOutbox> sent, Map<Long, String> failures) {
+        if(!sent.isEmpty()) {
+            List<Long> sentIds = new ArrayList<>();
+            List<EmailNotice> emailNotices = new ArrayList<>();
+            List<SmsNotice> smsNotices = new ArrayList<>();
+
+            for(NotificationOutbox notification : sent) {
+                sentIds.add(notification.getId());
+
+                if(notification.getNoticeType() == NoticeType.EMAIL) {
+                    emailNotices.add(new EmailNotice());
+                } else {
+                    smsNotices.add(new SmsNotice());
+                }
+            }
+
+            notificationOutboxRepository.updateSent(sentIds, NotificationStatus.SENT, LocalDateTime.now());
+
+            emailNoticeRepository.saveAll(emailNotices);
+            smsNoticeRepository.saveAll(smsNotices);
+        }
+
+        if(!failures.isEmpty()) {
+            for(NotificationOutbox notification : notificationOutboxRepository.findAllById(failures.keySet())) {
+                notification.failAttempt(failures.get(notification.getId()), maxAttempts, retryDelaySeconds);
+            }
+        }
+    }
+
+}
@@ -11,6 +11,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -23,6 +24,8 @@ public class OAuth2Service {
 
     private final OAuth2MemberRepository oAuth2MemberRepository;
 
+    private final PointService pointService;
+
     private final NaverOAuth2Service naverOAuth2Service;
     private final GoogleOAuth2Service googleOAuth2Service;
     private final KakaoOAuth2Service kakaoOAuth2Service;
@@ -69,12 +72,17 @@ public class OAuth2Service {
         return new UsernamePasswordAuthenticationToken(member.getEmail(), null, grantedAuthorities);
     }
 
+    @Transactional
     public OAuth2Member saveOAuth2User(OAuth2Member oAuth2Member) {
         Member member = oAuth2Member.getMember();
 
         validateDuplicateMember(member);
 
-        return oAuth2MemberRepository.save(oAuth2Member);
+        OAuth2Member savedOAuth2Member = oAuth2MemberRepository.save(oAuth2Member);
+
+        pointService.recordOpeningBalance(savedOAuth2Member.getMember());
+
+        return savedOAuth2Member;
     }
 
     private void validateDuplicateMember(Member member) {
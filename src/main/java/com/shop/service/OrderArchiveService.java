@@ -0,0 +1,29 @@
+package com.shop.service;
+
+import com.shop.repository.OrderArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class OrderArchiveService {
+
+    private final OrderArchiveRepository orderArchiveRepository;
+
+    // cutoff 이전 주문을 최대 chunkSize 건 보관 테이블로 옮기고 옮긴 건수를 반환 (한 트랜잭션)
+    public int archiveChunk(LocalDateTime cutoff, int chunkSize) {
+        List<Long> orderIds = orderArchiveRepository.findArchiveTargets(cutoff, chunkSize);
+
+        if(orderIds.isEmpty()) {
+            return 0;
+        }
+
+        return orderArchiveRepository.moveOrders(orderIds);
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.shop.service;
+
+import com.shop.repository.OrderArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+// 매일 archive-after-days 보다 오래된 주문을 chunk-size 건씩 보관 테이블로 옮김 (주문 테이블은 최근 주문 위주로 작게 유지)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderArchiver {
+
+    private final OrderArchiveService orderArchiveService;
+    private final OrderArchiveRepository orderArchiveRepository;
+
+    @Value("${shop.order.archive-after-days:365}")
+    private int archiveAfterDays;
+
+    @Value("${shop.order.archive-chunk-size:500}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${shop.order.archive-cron:0 30 4 * * *}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAfterDays);
+
+        int total = 0;
+
+        try {
+            int moved;
+
+            do {
+                moved = orderArchiveService.archiveChunk(cutoff, chunkSize);
+                total += moved;
+            } while(moved == chunkSize);
+        } catch (Exception e) {
+            log.error("주문 보관 처리 실패 : " + e.getMessage(), e);
+        } finally {
+            orderArchiveRepository.refreshArchivedUntil();
+        }
+
+        log.info("주문 보관 처리 : " + total + "건 (" + cutoff + " 이전)");
+    }
+
+}
@@ -1,8 +1,9 @@
 package com.shop.service;
 
 import com.shop.constant.GiftStatus;
-import com.shop.constant.NoticeType;
 import com.shop.constant.OrderStatus;
+import com.shop.constant.PointReason;
+import com.shop.constant.ReturnConfirmStatus;
 import com.shop.constant.ReturnStatus;
 import com.shop.dto.OrderDto;
 import com.shop.dto.OrderHistDto;
@@ -11,16 +12,23 @@ import com.shop.entity.*;
 import com.shop.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.thymeleaf.util.StringUtils;
 
 import javax.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
 
 @Service
 @Transactional
@@ -28,73 +36,86 @@ import java.util.List;
 public class OrderService {
 
     private final MemberRepository memberRepository;
+    private final MemberIdentityCache memberIdentityCache;
     private final ItemRepository itemRepository;
-    private final ItemImgRepository itemImgRepository;
-    private final ItemTagRepository itemTagRepository;
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
-    private final EmailService emailService;
-    private final SmsService smsService;
-
-    public void processPointUsage(Member member, Order order) {
-        member.setPoint(member.getPoint() - order.getUsedPoint() + order.getAccPoint());
-
-        memberRepository.save(member);
-    }
-
-    public void processTagTotalSell(Item item) {
-        List<ItemTag> itemTag = itemTagRepository.findByItemId(item.getId());
-
-        for(ItemTag itemtag : itemTag) {
-            itemtag.getTag().addTotalSell();
+    private final OrderRequestRepository orderRequestRepository;
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final NotificationService notificationService;
+    private final BestItemService bestItemService;
+    private final TagService tagService;
+    private final StockReservation stockReservation;
+    private final PointService pointService;
+
+    // 주문 요청 키가 있으면 주문과 같은 트랜잭션에서 함께 저장
+    public Long order(OrderDto orderDto, String email, String requestKey) {
+        OrderRequest orderRequest = this.saveOrderRequest(email, requestKey);
+
+        Long orderId = this.order(orderDto, email);
+
+        if(orderRequest != null) {
+            orderRequest.setOrderId(orderId);
         }
+
+        return orderId;
     }
 
     public Long order(OrderDto orderDto, String email) {
         Item item = itemRepository.findById(orderDto.getItemId()).orElseThrow(EntityNotFoundException::new);
 
-        Member member = memberRepository.findByEmail(email);
-
-        if(member.getPoint() < orderDto.getUsedPoint()) {
-            throw new IllegalStateException("포인트가 부족합니다.");
-        }
+        Member member = memberIdentityCache.getReference(email);
 
         List<OrderItem> orderItemList = new ArrayList<>();
 
-        OrderItem orderItem = OrderItem.createOrderItem(item, orderDto.getCount());
+        OrderItem orderItem = OrderItem.createOrderItem(item, orderDto.getCount(), stockReservation);
         orderItemList.add(orderItem);
 
         Order order = Order.createOrder(member, orderDto, orderItemList);
 
-        this.processTagTotalSell(item);
-        this.processPointUsage(member, order);
+        tagService.recordSell(item.getId());
+
+        orderRepository.save(order);
+
+        pointService.useOrderPoint(order, email);
 
         if(orderDto.getGiftStatus().equals(GiftStatus.BUY)) {
-            if(member.getNoticeType().equals(NoticeType.EMAIL)) {
-                emailService.sendOrderEmail(member.getEmail(), orderDto);
-            } else if(member.getNoticeType().equals(NoticeType.SMS)) {
-                smsService.sendOrderSms(member.getPhone(), orderDto);
-            }
+            notificationService.enqueueOrder(member, orderItem);
         }
 
-        orderRepository.save(order);
+        bestItemService.recordOrder(orderItemList);
 
         return order.getId();
     }
 
-    public Long orders(List<OrderDto> orderDtoList, String email, Integer usedPoint) {
-        Member member = memberRepository.findByEmail(email);
+    // 상품은 한 번의 in 조회로 가져오고, 재고/포인트/태그 판매 건수는 한 번에 반영
+    public Long orders(List<OrderDto> orderDtoList, String email, Integer usedPoint, String requestKey) {
+        OrderRequest orderRequest = this.saveOrderRequest(email, requestKey);
+
+        Member member = memberIdentityCache.getReference(email);
+
+        List<Long> itemIds = new ArrayList<>();
+
+        for(OrderDto orderDto : orderDtoList) {
+            itemIds.add(orderDto.getItemId());
+        }
+
+        Map<Long, Item> items = new HashMap<>();
 
-        if(member.getPoint() < usedPoint) {
-            throw new IllegalStateException("포인트가 부족합니다.");
+        for(Item item : itemRepository.findAllById(itemIds)) {
+            items.put(item.getId(), item);
         }
 
         List<OrderItem> orderItemList = new ArrayList<>();
 
         for(OrderDto orderDto : orderDtoList) {
-            Item item = itemRepository.findById(orderDto.getItemId()).orElseThrow(EntityNotFoundException::new);
+            Item item = items.get(orderDto.getItemId());
 
-            OrderItem orderItem = OrderItem.createOrderItem(item, orderDto.getCount());
+            if(item == null) {
+                throw new EntityNotFoundException();
+            }
+
+            OrderItem orderItem = OrderItem.createOrderItem(item, orderDto.getCount(), stockReservation);
 
             orderItemList.add(orderItem);
         }
@@ -109,21 +130,29 @@ public class OrderService {
 
         orderRepository.save(order);
 
-        this.processPointUsage(member, order);
+        pointService.useOrderPoint(order, email);
 
-        if(member.getNoticeType().equals(NoticeType.EMAIL)) {
-            emailService.sendCartOrderEmail(member.getEmail(), orderDtoList, order.getTotalPrice());
-        } else if(member.getNoticeType().equals(NoticeType.SMS)) {
-            smsService.sendCartOrderSms(member.getPhone(), orderDtoList, order.getTotalPrice());
-        }
+        bestItemService.recordOrder(orderItemList);
+        tagService.recordSells(itemIds);
 
-        for(OrderItem orderItem : orderItemList) {
-            this.processTagTotalSell(orderItem.getItem());
+        notificationService.enqueueCartOrder(member, order);
+
+        if(orderRequest != null) {
+            orderRequest.setOrderId(order.getId());
         }
 
         return order.getId();
     }
 
+    // 주문 요청 키를 주문보다 먼저 저장 (같은 키로 동시에 들어온 주문은 unique 키에서 기다렸다가 실패)
+    private OrderRequest saveOrderRequest(String email, String requestKey) {
+        if(requestKey == null || requestKey.isEmpty()) {
+            return null;
+        }
+
+        return orderRequestRepository.saveAndFlush(OrderRequest.createOrderRequest(email, requestKey));
+    }
+
     @Transactional(readOnly = true)
     public Order getOrder(Long orderId) {
         return orderRepository.getById(orderId);
@@ -131,63 +160,139 @@ public class OrderService {
 
     @Transactional(readOnly = true)
     public Page<OrderHistDto> getOrderList(String email, Pageable pageable) {
-        List<Order> orders = orderRepository.findOrders(email, pageable);
-        Long totalCount = orderRepository.countOrder(email);
+        List<OrderHistDto> orders = orderRepository.findOrders(email, pageable);
+        boolean archived = this.reachesArchive(orders, pageable);
+
+        if(archived) {
+            orders = orderArchiveRepository.findOrders(email, pageable.getOffset(), pageable.getPageSize());
+        }
 
-        return this.getPaginatedOrderList(orders, pageable, totalCount);
+        return this.getPaginatedOrderList(orders, pageable, archived, () -> orderRepository.countOrder(email) + orderArchiveRepository.countOrder(email));
     }
 
     @Transactional(readOnly = true)
     public Page<OrderHistDto> getOrderListStatus(String email, Pageable pageable, GiftStatus giftStatus) {
-        List<Order> orders = orderRepository.findOrdersStatus(email, pageable, giftStatus);
-        Long totalCount = orderRepository.countOrder(email);
+        List<OrderHistDto> orders = orderRepository.findOrdersStatus(email, pageable, giftStatus);
+        boolean archived = this.reachesArchive(orders, pageable);
+
+        if(archived) {
+            orders = orderArchiveRepository.findOrdersStatus(email, giftStatus, pageable.getOffset(), pageable.getPageSize());
+        }
 
-        return this.getPaginatedOrderList(orders, pageable, totalCount);
+        return this.getPaginatedOrderList(orders, pageable, archived,
+                () -> orderRepository.countOrderStatus(email, giftStatus) + orderArchiveRepository.countOrderStatus(email, giftStatus));
     }
 
+    // 회원 본인의 반품 내역
     @Transactional(readOnly = true)
     public Page<OrderHistDto> getReturnList(String email, Pageable pageable) {
-        List<Order> orders = orderRepository.findOrdersForReturnList(email, pageable);
-        Long totalCount = orderRepository.countOrderForReturnList(email);
+        Long memberId = memberIdentityCache.getMemberId(email);
+
+        if(memberId == null) {
+            return Page.empty(pageable);
+        }
+
+        List<OrderHistDto> orders = orderRepository.findOrdersForReturnList(memberId, OrderStatus.RETURN, pageable);
+        boolean archived = this.reachesArchive(orders, pageable);
+
+        if(archived) {
+            orders = orderArchiveRepository.findOrdersForReturnList(memberId, pageable.getOffset(), pageable.getPageSize());
+        }
+
+        return this.getPaginatedOrderList(orders, pageable, archived,
+                () -> orderRepository.countOrderForReturnList(memberId, OrderStatus.RETURN) + orderArchiveRepository.countOrderForReturnList(memberId));
+    }
+
+    // 관리자 반품 목록 (전체 회원, lastOrderId 보다 작은 주문 아이디부터 size 건, count 쿼리 없음)
+    @Transactional(readOnly = true)
+    public Slice<OrderHistDto> getReturnMngList(ReturnStatus returnStatus, Long lastOrderId, int size) {
+        Long cursor = lastOrderId == null ? Long.MAX_VALUE : lastOrderId;
+        Pageable pageable = PageRequest.of(0, size + 1);
+
+        List<OrderHistDto> orders = new ArrayList<>(returnStatus == null
+                ? orderRepository.findReturns(OrderStatus.RETURN, cursor, pageable)
+                : orderRepository.findReturnsByReturnStatus(OrderStatus.RETURN, returnStatus, cursor, pageable));
+        boolean archived = false;
+
+        // 주문 테이블에서 다 채우지 못하면 보관 주문(반품 확인 완료)에서 이어서 조회
+        if(orders.size() <= size && returnStatus != ReturnStatus.N && orderArchiveRepository.getArchivedUntil() != null) {
+            orders.addAll(orderArchiveRepository.findReturns(cursor, size + 1));
+            orders.sort(Comparator.comparing(OrderHistDto::getOrderId).reversed());
+            archived = true;
+        }
+
+        boolean hasNext = orders.size() > size;
 
-        return this.getPaginatedOrderList(orders, pageable, totalCount);
+        if(hasNext) {
+            orders = new ArrayList<>(orders.subList(0, size));
+        }
+
+        this.addOrderItemDtos(orders, archived);
+
+        return new SliceImpl<>(orders, PageRequest.of(0, size), hasNext);
     }
 
-    private Page<OrderHistDto> getPaginatedOrderList(List<Order> orders, Pageable pageable, Long totalCount) {
-        List<OrderHistDto> orderHistDtos = new ArrayList<>();
+    // 보관 주문보다 최근 주문만으로 페이지가 채워지면 주문 테이블 조회 결과를 그대로 사용
+    // 페이지가 덜 찼거나 보관 주문 일시까지 내려가면 보관 테이블과 합쳐 다시 조회
+    private boolean reachesArchive(List<OrderHistDto> orders, Pageable pageable) {
+        LocalDateTime archivedUntil = orderArchiveRepository.getArchivedUntil();
 
-        for (Order order : orders) {
-            OrderHistDto orderHistDto = new OrderHistDto(order);
+        if(archivedUntil == null) {
+            return false;
+        }
 
-            List<OrderItem> orderItems = order.getOrderItems();
+        return orders.size() < pageable.getPageSize() || !orders.get(orders.size() - 1).getOrderDateTime().isAfter(archivedUntil);
+    }
 
-            for (OrderItem orderItem : orderItems) {
-                ItemImg itemImg = itemImgRepository.findByItemIdAndRepImgYn(orderItem.getItem().getId(), "Y");
+    // 첫/마지막 페이지는 count 쿼리 생략
+    private Page<OrderHistDto> getPaginatedOrderList(List<OrderHistDto> orders, Pageable pageable, boolean archived, LongSupplier totalCount) {
+        this.addOrderItemDtos(orders, archived);
 
-                OrderItemDto orderItemDto = new OrderItemDto(orderItem, itemImg.getImgUrl());
+        return PageableExecutionUtils.getPage(orders, pageable, totalCount);
+    }
 
-                orderHistDto.addOrderItemDto(orderItemDto);
-            }
+    // 주문 상품은 주문 아이디로 한 번에 조회해 주문별로 묶음
+    private void addOrderItemDtos(List<OrderHistDto> orders, boolean archived) {
+        if(orders.isEmpty()) {
+            return;
+        }
 
-            orderHistDtos.add(orderHistDto);
+        Map<Long, OrderHistDto> orderHistDtos = new HashMap<>();
+
+        for(OrderHistDto orderHistDto : orders) {
+            orderHistDtos.put(orderHistDto.getOrderId(), orderHistDto);
         }
 
-        return new PageImpl<OrderHistDto>(orderHistDtos, pageable, totalCount);
+        List<Long> orderIds = new ArrayList<>(orderHistDtos.keySet());
+        List<OrderItemDto> orderItemDtos = archived ? orderArchiveRepository.findOrderItemDtos(orderIds) : orderRepository.findOrderItemDtos(orderIds);
+
+        for(OrderItemDto orderItemDto : orderItemDtos) {
+            orderHistDtos.get(orderItemDto.getOrderId()).addOrderItemDto(orderItemDto);
+        }
     }
 
     @Transactional(readOnly = true)
     public boolean validateOrder(Long orderId, String email) {
         Order order = orderRepository.findById(orderId).orElseThrow(EntityNotFoundException::new);
 
-        Member curMember = memberRepository.findByEmail(email);
+        Long curMemberId = memberIdentityCache.getMemberId(email);
         Member savedMember = order.getMember();
 
-        return StringUtils.equals(curMember.getEmail(), savedMember.getEmail());
+        return curMemberId != null && curMemberId.equals(savedMember.getId());
     }
 
     public void cancelOrder(Long orderId) {
         Order order = orderRepository.findById(orderId).orElseThrow(EntityNotFoundException::new);
-        order.cancelOrder();
+
+        // 이미 취소된 주문은 재고 / 포인트 / 베스트 상품을 다시 되돌리지 않음
+        if(order.getOrderStatus() == OrderStatus.CANCEL) {
+            return;
+        }
+
+        bestItemService.recordCancel(order.getOrderItems());
+        pointService.cancelOrderPoint(order);
+
+        order.cancelOrder(stockReservation);
     }
 
     public void requestReturn(Order order) {
@@ -209,32 +314,59 @@ public class OrderService {
         orderRepository.save(order);
     }
 
-    public void confirmReturn(Long orderId) {
-        Order order = this.getOrder(orderId);
+    // 반품 확인 일괄 처리 (주문별 처리 결과를 요청 순서대로 반환)
+    // 반품 요청 상태인 주문만 주문 상품 / 주문을 한 번씩 일괄 수정하고 포인트 회수는 회원별로 합산해 반영
+    public Map<Long, ReturnConfirmStatus> confirmReturns(List<Long> orderIds) {
+        Map<Long, ReturnConfirmStatus> results = new LinkedHashMap<>();
 
-        List<OrderItem> orderItemList = order.getOrderItems();
+        if(orderIds.isEmpty()) {
+            return results;
+        }
 
-        for (OrderItem orderItem : orderItemList) {
-            orderItem.setReturnConfirmDate(LocalDateTime.now());
-            orderItem.setReturnPrice(orderItem.getOrderPrice());
-            orderItem.setReturnCount(orderItem.getCount());
-            orderItem.setReturnStatus(ReturnStatus.Y);
+        for(Long orderId : orderIds) {
+            results.put(orderId, ReturnConfirmStatus.NOT_FOUND);
+        }
 
-            orderItemRepository.save(orderItem);
+        List<Long> confirmOrderIds = new ArrayList<>();
+        Map<Long, Integer> pointDeltas = new HashMap<>();
+        Map<Long, Long> orderMembers = new HashMap<>();
+
+        for(Object[] row : orderRepository.findReturnConfirmRows(results.keySet())) {
+            Long orderId = (Long) row[0];
+
+            if(row[1] != OrderStatus.RETURN) {
+                results.put(orderId, ReturnConfirmStatus.NOT_REQUESTED);
+            } else if(row[2] == ReturnStatus.Y) {
+                results.put(orderId, ReturnConfirmStatus.ALREADY_CONFIRMED);
+            } else {
+                results.put(orderId, ReturnConfirmStatus.CONFIRMED);
+                confirmOrderIds.add(orderId);
+
+                // 반품 포인트 회수 (사용 포인트 환급, 적립 포인트 차감)
+                pointDeltas.put(orderId, (Integer) row[4] - (Integer) row[5]);
+                orderMembers.put(orderId, (Long) row[3]);
+            }
         }
 
-        order.setReturnConfirmDate(LocalDateTime.now());
-        order.setOrderStatus(OrderStatus.RETURN);
-        order.setReturnStatus(ReturnStatus.Y);
+        if(confirmOrderIds.isEmpty()) {
+            return results;
+        }
 
-        orderRepository.save(order);
+        LocalDateTime now = LocalDateTime.now();
+
+        orderRepository.confirmReturnItems(confirmOrderIds, ReturnStatus.Y, now);
+        orderRepository.confirmReturnOrders(confirmOrderIds, OrderStatus.RETURN, ReturnStatus.Y, now);
 
-        Member member = order.getMember();
+        List<PointLedger> pointLedgers = new ArrayList<>();
+
+        for(Long orderId : confirmOrderIds) {
+            pointLedgers.add(PointLedger.createPointLedger(memberRepository.getById(orderMembers.get(orderId)),
+                    orderId, pointDeltas.get(orderId), PointReason.RETURN));
+        }
 
-        // 반품 포인트 회수
-        member.setPoint(member.getPoint() + order.getUsedPoint() - order.getAccPoint());
+        pointService.applyAll(pointLedgers);
 
-        memberRepository.save(member);
+        return results;
     }
 
 }
@@ -0,0 +1,41 @@
+package com.shop.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+// 포인트 내역(point_ledger) 도입 이전 회원 잔액을 시작 잔액(OPENING) 내역으로 이전
+// 배포 시 shop.migration.point-opening-balance=true 로 한 번만 실행 (주문이 없는 상태에서 실행, 다시 실행해도 추가되는 내역 없음)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PointLedgerMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final PointService pointService;
+
+    @Value("${shop.migration.point-opening-balance:false}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if(!enabled) {
+            return;
+        }
+
+        Long lastId = 0L;
+        int batches = 0;
+
+        // 회원 BATCH_SIZE 명씩 나눠 트랜잭션 처리
+        while((lastId = pointService.recordOpeningBalances(lastId, BATCH_SIZE)) != null) {
+            batches++;
+        }
+
+        log.info("포인트 시작 잔액 이전 완료 (" + batches + " 회)");
+    }
+
+}
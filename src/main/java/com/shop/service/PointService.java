@@ -0,0 +1,148 @@
+package com.shop.service;
+
+import com.shop.constant.PointReason;
+import com.shop.entity.Member;
+import com.shop.entity.Order;
+import com.shop.entity.PointLedger;
+import com.shop.repository.MemberRepository;
+import com.shop.repository.MemberSummaryCache;
+import com.shop.repository.PointLedgerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 포인트 변경은 point_ledger 에 기록하고 member.point 에는 point = point + delta 로 바로 반영 (회원 행을 읽고 쓰지 않음)
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class PointService {
+
+    private final PointLedgerRepository pointLedgerRepository;
+    private final MemberRepository memberRepository;
+    private final MemberSummaryCache memberSummaryCache;
+    private final JdbcTemplate jdbcTemplate;
+
+    // 주문 포인트 사용 / 적립 (사용 포인트보다 잔액이 적으면 실패)
+    public void useOrderPoint(Order order, String email) {
+        Member member = order.getMember();
+        int delta = order.getAccPoint() - order.getUsedPoint();
+
+        if(memberRepository.addPoint(member.getId(), delta, order.getUsedPoint()) == 0) {
+            throw new IllegalStateException("포인트가 부족합니다.");
+        }
+
+        memberRepository.refreshPoint(member);
+
+        pointLedgerRepository.save(PointLedger.createPointLedger(member, order.getId(), delta, PointReason.ORDER));
+
+        memberSummaryCache.evict(email);
+    }
+
+    // 주문 취소 포인트 환급 / 적립 회수
+    public void cancelOrderPoint(Order order) {
+        Member member = order.getMember();
+        int delta = order.getUsedPoint() - order.getAccPoint();
+
+        memberRepository.addPoint(member.getId(), delta, Integer.MIN_VALUE);
+        memberRepository.refreshPoint(member);
+
+        pointLedgerRepository.save(PointLedger.createPointLedger(member, order.getId(), delta, PointReason.CANCEL));
+
+        memberSummaryCache.evict(member.getEmail());
+    }
+
+    // 가입 시 지급한 포인트를 시작 잔액으로 기록
+    public void recordOpeningBalance(Member member) {
+        if(member.getPoint() != 0) {
+            pointLedgerRepository.save(PointLedger.createPointLedger(member, null, member.getPoint(), PointReason.OPENING));
+        }
+    }
+
+    // 포인트 내역 도입 이전 잔액 이전 : member.point 와 내역 합계의 차이를 시작 잔액으로 기록 (차이만 기록하므로 다시 실행해도 결과가 같음)
+    // lastId 보다 큰 회원 아이디부터 size 명을 처리하고 마지막 회원 아이디를 반환 (더 처리할 회원이 없으면 null)
+    public Long recordOpeningBalances(Long lastId, int size) {
+        List<Object[]> rows = memberRepository.findPointLedgerGaps(lastId, PageRequest.of(0, size));
+
+        if(rows.isEmpty()) {
+            return null;
+        }
+
+        List<PointLedger> pointLedgers = new ArrayList<>();
+
+        for(Object[] row : rows) {
+            int delta = ((Number) row[1]).intValue();
+
+            if(delta != 0) {
+                pointLedgers.add(PointLedger.createPointLedger(memberRepository.getById((Long) row[0]), null, delta, PointReason.OPENING));
+            }
+        }
+
+        pointLedgerRepository.saveAll(pointLedgers);
+
+        return (Long) rows.get(rows.size() - 1)[0];
+    }
+
+    // 여러 건을 한 번에 반영 (회원별로 합산해 batch update)
+    public void applyAll(List<PointLedger> pointLedgers) {
+        if(pointLedgers.isEmpty()) {
+            return;
+        }
+
+        pointLedgerRepository.saveAll(pointLedgers);
+
+        Map<Long, Integer> deltas = new HashMap<>();
+
+        for(PointLedger pointLedger : pointLedgers) {
+            deltas.merge(pointLedger.getMember().getId(), pointLedger.getDelta(), Integer::sum);
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>();
+
+        for(Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+            if(delta.getValue() != 0) {
+                batchArgs.add(new Object[] {delta.getValue(), delta.getKey()});
+            }
+        }
+
+        if(!batchArgs.isEmpty()) {
+            // 회원의 변경 사항을 먼저 반영해야 다시 읽을 때 잃지 않음
+            memberRepository.flush();
+
+            jdbcTemplate.batchUpdate("update member set point = point + ? where member_id = ?", batchArgs);
+
+            for(PointLedger pointLedger : pointLedgers) {
+                memberRepository.refreshPoint(pointLedger.getMember());
+            }
+        }
+
+        for(String email : memberRepository.findEmailsByIdIn(deltas.keySet())) {
+            memberSummaryCache.evict(email);
+        }
+    }
+
+    // 포인트 잔액 조회 (캐시된 회원 요약 정보 사용)
+    @Transactional(readOnly = true)
+    public int getPoint(String email) {
+        MemberSummaryCache.MemberSummary memberSummary = memberSummaryCache.get(email, memberRepository::findByEmail);
+
+        if(memberSummary == null) {
+            throw new IllegalStateException("회원 정보를 찾을 수 없습니다.");
+        }
+
+        return memberSummary.getPoint();
+    }
+
+    // 포인트 변경 내역 합계 (member.point 와 대사용)
+    @Transactional(readOnly = true)
+    public long getLedgerSum(Long memberId) {
+        return pointLedgerRepository.sumDeltaByMemberId(memberId);
+    }
+
+}
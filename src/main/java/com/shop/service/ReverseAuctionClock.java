@@ -0,0 +1,86 @@
+package com.shop.service;
+
+import com.shop.repository.ReverseAuctionTimeline;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// 역경매 타이밍 휠을 시작 시 DB 에서 채우고 tick-millis 마다 진행
+// 종료 이벤트가 있으면 DB 상태를 먼저 바꾸고 구독자에게 전달
+// 다른 @Scheduled 작업(주문 보관, 장바구니 반영 등)이 길어져도 틱이 밀리지 않도록 전용 스레드에서 실행
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReverseAuctionClock {
+
+    private final ReverseAuctionService reverseAuctionService;
+    private final ReverseAuctionTimeline reverseAuctionTimeline;
+
+    @Value("${shop.reverse-auction.tick-millis:1000}")
+    private long tickMillis;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rauction-clock");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    // 타이밍 휠을 채운 뒤 틱 시작
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        reverseAuctionService.fillEndTime();
+
+        reverseAuctionTimeline.rebuild(reverseAuctionService.getProgressSchedules(), LocalDateTime.now());
+
+        log.info("역경매 타이밍 휠 : 진행 중 " + reverseAuctionTimeline.size() + "건");
+
+        scheduler.scheduleWithFixedDelay(this::safeTick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // 예외가 나가면 이후 틱이 실행되지 않으므로 여기서 잡음
+    private void safeTick() {
+        try {
+            this.tick();
+        } catch (RuntimeException e) {
+            log.error("역경매 타이밍 휠 진행 실패 : " + e.getMessage(), e);
+        }
+    }
+
+    public void tick() {
+        List<ReverseAuctionTimeline.Event> events = reverseAuctionTimeline.advance(LocalDateTime.now());
+
+        if(events.isEmpty()) {
+            return;
+        }
+
+        boolean ended = events.stream().anyMatch(event -> event.getType() == ReverseAuctionTimeline.EventType.END);
+
+        if(ended) {
+            try {
+                reverseAuctionService.endReverseAuctions();
+            } catch (Exception e) {
+                // 상태 변경은 endReverseAuctions 주기 실행에서 다시 처리됨
+                log.error("역경매 종료 처리 실패 : " + e.getMessage(), e);
+            }
+        }
+
+        reverseAuctionTimeline.publish(events);
+    }
+
+}
@@ -0,0 +1,325 @@
+package com.shop.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.dto.DiscountDto;
+import com.shop.repository.ReverseAuctionTimeline;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 역경매 현재 가격 / 할인율 / 종료·낙찰 상태를 SSE 로 전달
+// 타이밍 휠(ReverseAuctionTimeline) 이벤트 하나를 메시지 하나로 만들어 그 역경매를 구독 중인 연결에 나눠 줌 (구독자별 DB 조회 없음)
+// 연결마다 역경매별 최신 메시지만 남기고, 보내는 일은 writer-threads 개의 스레드가 나눠서 처리 (느린 연결은 중간 가격을 건너뜀)
+// 보내기는 블로킹이므로 write-timeout-millis 안에 끝나지 않는 연결은 끊어서 다른 연결이 계속 받을 수 있도록 함
+@Slf4j
+@Service
+public class ReverseAuctionFeed {
+
+    // 한 연결에서 구독할 수 있는 최대 역경매 수
+    private static final int MAX_IDS = 50;
+
+    // 연결 확인용 heartbeat 메시지 키
+    private static final Long HEARTBEAT = -1L;
+
+    private final ReverseAuctionTimeline reverseAuctionTimeline;
+
+    private final ExecutorService writers;
+
+    private final long timeoutMillis;
+
+    private final long writeTimeoutMillis;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final Set<Subscriber> connections = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger writerSequence = new AtomicInteger();
+
+    public ReverseAuctionFeed(ReverseAuctionTimeline reverseAuctionTimeline,
+                              @Value("${shop.reverse-auction.feed-writer-threads:2}") int writerThreads,
+                              @Value("${shop.reverse-auction.feed-timeout-millis:1800000}") long timeoutMillis,
+                              @Value("${shop.reverse-auction.feed-write-timeout-millis:5000}") long writeTimeoutMillis) {
+        this.reverseAuctionTimeline = reverseAuctionTimeline;
+        this.timeoutMillis = timeoutMillis;
+        this.writeTimeoutMillis = writeTimeoutMillis;
+        this.writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "rauction-feed-" + writerSequence.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        reverseAuctionTimeline.addListener(this::broadcast);
+    }
+
+    @PreDestroy
+    public void stop() {
+        for(Subscriber subscriber : new ArrayList<>(connections)) {
+            subscriber.close();
+        }
+
+        writers.shutdown();
+    }
+
+    public SseEmitter subscribe(Collection<Long> reverseAuctionIds) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+
+        this.subscribe(emitter, reverseAuctionIds);
+
+        return emitter;
+    }
+
+    // 구독한 역경매 중 진행 중인 역경매는 현재 가격을 바로 보냄 (이후에는 바뀔 때만 보냄)
+    void subscribe(SseEmitter emitter, Collection<Long> reverseAuctionIds) {
+        Set<Long> ids = new LinkedHashSet<>(reverseAuctionIds);
+
+        if(ids.size() > MAX_IDS) {
+            throw new IllegalStateException("한 번에 구독할 수 있는 역경매는 최대 " + MAX_IDS + "개 입니다.");
+        }
+
+        Subscriber subscriber = new Subscriber(emitter, ids);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        connections.add(subscriber);
+
+        for(Long reverseAuctionId : ids) {
+            subscribers.compute(reverseAuctionId, (key, set) -> {
+                Set<Subscriber> result = set == null ? ConcurrentHashMap.newKeySet() : set;
+                result.add(subscriber);
+
+                return result;
+            });
+
+            ReverseAuctionTimeline.Event current = reverseAuctionTimeline.getCurrent(reverseAuctionId);
+
+            if(current != null) {
+                subscriber.offer(reverseAuctionId, this.toMessage(current));
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    // 응답 없이 끊긴 연결은 보내기에 실패할 때 정리됨
+    @Scheduled(fixedDelayString = "${shop.reverse-auction.feed-heartbeat-millis:30000}")
+    public void heartbeat() {
+        for(Subscriber subscriber : connections) {
+            subscriber.offer(HEARTBEAT, "");
+        }
+    }
+
+    // 한 번 보내는 데 write-timeout-millis 를 넘긴 연결은 에러로 끊음 (컨테이너가 소켓을 닫으면 막혀 있던 전송 스레드도 풀려남)
+    @Scheduled(fixedDelayString = "${shop.reverse-auction.feed-write-check-millis:1000}")
+    public int dropStalled() {
+        long stalledBefore = System.currentTimeMillis() - writeTimeoutMillis;
+        int dropped = 0;
+
+        for(Subscriber subscriber : connections) {
+            if(subscriber.isStalled(stalledBefore)) {
+                subscriber.close(new IllegalStateException("역경매 가격 전송 시간 초과"));
+                dropped++;
+            }
+        }
+
+        if(dropped > 0) {
+            log.warn("역경매 가격 전송이 멈춘 연결 정리 : " + dropped + "건");
+        }
+
+        return dropped;
+    }
+
+    private void broadcast(ReverseAuctionTimeline.Event event) {
+        Set<Subscriber> set = subscribers.get(event.getReverseAuctionId());
+
+        if(set == null || set.isEmpty()) {
+            return;
+        }
+
+        String message = this.toMessage(event);
+
+        for(Subscriber subscriber : set) {
+            subscriber.offer(event.getReverseAuctionId(), message);
+        }
+    }
+
+    // { id, status : PROGRESS / END / SOLD, currentPrice, discountPrice, discountRate }
+    private String toMessage(ReverseAuctionTimeline.Event event) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("id", event.getReverseAuctionId());
+
+        switch(event.getType()) {
+            case STEP:
+                message.put("status", "PROGRESS");
+                break;
+            case END:
+                message.put("status", "END");
+                break;
+            default:
+                message.put("status", "SOLD");
+                break;
+        }
+
+        if(event.getStartPrice() > 0) {
+            DiscountDto discountDto = new DiscountDto(event.getStartPrice(), event.getCurrentPrice());
+
+            message.put("currentPrice", discountDto.getCurrentPrice());
+            message.put("discountPrice", discountDto.getCurrentDiscountPrice());
+            message.put("discountRate", discountDto.getCurrentDiscountRate());
+        }
+
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("역경매 가격 메시지 생성 중 에러가 발생하였습니다.", e);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        connections.remove(subscriber);
+
+        for(Long reverseAuctionId : subscriber.reverseAuctionIds) {
+            subscribers.computeIfPresent(reverseAuctionId, (key, set) -> {
+                set.remove(subscriber);
+
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final Set<Long> reverseAuctionIds;
+
+        // 역경매별 아직 보내지 않은 최신 메시지
+        private final Map<Long, String> pending = new LinkedHashMap<>();
+
+        private final AtomicBoolean writing = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        // 보내는 중이면 보내기 시작한 시간, 아니면 0
+        private volatile long writeStartedAt;
+
+        private Subscriber(SseEmitter emitter, Set<Long> reverseAuctionIds) {
+            this.emitter = emitter;
+            this.reverseAuctionIds = reverseAuctionIds;
+        }
+
+        private void offer(Long reverseAuctionId, String message) {
+            if(closed) {
+                return;
+            }
+
+            synchronized (pending) {
+                pending.put(reverseAuctionId, message);
+            }
+
+            if(writing.compareAndSet(false, true)) {
+                writers.execute(this::write);
+            }
+        }
+
+        // 한 연결은 한 번에 하나의 스레드만 보냄
+        private void write() {
+            while(true) {
+                Map<Long, String> messages;
+
+                synchronized (pending) {
+                    messages = new LinkedHashMap<>(pending);
+                    pending.clear();
+                }
+
+                for(Map.Entry<Long, String> entry : messages.entrySet()) {
+                    if(closed) {
+                        return;
+                    }
+
+                    writeStartedAt = System.currentTimeMillis();
+
+                    try {
+                        if(HEARTBEAT.equals(entry.getKey())) {
+                            emitter.send(SseEmitter.event().comment("heartbeat"));
+                        } else {
+                            emitter.send(SseEmitter.event().name("price").data(entry.getValue()));
+                        }
+                    } catch (Exception e) {
+                        this.close();
+
+                        return;
+                    } finally {
+                        writeStartedAt = 0;
+                    }
+                }
+
+                writing.set(false);
+
+                synchronized (pending) {
+                    if(pending.isEmpty()) {
+                        return;
+                    }
+                }
+
+                // 그 사이에 들어온 메시지를 다른 스레드가 맡았으면 종료
+                if(!writing.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+
+        private boolean isStalled(long stalledBefore) {
+            long startedAt = writeStartedAt;
+
+            return !closed && startedAt != 0 && startedAt < stalledBefore;
+        }
+
+        private void close() {
+            this.close(null);
+        }
+
+        private void close(Throwable error) {
+            if(closed) {
+                return;
+            }
+
+            closed = true;
+
+            unsubscribe(this);
+
+            try {
+                if(error == null) {
+                    emitter.complete();
+                } else {
+                    emitter.completeWithError(error);
+                }
+            } catch (Exception e) {
+                log.debug("역경매 가격 구독 종료 : " + e.getMessage());
+            }
+        }
+
+    }
+
+}
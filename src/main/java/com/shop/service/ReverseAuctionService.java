@@ -1,5 +1,7 @@
 package com.shop.service;
 
+import com.shop.constant.ReverseAuctionStatus;
+import com.shop.dto.DiscountDto;
 import com.shop.dto.ReverseAuctionDto;
 import com.shop.dto.ReverseAuctionFormDto;
 import com.shop.dto.ReverseAuctionHistoryDto;
@@ -8,18 +10,25 @@ import com.shop.entity.Item;
 import com.shop.entity.ReverseAuction;
 import com.shop.mapstruct.ReverseAuctionFormMapper;
 import com.shop.repository.ItemRepository;
+import com.shop.repository.PageCountStrategy;
 import com.shop.repository.ReverseAuctionRepository;
+import com.shop.repository.ReverseAuctionTimeline;
+import com.shop.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
+@Slf4j
 @Service
 @Transactional
 @RequiredArgsConstructor
@@ -31,6 +40,60 @@ public class ReverseAuctionService {
 
     private final ReverseAuctionRepository reverseAuctionRepository;
 
+    private final PageCountStrategy pageCountStrategy;
+
+    private final ReverseAuctionTimeline reverseAuctionTimeline;
+
+    // end_time / status 컬럼 추가 이전에 등록된 역경매의 종료 시간 채우기 (시작 시 ReverseAuctionClock 이 타이밍 휠을 채우기 전에 호출)
+    public void fillEndTime() {
+        List<ReverseAuction> reverseAuctions = reverseAuctionRepository.findUnscheduled();
+
+        if(reverseAuctions.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for(ReverseAuction reverseAuction : reverseAuctions) {
+            reverseAuction.schedule(now);
+        }
+
+        pageCountStrategy.invalidate(PageCountStrategy.REVERSE_AUCTION);
+
+        log.info("역경매 종료 시간 채우기 : " + reverseAuctions.size() + "건");
+    }
+
+    // 종료 시간이 지난 역경매를 종료 상태로 변경 (목록은 status, end_time 만으로 조회)
+    @Scheduled(fixedDelayString = "${shop.reverse-auction.status-millis:60000}")
+    public void endReverseAuctions() {
+        int ended = reverseAuctionRepository.updateEndedStatus(ReverseAuctionStatus.PROGRESS, ReverseAuctionStatus.END, LocalDateTime.now());
+
+        if(ended > 0) {
+            pageCountStrategy.invalidate(PageCountStrategy.REVERSE_AUCTION);
+        }
+    }
+
+    // 타이밍 휠에 다시 채울 진행 중인 역경매
+    @Transactional(readOnly = true)
+    public List<ReverseAuctionTimeline.Schedule> getProgressSchedules() {
+        List<ReverseAuctionTimeline.Schedule> schedules = new ArrayList<>();
+
+        for(ReverseAuction reverseAuction : reverseAuctionRepository.findByStatus(ReverseAuctionStatus.PROGRESS)) {
+            schedules.add(this.toSchedule(reverseAuction));
+        }
+
+        return schedules;
+    }
+
+    // 역경매 종료 시간은 상품 가격으로 계산하므로 상품이 수정되면 다시 계산
+    public void rescheduleItem(Long itemId) {
+        for(ReverseAuction reverseAuction : reverseAuctionRepository.findByItemId(itemId)) {
+            reverseAuction.schedule(LocalDateTime.now());
+
+            this.registerTimeline(reverseAuction);
+        }
+    }
+
     public ReverseAuction saveReverseAuction(ReverseAuctionFormDto reverseAuctionFormDto) {
         Item item = itemRepository.findById(reverseAuctionFormDto.getItemId()).orElseThrow(EntityNotFoundException::new);
 
@@ -38,8 +101,15 @@ public class ReverseAuctionService {
 
         reverseAuction.setItem(item);
         reverseAuction.setStartTime(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
+        reverseAuction.schedule(LocalDateTime.now());
 
-        return reverseAuctionRepository.save(reverseAuction);
+        pageCountStrategy.invalidate(PageCountStrategy.REVERSE_AUCTION, PageCountStrategy.BID);
+
+        ReverseAuction savedReverseAuction = reverseAuctionRepository.save(reverseAuction);
+
+        this.registerTimeline(savedReverseAuction);
+
+        return savedReverseAuction;
     }
 
     @Transactional(readOnly = true)
@@ -54,7 +124,13 @@ public class ReverseAuctionService {
 
     @Transactional(readOnly = true)
     public ReverseAuctionDto getReverseAuctionDtl(Long id) {
-        return reverseAuctionRepository.getUserReverseAuctionDetailPage(id);
+        ReverseAuctionDto reverseAuctionDto = reverseAuctionRepository.getUserReverseAuctionDetailPage(id);
+
+        if(reverseAuctionDto != null) {
+            this.applyCurrentPrice(reverseAuctionDto);
+        }
+
+        return reverseAuctionDto;
     }
 
     public Long updateReserveAuction(ReverseAuctionFormDto reverseAuctionFormDto) {
@@ -65,6 +141,11 @@ public class ReverseAuctionService {
         reverseAuction.setItem(item);
 
         reverseAuctionFormMapper.updateFromDto(reverseAuctionFormDto, reverseAuction);
+        reverseAuction.schedule(LocalDateTime.now());
+
+        this.registerTimeline(reverseAuction);
+
+        pageCountStrategy.invalidate(PageCountStrategy.REVERSE_AUCTION, PageCountStrategy.BID);
 
         return reverseAuction.getId();
     }
@@ -73,6 +154,10 @@ public class ReverseAuctionService {
         ReverseAuction reverseAuction = reverseAuctionRepository.findById(id).orElseThrow(EntityNotFoundException::new);
 
         reverseAuctionRepository.delete(reverseAuction);
+
+        TransactionUtils.afterCommit(() -> reverseAuctionTimeline.remove(id));
+
+        pageCountStrategy.invalidate(PageCountStrategy.REVERSE_AUCTION, PageCountStrategy.BID);
     }
 
     @Transactional(readOnly = true)
@@ -82,7 +167,11 @@ public class ReverseAuctionService {
 
     @Transactional(readOnly = true)
     public Page<ReverseAuctionDto> getUserReverseAuctionPage(ReverseAuctionSearchDto reverseAuctionSearchDto, Pageable pageable) {
-        return reverseAuctionRepository.getUserReverseAuctionPage(reverseAuctionSearchDto, pageable);
+        Page<ReverseAuctionDto> reverseAuctionDtoPage = reverseAuctionRepository.getUserReverseAuctionPage(reverseAuctionSearchDto, pageable);
+
+        reverseAuctionDtoPage.getContent().forEach(this::applyCurrentPrice);
+
+        return reverseAuctionDtoPage;
     }
 
     @Transactional(readOnly = true)
@@ -90,4 +179,29 @@ public class ReverseAuctionService {
         return reverseAuctionRepository.getPreviousReverseAuctionPage();
     }
 
+    // 타이밍 휠이 갱신한 현재 가격 (휠에 없는 역경매는 조회 시각 기준으로 계산한 값 그대로)
+    private void applyCurrentPrice(ReverseAuctionDto reverseAuctionDto) {
+        Integer currentPrice = reverseAuctionTimeline.getCurrentPrice(reverseAuctionDto.getId());
+
+        if(currentPrice != null) {
+            reverseAuctionDto.setDiscountDto(new DiscountDto(reverseAuctionDto.getStartPrice(), currentPrice));
+        }
+    }
+
+    // 낙찰된 역경매는 가격이 더 바뀌지 않으므로 타이밍 휠에 올리지 않음
+    private void registerTimeline(ReverseAuction reverseAuction) {
+        if(reverseAuction.isSold()) {
+            return;
+        }
+
+        ReverseAuctionTimeline.Schedule schedule = this.toSchedule(reverseAuction);
+
+        TransactionUtils.afterCommit(() -> reverseAuctionTimeline.register(schedule, LocalDateTime.now()));
+    }
+
+    private ReverseAuctionTimeline.Schedule toSchedule(ReverseAuction reverseAuction) {
+        return new ReverseAuctionTimeline.Schedule(reverseAuction.getId(), reverseAuction.getStartTime(), reverseAuction.getItem().getPrice(),
+                reverseAuction.getTimeUnit(), reverseAuction.getPriceUnit(), reverseAuction.getEndTime());
+    }
+
 }
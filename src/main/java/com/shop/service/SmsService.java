@@ -1,13 +1,5 @@
 package com.shop.service;
 
-import com.shop.dto.OrderDto;
-import com.shop.entity.Item;
-import com.shop.entity.Order;
-import com.shop.entity.OrderItem;
-import com.shop.entity.SmsNotice;
-import com.shop.repository.ItemRepository;
-import com.shop.repository.OrderRepository;
-import com.shop.repository.SmsNoticeRepository;
 import lombok.RequiredArgsConstructor;
 import net.nurigo.java_sdk.api.Message;
 import net.nurigo.java_sdk.exceptions.CoolsmsException;
@@ -17,9 +9,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import javax.persistence.EntityNotFoundException;
 import java.util.HashMap;
-import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -27,10 +17,6 @@ public class SmsService {
 
     private static final Logger logger = LoggerFactory.getLogger(SmsService.class);
 
-    private final ItemRepository itemRepository;
-    private final OrderRepository orderRepository;
-    private final SmsNoticeRepository smsNoticeRepository;
-
     @Value("${spring.sms.api-key}")
     private String smsApiKey;
 
@@ -39,6 +25,15 @@ public class SmsService {
 
     @Async
     public void sendSms(String phone, String text) {
+        try {
+            this.sendSmsNow(phone, text);
+        } catch (CoolsmsException e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    // 발송 결과를 기다려야 하는 경우 (알림 발송 재시도)
+    public void sendSmsNow(String phone, String text) throws CoolsmsException {
         Message coolsms = new Message(smsApiKey, smsApiSecret);
         HashMap<String, String> params = new HashMap<String, String>();
 
@@ -48,55 +43,7 @@ public class SmsService {
         params.put("text", text);
         params.put("app_version", "test app 1.2");
 
-        try {
-            coolsms.send(params);
-        } catch (CoolsmsException e) {
-            logger.error(e.getMessage(), e);
-        }
-    }
-
-    public void sendOrderSms(String phone, OrderDto orderDto) {
-        Item item = itemRepository.findById(orderDto.getItemId()).orElseThrow(EntityNotFoundException::new);
-
-        StringBuffer sb = new StringBuffer("[Bueg] 주문 상품 내역\n");
-        sb.append("주문 상품 : ");
-        sb.append(item.getItemNm());
-        sb.append("\n주문 수량 : ");
-        sb.append(orderDto.getCount());
-        sb.append("\n주문 금액 : ");
-        sb.append(item.getPrice() * orderDto.getCount());
-        sb.append("원");
-
-        this.sendSms(phone, sb.toString());
-        this.addSmsCount();
-    }
-
-    public void sendCartOrderSms(String phone, List<OrderDto> orderDtoList, Integer totalPrice) {
-        StringBuffer sb = new StringBuffer("[Bueg]주문상품 내역\n");
-
-        for(OrderDto orderDto : orderDtoList) {
-            Item item = itemRepository.findById(orderDto.getItemId()).orElseThrow(EntityNotFoundException::new);
-
-            sb.append(item.getItemNm());
-            sb.append("(");
-            sb.append(item.getPrice());
-            sb.append(" 원) x ");
-            sb.append(orderDto.getCount());
-            sb.append("개\n");
-        }
-
-        sb.append("\n주문 금액 : ");
-        sb.append(totalPrice);
-        sb.append("원\n");
-
-        this.sendSms(phone, sb.toString());
-        this.addSmsCount();
-    }
-
-    public void addSmsCount() {
-        SmsNotice smsNotice = new SmsNotice();
-
-        smsNoticeRepository.save(smsNotice);
+        coolsms.send(params);
     }
 
 }
@@ -0,0 +1,35 @@
+package com.shop.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// 재고 저널(stock_journal)을 journal-flush-millis 마다 item.stock_number 에 반영 (ItemService 트랜잭션 프록시를 거쳐 호출)
+// 저널은 주문과 같은 트랜잭션에서 DB 에 남으므로 종료 시 반영하지 못한 저널은 다음 시작 시 반영
+@Service
+@RequiredArgsConstructor
+public class StockJournalFlusher {
+
+    private static final int BATCH_SIZE = 1000; // StockJournalRepository.findTop1000ByOrderByIdAsc
+
+    private final ItemService itemService;
+
+    @Scheduled(fixedDelayString = "${shop.stock.journal-flush-millis:1000}")
+    public void flush() {
+        int flushed;
+
+        // 한 번에 가져오는 저널 수만큼 반영했으면 남은 저널이 있을 수 있으므로 이어서 반영
+        do {
+            flushed = itemService.flushStockJournal();
+        } while(flushed == BATCH_SIZE);
+    }
+
+    // 재고 예약 전에 이전 실행에서 남은 저널 반영
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        this.flush();
+    }
+
+}
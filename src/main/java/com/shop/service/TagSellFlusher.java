@@ -0,0 +1,33 @@
+package com.shop.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+
+// 누적된 태그 판매 건수를 sell-flush-millis 마다 반영 (TagService 트랜잭션 프록시를 거쳐 호출)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TagSellFlusher {
+
+    private final TagService tagService;
+
+    @Scheduled(fixedDelayString = "${shop.tag.sell-flush-millis:10000}")
+    public void flush() {
+        tagService.flushTotalSell();
+    }
+
+    // 종료 시 남은 증가분 반영 (TagService 보다 먼저 종료되므로 DB 연결이 살아있음)
+    @PreDestroy
+    public void shutdown() {
+        try {
+            this.flush();
+        } catch (RuntimeException e) {
+            log.error("태그 판매 건수 반영 실패", e);
+        }
+    }
+
+}
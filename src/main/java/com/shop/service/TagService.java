@@ -1,12 +1,20 @@
 package com.shop.service;
 
 import com.shop.entity.Tag;
+import com.shop.repository.ItemFacetIndex;
+import com.shop.repository.ItemTagRepository;
+import com.shop.repository.TagRanking;
 import com.shop.repository.TagRepository;
+import com.shop.repository.TagSellCounter;
+import com.shop.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.*;
 
 @Service
 @Transactional
@@ -14,10 +22,103 @@ import java.util.List;
 public class TagService {
 
     private final TagRepository tagRepository;
+    private final ItemTagRepository itemTagRepository;
+    private final ItemFacetIndex itemFacetIndex;
+    private final TagSellCounter tagSellCounter;
+    private final TagRanking tagRanking;
+    private final JdbcTemplate jdbcTemplate;
 
+    // 판매 건수 내림차순, 순위가 준비되기 전에는 DB 에서 읽어 정렬 (조회 결과는 영속 상태가 아닌 복사본)
     @Transactional(readOnly = true)
     public List<Tag> getTagList() {
-        return tagRepository.findAllByOrderByTotalSellDesc();
+        if(tagRanking.isReady()) {
+            return tagRanking.getTags();
+        }
+
+        List<Tag> tags = this.getLiveTags();
+
+        tags.sort(Comparator.comparingInt(Tag::getTotalSell).reversed().thenComparing(Tag::getId));
+
+        return tags;
+    }
+
+    // 판매 건수 순위는 시작 시 한 번만 DB 에서 읽음 (이후 증가분은 recordSells 에서 반영)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildTagRanking() {
+        tagRanking.rebuild(this.getLiveTags());
+    }
+
+    // 판매 건수는 DB 값에 아직 반영되지 않은 증가분을 더함
+    private List<Tag> getLiveTags() {
+        List<Tag> tags = new ArrayList<>();
+
+        for(Tag tag : tagRepository.findAll()) {
+            Tag liveTag = new Tag();
+            liveTag.setId(tag.getId());
+            liveTag.setTagNm(tag.getTagNm());
+            liveTag.setTagContent(tag.getTagContent());
+            liveTag.setTotalSell((int) (tag.getTotalSell() + tagSellCounter.getDelta(tag.getId())));
+
+            tags.add(liveTag);
+        }
+
+        return tags;
+    }
+
+    // 주문이 커밋된 뒤 상품의 태그 판매 건수 증가
+    public void recordSell(Long itemId) {
+        this.recordSells(Collections.singletonList(itemId));
+    }
+
+    // 색인이 준비되지 않은 경우 태그는 한 번의 in 조회로 가져옴
+    public void recordSells(List<Long> itemIds) {
+        List<Long> tagIds = new ArrayList<>();
+
+        if(itemFacetIndex.isReady()) {
+            for(Long itemId : itemIds) {
+                tagIds.addAll(itemFacetIndex.getTagIds(itemId));
+            }
+        } else {
+            Map<Long, Integer> orderCounts = new HashMap<>();
+
+            for(Long itemId : itemIds) {
+                orderCounts.merge(itemId, 1, Integer::sum);
+            }
+
+            for(Object[] row : itemTagRepository.findTagIdRowsByItemIdIn(orderCounts.keySet())) {
+                for(int i = 0; i < orderCounts.get((Long) row[0]); i++) {
+                    tagIds.add((Long) row[1]);
+                }
+            }
+        }
+
+        TransactionUtils.afterCommit(() -> {
+            tagSellCounter.increment(tagIds);
+            tagRanking.record(tagIds);
+        });
+    }
+
+    // 누적된 판매 건수를 한 번의 배치 update 로 반영 (롤백되면 증가분을 다시 누적)
+    // 트랜잭션 프록시를 거치도록 TagSellFlusher 에서 호출
+    public void flushTotalSell() {
+        Map<Long, Long> deltas = tagSellCounter.drain();
+
+        if(deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>();
+
+        for(Map.Entry<Long, Long> entry : deltas.entrySet()) {
+            batchArgs.add(new Object[] { entry.getValue(), entry.getKey() });
+        }
+
+        TransactionUtils.afterRollback(() -> tagSellCounter.restore(deltas));
+
+        jdbcTemplate.batchUpdate("update tag set total_sell = total_sell + ? where tag_id = ?", batchArgs);
+
+        TransactionUtils.afterCommit(() -> tagSellCounter.complete(deltas));
     }
 
 }
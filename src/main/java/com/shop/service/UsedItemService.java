@@ -8,7 +8,8 @@ import com.shop.dto.UsedItemSearchDto;
 import com.shop.entity.Member;
 import com.shop.entity.UsedItem;
 import com.shop.entity.UsedItemImg;
-import com.shop.repository.MemberRepository;
+import com.shop.repository.MemberIdentityCache;
+import com.shop.repository.PageCountStrategy;
 import com.shop.repository.UsedItemImgRepository;
 import com.shop.repository.UsedItemRepository;
 import lombok.RequiredArgsConstructor;
@@ -17,7 +18,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
-import org.thymeleaf.util.StringUtils;
 
 import javax.persistence.EntityNotFoundException;
 import java.util.ArrayList;
@@ -28,13 +28,14 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UsedItemService {
 
-    private final MemberRepository memberRepository;
+    private final MemberIdentityCache memberIdentityCache;
     private final UsedItemRepository usedItemRepository;
     private final UsedItemImgService usedItemImgService;
     private final UsedItemImgRepository usedItemImgRepository;
+    private final PageCountStrategy pageCountStrategy;
 
     public Long saveUsedItem(UsedItemFormDto usedItemFormDto, List<MultipartFile> usedItemImgFileList, String email) throws Exception {
-        Member member = memberRepository.findByEmail(email);
+        Member member = memberIdentityCache.getReference(email);
 
         UsedItem usedItem = usedItemFormDto.createItem(member);
 
@@ -53,6 +54,8 @@ public class UsedItemService {
 
         usedItemRepository.save(usedItem);
 
+        pageCountStrategy.invalidate(PageCountStrategy.USED_ITEM);
+
         return usedItem.getId();
     }
 
@@ -79,6 +82,8 @@ public class UsedItemService {
         UsedItem usedItem = usedItemRepository.findById(usedItemFormDto.getId()).orElseThrow(EntityNotFoundException::new);
         usedItem.updateItem(usedItemFormDto);
 
+        pageCountStrategy.invalidate(PageCountStrategy.USED_ITEM);
+
         List<Long> usedItemImgIds = usedItemFormDto.getUsedItemImgIds();
 
         for (int i = 0; i < usedItemImgFileList.size(); i++) {
@@ -94,19 +99,17 @@ public class UsedItemService {
 
         usedItemRepository.save(usedItem);
 
+        pageCountStrategy.invalidate(PageCountStrategy.USED_ITEM);
+
         return usedItem.getId();
     }
 
     public boolean validateUsedItem(Long usedItemId, String email) {
         UsedItem usedItem = usedItemRepository.findById(usedItemId).orElseThrow(EntityNotFoundException::new);
-        Member curMember = memberRepository.findByEmail(email);
+        Long curMemberId = memberIdentityCache.getMemberId(email);
         Member savedMember = usedItem.getOwner();
 
-        if(!StringUtils.equals(curMember.getEmail(), savedMember.getEmail())) {
-            return false;
-        }
-
-        return true;
+        return curMemberId != null && curMemberId.equals(savedMember.getId());
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,43 @@
+package com.shop.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class TransactionUtils {
+
+    private TransactionUtils() {
+    }
+
+    // 트랜잭션이 커밋된 뒤에만 실행 (트랜잭션이 없으면 즉시 실행)
+    public static void afterCommit(Runnable runnable) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+
+    // 트랜잭션이 롤백된 경우에만 실행
+    public static void afterRollback(Runnable runnable) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if(status == STATUS_ROLLED_BACK) {
+                    runnable.run();
+                }
+            }
+        });
+    }
+
+}
@@ -0,0 +1,5 @@
+-- 상품 대표 이미지 경로(item.rep_img_url) 이전, 배포 전에 컬럼을 추가한 뒤 한 번만 실행
+-- alter table item add column rep_img_url varchar(255);
+
+-- 컬럼 추가 이전에 등록된 상품의 대표 이미지 경로 채우기
+update item set rep_img_url = (select max(im.img_url) from item_img im where im.item_id = item.item_id and im.rep_img_yn = 'Y') where rep_img_url is null;
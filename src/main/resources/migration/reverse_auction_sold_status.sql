@@ -0,0 +1,3 @@
+-- 역경매 낙찰 상태(reverse_auction.status = 'SOLD') 이전, 배포 후 한 번만 실행
+-- 낙찰 입찰이 있는 역경매를 SOLD 로 바꿔 재시작 시 타이밍 휠에 다시 올리지 않음
+update reverse_auction set status = 'SOLD' where rauction_id in (select b.winning_rauction_id from bid b where b.winning_rauction_id is not null);
@@ -0,0 +1,78 @@
+package com.shop.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BestItemRankingTest {
+
+    BestItemRanking bestItemRanking;
+
+    @BeforeEach
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { 1L, now });
+        rows.add(new Object[] { 2L, now });
+        rows.add(new Object[] { 2L, now });
+        rows.add(new Object[] { 3L, now.minusDays(3) });
+        rows.add(new Object[] { 3L, now.minusDays(3) });
+        rows.add(new Object[] { 3L, now.minusDays(3) });
+        rows.add(new Object[] { 4L, now.minusDays(40) });
+
+        bestItemRanking = new BestItemRanking();
+        bestItemRanking.rebuild(rows);
+    }
+
+    @Test
+    @DisplayName("기간별 베스트 상품 순위 테스트")
+    public void topItemTest() {
+        assertEquals(Arrays.asList(2L, 1L), bestItemRanking.getTopItemIds(BestItemRanking.DAY));
+        assertEquals(Arrays.asList(3L, 2L, 1L), bestItemRanking.getTopItemIds(BestItemRanking.WEEK));
+        assertEquals(Arrays.asList(3L, 2L, 1L), bestItemRanking.getTopItemIds(BestItemRanking.MONTH));
+    }
+
+    @Test
+    @DisplayName("주문 / 주문 취소 반영 테스트")
+    public void recordTest() {
+        LocalDateTime now = LocalDateTime.now();
+
+        bestItemRanking.record(1L, now, 1);
+        bestItemRanking.record(1L, now, 1);
+
+        assertEquals(Arrays.asList(1L, 2L), bestItemRanking.getTopItemIds(BestItemRanking.DAY));
+
+        bestItemRanking.record(3L, now.minusDays(3), -1);
+        bestItemRanking.record(3L, now.minusDays(3), -1);
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), bestItemRanking.getTopItemIds(BestItemRanking.WEEK));
+
+        bestItemRanking.record(3L, now.minusDays(3), -1);
+
+        assertFalse(bestItemRanking.getTopItemIds(BestItemRanking.MONTH).contains(3L));
+    }
+
+    @Test
+    @DisplayName("상위 상품 수 제한 테스트")
+    public void topSizeTest() {
+        LocalDateTime now = LocalDateTime.now();
+
+        for(long itemId = 100; itemId < 100 + bestItemRanking.getTopSize() * 2; itemId++) {
+            bestItemRanking.record(itemId, now, 5);
+        }
+
+        List<Long> itemIds = bestItemRanking.getTopItemIds(BestItemRanking.DAY);
+
+        assertEquals(bestItemRanking.getTopSize(), itemIds.size());
+        assertEquals(100L + bestItemRanking.getTopSize() * 2 - 1, itemIds.get(0));
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.shop.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidWinnerSelectorTest {
+
+    // bid.winning_rauction_id unique 키 대신 (역경매 아이디 → 낙찰 입찰 아이디)
+    Map<Long, Long> savedWinners = new ConcurrentHashMap<>();
+
+    BidRepository bidRepository = (BidRepository) Proxy.newProxyInstance(
+            BidRepository.class.getClassLoader(),
+            new Class<?>[] {BidRepository.class},
+            (proxy, method, args) -> method.getName().equals("existsByWinningReverseAuctionId") ? savedWinners.containsKey((Long) args[0]) : null);
+
+    // 낙찰 표시 후 flush (unique 키 위반이면 예외)
+    Runnable approve(Long reverseAuctionId, Long bidId) {
+        return () -> {
+            sleep(1);
+
+            if(savedWinners.putIfAbsent(reverseAuctionId, bidId) != null) {
+                throw new DataIntegrityViolationException("uk_bid_winning_rauction");
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("동시 낙찰 확인 시 낙찰 입찰 하나 테스트")
+    public void concurrentSelectTest() throws InterruptedException {
+        BidWinnerSelector bidWinnerSelector = new BidWinnerSelector(bidRepository);
+
+        int threadCount = 100;
+        List<Long> winners = new CopyOnWriteArrayList<>();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+
+        for(int i = 0; i < threadCount; i++) {
+            Long bidId = (long) i;
+
+            executorService.submit(() -> {
+                try {
+                    start.await();
+                    bidWinnerSelector.select(1L, bidId, this.approve(1L, bidId));
+                    winners.add(bidId);
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        start.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1, winners.size());
+        assertEquals(threadCount - 1, rejected.get());
+        assertEquals(winners.get(0), savedWinners.get(1L));
+
+        // 반영된 낙찰은 메모리에 남기지 않음
+        assertEquals(0, bidWinnerSelector.size());
+    }
+
+    @Test
+    @DisplayName("역경매별 동시 낙찰 테스트")
+    public void concurrentSelectPerAuctionTest() throws InterruptedException {
+        BidWinnerSelector bidWinnerSelector = new BidWinnerSelector(bidRepository);
+
+        int threadCount = 100;
+        int auctionCount = 10;
+        Map<Long, List<Long>> winners = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+
+        for(int i = 0; i < threadCount; i++) {
+            Long reverseAuctionId = (long) (i % auctionCount);
+            Long bidId = (long) i;
+
+            executorService.submit(() -> {
+                try {
+                    start.await();
+                    bidWinnerSelector.select(reverseAuctionId, bidId, this.approve(reverseAuctionId, bidId));
+                    winners.computeIfAbsent(reverseAuctionId, key -> new CopyOnWriteArrayList<>()).add(bidId);
+                } catch (IllegalStateException e) {
+                    // 같은 역경매의 다른 입찰이 먼저 낙찰
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        start.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+        // 역경매마다 정확히 하나씩 낙찰
+        assertEquals(auctionCount, winners.size());
+        assertTrue(winners.values().stream().allMatch(bidIds -> bidIds.size() == 1));
+        assertEquals(auctionCount, savedWinners.size());
+    }
+
+    @Test
+    @DisplayName("다른 서버 낙찰 / 낙찰 실패 후 재선택 테스트")
+    public void dbWinnerTest() {
+        BidWinnerSelector bidWinnerSelector = new BidWinnerSelector(bidRepository);
+
+        // 다른 서버에서 이미 낙찰된 역경매
+        savedWinners.put(1L, 100L);
+
+        assertThrows(IllegalStateException.class, () -> bidWinnerSelector.select(1L, 1L, this.approve(1L, 1L)));
+        assertNull(bidWinnerSelector.getWinner(1L));
+
+        // 낙찰 처리 중 실패하면 다른 입찰이 낙찰될 수 있음
+        assertThrows(RuntimeException.class, () -> bidWinnerSelector.select(2L, 1L, () -> {
+            throw new RuntimeException("결제 내역 저장 실패");
+        }));
+
+        bidWinnerSelector.select(2L, 2L, this.approve(2L, 2L));
+
+        assertNull(bidWinnerSelector.getWinner(2L));
+        assertEquals(2L, savedWinners.get(2L));
+
+        // 메모리에서 비운 뒤에도 DB 의 낙찰로 막음
+        assertThrows(IllegalStateException.class, () -> bidWinnerSelector.select(2L, 3L, this.approve(2L, 3L)));
+        assertEquals(0, bidWinnerSelector.size());
+    }
+
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.shop.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CartStoreTest {
+
+    AtomicInteger loadCount = new AtomicInteger();
+
+    Function<Long, CartStore.ActiveCart> loader = memberId -> {
+        loadCount.incrementAndGet();
+
+        return new CartStore.ActiveCart(null, new LinkedHashMap<>());
+    };
+
+    @Test
+    @DisplayName("장바구니 변경분 반영 테스트")
+    public void drainAndCompleteTest() {
+        CartStore cartStore = new CartStore(10);
+
+        cartStore.apply(1L, loader, cart -> cart.add(10L, 1));
+        cartStore.apply(1L, loader, cart -> cart.add(10L, 2));
+        cartStore.apply(1L, loader, cart -> cart.add(20L, 1));
+
+        List<CartStore.CartChanges> changes = cartStore.drain();
+
+        assertEquals(1, changes.size());
+        assertEquals(3, changes.get(0).getInserts().get(10L));
+        assertEquals(1, changes.get(0).getInserts().get(20L));
+        assertNull(changes.get(0).getCartId());
+
+        // 반영 중인 장바구니는 다시 꺼내지 않음
+        cartStore.apply(1L, loader, cart -> cart.update(10L, 5));
+        assertTrue(cartStore.drain().isEmpty());
+
+        changes.get(0).setCartId(100L);
+        cartStore.complete(changes);
+
+        cartStore.apply(1L, loader, cart -> cart.remove(20L));
+
+        CartStore.CartChanges cartChanges = cartStore.drain(1L);
+
+        assertEquals(100L, cartChanges.getCartId());
+        assertTrue(cartChanges.getInserts().isEmpty());
+        assertEquals(5, cartChanges.getUpdates().get(10L));
+        assertEquals(Collections.singleton(20L), cartChanges.getDeletes());
+        assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    @DisplayName("장바구니 반영 실패 복구 테스트")
+    public void restoreTest() {
+        CartStore cartStore = new CartStore(10);
+
+        cartStore.apply(1L, loader, cart -> cart.add(10L, 1));
+
+        // 담았다가 반영 전에 삭제한 상품은 반영하지 않음
+        cartStore.apply(1L, loader, cart -> cart.add(20L, 1));
+        cartStore.apply(1L, loader, cart -> cart.remove(20L));
+
+        List<CartStore.CartChanges> changes = cartStore.drain();
+
+        assertEquals(Collections.singleton(10L), changes.get(0).getInserts().keySet());
+
+        cartStore.restore(changes);
+
+        changes = cartStore.drain();
+
+        assertEquals(1, changes.get(0).getInserts().get(10L));
+
+        // 연속으로 실패해도 변경분은 유지하고 한꺼번에 반영할 때만 제외
+        for(int i = 1; i < 5; i++) {
+            cartStore.restore(changes);
+            changes = cartStore.drain();
+        }
+
+        assertTrue(changes.isEmpty());
+        assertEquals(1, cartStore.stalledSize());
+
+        // 반영할 변경이 남아 있으면 제거하지 않음
+        assertEquals(0, cartStore.evictIdle(-1));
+        assertEquals(1, cartStore.apply(1L, loader, cart -> cart.getCount(10L)));
+        assertEquals(1, loadCount.get());
+
+        changes = cartStore.drainStalled();
+
+        assertEquals(1, changes.get(0).getInserts().get(10L));
+
+        // 따로 다시 반영에 성공하면 다시 한꺼번에 반영
+        cartStore.complete(changes);
+
+        assertEquals(0, cartStore.stalledSize());
+        assertTrue(cartStore.drainStalled().isEmpty());
+
+        cartStore.apply(1L, loader, cart -> cart.add(10L, 1));
+
+        assertEquals(2, cartStore.drain().get(0).getUpdates().get(10L));
+    }
+
+    @Test
+    @DisplayName("장바구니 최대 건수 / 미사용 장바구니 제거 테스트")
+    public void evictTest() throws InterruptedException {
+        CartStore cartStore = new CartStore(2);
+
+        cartStore.apply(1L, loader, cart -> cart.add(10L, 1));
+        cartStore.apply(2L, loader, CartStore.ActiveCart::getLines);
+        cartStore.apply(3L, loader, CartStore.ActiveCart::getLines);
+
+        // 반영하지 않은 1번 장바구니 대신 2번 장바구니 제거
+        assertEquals(2, cartStore.size());
+        assertEquals(1, cartStore.apply(1L, loader, cart -> cart.getCount(10L)));
+        assertEquals(3, loadCount.get());
+
+        Thread.sleep(10);
+
+        assertEquals(1, cartStore.evictIdle(0));
+        assertEquals(1, cartStore.size());
+
+        cartStore.complete(cartStore.drain());
+
+        assertEquals(1, cartStore.evictIdle(0));
+        assertEquals(0, cartStore.size());
+    }
+
+}
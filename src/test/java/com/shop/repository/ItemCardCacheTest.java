@@ -0,0 +1,84 @@
+package com.shop.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemCardCacheTest {
+
+    AtomicInteger loadCount = new AtomicInteger();
+
+    int price = 1000;
+
+    // 아이디가 100 이상인 상품은 없는 상품
+    Function<Collection<Long>, List<ItemCardCache.ItemCard>> loader = itemIds -> {
+        loadCount.addAndGet(itemIds.size());
+
+        List<ItemCardCache.ItemCard> cards = new ArrayList<>();
+
+        for(Long itemId : itemIds) {
+            if(itemId < 100) {
+                cards.add(new ItemCardCache.ItemCard(itemId, "상품" + itemId, price, 3000, "/images/item/" + itemId + ".jpg"));
+            }
+        }
+
+        return cards;
+    };
+
+    @Test
+    @DisplayName("상품 카드 캐시 조회 / 삭제 테스트")
+    public void getAllAndEvictTest() {
+        ItemCardCache itemCardCache = new ItemCardCache(10);
+
+        Map<Long, ItemCardCache.ItemCard> cards = itemCardCache.getAll(Arrays.asList(1L, 2L, 100L), loader);
+
+        assertEquals(2, cards.size());
+        assertEquals(3, loadCount.get());
+
+        // 캐시에 없는 상품만 다시 조회
+        itemCardCache.getAll(Arrays.asList(1L, 2L, 3L), loader);
+        assertEquals(4, loadCount.get());
+
+        long version = itemCardCache.getVersion();
+
+        price = 2000;
+        itemCardCache.evict(1L);
+
+        assertNotEquals(version, itemCardCache.getVersion());
+
+        cards = itemCardCache.getAll(Arrays.asList(1L, 2L), loader);
+
+        assertEquals(2000, cards.get(1L).getPrice());
+        assertEquals(1000, cards.get(2L).getPrice());
+        assertEquals(5, loadCount.get());
+    }
+
+    @Test
+    @DisplayName("조회 중 수정된 상품 카드 테스트")
+    public void evictWhileLoadingTest() {
+        ItemCardCache itemCardCache = new ItemCardCache(10);
+
+        // 조회하는 사이에 상품이 수정되면 조회한 카드는 캐시하지 않음
+        itemCardCache.getAll(Arrays.asList(1L), itemIds -> {
+            List<ItemCardCache.ItemCard> cards = loader.apply(itemIds);
+
+            itemCardCache.evict(1L);
+
+            return cards;
+        });
+
+        itemCardCache.getAll(Arrays.asList(1L), loader);
+
+        assertEquals(2, loadCount.get());
+    }
+
+}
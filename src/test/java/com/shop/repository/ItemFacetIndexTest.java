@@ -0,0 +1,80 @@
+package com.shop.repository;
+
+import com.shop.constant.ItemSellStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemFacetIndexTest {
+
+    ItemFacetIndex itemFacetIndex;
+
+    @BeforeEach
+    public void setUp() {
+        List<Object[]> itemRows = new ArrayList<>();
+        itemRows.add(new Object[] { 1L, 100L, ItemSellStatus.SELL });
+        itemRows.add(new Object[] { 2L, 100L, ItemSellStatus.SOLD_OUT });
+        itemRows.add(new Object[] { 3L, 200L, ItemSellStatus.SELL });
+
+        List<Object[]> itemTagRows = new ArrayList<>();
+        itemTagRows.add(new Object[] { 1L, 10L });
+        itemTagRows.add(new Object[] { 1L, 20L });
+        itemTagRows.add(new Object[] { 2L, 10L });
+        itemTagRows.add(new Object[] { 3L, 20L });
+
+        itemFacetIndex = new ItemFacetIndex();
+        itemFacetIndex.rebuild(itemRows, itemTagRows);
+    }
+
+    @Test
+    @DisplayName("태그 OR / AND 조건 조회 테스트")
+    public void filterTest() {
+        assertEquals(Arrays.asList(3L, 2L, 1L), itemFacetIndex.filter(null, Arrays.asList(10L, 20L), false, null));
+        assertEquals(Arrays.asList(1L), itemFacetIndex.filter(null, Arrays.asList(10L, 20L), true, null));
+        assertEquals(Arrays.asList(2L, 1L), itemFacetIndex.filter(100L, Arrays.asList(10L), false, null));
+        assertEquals(Arrays.asList(3L, 1L), itemFacetIndex.filter(null, null, false, ItemSellStatus.SELL));
+        assertTrue(itemFacetIndex.filter(null, Arrays.asList(30L), false, null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("태그별 상품 수 집계 테스트")
+    public void countByTagTest() {
+        Map<Long, Integer> counts = itemFacetIndex.countByTag(null, null);
+
+        assertEquals(2, counts.get(10L));
+        assertEquals(2, counts.get(20L));
+
+        counts = itemFacetIndex.countByTag(200L, null);
+
+        assertEquals(0, counts.get(10L));
+        assertEquals(1, counts.get(20L));
+
+        counts = itemFacetIndex.countByTag(null, Arrays.asList(2L));
+
+        assertEquals(1, counts.get(10L));
+        assertEquals(0, counts.get(20L));
+    }
+
+    @Test
+    @DisplayName("색인 갱신 테스트")
+    public void indexUpdateTest() {
+        itemFacetIndex.index(1L, 200L, ItemSellStatus.SELL, Arrays.asList(30L));
+
+        assertEquals(Arrays.asList(2L), itemFacetIndex.filter(null, Arrays.asList(10L), false, null));
+        assertEquals(Arrays.asList(1L), itemFacetIndex.filter(200L, Arrays.asList(30L), false, null));
+        assertEquals(Arrays.asList(30L), itemFacetIndex.getTagIds(1L));
+
+        itemFacetIndex.remove(1L);
+
+        assertTrue(itemFacetIndex.filter(null, Arrays.asList(30L), false, null).isEmpty());
+        assertNull(new ItemFacetIndex().filter(null, Arrays.asList(10L), false, null));
+    }
+
+}
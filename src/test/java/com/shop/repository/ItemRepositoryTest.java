@@ -4,23 +4,37 @@ import com.querydsl.core.BooleanBuilder;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import com.shop.constant.ItemSellStatus;
+import com.shop.dto.GiftMainItemDto;
+import com.shop.dto.ItemComplexSearchDto;
+import com.shop.dto.ItemSearchDto;
+import com.shop.dto.MainItemDto;
+import com.shop.entity.Category;
 import com.shop.entity.Item;
+import com.shop.entity.ItemImg;
 import com.shop.entity.QItem;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.util.StringUtils;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
 @SpringBootTest
 @TestPropertySource(locations = "classpath:application-test.properties")
 class ItemRepositoryTest {
@@ -28,6 +42,18 @@ class ItemRepositoryTest {
     @Autowired
     ItemRepository itemRepository;
 
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    ItemImgRepository itemImgRepository;
+
+    @Autowired
+    DataSource dataSource;
+
     @PersistenceContext
     EntityManager em;
 
@@ -191,4 +217,151 @@ class ItemRepositoryTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    @Transactional
+    @DisplayName("검색 색인 결과가 많은 검색어 페이지 / 전체 수 테스트")
+    public void searchIndexPageTest() {
+        Category category = new Category();
+        category.setCateCode(990001L);
+        category.setCateName("색인 페이지 테스트");
+        categoryRepository.save(category);
+
+        List<Item> items = new ArrayList<>();
+
+        for(int i = 0; i <= 1000; i++) {
+            Item item = new Item();
+            item.setItemNm("색인페이지상품" + i);
+            item.setPrice(10000);
+            item.setItemDetail("색인 페이지 테스트");
+            item.setItemSellStatus(ItemSellStatus.SELL);
+            item.setStockNumber(100);
+            item.setShippingFee(0);
+            item.setCategory(category);
+            item.setRepImgUrl("/images/item/test.jpg");
+            items.add(item);
+        }
+
+        // 대표 이미지가 없는 상품은 목록에 나오지 않음
+        Item noImageItem = new Item();
+        noImageItem.setItemNm("색인페이지이미지없음");
+        noImageItem.setPrice(10000);
+        noImageItem.setItemDetail("색인 페이지 테스트");
+        noImageItem.setItemSellStatus(ItemSellStatus.SELL);
+        noImageItem.setStockNumber(100);
+        noImageItem.setShippingFee(0);
+        noImageItem.setCategory(category);
+        items.add(noImageItem);
+
+        itemRepository.saveAll(items);
+        em.flush();
+
+        itemSearchIndex.rebuild(itemRepository.findSearchIndexRows());
+
+        try {
+            ItemSearchDto itemSearchDto = new ItemSearchDto();
+            itemSearchDto.setSearchQuery("색인페이지");
+
+            Page<MainItemDto> mainItemPage = itemRepository.getMainItemPage(itemSearchDto, PageRequest.of(1, 6));
+
+            assertEquals(1001, mainItemPage.getTotalElements());
+            assertEquals(6, mainItemPage.getContent().size());
+            assertEquals(items.get(994).getId(), mainItemPage.getContent().get(0).getId());
+
+            // 색인 결과가 in 조건 최대 개수를 넘으면 LIKE 조건으로 조회
+            ItemComplexSearchDto itemComplexSearchDto = new ItemComplexSearchDto();
+            itemComplexSearchDto.setSearchQuery("색인페이지상품");
+
+            Page<MainItemDto> complexPage = itemRepository.getComplexSearchPage(itemComplexSearchDto, PageRequest.of(0, 6));
+
+            assertEquals(1001, complexPage.getTotalElements());
+            assertEquals(6, complexPage.getContent().size());
+        } finally {
+            for(Item item : items) {
+                itemSearchIndex.remove(item.getId());
+            }
+        }
+    }
+
+
+    Item createRepImgItem(Category category, String itemNm, String repImgUrl) {
+        Item item = new Item();
+        item.setItemNm(itemNm);
+        item.setPrice(10000);
+        item.setItemDetail("대표 이미지 테스트");
+        item.setItemSellStatus(ItemSellStatus.SELL);
+        item.setStockNumber(100);
+        item.setShippingFee(0);
+        item.setCategory(category);
+        item.setRepImgUrl(repImgUrl);
+
+        return itemRepository.save(item);
+    }
+
+    ItemImg createItemImg(Item item, String imgUrl, String repImgYn) {
+        ItemImg itemImg = new ItemImg();
+        itemImg.setItem(item);
+        itemImg.setRepImgYn(repImgYn);
+        itemImg.updateItemImg("test.jpg", "test.jpg", imgUrl);
+
+        return itemImgRepository.save(itemImg);
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("대표 이미지 경로 이전 스크립트 테스트")
+    public void repImgUrlMigrationTest() {
+        Category category = new Category();
+        category.setCateCode(990002L);
+        category.setCateName("대표 이미지 이전 테스트");
+        categoryRepository.save(category);
+
+        Item item = this.createRepImgItem(category, "대표이미지이전상품", null);
+        this.createItemImg(item, "/images/item/rep.jpg", "Y");
+        this.createItemImg(item, "/images/item/sub.jpg", "N");
+
+        Item filledItem = this.createRepImgItem(category, "대표이미지유지상품", "/images/item/kept.jpg");
+        this.createItemImg(filledItem, "/images/item/other.jpg", "Y");
+
+        Item noImageItem = this.createRepImgItem(category, "대표이미지없는상품", null);
+
+        em.flush();
+        em.clear();
+
+        new ResourceDatabasePopulator(new ClassPathResource("migration/item_rep_img_url.sql")).execute(dataSource);
+
+        assertEquals("/images/item/rep.jpg", itemRepository.findById(item.getId()).get().getRepImgUrl());
+        assertEquals("/images/item/kept.jpg", itemRepository.findById(filledItem.getId()).get().getRepImgUrl());
+        assertNull(itemRepository.findById(noImageItem.getId()).get().getRepImgUrl());
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("대표 이미지가 없는 상품은 목록에서 제외 테스트")
+    public void repImgUrlListingTest() {
+        Category category = new Category();
+        category.setCateCode(990003L);
+        category.setCateName("대표 이미지 목록 테스트");
+        categoryRepository.save(category);
+
+        Item item = this.createRepImgItem(category, "대표이미지목록상품", "/images/item/rep.jpg");
+        this.createRepImgItem(category, "대표이미지목록이미지없음", null);
+
+        em.flush();
+
+        ItemComplexSearchDto itemComplexSearchDto = new ItemComplexSearchDto();
+        itemComplexSearchDto.setSearchCategory(990003L);
+
+        Page<MainItemDto> complexPage = itemRepository.getComplexSearchPage(itemComplexSearchDto, PageRequest.of(0, 6));
+
+        assertEquals(1, complexPage.getTotalElements());
+        assertEquals(item.getId(), complexPage.getContent().get(0).getId());
+        assertEquals("/images/item/rep.jpg", complexPage.getContent().get(0).getImgUrl());
+
+        ItemSearchDto itemSearchDto = new ItemSearchDto();
+
+        Page<GiftMainItemDto> giftPage = itemRepository.getGiftItemPage(itemSearchDto, PageRequest.of(0, 6), 990003L);
+
+        assertEquals(1, giftPage.getTotalElements());
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.shop.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchIndexTest {
+
+    ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    public void setUp() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { 1L, "원목 거실 테이블", "튼튼한 원목으로 만든 테이블" });
+        rows.add(new Object[] { 2L, "침실 수납장", "침실용 원목 수납장" });
+        rows.add(new Object[] { 3L, "Sofa Bed", "접이식 소파 베드" });
+
+        itemSearchIndex = new ItemSearchIndex();
+        itemSearchIndex.rebuild(rows);
+    }
+
+    @Test
+    @DisplayName("상품명/상세 설명 검색 테스트")
+    public void searchTest() {
+        assertEquals(Arrays.asList(2L, 1L), itemSearchIndex.search("원목"));
+        assertEquals(Arrays.asList(1L), itemSearchIndex.search("거실 테"));
+        assertEquals(Arrays.asList(3L), itemSearchIndex.search("sofa"));
+        assertTrue(itemSearchIndex.search("의자").isEmpty());
+    }
+
+    @Test
+    @DisplayName("2-gram 이 모두 있어도 연속되지 않으면 검색되지 않는 테스트")
+    public void falsePositiveTest() {
+        itemSearchIndex.index(4L, "ab xbc", "");
+
+        assertTrue(itemSearchIndex.search("abc").isEmpty());
+        assertEquals(Arrays.asList(4L), itemSearchIndex.search("xbc"));
+    }
+
+    @Test
+    @DisplayName("색인 갱신 테스트")
+    public void indexUpdateTest() {
+        itemSearchIndex.index(1L, "철제 거실 테이블", "튼튼한 철제 테이블");
+
+        assertEquals(Arrays.asList(2L), itemSearchIndex.search("원목"));
+        assertEquals(Arrays.asList(1L), itemSearchIndex.search("철제"));
+
+        itemSearchIndex.remove(1L);
+
+        assertTrue(itemSearchIndex.search("철제").isEmpty());
+    }
+
+    @Test
+    @DisplayName("색인으로 처리할 수 없는 검색어 테스트")
+    public void unsupportedQueryTest() {
+        assertNull(itemSearchIndex.search("원"));
+        assertNull(new ItemSearchIndex().search("원목"));
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.shop.repository;
+
+import com.shop.entity.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemberSummaryCacheTest {
+
+    AtomicInteger loadCount = new AtomicInteger();
+
+    Function<String, Member> loader = email -> {
+        loadCount.incrementAndGet();
+
+        if(email.startsWith("none")) {
+            return null;
+        }
+
+        Member member = new Member();
+        member.setEmail(email);
+        member.setName("테스트");
+        member.setPoint(1000 + loadCount.get());
+
+        return member;
+    };
+
+    @Test
+    @DisplayName("회원 정보 캐시 조회 / 삭제 테스트")
+    public void getAndEvictTest() {
+        MemberSummaryCache memberSummaryCache = new MemberSummaryCache(10);
+
+        assertEquals(1001, memberSummaryCache.get("test@test.com", loader).getPoint());
+        assertEquals(1001, memberSummaryCache.get("test@test.com", loader).getPoint());
+        assertEquals(1, loadCount.get());
+
+        memberSummaryCache.evict("test@test.com");
+
+        assertEquals(1002, memberSummaryCache.get("test@test.com", loader).getPoint());
+        assertNull(memberSummaryCache.get("none@test.com", loader));
+        assertEquals(3, loadCount.get());
+    }
+
+    @Test
+    @DisplayName("회원 정보 캐시 최대 건수 테스트")
+    public void maxSizeTest() {
+        MemberSummaryCache memberSummaryCache = new MemberSummaryCache(2);
+
+        memberSummaryCache.get("a@test.com", loader);
+        memberSummaryCache.get("b@test.com", loader);
+        memberSummaryCache.get("a@test.com", loader);
+        memberSummaryCache.get("c@test.com", loader);
+
+        assertEquals(3, loadCount.get());
+
+        // 가장 오래 사용하지 않은 b 가 제거됨
+        memberSummaryCache.get("a@test.com", loader);
+        assertEquals(3, loadCount.get());
+
+        memberSummaryCache.get("b@test.com", loader);
+        assertEquals(4, loadCount.get());
+    }
+
+
+    @Test
+    @DisplayName("조회 중에 삭제된 회원 정보는 캐시에 저장하지 않음 테스트")
+    public void evictWhileLoadingTest() {
+        MemberSummaryCache memberSummaryCache = new MemberSummaryCache(10);
+
+        // 이전 값을 읽은 뒤 포인트 변경이 커밋되어 evict 된 경우
+        Function<String, Member> staleLoader = email -> {
+            Member member = loader.apply(email);
+            memberSummaryCache.evict(email);
+
+            return member;
+        };
+
+        assertEquals(1001, memberSummaryCache.get("test@test.com", staleLoader).getPoint());
+
+        assertEquals(1002, memberSummaryCache.get("test@test.com", loader).getPoint());
+        assertEquals(1002, memberSummaryCache.get("test@test.com", loader).getPoint());
+        assertEquals(2, loadCount.get());
+    }
+
+}
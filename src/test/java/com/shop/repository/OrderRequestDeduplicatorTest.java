@@ -0,0 +1,213 @@
+package com.shop.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderRequestDeduplicatorTest {
+
+    // order_request 테이블 대신 (이메일:요청 키 → 주문 아이디)
+    Map<String, Long> savedOrderIds = new ConcurrentHashMap<>();
+
+    OrderRequestRepository orderRequestRepository = (OrderRequestRepository) Proxy.newProxyInstance(
+            OrderRequestRepository.class.getClassLoader(),
+            new Class<?>[] {OrderRequestRepository.class},
+            (proxy, method, args) -> method.getName().equals("findOrderId") ? savedOrderIds.get(args[0] + ":" + args[1]) : null);
+
+    AtomicInteger orderCount = new AtomicInteger();
+
+    @Test
+    @DisplayName("같은 요청 키 동시 주문 테스트")
+    public void concurrentSubmitTest() throws InterruptedException {
+        OrderRequestDeduplicator orderRequestDeduplicator = new OrderRequestDeduplicator(orderRequestRepository, 60000, 5000);
+
+        List<Long> orderIds = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+
+        for(int i = 0; i < 16; i++) {
+            executorService.submit(() -> {
+                try {
+                    start.await();
+                    orderIds.add(orderRequestDeduplicator.submit("test@test.com", "key-1", () -> {
+                        orderCount.incrementAndGet();
+                        sleep(100);
+
+                        return 42L;
+                    }));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        start.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+        // 한 번만 주문하고 모두 같은 주문 아이디를 받음
+        assertEquals(1, orderCount.get());
+        assertEquals(16, orderIds.size());
+        assertTrue(orderIds.stream().allMatch(orderId -> orderId == 42L));
+
+        // 다른 회원의 같은 키는 따로 주문
+        assertEquals(43L, orderRequestDeduplicator.submit("other@test.com", "key-1", () -> 43L));
+    }
+
+    @Test
+    @DisplayName("주문 실패 후 같은 요청 키 재시도 테스트")
+    public void retryAfterFailureTest() {
+        OrderRequestDeduplicator orderRequestDeduplicator = new OrderRequestDeduplicator(orderRequestRepository, 60000, 5000);
+
+        assertThrows(IllegalStateException.class, () -> orderRequestDeduplicator.submit("test@test.com", "key-1", () -> {
+            throw new IllegalStateException("상품 재고가 부족 합니다.");
+        }));
+
+        assertEquals(1L, orderRequestDeduplicator.submit("test@test.com", "key-1", () -> 1L));
+        assertEquals(1L, orderRequestDeduplicator.submit("test@test.com", "key-1", () -> 2L));
+
+        // 요청 키가 없으면 매번 주문
+        assertEquals(3L, orderRequestDeduplicator.submit("test@test.com", null, () -> 3L));
+        assertEquals(4L, orderRequestDeduplicator.submit("test@test.com", null, () -> 4L));
+    }
+
+    @Test
+    @DisplayName("저장된 요청 키 조회 테스트")
+    public void savedRequestKeyTest() {
+        OrderRequestDeduplicator orderRequestDeduplicator = new OrderRequestDeduplicator(orderRequestRepository, 60000, 5000);
+
+        // 메모리에서 만료되었거나 다른 서버에서 처리한 요청
+        savedOrderIds.put("test@test.com:key-1", 10L);
+
+        assertEquals(10L, orderRequestDeduplicator.submit("test@test.com", "key-1", () -> {
+            orderCount.incrementAndGet();
+
+            return 11L;
+        }));
+        assertEquals(0, orderCount.get());
+
+        // 동시에 다른 서버에서 먼저 저장한 경우 (unique 키 위반)
+        assertEquals(20L, orderRequestDeduplicator.submit("test@test.com", "key-2", () -> {
+            savedOrderIds.put("test@test.com:key-2", 20L);
+
+            throw new DataIntegrityViolationException("uk_order_request_key");
+        }));
+    }
+
+    @Test
+    @DisplayName("만료된 요청 키 정리 테스트")
+    public void purgeTest() {
+        OrderRequestDeduplicator orderRequestDeduplicator = new OrderRequestDeduplicator(orderRequestRepository, 0, 5000);
+
+        assertEquals(1L, orderRequestDeduplicator.submit("test@test.com", "key-1", () -> 1L));
+
+        sleep(5);
+        orderRequestDeduplicator.purge();
+
+        assertEquals(2L, orderRequestDeduplicator.submit("test@test.com", "key-1", () -> 2L));
+    }
+
+    @Test
+    @DisplayName("먼저 들어온 같은 요청이 끝나지 않으면 기다리다 실패 테스트")
+    public void awaitTimeoutTest() throws Exception {
+        OrderRequestDeduplicator orderRequestDeduplicator = new OrderRequestDeduplicator(orderRequestRepository, 60000, 100);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        Future<Long> first = executorService.submit(() -> orderRequestDeduplicator.submit("test@test.com", "key-1", () -> {
+            started.countDown();
+            await(release);
+
+            return 1L;
+        }));
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> orderRequestDeduplicator.submit("test@test.com", "key-1", () -> 2L));
+        assertEquals("같은 주문 요청을 처리 중입니다. 잠시 후 주문 내역을 확인해 주세요.", e.getMessage());
+
+        // 먼저 들어온 요청은 계속 진행
+        release.countDown();
+
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS));
+        assertEquals(1L, orderRequestDeduplicator.submit("test@test.com", "key-1", () -> 2L));
+
+        executorService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Error 로 실패한 요청을 기다리던 요청도 실패 테스트")
+    public void errorTest() throws Exception {
+        OrderRequestDeduplicator orderRequestDeduplicator = new OrderRequestDeduplicator(orderRequestRepository, 60000, 5000);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        Future<Long> first = executorService.submit(() -> orderRequestDeduplicator.submit("test@test.com", "key-1", () -> {
+            started.countDown();
+            await(release);
+
+            throw new StackOverflowError();
+        }));
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Future<Long> second = executorService.submit(() -> orderRequestDeduplicator.submit("test@test.com", "key-1", () -> 2L));
+
+        sleep(50);
+        release.countDown();
+
+        ExecutionException firstError = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertTrue(firstError.getCause() instanceof StackOverflowError);
+
+        // 두 번째 요청이 먼저 들어온 요청을 기다리기 전에 키가 제거되었으면 새로 주문
+        try {
+            assertEquals(2L, second.get(5, TimeUnit.SECONDS));
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof StackOverflowError);
+        }
+
+        // 실패한 키는 다시 주문 가능
+        assertEquals(3L, orderRequestDeduplicator.submit("test@test.com", "key-1", () -> 3L));
+
+        executorService.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
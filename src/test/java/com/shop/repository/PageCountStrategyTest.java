@@ -0,0 +1,132 @@
+package com.shop.repository;
+
+import com.querydsl.jpa.JPQLQuery;
+import com.shop.constant.PageCountMode;
+import com.shop.dto.ItemComplexSearchDto;
+import com.shop.dto.ItemSearchDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCountStrategyTest {
+
+    Pageable pageable = PageRequest.of(0, 5);
+
+    AtomicInteger countQueries = new AtomicInteger();
+
+    // 항상 한 페이지를 가득 채워 돌려주고, count 쿼리는 횟수만 기록
+    @SuppressWarnings("unchecked")
+    JPQLQuery<Long> createQuery(long total) {
+        List<Long> content = new ArrayList<>(Collections.nCopies(pageable.getPageSize(), 1L));
+
+        return (JPQLQuery<Long>) Proxy.newProxyInstance(
+                JPQLQuery.class.getClassLoader(),
+                new Class<?>[] {JPQLQuery.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "offset":
+                        case "limit":
+                            return proxy;
+                        case "fetch":
+                            return content;
+                        case "fetchCount":
+                            countQueries.incrementAndGet();
+                            return total;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @Test
+    @DisplayName("같은 검색 조건은 캐시된 건수 사용 테스트")
+    public void cacheHitTest() {
+        PageCountStrategy pageCountStrategy = new PageCountStrategy(PageCountMode.CACHED, 60, 100);
+
+        Page<Long> first = pageCountStrategy.getPage(PageCountStrategy.ITEM, "a", createQuery(30), pageable);
+        Page<Long> second = pageCountStrategy.getPage(PageCountStrategy.ITEM, "a", createQuery(40), pageable);
+        Page<Long> other = pageCountStrategy.getPage(PageCountStrategy.ITEM, "b", createQuery(50), pageable);
+
+        assertEquals(30, first.getTotalElements());
+        assertEquals(30, second.getTotalElements());
+        assertEquals(50, other.getTotalElements());
+        assertEquals(2, countQueries.get());
+    }
+
+    @Test
+    @DisplayName("무효화한 영역의 건수만 다시 계산 테스트")
+    public void invalidateRegionTest() {
+        PageCountStrategy pageCountStrategy = new PageCountStrategy(PageCountMode.CACHED, 60, 100);
+
+        pageCountStrategy.getPage(PageCountStrategy.ITEM, "a", createQuery(30), pageable);
+        pageCountStrategy.getPage(PageCountStrategy.BID, "a", createQuery(10), pageable);
+
+        pageCountStrategy.invalidate(PageCountStrategy.ITEM);
+
+        assertEquals(1, pageCountStrategy.size());
+        assertEquals(31, pageCountStrategy.getPage(PageCountStrategy.ITEM, "a", createQuery(31), pageable).getTotalElements());
+        assertEquals(10, pageCountStrategy.getPage(PageCountStrategy.BID, "a", createQuery(11), pageable).getTotalElements());
+        assertEquals(3, countQueries.get());
+    }
+
+    @Test
+    @DisplayName("최대 개수 초과 시 가장 오래 사용하지 않은 건수부터 제거 테스트")
+    public void evictLeastRecentlyUsedTest() {
+        PageCountStrategy pageCountStrategy = new PageCountStrategy(PageCountMode.CACHED, 60, 2);
+
+        pageCountStrategy.getPage(PageCountStrategy.ITEM, "a", createQuery(10), pageable);
+        pageCountStrategy.getPage(PageCountStrategy.ITEM, "b", createQuery(20), pageable);
+
+        // a 를 다시 사용하면 b 가 가장 오래된 항목
+        pageCountStrategy.getPage(PageCountStrategy.ITEM, "a", createQuery(11), pageable);
+        pageCountStrategy.getPage(PageCountStrategy.ITEM, "c", createQuery(30), pageable);
+
+        assertEquals(2, pageCountStrategy.size());
+        assertEquals(3, countQueries.get());
+
+        assertEquals(10, pageCountStrategy.getPage(PageCountStrategy.ITEM, "a", createQuery(12), pageable).getTotalElements());
+        assertEquals(3, countQueries.get());
+
+        assertEquals(21, pageCountStrategy.getPage(PageCountStrategy.ITEM, "b", createQuery(21), pageable).getTotalElements());
+        assertEquals(4, countQueries.get());
+    }
+
+    @Test
+    @DisplayName("검색 조건 키 정규화 테스트")
+    public void keyTest() {
+        ItemComplexSearchDto first = new ItemComplexSearchDto();
+        first.setSearchTagIds(Arrays.asList(3L, 1L, 2L, 1L));
+        first.setSearchQuery("");
+
+        ItemComplexSearchDto second = new ItemComplexSearchDto();
+        second.setSearchTagIds(Arrays.asList(1L, 2L, 3L));
+        second.setSearchQuery(null);
+        second.setSortDirection(null);
+
+        ItemComplexSearchDto third = new ItemComplexSearchDto();
+        third.setSearchTagIds(Arrays.asList(1L, 2L, 3L));
+        third.setSearchQuery("가방");
+
+        // 태그 순서, 중복, 빈 검색어, 정렬 조건은 건수와 상관없음
+        assertEquals(PageCountStrategy.key("complex", first), PageCountStrategy.key("complex", second));
+        assertNotEquals(PageCountStrategy.key("complex", first), PageCountStrategy.key("complex", third));
+
+        ItemSearchDto itemSearchDto = new ItemSearchDto();
+        itemSearchDto.setSearchQuery("가방");
+
+        assertNotEquals(PageCountStrategy.key("admin", itemSearchDto), PageCountStrategy.key("main", itemSearchDto));
+        assertNotEquals(PageCountStrategy.key("gift", 1L, itemSearchDto), PageCountStrategy.key("gift", 2L, itemSearchDto));
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.shop.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReverseAuctionTimelineTest {
+
+    @Test
+    @DisplayName("역경매 가격 변경 / 종료 이벤트 테스트")
+    public void advanceTest() {
+        ReverseAuctionTimeline timeline = new ReverseAuctionTimeline(1000);
+        LocalDateTime startTime = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusMinutes(30);
+
+        // 2시간마다 1000원 할인, 5시간 뒤 종료
+        timeline.register(new ReverseAuctionTimeline.Schedule(1L, startTime, 10000, 2, 1000, startTime.plusHours(5)), startTime.plusMinutes(30));
+
+        assertEquals(10000, timeline.getCurrentPrice(1L));
+
+        List<ReverseAuctionTimeline.Event> received = new ArrayList<>();
+        timeline.addListener(received::add);
+
+        assertTrue(timeline.advance(startTime.plusMinutes(119)).isEmpty());
+
+        List<ReverseAuctionTimeline.Event> events = timeline.advance(startTime.plusHours(2));
+        timeline.publish(events);
+
+        assertEquals(1, received.size());
+        assertEquals(ReverseAuctionTimeline.EventType.STEP, received.get(0).getType());
+        assertEquals(9000, received.get(0).getCurrentPrice());
+        assertEquals(startTime.plusHours(2), received.get(0).getTime());
+        assertEquals(9000, timeline.getCurrentPrice(1L));
+
+        events = timeline.advance(startTime.plusHours(4));
+
+        assertEquals(8000, events.get(0).getCurrentPrice());
+
+        events = timeline.advance(startTime.plusHours(5));
+
+        assertEquals(ReverseAuctionTimeline.EventType.END, events.get(0).getType());
+        assertEquals(8000, events.get(0).getCurrentPrice());
+        assertNull(timeline.getCurrentPrice(1L));
+        assertEquals(0, timeline.size());
+    }
+
+    @Test
+    @DisplayName("역경매 타이밍 휠 다시 채우기 테스트")
+    public void rebuildTest() {
+        ReverseAuctionTimeline timeline = new ReverseAuctionTimeline(1000);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+        timeline.register(new ReverseAuctionTimeline.Schedule(1L, now, 10000, 1, 1000, now.plusHours(3)), now);
+
+        // 3시간 전에 시작해 1시간마다 500원 할인, 이미 종료된 역경매는 제외
+        List<ReverseAuctionTimeline.Schedule> schedules = new ArrayList<>();
+        schedules.add(new ReverseAuctionTimeline.Schedule(2L, now.minusHours(3), 10000, 1, 500, now.plusHours(10)));
+        schedules.add(new ReverseAuctionTimeline.Schedule(3L, now.minusHours(3), 10000, 1, 500, now.minusHours(1)));
+
+        timeline.rebuild(schedules, now);
+
+        assertNull(timeline.getCurrentPrice(1L));
+        assertEquals(8500, timeline.getCurrentPrice(2L));
+        assertNull(timeline.getCurrentPrice(3L));
+
+        timeline.remove(2L);
+
+        assertEquals(Collections.emptyList(), timeline.advance(now.plusHours(1)));
+        assertEquals(0, timeline.size());
+    }
+
+}
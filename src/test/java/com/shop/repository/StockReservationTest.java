@@ -0,0 +1,155 @@
+package com.shop.repository;
+
+import com.shop.entity.Item;
+import com.shop.entity.StockJournal;
+import com.shop.exception.OutOfStockException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockReservationTest {
+
+    // stock_journal 대신
+    List<StockJournal> journals = new CopyOnWriteArrayList<>();
+
+    StockJournalRepository stockJournalRepository = (StockJournalRepository) Proxy.newProxyInstance(
+            StockJournalRepository.class.getClassLoader(),
+            new Class<?>[] {StockJournalRepository.class},
+            (proxy, method, args) -> {
+                if(method.getName().equals("save")) {
+                    journals.add((StockJournal) args[0]);
+
+                    return args[0];
+                }
+
+                return null;
+            });
+
+    public Item createItem(Long itemId, int stockNumber) {
+        Item item = new Item();
+        item.setId(itemId);
+        item.setStockNumber(stockNumber);
+
+        return item;
+    }
+
+    int sumDelta(Long itemId) {
+        return journals.stream().filter(journal -> journal.getItemId().equals(itemId)).mapToInt(StockJournal::getDelta).sum();
+    }
+
+    @Test
+    @DisplayName("동시 재고 예약 초과 판매 방지 테스트")
+    public void concurrentReserveTest() throws InterruptedException {
+        StockReservation stockReservation = new StockReservation(stockJournalRepository);
+        Item item = this.createItem(1L, 100);
+
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger outOfStock = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+
+        for(int i = 0; i < 300; i++) {
+            executorService.submit(() -> {
+                try {
+                    start.await();
+                    stockReservation.reserve(item, 1);
+                    success.incrementAndGet();
+                } catch (OutOfStockException e) {
+                    outOfStock.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        start.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, success.get());
+        assertEquals(200, outOfStock.get());
+        assertEquals(0, stockReservation.getStockNumber(1L));
+        assertEquals(100, journals.size());
+        assertEquals(-100, this.sumDelta(1L));
+    }
+
+    @Test
+    @DisplayName("재고 복구 / 재고 수정 테스트")
+    public void releaseAndResetTest() {
+        StockReservation stockReservation = new StockReservation(stockJournalRepository);
+        Item item = this.createItem(1L, 10);
+        Item otherItem = this.createItem(2L, 10);
+
+        stockReservation.reserve(item, 3);
+        stockReservation.release(item, 1);
+        stockReservation.reserve(otherItem, 2);
+
+        assertEquals(8, stockReservation.getStockNumber(1L));
+        assertEquals(-2, this.sumDelta(1L));
+
+        // 재고 수정 시 남은 재고와의 차이만 저널로 추가 (DB 재고 10 + 저널 합계 = 50)
+        stockReservation.reset(item, 50);
+
+        assertEquals(50, stockReservation.getStockNumber(1L));
+        assertEquals(40, this.sumDelta(1L));
+        assertEquals(-2, this.sumDelta(2L));
+        assertThrows(OutOfStockException.class, () -> stockReservation.reserve(item, 51));
+
+        // 같은 수량이면 저널 없음
+        int size = journals.size();
+
+        stockReservation.reset(item, 50);
+
+        assertEquals(size, journals.size());
+    }
+
+    @Test
+    @DisplayName("재고 예약 중 재고 수정 시 남은 재고와 저널 일치 테스트")
+    public void concurrentResetTest() throws InterruptedException {
+        StockReservation stockReservation = new StockReservation(stockJournalRepository);
+        Item item = this.createItem(1L, 1000);
+
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+
+        for(int i = 0; i < 500; i++) {
+            int index = i;
+
+            executorService.submit(() -> {
+                try {
+                    start.await();
+
+                    if(index % 50 == 0) {
+                        stockReservation.reset(item, 1000);
+                    } else {
+                        stockReservation.reserve(item, 1);
+                    }
+                } catch (OutOfStockException e) {
+                    // 재고 부족은 저널 없이 실패
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        start.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+        // 저널을 모두 DB 재고에 반영하면 남은 재고와 같음
+        assertEquals(1000 + this.sumDelta(1L), stockReservation.getStockNumber(1L));
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.shop.repository;
+
+import com.shop.entity.Tag;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagRankingTest {
+
+    Tag createTag(Long id, int totalSell) {
+        Tag tag = new Tag();
+        tag.setId(id);
+        tag.setTagNm("태그" + id);
+        tag.setTotalSell(totalSell);
+
+        return tag;
+    }
+
+    List<Long> getIds(List<Tag> tags) {
+        return tags.stream().map(Tag::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("판매 건수 내림차순 태그 목록 테스트")
+    public void rankingTest() {
+        TagRanking tagRanking = new TagRanking();
+
+        assertFalse(tagRanking.isReady());
+
+        tagRanking.rebuild(Arrays.asList(this.createTag(1L, 5), this.createTag(2L, 3), this.createTag(3L, 5)));
+
+        assertTrue(tagRanking.isReady());
+        assertEquals(Arrays.asList(1L, 3L, 2L), this.getIds(tagRanking.getTags()));
+
+        tagRanking.record(Arrays.asList(2L, 2L, 2L, 3L));
+
+        List<Tag> tags = tagRanking.getTags();
+
+        assertEquals(Arrays.asList(2L, 3L, 1L), this.getIds(tags));
+        assertEquals(6, tags.get(0).getTotalSell());
+
+        // 없는 태그는 무시
+        tagRanking.record(Collections.singletonList(9L));
+        assertEquals(3, tagRanking.getTags().size());
+    }
+
+    @Test
+    @DisplayName("판매 건수가 바뀌지 않으면 정렬 결과 재사용 테스트")
+    public void reuseSortedTagsTest() {
+        TagRanking tagRanking = new TagRanking();
+        Tag tag = this.createTag(1L, 5);
+
+        tagRanking.rebuild(Collections.singletonList(tag));
+
+        List<Tag> tags = tagRanking.getTags();
+
+        // 원본 태그를 바꿔도 순위에는 영향 없음
+        tag.setTotalSell(100);
+
+        assertSame(tags, tagRanking.getTags());
+        assertEquals(5, tagRanking.getTags().get(0).getTotalSell());
+
+        tagRanking.record(Collections.singletonList(1L));
+
+        assertNotSame(tags, tagRanking.getTags());
+        assertEquals(6, tagRanking.getTags().get(0).getTotalSell());
+    }
+
+}
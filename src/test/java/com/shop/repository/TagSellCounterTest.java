@@ -0,0 +1,63 @@
+package com.shop.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagSellCounterTest {
+
+    @Test
+    @DisplayName("동시 판매 건수 누적 테스트")
+    public void concurrentIncrementTest() throws InterruptedException {
+        TagSellCounter tagSellCounter = new TagSellCounter();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+        for(int i = 0; i < 1000; i++) {
+            executorService.submit(() -> tagSellCounter.increment(Arrays.asList(1L, 2L)));
+        }
+
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1000, tagSellCounter.getDelta(1L));
+        assertEquals(1000, tagSellCounter.getDelta(2L));
+        assertEquals(0, tagSellCounter.getDelta(3L));
+    }
+
+    @Test
+    @DisplayName("증가분 반영 / 반영 실패 복구 테스트")
+    public void drainTest() {
+        TagSellCounter tagSellCounter = new TagSellCounter();
+
+        tagSellCounter.increment(Arrays.asList(1L, 2L));
+        tagSellCounter.increment(Arrays.asList(1L));
+
+        Map<Long, Long> deltas = tagSellCounter.drain();
+
+        assertEquals(2L, deltas.get(1L));
+        assertEquals(1L, deltas.get(2L));
+
+        // 반영 중에도 조회 값에 포함
+        tagSellCounter.increment(Arrays.asList(1L));
+        assertEquals(3, tagSellCounter.getDelta(1L));
+
+        tagSellCounter.restore(deltas);
+        assertEquals(3, tagSellCounter.getDelta(1L));
+
+        deltas = tagSellCounter.drain();
+        assertEquals(3L, deltas.get(1L));
+
+        tagSellCounter.complete(deltas);
+        assertEquals(0, tagSellCounter.getDelta(1L));
+        assertTrue(tagSellCounter.drain().isEmpty());
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.shop.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    @DisplayName("타이밍 휠 만료 / 취소 테스트")
+    public void advanceTest() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 0);
+
+        wheel.schedule("a", 3000);
+        wheel.schedule("b", 1000);
+        wheel.schedule("c", 5000);
+        wheel.schedule("d", 2000);
+
+        assertTrue(wheel.cancel("d"));
+        assertFalse(wheel.cancel("d"));
+
+        // 다시 등록하면 만료 시각이 바뀜
+        wheel.schedule("c", 4000);
+
+        assertEquals(Collections.singletonList("b"), wheel.advance(1500));
+        assertEquals(Arrays.asList("a", "c"), wheel.advance(4000));
+        assertEquals(0, wheel.size());
+
+        // 지난 시각은 다음 틱에 만료
+        wheel.schedule("e", 0);
+
+        assertTrue(wheel.advance(4999).isEmpty());
+        assertEquals(Collections.singletonList("e"), wheel.advance(5000));
+    }
+
+    @Test
+    @DisplayName("타이밍 휠 상위 단계 만료 시각 테스트")
+    public void cascadeTest() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1000, 0);
+        Random random = new Random(1);
+        Map<Long, Long> deadlines = new HashMap<>();
+
+        // 1초 ~ 약 1년 (최상위 단계 범위를 넘는 항목 포함)
+        for(long key = 0; key < 5000; key++) {
+            long deadline = (1 + (long) (random.nextDouble() * 365 * 24 * 3600)) * 1000;
+
+            wheel.schedule(key, deadline);
+            deadlines.put(key, deadline);
+        }
+
+        long now = 0;
+
+        while(wheel.size() > 0) {
+            now += 600 * 1000;
+
+            for(Long key : wheel.advance(now)) {
+                long deadline = deadlines.remove(key);
+
+                // 만료 시각이 지난 뒤 처음 진행할 때 꺼냄
+                assertTrue(deadline <= now && deadline > now - 600 * 1000);
+            }
+        }
+
+        assertTrue(deadlines.isEmpty());
+    }
+
+    @Test
+    @DisplayName("타이밍 휠 틱 단위 만료 순서 테스트")
+    public void tickOrderTest() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1000, 0);
+
+        for(int second = 1; second <= 10000; second++) {
+            wheel.schedule(second, second * 1000L);
+        }
+
+        List<Integer> expired = new ArrayList<>();
+
+        for(long now = 0; now <= 10000 * 1000L; now += 1000) {
+            List<Integer> keys = wheel.advance(now);
+
+            assertTrue(keys.size() <= 1);
+
+            if(!keys.isEmpty()) {
+                assertEquals((int) (now / 1000), (int) keys.get(0));
+                expired.addAll(keys);
+            }
+        }
+
+        assertEquals(10000, expired.size());
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.shop.service;
+
+import com.shop.entity.Bid;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidIngestionTest {
+
+    // 저장한 묶음 기록, 입금자명에 이메일을 넣어 돌려줌
+    List<List<BidIngestion.BidRequest>> batches = new CopyOnWriteArrayList<>();
+
+    List<Bid> save(List<BidIngestion.BidRequest> requests) {
+        batches.add(new ArrayList<>(requests));
+
+        List<Bid> bids = new ArrayList<>();
+
+        for(BidIngestion.BidRequest request : requests) {
+            Bid bid = new Bid();
+            bid.setDepositName(request.getEmail());
+            bids.add(bid);
+        }
+
+        return bids;
+    }
+
+    @Test
+    @DisplayName("같은 역경매 입찰 순서대로 묶음 저장 테스트")
+    public void batchOrderTest() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // 첫 묶음을 저장하는 동안 쌓인 입찰은 다음 묶음으로 한 번에 저장
+        Function<List<BidIngestion.BidRequest>, List<Bid>> writer = requests -> {
+            if(batches.isEmpty()) {
+                blocked.countDown();
+                await(release);
+            }
+
+            return this.save(requests);
+        };
+
+        BidIngestion bidIngestion = new BidIngestion(writer, 4, 100, 100, 100);
+        bidIngestion.start();
+
+        List<CompletableFuture<Bid>> futures = new ArrayList<>();
+        futures.add(bidIngestion.submit("user0@email.com", 1L));
+
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        for(int i = 1; i < 50; i++) {
+            futures.add(bidIngestion.submit("user" + i + "@email.com", 1L));
+        }
+
+        release.countDown();
+
+        for(int i = 0; i < futures.size(); i++) {
+            assertEquals("user" + i + "@email.com", futures.get(i).get(5, TimeUnit.SECONDS).getDepositName());
+        }
+
+        assertEquals(2, batches.size());
+        assertEquals(49, batches.get(1).size());
+
+        bidIngestion.stop();
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차면 입찰 거절 테스트")
+    public void backpressureTest() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Function<List<BidIngestion.BidRequest>, List<Bid>> writer = requests -> {
+            blocked.countDown();
+            await(release);
+
+            return this.save(requests);
+        };
+
+        // 큐 하나, 크기 2
+        BidIngestion bidIngestion = new BidIngestion(writer, 1, 2, 100, 10);
+        bidIngestion.start();
+
+        CompletableFuture<Bid> first = bidIngestion.submit("user0@email.com", 1L);
+
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Bid> second = bidIngestion.submit("user1@email.com", 1L);
+        CompletableFuture<Bid> third = bidIngestion.submit("user2@email.com", 2L);
+        CompletableFuture<Bid> rejected = bidIngestion.submit("user3@email.com", 3L);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+
+        release.countDown();
+
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        assertNotNull(second.get(5, TimeUnit.SECONDS));
+        assertNotNull(third.get(5, TimeUnit.SECONDS));
+
+        bidIngestion.stop();
+    }
+
+    @Test
+    @DisplayName("묶음 저장 실패 시 한 건씩 저장 테스트")
+    public void retryTest() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // 실패하는 입찰이 섞인 묶음은 실패
+        Function<List<BidIngestion.BidRequest>, List<Bid>> writer = requests -> {
+            if(batches.isEmpty()) {
+                blocked.countDown();
+                await(release);
+            }
+
+            if(requests.stream().anyMatch(request -> request.getEmail().startsWith("fail"))) {
+                throw new IllegalStateException("입찰 저장 실패");
+            }
+
+            return this.save(requests);
+        };
+
+        BidIngestion bidIngestion = new BidIngestion(writer, 1, 100, 100, 100);
+        bidIngestion.start();
+
+        CompletableFuture<Bid> first = bidIngestion.submit("user0@email.com", 1L);
+
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Bid> second = bidIngestion.submit("user1@email.com", 1L);
+        CompletableFuture<Bid> failed = bidIngestion.submit("fail@email.com", 1L);
+        CompletableFuture<Bid> third = bidIngestion.submit("user2@email.com", 1L);
+
+        release.countDown();
+
+        assertEquals("user0@email.com", first.get(5, TimeUnit.SECONDS).getDepositName());
+        assertEquals("user1@email.com", second.get(5, TimeUnit.SECONDS).getDepositName());
+        assertEquals("user2@email.com", third.get(5, TimeUnit.SECONDS).getDepositName());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertEquals("입찰 저장 실패", e.getCause().getMessage());
+
+        bidIngestion.stop();
+    }
+
+    static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
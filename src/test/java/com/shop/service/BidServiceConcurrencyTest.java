@@ -0,0 +1,276 @@
+package com.shop.service;
+
+import com.shop.constant.Bank;
+import com.shop.constant.ItemSellStatus;
+import com.shop.constant.NoticeType;
+import com.shop.constant.ReverseAuctionStatus;
+import com.shop.constant.Role;
+import com.shop.entity.Bid;
+import com.shop.entity.Category;
+import com.shop.entity.Item;
+import com.shop.entity.Member;
+import com.shop.entity.ReverseAuction;
+import com.shop.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 여러 스레드가 각자 트랜잭션을 커밋해야 하므로 @Transactional 없이 실행하고, 만든 데이터는 테스트 후 삭제
+@SpringBootTest
+@TestPropertySource(locations="classpath:application-test.properties")
+class BidServiceConcurrencyTest {
+
+    private static final Long CATE_CODE = 990024L;
+
+    private static final int BID_COUNT = 20;
+
+    // 회원 아이디 캐시에 지운 회원이 남아 있으므로 테스트마다 다른 이메일 사용
+    private static final AtomicInteger MEMBER_SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    BidService bidService;
+
+    @Autowired
+    BidRepository bidRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberIdentityCache memberIdentityCache;
+
+    @Autowired
+    MemberSummaryCache memberSummaryCache;
+
+    @Autowired
+    ReverseAuctionRepository reverseAuctionRepository;
+
+    @Autowired
+    ReverseAuctionTimeline reverseAuctionTimeline;
+
+    @Autowired
+    ReverseAuctionService reverseAuctionService;
+
+    @Autowired
+    BidWinnerSelector bidWinnerSelector;
+
+    @Autowired
+    KakaoPaymentService kakaoPaymentService;
+
+    @Autowired
+    KakaoPaymentRepository kakaoPaymentRepository;
+
+    @Autowired
+    EncryptionService encryptionService;
+
+    @Autowired
+    PageCountStrategy pageCountStrategy;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    List<Member> members = new ArrayList<>();
+
+    Item item;
+
+    ReverseAuction reverseAuction;
+
+    @BeforeEach
+    public void setUp() {
+        Category category = new Category();
+        category.setCateCode(CATE_CODE);
+        category.setCateName("낙찰 동시성 테스트");
+        categoryRepository.save(category);
+
+        item = new Item();
+        item.setCategory(category);
+        item.setItemNm("테스트 상품");
+        item.setPrice(10000);
+        item.setItemDetail("테스트 상품 상세 설명");
+        item.setItemSellStatus(ItemSellStatus.SELL);
+        item.setStockNumber(100);
+        item.setShippingFee(1000);
+        item = itemRepository.save(item);
+
+        reverseAuction = new ReverseAuction();
+        reverseAuction.setItem(item);
+        reverseAuction.setTimeUnit(1);
+        reverseAuction.setPriceUnit(1000);
+        reverseAuction.setMaxRate(50);
+        reverseAuction.setStartTime(LocalDateTime.now().minusHours(1));
+        reverseAuction = reverseAuctionRepository.save(reverseAuction);
+
+        for(int i = 0; i < 2; i++) {
+            Member member = new Member();
+            member.setName("테스트");
+            member.setEmail("winner-race" + MEMBER_SEQUENCE.incrementAndGet() + "@test.com");
+            member.setAddress("서울시");
+            member.setAddressDetail("101호");
+            member.setRefundBank(Bank.IBK);
+            member.setRefundAccount("1234");
+            member.setRole(Role.USER);
+            member.setPhone("01012345678");
+            member.setNoticeType(NoticeType.EMAIL);
+
+            members.add(memberRepository.save(member));
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Bid> bids = bidRepository.findAll().stream()
+                    .filter(bid -> bid.getReverseAuction().getId().equals(reverseAuction.getId()))
+                    .collect(Collectors.toList());
+
+            kakaoPaymentRepository.deleteAll(kakaoPaymentRepository.findAll().stream()
+                    .filter(kakaoPayment -> bids.contains(kakaoPayment.getBid()))
+                    .collect(Collectors.toList()));
+            bidRepository.deleteAll(bids);
+        });
+
+        reverseAuctionRepository.deleteById(reverseAuction.getId());
+        itemRepository.deleteById(item.getId());
+        categoryRepository.deleteById(CATE_CODE);
+        memberRepository.deleteAll(members);
+    }
+
+    // 다른 서버의 BidService (메모리 낙찰 선택은 따로, DB 는 같이 사용)
+    BidService createOtherNodeBidService() {
+        return new BidService(bidRepository, memberRepository, memberIdentityCache, memberSummaryCache,
+                reverseAuctionRepository, reverseAuctionTimeline, new BidWinnerSelector(bidRepository),
+                kakaoPaymentService, encryptionService, pageCountStrategy);
+    }
+
+    List<Long> saveBids() {
+        List<Long> bidIds = new ArrayList<>();
+
+        for(int i = 0; i < BID_COUNT; i++) {
+            bidIds.add(bidService.saveBid(members.get(i % members.size()).getEmail(), reverseAuction.getId()).getId());
+        }
+
+        return bidIds;
+    }
+
+    List<Bid> getWinners() {
+        return transactionTemplate.execute(status -> bidRepository.findAll().stream()
+                .filter(bid -> bid.getReverseAuction().getId().equals(reverseAuction.getId()))
+                .filter(bid -> "Y".equals(bid.getApprovedYn()))
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("낙찰 입찰 unique 키 테스트")
+    public void winningUniqueKeyTest() {
+        List<Long> bidIds = this.saveBids();
+
+        // 메모리 낙찰 선택을 거치지 않고 같은 역경매에 낙찰 표시를 두 번 하면 DB 가 막음
+        assertThrows(DataIntegrityViolationException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            for(Long bidId : bidIds.subList(0, 2)) {
+                Bid bid = bidRepository.findById(bidId).orElseThrow(IllegalStateException::new);
+                bid.setWinningReverseAuctionId(reverseAuction.getId());
+
+                bidRepository.saveAndFlush(bid);
+            }
+        }));
+
+        assertTrue(this.getWinners().isEmpty());
+    }
+
+    @Test
+    @DisplayName("두 서버 동시 낙찰 확인 / 카카오 페이 결제 시 낙찰 입찰 하나 테스트")
+    public void concurrentApproveTest() throws InterruptedException {
+        List<Long> bidIds = this.saveBids();
+        BidService otherNodeBidService = this.createOtherNodeBidService();
+
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> unexpected = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        int paymentCount = 4;
+        ExecutorService executorService = Executors.newFixedThreadPool(BID_COUNT + paymentCount);
+
+        for(int i = 0; i < BID_COUNT + paymentCount; i++) {
+            int index = i;
+
+            executorService.submit(() -> {
+                try {
+                    start.await();
+
+                    if(index >= BID_COUNT) {
+                        // 카카오 페이 결제 (입찰 저장과 낙찰을 한 트랜잭션에서)
+                        bidService.saveBidWithPayment(members.get(0).getEmail(), reverseAuction.getId(), 990024L + index);
+                    } else if(index % 2 == 0) {
+                        bidService.approveBid(bidIds.get(index));
+                    } else {
+                        transactionTemplate.executeWithoutResult(status -> otherNodeBidService.approveBid(bidIds.get(index)));
+                    }
+
+                    approved.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    // 같은 키를 동시에 쓰면 DB 에 따라 unique 키 대신 잠금 대기 시간 초과로 실패할 수 있음
+                    synchronized (unexpected) {
+                        unexpected.add(e);
+                    }
+                }
+            });
+        }
+
+        start.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(30, TimeUnit.SECONDS));
+
+        List<Bid> winners = this.getWinners();
+
+        assertEquals(1, approved.get());
+        assertEquals(BID_COUNT + paymentCount - 1, rejected.get() + unexpected.size());
+        assertEquals(1, winners.size());
+        assertEquals(reverseAuction.getId(), winners.get(0).getWinningReverseAuctionId());
+
+        // 커밋된 낙찰은 메모리에 남지 않음
+        assertNull(bidWinnerSelector.getWinner(reverseAuction.getId()));
+
+        // 낙찰 이후 확인 요청은 DB 의 낙찰로 막음
+        assertThrows(IllegalStateException.class, () -> bidService.approveBid(bidIds.get(0)));
+
+        // 낙찰과 같은 트랜잭션에서 SOLD 로 바뀌어 재시작 / 상품 수정 시 타이밍 휠에 다시 올라가지 않음
+        assertEquals(ReverseAuctionStatus.SOLD, reverseAuctionRepository.findById(reverseAuction.getId()).get().getStatus());
+        assertTrue(reverseAuctionRepository.findByStatus(ReverseAuctionStatus.PROGRESS).stream()
+                .noneMatch(progress -> progress.getId().equals(reverseAuction.getId())));
+
+        reverseAuctionService.rescheduleItem(item.getId());
+
+        assertEquals(ReverseAuctionStatus.SOLD, reverseAuctionRepository.findById(reverseAuction.getId()).get().getStatus());
+        assertNull(reverseAuctionTimeline.getCurrent(reverseAuction.getId()));
+    }
+
+}
@@ -20,6 +20,7 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -178,6 +179,36 @@ class BidServiceTest {
         }
     }
 
+    @Test
+    @DisplayName("입찰 묶음 저장 테스트")
+    public void saveBidsTest() {
+        Member member = this.createMember();
+        Member member2 = this.createMember("test2@email.com");
+
+        ReverseAuction reverseAuction = this.createReverseAuction();
+
+        List<BidIngestion.BidRequest> requests = new ArrayList<>();
+        requests.add(new BidIngestion.BidRequest(member.getEmail(), reverseAuction.getId()));
+        requests.add(new BidIngestion.BidRequest(member2.getEmail(), reverseAuction.getId()));
+        requests.add(new BidIngestion.BidRequest(member.getEmail(), reverseAuction.getId()));
+
+        List<Bid> bids = bidService.saveBids(requests);
+
+        // 요청 순서대로 저장
+        assertEquals(3, bids.size());
+        assertTrue(bids.stream().allMatch(bid -> bid.getId() != null));
+        assertEquals(member.getEmail(), bids.get(0).getMember().getEmail());
+        assertEquals(member2.getEmail(), bids.get(1).getMember().getEmail());
+        assertEquals(bidService.getUniqueDepositName(member), bids.get(0).getDepositName());
+        assertEquals(bids.get(0).getDepositName(), bids.get(2).getDepositName());
+        assertEquals(bidService.saveBid(member.getEmail(), reverseAuction.getId()).getDepositAmount(), bids.get(0).getDepositAmount());
+
+        // 없는 역경매가 섞이면 묶음 전체 실패
+        requests.add(new BidIngestion.BidRequest(member.getEmail(), -1L));
+
+        assertThrows(EntityNotFoundException.class, () -> bidService.saveBids(requests));
+    }
+
     @Test
     @DisplayName("관리자 결제 관리 조회 테스트")
     public void getAdminPageTest() throws InterruptedException {
@@ -1,27 +1,49 @@
 package com.shop.service;
 
+import com.shop.constant.Bank;
 import com.shop.constant.ItemSellStatus;
+import com.shop.constant.NoticeType;
+import com.shop.constant.Role;
+import com.shop.dto.CartDetailDto;
 import com.shop.dto.CartItemDto;
-import com.shop.entity.CartItem;
+import com.shop.dto.CartOrderDto;
+import com.shop.entity.Cart;
+import com.shop.entity.Category;
 import com.shop.entity.Item;
 import com.shop.entity.Member;
 import com.shop.repository.CartItemRepository;
+import com.shop.repository.CartRepository;
+import com.shop.repository.CartStore;
+import com.shop.repository.CategoryRepository;
+import com.shop.repository.ItemCardCache;
 import com.shop.repository.ItemRepository;
 import com.shop.repository.MemberRepository;
+import com.shop.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @Transactional
 @TestPropertySource(locations="classpath:application-test.properties")
+@Import(StatementCounter.Config.class)
 class CartServiceTest {
 
     @Autowired
@@ -36,6 +58,33 @@ class CartServiceTest {
     @Autowired
     CartItemRepository cartItemRepository;
 
+    @Autowired
+    CartRepository cartRepository;
+
+    @Autowired
+    CartStore cartStore;
+
+    @Autowired
+    ItemCardCache itemCardCache;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    StatementCounter statementCounter;
+
+    @PersistenceContext
+    EntityManager em;
+
+    // 테스트 데이터는 롤백되므로 메모리 장바구니도 다음 테스트에 남기지 않음
+    @AfterEach
+    public void tearDown() {
+        cartStore.clear();
+    }
+
     public Item saveItem() {
         Item item = new Item();
         item.setItemNm("테스트 상품");
@@ -43,34 +92,201 @@ class CartServiceTest {
         item.setItemDetail("테스트 상품 상세 설명");
         item.setItemSellStatus(ItemSellStatus.SELL);
         item.setStockNumber(100);
+        item.setShippingFee(0);
 
         return itemRepository.save(item);
     }
 
-    public Member saveMember() {
+    public Category saveCategory() {
+        Category category = new Category();
+        category.setCateCode(1L);
+        category.setCateName("테스트 카테고리");
+
+        return categoryRepository.save(category);
+    }
+
+    public Member saveOrderMember(String email) {
         Member member = new Member();
-        member.setEmail("test@test.com");
+        member.setName("테스트");
+        member.setEmail(email);
+        member.setAddress("서울시");
+        member.setAddressDetail("101호");
+        member.setRefundBank(Bank.IBK);
+        member.setRefundAccount("1234");
+        member.setRole(Role.USER);
+        member.setPhone("01012345678");
+        member.setNoticeType(NoticeType.EMAIL);
 
         return memberRepository.save(member);
     }
 
+    // 장바구니에 상품을 count 개 담고 주문했을 때 실행된 SQL 수
+    public int countCheckoutStatements(Category category, String email, int count) {
+        Member member = this.saveOrderMember(email);
+
+        List<CartOrderDto> cartOrderDtoList = new ArrayList<>();
+
+        for(int i = 0; i < count; i++) {
+            Item item = this.saveItem();
+            item.setCategory(category);
+            item.setShippingFee(0);
+
+            CartItemDto cartItemDto = new CartItemDto();
+            cartItemDto.setCount(1);
+            cartItemDto.setItemId(item.getId());
+
+            CartOrderDto cartOrderDto = new CartOrderDto();
+            cartOrderDto.setItemId(cartService.addCart(cartItemDto, member.getEmail()));
+            cartOrderDtoList.add(cartOrderDto);
+        }
+
+        em.flush();
+        em.clear();
+
+        statementCounter.start();
+
+        Long orderId = cartService.orderCartItem(cartOrderDtoList, email, 0, null);
+
+        em.flush();
+
+        int statements = statementCounter.stop();
+
+        em.clear();
+
+        assertEquals(count, orderRepository.findById(orderId).orElseThrow(EntityNotFoundException::new).getOrderItems().size());
+        assertTrue(cartService.getCartList(email).isEmpty());
+
+        return statements;
+    }
+
+    @Test
+    @DisplayName("장바구니 주문 쿼리 수 테스트")
+    public void orderCartItemStatementCount() {
+        Category category = this.saveCategory();
+
+        int smallCart = this.countCheckoutStatements(category, "small@test.com", 2);
+        int largeCart = this.countCheckoutStatements(category, "large@test.com", 20);
+
+        // 장바구니 상품 수와 관계없이 실행되는 SQL 수가 같아야 함
+        assertEquals(smallCart, largeCart);
+    }
+
     @Test
     @DisplayName("장바구니 담기 테스트")
     public void addCart() {
         Item item = saveItem();
+        item.setCategory(this.saveCategory());
 
-        Member member = saveMember();
+        Member member = this.saveOrderMember("cart@test.com");
 
         CartItemDto cartItemDto = new CartItemDto();
         cartItemDto.setCount(5);
         cartItemDto.setItemId(item.getId());
 
-        Long cartItemId = cartService.addCart(cartItemDto, member.getEmail());
+        assertEquals(item.getId(), cartService.addCart(cartItemDto, member.getEmail()));
+        cartService.addCart(cartItemDto, member.getEmail());
+
+        // 담기는 메모리에서만 처리
+        assertNull(cartRepository.findByMemberId(member.getId()));
+
+        List<CartDetailDto> cartDetailDtoList = cartService.getCartList(member.getEmail());
+
+        assertEquals(1, cartDetailDtoList.size());
+        assertEquals(item.getId(), cartDetailDtoList.get(0).getItemId());
+        assertEquals(10, cartDetailDtoList.get(0).getCount());
+
+        this.flushCart(member);
+
+        Cart cart = cartRepository.findByMemberId(member.getId());
+        List<Object[]> lines = cartItemRepository.findCartLines(cart.getId());
+
+        assertEquals(1, lines.size());
+        assertEquals(item.getId(), lines.get(0)[0]);
+        assertEquals(10, lines.get(0)[1]);
+    }
+
+    @Test
+    @DisplayName("장바구니 목록 캐시 테스트")
+    public void getCartListCache() {
+        Item item = saveItem();
+        item.setCategory(this.saveCategory());
+
+        Member member = this.saveOrderMember("cart@test.com");
+
+        CartItemDto cartItemDto = new CartItemDto();
+        cartItemDto.setCount(1);
+        cartItemDto.setItemId(item.getId());
+
+        cartService.addCart(cartItemDto, member.getEmail());
+
+        assertEquals(10000, cartService.getCartList(member.getEmail()).get(0).getPrice());
+
+        // 장바구니와 상품이 바뀌지 않았으면 조회하지 않음
+        statementCounter.start();
+        cartService.getCartList(member.getEmail());
+        assertEquals(0, statementCounter.stop());
+
+        // 가격이 바뀐 상품만 다시 조회
+        item.setPrice(20000);
+        em.flush();
+        itemCardCache.evict(item.getId());
+
+        assertEquals(20000, cartService.getCartList(member.getEmail()).get(0).getPrice());
+
+        cartService.updateCartItemCount(member.getEmail(), item.getId(), 3);
+
+        assertEquals(3, cartService.getCartList(member.getEmail()).get(0).getCount());
+    }
+
+    @Test
+    @DisplayName("장바구니 수량 변경 / 삭제 반영 테스트")
+    public void updateAndDeleteCartItem() {
+        Category category = this.saveCategory();
+
+        Item item = saveItem();
+        item.setCategory(category);
+
+        Item otherItem = saveItem();
+        otherItem.setCategory(category);
+
+        Member member = this.saveOrderMember("cart@test.com");
+
+        for(Item savedItem : new Item[] { item, otherItem }) {
+            CartItemDto cartItemDto = new CartItemDto();
+            cartItemDto.setCount(1);
+            cartItemDto.setItemId(savedItem.getId());
+
+            cartService.addCart(cartItemDto, member.getEmail());
+        }
+
+        this.flushCart(member);
+
+        assertTrue(cartService.updateCartItemCount(member.getEmail(), item.getId(), 3));
+        assertTrue(cartService.deleteCartItem(member.getEmail(), otherItem.getId()));
+        assertFalse(cartService.deleteCartItem(member.getEmail(), otherItem.getId()));
+        assertTrue(cartService.validateCartItems(Collections.singletonList(item.getId()), member.getEmail()));
+        assertFalse(cartService.validateCartItems(Collections.singletonList(otherItem.getId()), member.getEmail()));
+
+        this.flushCart(member);
+
+        List<Object[]> lines = cartItemRepository.findCartLines(cartRepository.findByMemberId(member.getId()).getId());
+
+        assertEquals(1, lines.size());
+        assertEquals(item.getId(), lines.get(0)[0]);
+        assertEquals(3, lines.get(0)[1]);
+    }
+
+    // 주기 반영(CartFlusher)과 같은 방식으로 회원 장바구니 변경분을 반영
+    public void flushCart(Member member) {
+        List<CartStore.CartChanges> changes = Collections.singletonList(cartStore.drain(member.getId()));
+
+        cartService.writeCartChanges(changes);
 
-        CartItem cartItem = cartItemRepository.findById(cartItemId).orElseThrow(EntityNotFoundException::new);
+        em.flush();
+        em.clear();
 
-        assertEquals(item.getId(), cartItem.getItem().getId());
-        assertEquals(cartItemDto.getCount(), cartItem.getCount());
+        // 테스트 트랜잭션은 커밋되지 않으므로 커밋 후 처리를 직접 호출
+        cartStore.complete(changes);
     }
 
 }
\ No newline at end of file
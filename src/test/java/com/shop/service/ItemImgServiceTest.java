@@ -0,0 +1,108 @@
+package com.shop.service;
+
+import com.shop.entity.Item;
+import com.shop.entity.ItemImg;
+import com.shop.repository.ItemImgRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemImgServiceTest {
+
+    Map<Long, ItemImg> itemImgs = new HashMap<>();
+
+    ItemImgRepository itemImgRepository = (ItemImgRepository) Proxy.newProxyInstance(
+            ItemImgRepository.class.getClassLoader(),
+            new Class<?>[] {ItemImgRepository.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "save":
+                        return args[0];
+                    case "findById":
+                        return Optional.ofNullable(itemImgs.get((Long) args[0]));
+                    default:
+                        return null;
+                }
+            });
+
+    // 파일은 저장하지 않고 원본 파일명을 그대로 저장 파일명으로 사용
+    FileService fileService = new FileService() {
+        @Override
+        public String uploadFile(String uploadPath, String originalFileName, byte[] fileData) {
+            return originalFileName;
+        }
+
+        @Override
+        public void deleteFile(String filePath) {
+        }
+    };
+
+    ItemImgService createItemImgService() {
+        ItemImgService itemImgService = new ItemImgService(itemImgRepository, fileService);
+        ReflectionTestUtils.setField(itemImgService, "itemImgLocation", "/shop/item");
+
+        return itemImgService;
+    }
+
+    ItemImg createItemImg(Item item, String repImgYn) {
+        ItemImg itemImg = new ItemImg();
+        itemImg.setItem(item);
+        itemImg.setRepImgYn(repImgYn);
+
+        return itemImg;
+    }
+
+    MockMultipartFile createFile(String fileName) {
+        return new MockMultipartFile("itemImgFile", fileName, "image/png", new byte[] { 1, 2, 3, 4 });
+    }
+
+    @Test
+    @DisplayName("대표 이미지 저장 시 상품 대표 이미지 경로 변경 테스트")
+    public void saveRepImgUrlTest() throws Exception {
+        ItemImgService itemImgService = this.createItemImgService();
+        Item item = new Item();
+
+        itemImgService.saveItemImg(this.createItemImg(item, "Y"), this.createFile("rep.jpg"));
+        itemImgService.saveItemImg(this.createItemImg(item, "N"), this.createFile("sub.jpg"));
+
+        assertEquals("/images/item/rep.jpg", item.getRepImgUrl());
+    }
+
+    @Test
+    @DisplayName("대표 이미지 수정 시에만 상품 대표 이미지 경로 변경 테스트")
+    public void updateRepImgUrlTest() throws Exception {
+        ItemImgService itemImgService = this.createItemImgService();
+        Item item = new Item();
+        item.setRepImgUrl("/images/item/rep.jpg");
+
+        ItemImg repImg = this.createItemImg(item, "Y");
+        repImg.updateItemImg("rep.jpg", "rep.jpg", "/images/item/rep.jpg");
+        itemImgs.put(1L, repImg);
+
+        ItemImg subImg = this.createItemImg(item, "N");
+        subImg.updateItemImg("sub.jpg", "sub.jpg", "/images/item/sub.jpg");
+        itemImgs.put(2L, subImg);
+
+        itemImgService.updateItemImg(2L, this.createFile("sub2.jpg"));
+
+        assertEquals("/images/item/rep.jpg", item.getRepImgUrl());
+
+        itemImgService.updateItemImg(1L, this.createFile("rep2.jpg"));
+
+        assertEquals("/images/item/rep2.jpg", item.getRepImgUrl());
+
+        // 빈 파일이면 변경하지 않음
+        itemImgService.updateItemImg(1L, new MockMultipartFile("itemImgFile", "", "image/png", new byte[0]));
+
+        assertEquals("/images/item/rep2.jpg", item.getRepImgUrl());
+    }
+
+}
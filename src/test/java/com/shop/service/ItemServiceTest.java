@@ -1,26 +1,41 @@
 package com.shop.service;
 
+import com.shop.constant.ItemComplexSearchSortColumn;
 import com.shop.constant.ItemSellStatus;
+import com.shop.dto.ItemComplexSearchDto;
+import com.shop.dto.ItemCursorPageDto;
 import com.shop.dto.ItemFormDto;
+import com.shop.dto.MainItemDto;
+import com.shop.entity.Category;
 import com.shop.entity.Item;
 import com.shop.entity.ItemImg;
+import com.shop.entity.StockJournal;
+import com.shop.repository.CategoryRepository;
 import com.shop.repository.ItemImgRepository;
 import com.shop.repository.ItemRepository;
+import com.shop.repository.StockJournalRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.PersistenceContext;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @Transactional
@@ -36,6 +51,15 @@ class ItemServiceTest {
     @Autowired
     ItemImgRepository itemImgRepository;
 
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    StockJournalRepository stockJournalRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
     List<MultipartFile> createMultipartFiles() throws Exception {
         List<MultipartFile> multipartFileList = new ArrayList<>();
 
@@ -78,4 +102,154 @@ class ItemServiceTest {
 //        assertEquals(multipartFileList.get(0).getOriginalFilename(), itemImgList.get(0).getOriImgName());
     }
 
-}
\ No newline at end of file
+    // 다른 테스트 상품과 섞이지 않도록 전용 카테고리에 가격이 같은 상품을 섞어서 등록
+    List<Item> createCursorItems(Long cateCode) {
+        Category category = new Category();
+        category.setCateCode(cateCode);
+        category.setCateName("커서 테스트 " + cateCode);
+        categoryRepository.save(category);
+
+        int[] prices = { 3000, 1000, 2000, 1000, 1000, 2000, 4000 };
+        List<Item> items = new ArrayList<>();
+
+        for(int i = 0; i < prices.length; i++) {
+            Item item = new Item();
+            item.setItemNm("커서 테스트 상품" + i);
+            item.setPrice(prices[i]);
+            item.setItemDetail("커서 테스트 상품 상세 설명");
+            item.setItemSellStatus(ItemSellStatus.SELL);
+            item.setStockNumber(100);
+            item.setShippingFee(0);
+            item.setCategory(category);
+            item.setRepImgUrl("/images/item/test.jpg");
+
+            items.add(itemRepository.save(item));
+        }
+
+        return items;
+    }
+
+    ItemComplexSearchDto createCursorSearchDto(Long cateCode) {
+        ItemComplexSearchDto itemComplexSearchDto = new ItemComplexSearchDto();
+        itemComplexSearchDto.setSearchCategory(cateCode);
+        itemComplexSearchDto.setSortColumn(ItemComplexSearchSortColumn.PRICE);
+        itemComplexSearchDto.setSortDirection(Sort.Direction.ASC);
+
+        return itemComplexSearchDto;
+    }
+
+    List<Long> getIds(List<MainItemDto> items) {
+        return items.stream().map(MainItemDto::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("keyset 커서 첫 페이지 / 다음 페이지 / 마지막 페이지 테스트")
+    public void cursorPageTest() {
+        List<Item> items = this.createCursorItems(990101L);
+        ItemComplexSearchDto itemComplexSearchDto = this.createCursorSearchDto(990101L);
+
+        // 가격 오름차순, 가격이 같으면 아이디 내림차순
+        List<Long> expected = items.stream()
+                .sorted(Comparator.comparingInt(Item::getPrice).thenComparing(Item::getId, Comparator.reverseOrder()))
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        ItemCursorPageDto first = itemService.getComplexSearchCursorPage(itemComplexSearchDto, "", 3);
+
+        assertEquals(expected.subList(0, 3), this.getIds(first.getContent()));
+        assertNull(first.getPrevCursor());
+        assertNotNull(first.getNextCursor());
+
+        ItemCursorPageDto second = itemService.getComplexSearchCursorPage(itemComplexSearchDto, first.getNextCursor(), 3);
+
+        assertEquals(expected.subList(3, 6), this.getIds(second.getContent()));
+        assertNotNull(second.getPrevCursor());
+        assertNotNull(second.getNextCursor());
+
+        ItemCursorPageDto last = itemService.getComplexSearchCursorPage(itemComplexSearchDto, second.getNextCursor(), 3);
+
+        assertEquals(expected.subList(6, 7), this.getIds(last.getContent()));
+        assertNull(last.getNextCursor());
+
+        // 이전 페이지로 돌아가면 같은 상품 목록
+        ItemCursorPageDto back = itemService.getComplexSearchCursorPage(itemComplexSearchDto, last.getPrevCursor(), 3);
+
+        assertEquals(expected.subList(3, 6), this.getIds(back.getContent()));
+    }
+
+    @Test
+    @DisplayName("정렬 값이 같은 상품이 페이지 경계에 걸칠 때 커서 테스트")
+    public void cursorTieBreakTest() {
+        List<Item> items = this.createCursorItems(990102L);
+        ItemComplexSearchDto itemComplexSearchDto = this.createCursorSearchDto(990102L);
+
+        // 가격 1000 상품 3개가 첫 페이지(2개)와 두 번째 페이지에 나뉘어도 빠지거나 중복되지 않음
+        List<Long> sameprice = items.stream()
+                .filter(item -> item.getPrice() == 1000)
+                .map(Item::getId)
+                .sorted(Comparator.reverseOrder())
+                .collect(Collectors.toList());
+
+        ItemCursorPageDto first = itemService.getComplexSearchCursorPage(itemComplexSearchDto, "", 2);
+        ItemCursorPageDto second = itemService.getComplexSearchCursorPage(itemComplexSearchDto, first.getNextCursor(), 2);
+
+        assertEquals(sameprice.subList(0, 2), this.getIds(first.getContent()));
+        assertEquals(sameprice.get(2), second.getContent().get(0).getId());
+
+        List<Long> allIds = new ArrayList<>();
+        String cursor = "";
+
+        for(int i = 0; i < 10 && cursor != null; i++) {
+            ItemCursorPageDto page = itemService.getComplexSearchCursorPage(itemComplexSearchDto, cursor, 2);
+
+            allIds.addAll(this.getIds(page.getContent()));
+            cursor = page.getNextCursor();
+        }
+
+        assertEquals(items.size(), allIds.size());
+        assertEquals(items.size(), allIds.stream().distinct().count());
+    }
+
+    @Test
+    @DisplayName("offset 페이지에서 keyset 다음 페이지로 이어지는 커서 테스트")
+    public void nextCursorTest() {
+        List<Item> items = this.createCursorItems(990103L);
+        ItemComplexSearchDto itemComplexSearchDto = this.createCursorSearchDto(990103L);
+
+        Page<MainItemDto> firstPage = itemService.getComplexSearchPage(itemComplexSearchDto, PageRequest.of(0, 3));
+        Page<MainItemDto> secondPage = itemService.getComplexSearchPage(itemComplexSearchDto, PageRequest.of(1, 3));
+
+        String nextCursor = itemService.getNextCursor(itemComplexSearchDto, firstPage);
+
+        assertNotNull(nextCursor);
+        assertEquals(this.getIds(secondPage.getContent()), this.getIds(itemService.getComplexSearchCursorPage(itemComplexSearchDto, nextCursor, 3).getContent()));
+
+        // 마지막 페이지에는 다음 커서가 없음
+        assertNull(itemService.getNextCursor(itemComplexSearchDto, itemService.getComplexSearchPage(itemComplexSearchDto, PageRequest.of(2, 3))));
+        assertEquals(items.size(), firstPage.getTotalElements());
+    }
+
+
+    @Test
+    @DisplayName("재고 저널 반영 테스트")
+    public void flushStockJournalTest() {
+        List<Item> items = this.createCursorItems(990104L);
+        Item item = items.get(0);
+        Item otherItem = items.get(1);
+
+        stockJournalRepository.save(StockJournal.createStockJournal(item.getId(), -3));
+        stockJournalRepository.save(StockJournal.createStockJournal(item.getId(), 1));
+        stockJournalRepository.save(StockJournal.createStockJournal(otherItem.getId(), -5));
+
+        assertTrue(itemService.flushStockJournal() >= 3);
+        assertEquals(0, itemService.flushStockJournal());
+
+        em.flush();
+        em.clear();
+
+        assertEquals(98, itemRepository.findById(item.getId()).orElseThrow(EntityNotFoundException::new).getStockNumber());
+        assertEquals(95, itemRepository.findById(otherItem.getId()).orElseThrow(EntityNotFoundException::new).getStockNumber());
+        assertEquals(0, stockJournalRepository.count());
+    }
+
+}
@@ -1,7 +1,10 @@
 package com.shop.service;
 
+import com.shop.constant.Bank;
+import com.shop.constant.NoticeType;
 import com.shop.dto.MemberFormDto;
 import com.shop.entity.Member;
+import com.shop.repository.MemberIdentityCache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,8 +13,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @Transactional
@@ -24,6 +26,9 @@ class MemberServiceTest {
     @Autowired
     PasswordEncoder passwordEncoder;
 
+    @Autowired
+    MemberIdentityCache memberIdentityCache;
+
     public Member createMember() {
         MemberFormDto memberFormDto = new MemberFormDto();
         memberFormDto.setEmail("test@email.com");
@@ -58,4 +63,23 @@ class MemberServiceTest {
         assertEquals("이미 가입된 회원입니다.", e.getMessage());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("이메일 → 회원 아이디 캐시 테스트")
+    public void memberIdentityCacheTest() {
+        Member member = createMember();
+        member.setAddressDetail("101호");
+        member.setPhone("01012345678");
+        member.setRefundBank(Bank.IBK);
+        member.setRefundAccount("1234");
+        member.setNoticeType(NoticeType.EMAIL);
+
+        Member savedMember = memberService.saveMember(member);
+
+        assertEquals(savedMember.getId(), memberIdentityCache.getMemberId(savedMember.getEmail()));
+        assertEquals(savedMember.getRole(), memberIdentityCache.get(savedMember.getEmail()).getRole());
+        assertEquals(savedMember.getId(), memberIdentityCache.getReference(savedMember.getEmail()).getId());
+        assertEquals(savedMember.getPoint(), memberService.getPointByEmail(savedMember.getEmail()));
+        assertNull(memberIdentityCache.getMemberId("none@email.com"));
+    }
+
+}
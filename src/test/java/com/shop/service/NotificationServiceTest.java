@@ -0,0 +1,147 @@
+package com.shop.service;
+
+import com.shop.constant.NoticeType;
+import com.shop.constant.NotificationStatus;
+import com.shop.entity.NotificationOutbox;
+import com.shop.repository.EmailNoticeRepository;
+import com.shop.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations="classpath:application-test.properties")
+class NotificationServiceTest {
+
+    @Autowired
+    NotificationService notificationService;
+
+    @Autowired
+    NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    NotificationOutboxRepository notificationOutboxRepository;
+
+    @Autowired
+    EmailNoticeRepository emailNoticeRepository;
+
+    @Autowired
+    FakeNotificationSender fakeNotificationSender;
+
+    @PersistenceContext
+    EntityManager em;
+
+    // 수신자가 fail 로 시작하면 발송 실패
+    public static class FakeNotificationSender implements NotificationSender {
+
+        private final List<String> recipients = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(NotificationOutbox notification) {
+            if(notification.getRecipient().startsWith("fail")) {
+                throw new IllegalStateException("발송 실패");
+            }
+
+            recipients.add(notification.getRecipient());
+        }
+
+    }
+
+    @TestConfiguration
+    static class FakeNotificationSenderConfig {
+
+        @Bean
+        @Primary
+        public FakeNotificationSender fakeNotificationSender() {
+            return new FakeNotificationSender();
+        }
+
+    }
+
+    @BeforeEach
+    public void setUp() {
+        fakeNotificationSender.recipients.clear();
+    }
+
+    public NotificationOutbox getNotification(Long notificationId) {
+        em.flush();
+        em.clear();
+
+        return notificationOutboxRepository.findById(notificationId).orElseThrow(EntityNotFoundException::new);
+    }
+
+    @Test
+    @DisplayName("알림 저장 / 발송 테스트")
+    public void dispatchTest() {
+        long emailNoticeCount = emailNoticeRepository.count();
+
+        notificationService.enqueue(NoticeType.EMAIL, "test@test.com", "제목", "내용");
+
+        NotificationOutbox notification = notificationOutboxRepository.findAll().get(0);
+
+        // 저장 시점에는 발송하지 않음
+        assertEquals(NotificationStatus.PENDING, notification.getStatus());
+        assertTrue(fakeNotificationSender.recipients.isEmpty());
+
+        notificationDispatcher.dispatch();
+
+        NotificationOutbox sentNotification = this.getNotification(notification.getId());
+
+        assertEquals(NotificationStatus.SENT, sentNotification.getStatus());
+        assertNotNull(sentNotification.getSentTime());
+        assertEquals(1, fakeNotificationSender.recipients.size());
+        assertEquals(emailNoticeCount + 1, emailNoticeRepository.count());
+    }
+
+    @Test
+    @DisplayName("알림 발송 실패 재시도 테스트")
+    public void retryTest() {
+        notificationService.enqueue(NoticeType.SMS, "fail-01012345678", null, "내용");
+
+        Long notificationId = notificationOutboxRepository.findAll().get(0).getId();
+
+        notificationDispatcher.dispatch();
+
+        NotificationOutbox notification = this.getNotification(notificationId);
+
+        assertEquals(NotificationStatus.PENDING, notification.getStatus());
+        assertEquals(1, notification.getAttemptCount());
+        assertTrue(notification.getNextAttemptTime().isAfter(LocalDateTime.now()));
+
+        // 재시도 시각 전에는 다시 발송하지 않음
+        notificationDispatcher.dispatch();
+
+        assertEquals(1, this.getNotification(notificationId).getAttemptCount());
+
+        for(int i = 0; i < 10; i++) {
+            notification = this.getNotification(notificationId);
+            notification.setNextAttemptTime(LocalDateTime.now().minusSeconds(1));
+
+            notificationDispatcher.dispatch();
+        }
+
+        notification = this.getNotification(notificationId);
+
+        assertEquals(NotificationStatus.FAILED, notification.getStatus());
+        assertEquals(5, notification.getAttemptCount());
+        assertNotNull(notification.getLastError());
+    }
+
+}
@@ -1,30 +1,64 @@
 package com.shop.service;
 
+import com.shop.constant.Bank;
+import com.shop.constant.GiftStatus;
 import com.shop.constant.ItemSellStatus;
+import com.shop.constant.NoticeType;
 import com.shop.constant.OrderStatus;
+import com.shop.constant.PointReason;
+import com.shop.constant.ReturnConfirmStatus;
+import com.shop.constant.ReturnStatus;
+import com.shop.constant.Role;
 import com.shop.dto.OrderDto;
+import com.shop.dto.OrderHistDto;
+import com.shop.dto.OrderItemDto;
+import com.shop.entity.Category;
 import com.shop.entity.Item;
 import com.shop.entity.Member;
 import com.shop.entity.Order;
 import com.shop.entity.OrderItem;
+import com.shop.entity.PointLedger;
+import com.shop.entity.StockJournal;
+import com.shop.repository.CategoryRepository;
 import com.shop.repository.ItemRepository;
 import com.shop.repository.MemberRepository;
+import com.shop.repository.OrderArchiveRepository;
 import com.shop.repository.OrderRepository;
+import com.shop.repository.PointLedgerRepository;
+import com.shop.repository.StockJournalRepository;
+import com.shop.repository.StockReservation;
+import com.shop.util.TransactionUtils;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @Transactional
 @TestPropertySource(locations="classpath:application-test.properties")
+@Import(StatementCounter.Config.class)
 class OrderServiceTest {
 
     @Autowired
@@ -39,6 +73,33 @@ class OrderServiceTest {
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    StatementCounter statementCounter;
+
+    @Autowired
+    PointService pointService;
+
+    @Autowired
+    PointLedgerRepository pointLedgerRepository;
+
+    @Autowired
+    OrderArchiveService orderArchiveService;
+
+    @Autowired
+    OrderArchiveRepository orderArchiveRepository;
+
+    @Autowired
+    StockReservation stockReservation;
+
+    @Autowired
+    StockJournalRepository stockJournalRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
     public Item saveItem() {
         Item item = new Item();
         item.setItemNm("테스트 상품");
@@ -50,6 +111,16 @@ class OrderServiceTest {
         return itemRepository.save(item);
     }
 
+    // item.stock_number 에 아직 반영되지 않은 재고 변경 합계
+    public int sumStockJournal(Long itemId) {
+        em.flush();
+
+        return stockJournalRepository.findAll().stream()
+                .filter(stockJournal -> stockJournal.getItemId().equals(itemId))
+                .mapToInt(StockJournal::getDelta)
+                .sum();
+    }
+
     public Member saveMember() {
         Member member = new Member();
         member.setEmail("test@test.com");
@@ -93,10 +164,323 @@ class OrderServiceTest {
 
         Order order = orderRepository.findById(orderId).orElseThrow(EntityNotFoundException::new);
 
+        assertEquals(90, stockReservation.getStockNumber(item.getId()));
+        assertEquals(-10, this.sumStockJournal(item.getId()));
+
         orderService.cancelOrder(orderId);
 
         assertEquals(OrderStatus.CANCEL, order.getOrderStatus());
-        assertEquals(100, item.getStockNumber());
+        assertEquals(0, this.sumStockJournal(item.getId()));
+
+        // 남은 재고는 취소가 커밋된 뒤에 복구 (테스트 트랜잭션은 롤백)
+        assertEquals(90, stockReservation.getStockNumber(item.getId()));
+    }
+
+    public Member saveOrderMember(String email) {
+        Member member = new Member();
+        member.setName("테스트");
+        member.setEmail(email);
+        member.setAddress("서울시");
+        member.setAddressDetail("101호");
+        member.setRefundBank(Bank.IBK);
+        member.setRefundAccount("1234");
+        member.setRole(Role.USER);
+        member.setPhone("01012345678");
+        member.setNoticeType(NoticeType.EMAIL);
+
+        return memberRepository.save(member);
+    }
+
+    public Item saveOrderItem() {
+        Category category = new Category();
+        category.setCateCode(1L);
+        category.setCateName("테스트 카테고리");
+        categoryRepository.save(category);
+
+        Item item = this.saveItem();
+        item.setCategory(category);
+        item.setShippingFee(3000);
+        item.setRepImgUrl("/images/item/test.jpg");
+
+        return item;
+    }
+
+    // 주문 상품 1건짜리 주문을 orderCount 개 저장
+    public List<Order> saveOrders(Member member, Item item, int orderCount) {
+        List<Order> orders = new ArrayList<>();
+        LocalDateTime orderDate = LocalDateTime.now();
+
+        for(int i = 0; i < orderCount; i++) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setItem(item);
+            orderItem.setOrderPrice(item.getPrice());
+            orderItem.setCount(i % 3 + 1);
+
+            Order order = new Order();
+            order.setMember(member);
+            order.setOrderStatus(OrderStatus.ORDER);
+            order.setOrderDate(orderDate.minusMinutes(i));
+            order.setGiftStatus(GiftStatus.BUY);
+            order.setAddress(member.getAddress() + " " + member.getAddressDetail());
+            order.addOrderItem(orderItem);
+
+            orders.add(order);
+        }
+
+        return orderRepository.saveAll(orders);
+    }
+
+    @Test
+    @DisplayName("주문 내역 조회 쿼리 수 테스트")
+    public void getOrderListStatementCount() {
+        Item item = this.saveOrderItem();
+
+        Member member = this.saveOrderMember("history@test.com");
+
+        this.saveOrders(member, item, 1000);
+
+        em.flush();
+        em.clear();
+
+        for(int page : new int[] {0, 125, 249}) {
+            statementCounter.start();
+
+            Page<OrderHistDto> orderHistDtos = orderService.getOrderList(member.getEmail(), PageRequest.of(page, 4));
+
+            int statements = statementCounter.stop();
+
+            // 주문 / 주문 상품 / 전체 건수 (첫 페이지, 마지막 페이지는 전체 건수 조회 생략)
+            assertTrue(statements <= 3);
+            assertEquals(1000, orderHistDtos.getTotalElements());
+            assertEquals(4, orderHistDtos.getContent().size());
+
+            for(OrderHistDto orderHistDto : orderHistDtos.getContent()) {
+                assertEquals(1, orderHistDto.getOrderItemDtoList().size());
+
+                OrderItemDto orderItemDto = orderHistDto.getOrderItemDtoList().get(0);
+
+                assertEquals(orderHistDto.getOrderId(), orderItemDto.getOrderId());
+                assertEquals("/images/item/test.jpg", orderItemDto.getImgUrl());
+                assertEquals(orderItemDto.getOrderPrice() * orderItemDto.getCount() + 3000, orderHistDto.getTotalPrice());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("반품 확인 일괄 처리 테스트")
+    public void confirmReturns() {
+        Item item = this.saveOrderItem();
+        Member member = this.saveOrderMember("return@test.com");
+        int point = member.getPoint();
+
+        List<Order> orders = this.saveOrders(member, item, 4);
+
+        for(Order order : orders) {
+            order.setUsedPoint(500);
+            order.setAccPoint(100);
+        }
+
+        orderService.requestReturn(orders.get(0));
+        orderService.requestReturn(orders.get(1));
+        orderService.requestReturn(orders.get(2));
+        orders.get(2).setReturnStatus(ReturnStatus.Y);
+
+        em.flush();
+        em.clear();
+
+        List<Long> orderIds = Arrays.asList(orders.get(0).getId(), orders.get(1).getId(), orders.get(2).getId(), orders.get(3).getId(), -1L);
+
+        Map<Long, ReturnConfirmStatus> results = orderService.confirmReturns(orderIds);
+
+        assertEquals(new ArrayList<>(orderIds), new ArrayList<>(results.keySet()));
+        assertEquals(ReturnConfirmStatus.CONFIRMED, results.get(orders.get(0).getId()));
+        assertEquals(ReturnConfirmStatus.CONFIRMED, results.get(orders.get(1).getId()));
+        assertEquals(ReturnConfirmStatus.ALREADY_CONFIRMED, results.get(orders.get(2).getId()));
+        assertEquals(ReturnConfirmStatus.NOT_REQUESTED, results.get(orders.get(3).getId()));
+        assertEquals(ReturnConfirmStatus.NOT_FOUND, results.get(-1L));
+
+        Order order = orderRepository.findById(orders.get(0).getId()).orElseThrow(EntityNotFoundException::new);
+
+        assertEquals(ReturnStatus.Y, order.getReturnStatus());
+        assertNotNull(order.getReturnConfirmDate());
+        assertEquals(ReturnStatus.Y, order.getOrderItems().get(0).getReturnStatus());
+        assertEquals(order.getOrderItems().get(0).getCount(), order.getOrderItems().get(0).getReturnCount());
+        assertEquals(OrderStatus.ORDER, orderRepository.findById(orders.get(3).getId()).orElseThrow(EntityNotFoundException::new).getOrderStatus());
+
+        // 확인된 주문 2건의 포인트 회수를 합산해 한 번에 반영
+        assertEquals(point + 2 * (500 - 100), memberRepository.findById(member.getId()).orElseThrow(EntityNotFoundException::new).getPoint());
+
+        // 다시 확인하면 처리하지 않음
+        assertEquals(ReturnConfirmStatus.ALREADY_CONFIRMED, orderService.confirmReturns(orderIds).get(orders.get(0).getId()));
+    }
+
+    @Test
+    @DisplayName("회원별 반품 내역 / 관리자 반품 목록 조회 테스트")
+    public void getReturnList() {
+        Item item = this.saveOrderItem();
+        Member member = this.saveOrderMember("return-hist@test.com");
+        Member otherMember = this.saveOrderMember("return-other@test.com");
+
+        List<Order> orders = this.saveOrders(member, item, 5);
+        List<Order> otherOrders = this.saveOrders(otherMember, item, 2);
+
+        for(int i = 0; i < 4; i++) {
+            orderService.requestReturn(orders.get(i));
+        }
+
+        orders.get(3).setReturnStatus(ReturnStatus.Y);
+        otherOrders.forEach(orderService::requestReturn);
+
+        em.flush();
+        em.clear();
+
+        // 회원 본인의 반품 주문만 조회
+        Page<OrderHistDto> returns = orderService.getReturnList(member.getEmail(), PageRequest.of(0, 3));
+
+        assertEquals(4, returns.getTotalElements());
+        assertEquals(orders.get(0).getId(), returns.getContent().get(0).getOrderId());
+        assertEquals(1, returns.getContent().get(0).getOrderItemDtoList().size());
+        assertEquals(2, orderService.getReturnList(otherMember.getEmail(), PageRequest.of(0, 3)).getTotalElements());
+        assertTrue(orderService.getReturnList("none@test.com", PageRequest.of(0, 3)).isEmpty());
+
+        // 관리자 목록은 주문 아이디 내림차순으로 다음 목록을 이어서 조회
+        List<Long> returnOrderIds = new ArrayList<>();
+        Long lastOrderId = null;
+        Slice<OrderHistDto> slice;
+
+        do {
+            slice = orderService.getReturnMngList(ReturnStatus.N, lastOrderId, 2);
+
+            for(OrderHistDto orderHistDto : slice.getContent()) {
+                returnOrderIds.add(orderHistDto.getOrderId());
+            }
+
+            lastOrderId = returnOrderIds.get(returnOrderIds.size() - 1);
+        } while(slice.hasNext());
+
+        List<Long> expectedOrderIds = new ArrayList<>();
+
+        for(Order order : Arrays.asList(otherOrders.get(0), otherOrders.get(1), orders.get(0), orders.get(1), orders.get(2))) {
+            expectedOrderIds.add(order.getId());
+        }
+
+        expectedOrderIds.sort(Comparator.reverseOrder());
+        returnOrderIds.retainAll(expectedOrderIds);
+
+        assertEquals(expectedOrderIds, returnOrderIds);
+        assertFalse(orderService.getReturnMngList(ReturnStatus.Y, null, 10).getContent().stream()
+                .anyMatch(orderHistDto -> orderHistDto.getReturnStatus() != ReturnStatus.Y));
+    }
+
+    @Test
+    @DisplayName("주문 / 취소 포인트 내역 테스트")
+    public void orderPointLedger() {
+        Item item = this.saveOrderItem();
+        Member member = this.saveOrderMember("point@test.com");
+        int point = member.getPoint();
+
+        OrderDto orderDto = new OrderDto();
+        orderDto.setCount(1);
+        orderDto.setItemId(item.getId());
+        orderDto.setUsedPoint(500);
+        orderDto.setGiftStatus(GiftStatus.BUY);
+
+        Long orderId = orderService.order(orderDto, member.getEmail());
+
+        em.flush();
+        em.clear();
+
+        Order order = orderRepository.findById(orderId).orElseThrow(EntityNotFoundException::new);
+        int delta = order.getAccPoint() - 500;
+
+        assertEquals(point + delta, memberRepository.findById(member.getId()).orElseThrow(EntityNotFoundException::new).getPoint());
+        assertEquals(point + delta, pointService.getPoint(member.getEmail()));
+        assertEquals(delta, pointService.getLedgerSum(member.getId()));
+
+        assertEquals(-1, this.sumStockJournal(item.getId()));
+
+        int stockNumber = stockReservation.getStockNumber(item.getId());
+
+        orderService.cancelOrder(orderId);
+        orderService.cancelOrder(orderId);
+
+        // 두 번 취소해도 재고는 한 번만 복구 (저널 +1 한 건, 남은 재고는 커밋된 뒤에 복구)
+        assertEquals(0, this.sumStockJournal(item.getId()));
+        assertEquals(2, stockJournalRepository.findAll().stream().filter(stockJournal -> stockJournal.getItemId().equals(item.getId())).count());
+        assertEquals(stockNumber, stockReservation.getStockNumber(item.getId()));
+
+        em.flush();
+        em.clear();
+
+        // 두 번 취소해도 한 번만 환급
+        List<PointLedger> pointLedgers = pointLedgerRepository.findByOrderIdOrderByIdAsc(orderId);
+
+        assertEquals(2, pointLedgers.size());
+        assertEquals(PointReason.ORDER, pointLedgers.get(0).getReason());
+        assertEquals(PointReason.CANCEL, pointLedgers.get(1).getReason());
+        assertEquals(point, memberRepository.findById(member.getId()).orElseThrow(EntityNotFoundException::new).getPoint());
+        assertEquals(0, pointService.getLedgerSum(member.getId()));
+
+        // 잔액보다 많은 포인트 사용
+        orderDto.setUsedPoint(point + 1);
+
+        assertThrows(IllegalStateException.class, () -> orderService.order(orderDto, member.getEmail()));
+    }
+
+    @Test
+    @DisplayName("보관 주문 내역 조회 테스트")
+    public void getOrderListWithArchive() {
+        Item item = this.saveOrderItem();
+        Member member = this.saveOrderMember("archive@test.com");
+
+        List<Order> orders = this.saveOrders(member, item, 10);
+        LocalDateTime oldOrderDate = LocalDateTime.now().minusDays(400);
+
+        // 6 ~ 9 번째 주문은 보관 대상 (리뷰를 작성한 7 번째 주문은 주문 테이블에 남김)
+        for(int i = 6; i < 10; i++) {
+            orders.get(i).setOrderDate(oldOrderDate.minusMinutes(i));
+        }
+
+        orders.get(7).getOrderItems().get(0).setReviewYn("Y");
+
+        em.flush();
+        em.clear();
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(365);
+
+        assertEquals(2, orderArchiveService.archiveChunk(cutoff, 2));
+        assertEquals(1, orderArchiveService.archiveChunk(cutoff, 2));
+        assertEquals(0, orderArchiveService.archiveChunk(cutoff, 2));
+        assertFalse(orderRepository.findById(orders.get(6).getId()).isPresent());
+
+        orderArchiveRepository.refreshArchivedUntil();
+
+        // 테스트 롤백 후 보관 주문이 없어진 상태로 다시 읽음
+        TransactionUtils.afterRollback(orderArchiveRepository::refreshArchivedUntil);
+
+        List<Long> orderIds = new ArrayList<>();
+
+        for(int page = 0; page < 3; page++) {
+            Page<OrderHistDto> orderHistDtos = orderService.getOrderList(member.getEmail(), PageRequest.of(page, 4));
+
+            assertEquals(10, orderHistDtos.getTotalElements());
+
+            for(OrderHistDto orderHistDto : orderHistDtos.getContent()) {
+                orderIds.add(orderHistDto.getOrderId());
+
+                assertEquals(1, orderHistDto.getOrderItemDtoList().size());
+                assertEquals("/images/item/test.jpg", orderHistDto.getOrderItemDtoList().get(0).getImgUrl());
+            }
+        }
+
+        // 주문 테이블 / 보관 테이블과 관계없이 주문 일시 순서
+        List<Long> expectedOrderIds = new ArrayList<>();
+
+        for(Order order : orders) {
+            expectedOrderIds.add(order.getId());
+        }
+
+        assertEquals(expectedOrderIds, orderIds);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,158 @@
+package com.shop.service;
+
+import com.shop.constant.Bank;
+import com.shop.constant.NoticeType;
+import com.shop.constant.PointReason;
+import com.shop.constant.Role;
+import com.shop.entity.Member;
+import com.shop.entity.Order;
+import com.shop.entity.PointLedger;
+import com.shop.repository.MemberRepository;
+import com.shop.repository.PointLedgerRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.PersistenceContext;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations="classpath:application-test.properties")
+class PointServiceTest {
+
+    @Autowired
+    PointService pointService;
+
+    @Autowired
+    MemberService memberService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PointLedgerRepository pointLedgerRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    // 포인트 내역 없이 잔액만 있는 회원 (내역 도입 이전 회원)
+    public Member saveMember(String email, int point) {
+        Member member = new Member();
+        member.setName("테스트");
+        member.setEmail(email);
+        member.setAddress("서울시");
+        member.setAddressDetail("101호");
+        member.setRefundBank(Bank.IBK);
+        member.setRefundAccount("1234");
+        member.setRole(Role.USER);
+        member.setPhone("01012345678");
+        member.setNoticeType(NoticeType.EMAIL);
+        member.setPoint(point);
+
+        return memberRepository.save(member);
+    }
+
+    void recordOpeningBalances() {
+        Long lastId = 0L;
+
+        while(lastId != null) {
+            lastId = pointService.recordOpeningBalances(lastId, 2);
+        }
+
+        em.flush();
+        em.clear();
+    }
+
+    void assertLedgerSum(Member member) {
+        int point = memberRepository.findById(member.getId()).orElseThrow(EntityNotFoundException::new).getPoint();
+
+        assertEquals(point, pointService.getLedgerSum(member.getId()));
+    }
+
+    @Test
+    @DisplayName("포인트 시작 잔액 이전 후 내역 합계와 잔액 일치 테스트")
+    public void recordOpeningBalancesTest() {
+        Member member = this.saveMember("opening1@test.com", 3000);
+        Member zeroMember = this.saveMember("opening2@test.com", 0);
+        Member orderedMember = this.saveMember("opening3@test.com", 1000);
+
+        // 이전 전에 포인트를 사용한 회원 (잔액 1000 중 500 은 내역 도입 후 사용)
+        pointService.applyAll(Arrays.asList(PointLedger.createPointLedger(orderedMember, 1L, -500, PointReason.ORDER)));
+
+        em.flush();
+        em.clear();
+
+        this.recordOpeningBalances();
+
+        this.assertLedgerSum(member);
+        this.assertLedgerSum(zeroMember);
+        this.assertLedgerSum(orderedMember);
+
+        assertTrue(pointLedgerRepository.findAll().stream().noneMatch(pointLedger ->
+                pointLedger.getReason() == PointReason.OPENING && pointLedger.getDelta() == 0));
+
+        // 다시 실행해도 추가되는 내역 없음
+        long count = pointLedgerRepository.count();
+
+        this.recordOpeningBalances();
+
+        assertEquals(count, pointLedgerRepository.count());
+        this.assertLedgerSum(orderedMember);
+    }
+
+    @Test
+    @DisplayName("포인트 변경 후 같은 트랜잭션에서 읽은 회원 포인트 테스트")
+    public void refreshPointTest() {
+        Member member = this.saveMember("refresh@test.com", 3000);
+
+        Order order = new Order();
+        order.setMember(member);
+        order.setUsedPoint(500);
+        order.setAccPoint(100);
+
+        pointService.useOrderPoint(order, member.getEmail());
+
+        // 이미 읽어 둔 회원도 update 쿼리로 바뀐 포인트
+        assertEquals(2600, member.getPoint());
+
+        pointService.cancelOrderPoint(order);
+
+        assertEquals(3000, member.getPoint());
+
+        pointService.applyAll(Arrays.asList(PointLedger.createPointLedger(member, null, -1000, PointReason.ORDER)));
+
+        assertEquals(2000, member.getPoint());
+        assertEquals(2000, memberRepository.findById(member.getId()).orElseThrow(EntityNotFoundException::new).getPoint());
+    }
+
+    @Test
+    @DisplayName("회원 가입 시 지급한 포인트 시작 잔액 기록 테스트")
+    public void saveMemberOpeningBalanceTest() {
+        Member member = new Member();
+        member.setName("테스트");
+        member.setEmail("opening4@test.com");
+        member.setAddress("서울시");
+        member.setRole(Role.USER);
+
+        Member savedMember = memberService.saveMember(member);
+
+        em.flush();
+        em.clear();
+
+        List<PointLedger> pointLedgers = pointLedgerRepository.findAll();
+
+        assertTrue(pointLedgers.stream().anyMatch(pointLedger ->
+                pointLedger.getReason() == PointReason.OPENING && pointLedger.getMember().getId().equals(savedMember.getId())));
+        this.assertLedgerSum(savedMember);
+    }
+
+}
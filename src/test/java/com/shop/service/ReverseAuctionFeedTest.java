@@ -0,0 +1,203 @@
+package com.shop.service;
+
+import com.shop.repository.ReverseAuctionTimeline;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReverseAuctionFeedTest {
+
+    // 보낸 이벤트를 문자열로 기록 (fail 이면 보내기 실패)
+    static class RecordingEmitter extends SseEmitter {
+
+        final List<String> messages = new CopyOnWriteArrayList<>();
+
+        final boolean fail;
+
+        RecordingEmitter(boolean fail) {
+            this.fail = fail;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if(fail) {
+                throw new IOException("연결 끊김");
+            }
+
+            StringBuilder sb = new StringBuilder();
+
+            for(ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                sb.append(data.getData());
+            }
+
+            messages.add(sb.toString());
+        }
+
+        void await(int count) throws InterruptedException {
+            for(int i = 0; i < 200 && messages.size() < count; i++) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(count, messages.size());
+        }
+
+    }
+
+    // 보내기가 release 될 때까지 멈추는 연결
+    static class StalledEmitter extends SseEmitter {
+
+        final CountDownLatch started = new CountDownLatch(1);
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        volatile Throwable error;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            started.countDown();
+
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            throw new IOException("연결 끊김");
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            this.error = ex;
+            release.countDown();
+        }
+
+    }
+
+    ReverseAuctionTimeline createTimeline(LocalDateTime startTime) {
+        ReverseAuctionTimeline timeline = new ReverseAuctionTimeline(1000);
+
+        // 1시간마다 1000원 할인, 3시간 뒤 종료
+        timeline.register(new ReverseAuctionTimeline.Schedule(1L, startTime, 10000, 1, 1000, startTime.plusHours(3)), startTime);
+        timeline.register(new ReverseAuctionTimeline.Schedule(2L, startTime, 20000, 1, 1000, startTime.plusHours(3)), startTime);
+
+        return timeline;
+    }
+
+    @Test
+    @DisplayName("역경매 가격 구독 전달 테스트")
+    public void broadcastTest() throws InterruptedException {
+        LocalDateTime startTime = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        ReverseAuctionTimeline timeline = this.createTimeline(startTime);
+
+        ReverseAuctionFeed feed = new ReverseAuctionFeed(timeline, 1, 60000, 60000);
+        feed.start();
+
+        RecordingEmitter first = new RecordingEmitter(false);
+        RecordingEmitter second = new RecordingEmitter(false);
+
+        feed.subscribe(first, Arrays.asList(1L, 2L));
+        feed.subscribe(second, Collections.singletonList(2L));
+
+        // 구독하면 현재 가격부터 받음
+        first.await(2);
+        second.await(1);
+
+        assertTrue(first.messages.get(0).contains("\"id\":1,\"status\":\"PROGRESS\",\"currentPrice\":10000"));
+        assertTrue(second.messages.get(0).contains("\"id\":2,\"status\":\"PROGRESS\",\"currentPrice\":20000"));
+
+        timeline.publish(timeline.advance(startTime.plusHours(1)));
+
+        first.await(4);
+        second.await(2);
+
+        assertTrue(second.messages.get(1).contains("\"currentPrice\":19000,\"discountPrice\":1000,\"discountRate\":5"));
+
+        timeline.sold(1L);
+
+        first.await(5);
+
+        assertTrue(first.messages.get(4).contains("\"id\":1,\"status\":\"SOLD\""));
+        assertEquals(2, second.messages.size());
+
+        feed.stop();
+    }
+
+    @Test
+    @DisplayName("끊긴 구독 정리 테스트")
+    public void closeTest() throws InterruptedException {
+        LocalDateTime startTime = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        ReverseAuctionTimeline timeline = this.createTimeline(startTime);
+
+        ReverseAuctionFeed feed = new ReverseAuctionFeed(timeline, 1, 60000, 60000);
+        feed.start();
+
+        RecordingEmitter alive = new RecordingEmitter(false);
+        RecordingEmitter broken = new RecordingEmitter(true);
+
+        feed.subscribe(alive, Collections.singletonList(1L));
+        feed.subscribe(broken, Collections.singletonList(1L));
+
+        alive.await(1);
+
+        for(int i = 0; i < 200 && feed.getConnectionCount() > 1; i++) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, feed.getConnectionCount());
+
+        // 한 번에 구독할 수 있는 역경매 수 제한
+        Long[] ids = new Long[51];
+        Arrays.setAll(ids, i -> (long) i);
+
+        assertThrows(IllegalStateException.class, () -> feed.subscribe(new RecordingEmitter(false), Arrays.asList(ids)));
+
+        feed.stop();
+    }
+
+    @Test
+    @DisplayName("전송이 멈춘 연결 정리 테스트")
+    public void dropStalledTest() throws InterruptedException {
+        LocalDateTime startTime = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        ReverseAuctionTimeline timeline = this.createTimeline(startTime);
+
+        // 전송 스레드 1개, 한 번 보내는 데 500ms 까지 허용
+        ReverseAuctionFeed feed = new ReverseAuctionFeed(timeline, 1, 60000, 500);
+        feed.start();
+
+        StalledEmitter stalled = new StalledEmitter();
+        RecordingEmitter alive = new RecordingEmitter(false);
+
+        feed.subscribe(stalled, Collections.singletonList(1L));
+        feed.subscribe(alive, Collections.singletonList(1L));
+
+        assertTrue(stalled.started.await(5, TimeUnit.SECONDS));
+
+        // 아직 시간 초과 전
+        assertEquals(0, feed.dropStalled());
+
+        Thread.sleep(600);
+
+        assertEquals(1, feed.dropStalled());
+        assertEquals(1, feed.getConnectionCount());
+        assertNotNull(stalled.error);
+
+        // 멈춘 연결이 끊기면 전송 스레드가 다른 연결에 계속 보냄
+        alive.await(1);
+
+        feed.stop();
+    }
+
+}
@@ -2,9 +2,15 @@ package com.shop.service;
 
 import com.shop.constant.ItemSellStatus;
 import com.shop.constant.ReverseAuctionSearchSortColumn;
+import com.shop.constant.ReverseAuctionStatus;
 import com.shop.dto.*;
+import com.shop.entity.Category;
+import com.shop.entity.Item;
 import com.shop.entity.ReverseAuction;
 import com.shop.mapstruct.ReverseAuctionFormMapper;
+import com.shop.repository.CategoryRepository;
+import com.shop.repository.ItemRepository;
+import com.shop.repository.ReverseAuctionRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +24,8 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -41,6 +49,18 @@ class ReverseAuctionServiceTest {
     @Autowired
     ReverseAuctionFormMapper reverseAuctionFormMapper;
 
+    @Autowired
+    ReverseAuctionRepository reverseAuctionRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
     List<MultipartFile> createMultipartFiles() {
         List<MultipartFile> multipartFileList = new ArrayList<>();
 
@@ -225,4 +245,52 @@ class ReverseAuctionServiceTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("역경매 종료 시간 / 종료 처리 테스트")
+    public void endReverseAuctionTest() {
+        Category category = new Category();
+        category.setCateCode(1L);
+        category.setCateName("테스트 카테고리");
+        categoryRepository.save(category);
+
+        Item item = new Item();
+        item.setItemNm("테스트 상품");
+        item.setPrice(10000);
+        item.setItemDetail("테스트 상품 상세 설명");
+        item.setItemSellStatus(ItemSellStatus.SELL);
+        item.setStockNumber(100);
+        item.setShippingFee(0);
+        item.setCategory(category);
+        itemRepository.save(item);
+
+        ReverseAuctionFormDto reverseAuctionFormDto = new ReverseAuctionFormDto();
+        reverseAuctionFormDto.setPriceUnit(1000);
+        reverseAuctionFormDto.setTimeUnit(1);
+        reverseAuctionFormDto.setMaxRate(50);
+        reverseAuctionFormDto.setItemId(item.getId());
+
+        ReverseAuction reverseAuction = reverseAuctionService.saveReverseAuction(reverseAuctionFormDto);
+
+        // 5시간까지는 할인율 50% 이하, 6시간째에 종료
+        assertEquals(reverseAuction.getStartTime().plusHours(6), reverseAuction.getEndTime());
+        assertEquals(ReverseAuctionStatus.PROGRESS, reverseAuction.getStatus());
+
+        ReverseAuctionSearchDto reverseAuctionSearchDto = new ReverseAuctionSearchDto();
+        reverseAuctionSearchDto.setSortColumn(ReverseAuctionSearchSortColumn.REG_TIME);
+        reverseAuctionSearchDto.setSortDirection(Sort.Direction.DESC);
+
+        Pageable pageable = PageRequest.of(0, 5);
+
+        assertEquals(1, reverseAuctionService.getUserReverseAuctionPage(reverseAuctionSearchDto, pageable).getContent().size());
+
+        reverseAuction.setEndTime(LocalDateTime.now().minusMinutes(1));
+        em.flush();
+
+        reverseAuctionService.endReverseAuctions();
+        em.clear();
+
+        assertEquals(ReverseAuctionStatus.END, reverseAuctionRepository.findById(reverseAuction.getId()).get().getStatus());
+        assertTrue(reverseAuctionService.getUserReverseAuctionPage(reverseAuctionSearchDto, pageable).getContent().isEmpty());
+    }
+
+}
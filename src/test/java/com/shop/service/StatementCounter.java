@@ -0,0 +1,54 @@
+package com.shop.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 테스트 스레드에서 실행된 SQL 중 insert 와 시퀀스 조회를 제외한 문장 수
+public class StatementCounter implements StatementInspector {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    private volatile Thread thread;
+
+    public void start() {
+        count.set(0);
+        thread = Thread.currentThread();
+    }
+
+    public int stop() {
+        thread = null;
+
+        return count.get();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        String statement = sql.trim().toLowerCase();
+
+        if(Thread.currentThread() == thread && !statement.startsWith("insert") && !statement.contains("next value for")) {
+            count.incrementAndGet();
+        }
+
+        return sql;
+    }
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        public StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+
+        @Bean
+        public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+            return hibernateProperties -> hibernateProperties.put("hibernate.session_factory.statement_inspector", statementCounter);
+        }
+
+    }
+
+}